@@ -34,10 +34,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import javax.script.Bindings;
+import javax.script.CompiledScript;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
-import javax.script.ScriptEngineManager;
+import javax.script.SimpleScriptContext;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.annotation.PublicAPI;
@@ -266,17 +267,35 @@ public abstract class Script<E> implements Serializable {
      * @return a ScriptResult object.
      */
     public ScriptResult<E> execute(Map<String, Object> aBindings, PrintStream outputSink, PrintStream errorSink) {
-        ScriptEngine engine = createScriptEngine();
+        ScriptEngineFactory factory = ScriptEngineRegistry.getInstance().getEngineFactory(scriptEngineLookup);
 
-        if (engine == null)
+        if (factory == null)
             return new ScriptResult<>(new Exception("No Script Engine Found for name or extension " +
                                                     scriptEngineLookup));
 
+        // shared compiled script when the engine supports it, a new engine evaluating the script otherwise
+        CompiledScript compiledScript;
+        ScriptEngine engine;
+        ScriptContext context;
+        try {
+            compiledScript = ScriptEngineRegistry.getInstance().getCompiledScript(factory, script, scriptName);
+        } catch (javax.script.ScriptException e) {
+            return new ScriptResult<>(toScriptException(e));
+        }
+        if (compiledScript != null) {
+            engine = compiledScript.getEngine();
+            context = new SimpleScriptContext();
+            context.setBindings(engine.createBindings(), ScriptContext.ENGINE_SCOPE);
+        } else {
+            engine = factory.getScriptEngine();
+            context = engine.getContext();
+        }
+
         // SCHEDULING-1532: redirect script output to a buffer (keep the latest DEFAULT_OUTPUT_MAX_SIZE)
         BoundedStringWriter outputBoundedWriter = new BoundedStringWriter(outputSink, DEFAULT_OUTPUT_MAX_SIZE);
         BoundedStringWriter errorBoundedWriter = new BoundedStringWriter(errorSink, DEFAULT_OUTPUT_MAX_SIZE);
-        engine.getContext().setWriter(new PrintWriter(outputBoundedWriter));
-        engine.getContext().setErrorWriter(new PrintWriter(errorBoundedWriter));
+        context.setWriter(new PrintWriter(outputBoundedWriter));
+        context.setErrorWriter(new PrintWriter(errorBoundedWriter));
         Reader closedInput = new Reader() {
             @Override
             public int read(char[] cbuf, int off, int len) throws IOException {
@@ -288,11 +307,11 @@ public abstract class Script<E> implements Serializable {
 
             }
         };
-        engine.getContext().setReader(closedInput);
-        engine.getContext().setAttribute(ScriptEngine.FILENAME, scriptName, ScriptContext.ENGINE_SCOPE);
+        context.setReader(closedInput);
+        context.setAttribute(ScriptEngine.FILENAME, scriptName, ScriptContext.ENGINE_SCOPE);
 
         try {
-            Bindings bindings = engine.getBindings(ScriptContext.ENGINE_SCOPE);
+            Bindings bindings = context.getBindings(ScriptContext.ENGINE_SCOPE);
             //add additional bindings
             if (aBindings != null) {
                 for (Entry<String, Object> e : aBindings.entrySet()) {
@@ -300,10 +319,15 @@ public abstract class Script<E> implements Serializable {
                 }
             }
             prepareBindings(bindings);
-            Object evalResult = engine.eval(getReader());
+            Object evalResult;
+            if (compiledScript != null) {
+                evalResult = compiledScript.eval(context);
+            } else {
+                evalResult = engine.eval(getReader());
+            }
 
-            engine.getContext().getErrorWriter().flush();
-            engine.getContext().getWriter().flush();
+            context.getErrorWriter().flush();
+            context.getWriter().flush();
 
             // Add output to the script result
             ScriptResult<E> result = this.getResult(evalResult, bindings);
@@ -311,10 +335,7 @@ public abstract class Script<E> implements Serializable {
 
             return result;
         } catch (javax.script.ScriptException e) {
-            // drop exception cause as it might not be serializable
-            ScriptException scriptException = new ScriptException(e.getMessage());
-            scriptException.setStackTrace(e.getStackTrace());
-            return new ScriptResult<>(scriptException);
+            return new ScriptResult<>(toScriptException(e));
         } catch (Throwable t) {
             String stack = Throwables.getStackTraceAsString(t);
             if (t.getMessage() != null) {
@@ -324,6 +345,13 @@ public abstract class Script<E> implements Serializable {
         }
     }
 
+    private static ScriptException toScriptException(javax.script.ScriptException e) {
+        // drop exception cause as it might not be serializable
+        ScriptException scriptException = new ScriptException(e.getMessage());
+        scriptException.setStackTrace(e.getStackTrace());
+        return scriptException;
+    }
+
     /** String identifying the script.
      * @return a String identifying the script.
      */
@@ -338,20 +366,8 @@ public abstract class Script<E> implements Serializable {
 
     /** The Script Engine used to evaluate the script. */
     protected ScriptEngine createScriptEngine() {
-        for (ScriptEngineFactory factory : new ScriptEngineManager().getEngineFactories()) {
-            for (String name : factory.getNames()) {
-                if (name.equalsIgnoreCase(scriptEngineLookup)) {
-                    return factory.getScriptEngine();
-                }
-            }
-            for (String ext : factory.getExtensions()) {
-                String scriptEngineLookupLowercase = scriptEngineLookup.toLowerCase();
-                if (scriptEngineLookupLowercase.endsWith(ext.toLowerCase())) {
-                    return factory.getScriptEngine();
-                }
-            }
-        }
-        return null;
+        ScriptEngineFactory factory = ScriptEngineRegistry.getInstance().getEngineFactory(scriptEngineLookup);
+        return factory == null ? null : factory.getScriptEngine();
     }
 
     /**
@@ -0,0 +1,286 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scripting;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+
+import org.apache.log4j.Logger;
+import org.ow2.proactive.utils.PAProperties;
+
+
+/**
+ * Shared registry of the script engine factories, and cache of the compiled scripts.
+ * <p>
+ * The engine factories are discovered once per context class loader, the same way a
+ * {@link ScriptEngineManager} created in the current thread would discover them, and the
+ * factory matching a script engine lookup (engine name or file extension) is remembered.
+ * <p>
+ * Scripts of engines implementing {@link Compilable} and declaring themselves thread safe
+ * (the {@code THREADING} parameter of their factory is not {@code null}) are compiled
+ * once and kept in a bounded cache per engine, keyed by the digest of the script. A
+ * compiled script can then be evaluated concurrently with a different
+ * {@link ScriptContext} per evaluation. Scripts of the other engines are evaluated by a
+ * new engine at each execution, as before.
+ *
+ * @author ActiveEon Team
+ */
+public class ScriptEngineRegistry implements ScriptEngineRegistryMBean {
+
+    private static final Logger logger = Logger.getLogger(ScriptEngineRegistry.class);
+
+    private static final ScriptEngineRegistry instance = new ScriptEngineRegistry(PAProperties.getCompiledScriptsCacheSize());
+
+    /** Engine factories and resolved lookups by context class loader */
+    private final Map<ClassLoader, EngineLookup> lookups = new WeakHashMap<>();
+
+    /** Compiled scripts by engine factory */
+    private final Map<ScriptEngineFactory, CompiledScripts> compiledScripts = new WeakHashMap<>();
+
+    private final int maxCompiledScriptsPerEngine;
+
+    ScriptEngineRegistry(int maxCompiledScriptsPerEngine) {
+        this.maxCompiledScriptsPerEngine = maxCompiledScriptsPerEngine;
+    }
+
+    public static ScriptEngineRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Finds the engine factory whose names contain the given lookup, or whose
+     * extensions end the given lookup (ignoring case).
+     *
+     * @param scriptEngineLookup the name of the script engine or the path of a script file
+     * @return the matching engine factory, or null if none matches
+     */
+    public ScriptEngineFactory getEngineFactory(String scriptEngineLookup) {
+        if (scriptEngineLookup == null) {
+            return null;
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        EngineLookup lookup;
+        synchronized (lookups) {
+            lookup = lookups.get(classLoader);
+            if (lookup == null) {
+                lookup = new EngineLookup(new ScriptEngineManager(classLoader).getEngineFactories());
+                lookups.put(classLoader, lookup);
+            }
+        }
+        return lookup.find(scriptEngineLookup);
+    }
+
+    /**
+     * Returns the compiled form of the given script, compiling it if needed.
+     *
+     * @param factory the factory of the script engine
+     * @param script the script source code
+     * @param scriptName the name given to the compiled script
+     * @return the compiled script, or null if the engine does not support shared compiled scripts
+     * @throws ScriptException if the script cannot be compiled
+     */
+    public CompiledScript getCompiledScript(ScriptEngineFactory factory, String script, String scriptName)
+            throws ScriptException {
+        if (maxCompiledScriptsPerEngine <= 0 || factory.getParameter("THREADING") == null) {
+            return null;
+        }
+        CompiledScripts cache;
+        synchronized (compiledScripts) {
+            cache = compiledScripts.get(factory);
+            if (cache == null) {
+                cache = new CompiledScripts(factory.getEngineName(), maxCompiledScriptsPerEngine);
+                compiledScripts.put(factory, cache);
+            }
+        }
+        if (!cache.compilable) {
+            return null;
+        }
+
+        String digest = Script.digest(script);
+        CompiledScript compiled = cache.get(digest);
+        if (compiled != null) {
+            return compiled;
+        }
+
+        ScriptEngine engine = factory.getScriptEngine();
+        if (!(engine instanceof Compilable)) {
+            cache.compilable = false;
+            return null;
+        }
+        engine.getContext().setAttribute(ScriptEngine.FILENAME, scriptName, ScriptContext.ENGINE_SCOPE);
+        long start = System.nanoTime();
+        compiled = ((Compilable) engine).compile(script);
+        cache.put(digest, compiled, System.nanoTime() - start);
+        return compiled;
+    }
+
+    @Override
+    public String[] getCompiledScriptsStatistics() {
+        List<String> statistics = new ArrayList<>();
+        synchronized (compiledScripts) {
+            for (CompiledScripts cache : compiledScripts.values()) {
+                if (cache.compilable) {
+                    statistics.add(cache.toString());
+                }
+            }
+        }
+        return statistics.toArray(new String[statistics.size()]);
+    }
+
+    @Override
+    public void clear() {
+        synchronized (lookups) {
+            lookups.clear();
+        }
+        synchronized (compiledScripts) {
+            compiledScripts.clear();
+        }
+        logger.info("Script engine lookups and compiled scripts cleared");
+    }
+
+    /**
+     * Engine factories of a class loader and the factories already found by lookup.
+     */
+    private static class EngineLookup {
+
+        private final List<ScriptEngineFactory> factories;
+
+        private final ConcurrentMap<String, ScriptEngineFactory> resolved = new ConcurrentHashMap<>();
+
+        EngineLookup(List<ScriptEngineFactory> factories) {
+            this.factories = factories;
+        }
+
+        ScriptEngineFactory find(String scriptEngineLookup) {
+            ScriptEngineFactory factory = resolved.get(scriptEngineLookup);
+            if (factory == null) {
+                factory = search(scriptEngineLookup);
+                if (factory != null) {
+                    resolved.put(scriptEngineLookup, factory);
+                }
+            }
+            return factory;
+        }
+
+        private ScriptEngineFactory search(String scriptEngineLookup) {
+            String scriptEngineLookupLowercase = scriptEngineLookup.toLowerCase();
+            for (ScriptEngineFactory factory : factories) {
+                for (String name : factory.getNames()) {
+                    if (name.equalsIgnoreCase(scriptEngineLookup)) {
+                        return factory;
+                    }
+                }
+                for (String ext : factory.getExtensions()) {
+                    if (scriptEngineLookupLowercase.endsWith(ext.toLowerCase())) {
+                        return factory;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Least recently used compiled scripts of an engine, with their statistics.
+     */
+    private static class CompiledScripts {
+
+        private final String engineName;
+
+        private final Map<String, CompiledScript> scripts;
+
+        private volatile boolean compilable = true;
+
+        private final AtomicLong hits = new AtomicLong();
+
+        private final AtomicLong misses = new AtomicLong();
+
+        private final AtomicLong compilationTime = new AtomicLong();
+
+        CompiledScripts(String engineName, final int maxSize) {
+            this.engineName = engineName;
+            this.scripts = new LinkedHashMap<String, CompiledScript>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompiledScript> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        CompiledScript get(String digest) {
+            CompiledScript compiled;
+            synchronized (scripts) {
+                compiled = scripts.get(digest);
+            }
+            if (compiled != null) {
+                hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+            }
+            return compiled;
+        }
+
+        void put(String digest, CompiledScript compiled, long compilationNanos) {
+            compilationTime.addAndGet(compilationNanos);
+            synchronized (scripts) {
+                scripts.put(digest, compiled);
+            }
+        }
+
+        @Override
+        public String toString() {
+            int size;
+            synchronized (scripts) {
+                size = scripts.size();
+            }
+            long hitCount = hits.get();
+            long missCount = misses.get();
+            long total = hitCount + missCount;
+            return String.format("%s: %d compiled scripts, %d hits, %d misses, hit rate %.1f%%, mean compilation time %.2f ms",
+                                 engineName,
+                                 size,
+                                 hitCount,
+                                 missCount,
+                                 total == 0 ? 0.0 : 100.0 * hitCount / total,
+                                 missCount == 0 ? 0.0 : compilationTime.get() / 1000000.0 / missCount);
+        }
+    }
+
+}
@@ -27,6 +27,8 @@ package org.ow2.proactive.utils;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -34,18 +36,34 @@ import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
 import java.util.zip.Inflater;
 
+import org.ow2.proactive.utils.serialization.ObjectCodec;
+import org.ow2.proactive.utils.serialization.ObjectCodecRegistry;
+
 
 /**
  * Utility functions for converting object to a byte array,
  * and vis versa.
  * <p>
  * This class can also compress stream
+ * <p>
+ * Objects supported by an {@link ObjectCodec} (strings, primitives, byte arrays and maps of them
+ * by default) are encoded by this codec after a header made of {@link #CODEC_MAGIC}, the format
+ * version and the codec identifier. Other objects are serialized with Java serialization,
+ * whose streams never start with this header, so that data stored before codecs were introduced
+ * is still read.
  *
  * @author The ProActive Team
  * @since ProActive Scheduling 3.0
  */
 public final class ObjectByteConverter {
 
+    /** First bytes of data encoded by a codec, Java serialization streams start with 0xACED */
+    private static final byte[] CODEC_MAGIC = { (byte) 0xC0, (byte) 0xDE };
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final int HEADER_LENGTH = CODEC_MAGIC.length + 2;
+
     /**
      * Convert the given Serializable Object into a byte array.
      * 
@@ -68,50 +86,58 @@ public final class ObjectByteConverter {
      * @throws IOException if an I/O exception occurs when writing the output byte array
      */
     public static final byte[] objectToByteArray(Object obj, boolean compress) throws IOException {
-        ByteArrayOutputStream baos = null;
-        ObjectOutputStream oos = null;
-        try {
-            baos = new ByteArrayOutputStream();
-            oos = new ObjectOutputStream(baos);
-            oos.writeObject(obj);
-            oos.flush();
-            if (!compress) {
-                // Return the UNCOMPRESSED data
-                return baos.toByteArray();
-            } else {
-                // Compressor with highest level of compression
-                Deflater compressor = new Deflater();
-                compressor.setLevel(Deflater.BEST_COMPRESSION);
-                // Give the compressor the data to compress
-                compressor.setInput(baos.toByteArray());
-                compressor.finish();
-
-                ByteArrayOutputStream bos = null;
-                try {
-                    // Create an expandable byte array to hold the compressed data.
-                    bos = new ByteArrayOutputStream();
-                    // Compress the data
-                    byte[] buf = new byte[512];
-                    while (!compressor.finished()) {
-                        int count = compressor.deflate(buf);
-                        bos.write(buf, 0, count);
-                    }
-                    // Return the COMPRESSED data
-                    return bos.toByteArray();
-                } finally {
-                    if (bos != null) {
-                        bos.close();
-                    }
+        byte[] serialized = serialize(obj);
+        if (!compress) {
+            // Return the UNCOMPRESSED data
+            return serialized;
+        } else {
+            // Compressor with highest level of compression
+            Deflater compressor = new Deflater();
+            compressor.setLevel(Deflater.BEST_COMPRESSION);
+            // Give the compressor the data to compress
+            compressor.setInput(serialized);
+            compressor.finish();
+
+            ByteArrayOutputStream bos = null;
+            try {
+                // Create an expandable byte array to hold the compressed data.
+                bos = new ByteArrayOutputStream();
+                // Compress the data
+                byte[] buf = new byte[512];
+                while (!compressor.finished()) {
+                    int count = compressor.deflate(buf);
+                    bos.write(buf, 0, count);
+                }
+                // Return the COMPRESSED data
+                return bos.toByteArray();
+            } finally {
+                if (bos != null) {
+                    bos.close();
                 }
             }
-        } finally {
-            if (oos != null) {
+        }
+    }
+
+    private static byte[] serialize(Object obj) throws IOException {
+        ObjectCodec codec = ObjectCodecRegistry.getInstance().getCodec(obj);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        if (codec != null) {
+            DataOutputStream dos = new DataOutputStream(baos);
+            dos.write(CODEC_MAGIC);
+            dos.writeByte(FORMAT_VERSION);
+            dos.writeByte(codec.getId());
+            codec.encode(obj, dos);
+            dos.flush();
+        } else {
+            ObjectOutputStream oos = new ObjectOutputStream(baos);
+            try {
+                oos.writeObject(obj);
+                oos.flush();
+            } finally {
                 oos.close();
             }
-            if (baos != null) {
-                baos.close();
-            }
         }
+        return baos.toByteArray();
     }
 
     /**
@@ -167,6 +193,9 @@ public final class ObjectByteConverter {
             }
         }
         //here, input byteArray is uncompressed if needed
+        if (hasCodecHeader(input)) {
+            return decode(input);
+        }
         ByteArrayInputStream bais = null;
         ObjectInputStream ois = null;
         try {
@@ -183,4 +212,23 @@ public final class ObjectByteConverter {
         }
     }
 
+    private static boolean hasCodecHeader(byte[] input) {
+        return input.length >= HEADER_LENGTH && input[0] == CODEC_MAGIC[0] && input[1] == CODEC_MAGIC[1];
+    }
+
+    private static Object decode(byte[] input) throws IOException, ClassNotFoundException {
+        DataInputStream dis = new DataInputStream(new ByteArrayInputStream(input, CODEC_MAGIC.length,
+                                                                           input.length - CODEC_MAGIC.length));
+        byte version = dis.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported serialization format version " + version);
+        }
+        byte codecId = dis.readByte();
+        ObjectCodec codec = ObjectCodecRegistry.getInstance().getCodec(codecId);
+        if (codec == null) {
+            throw new IOException("Unknown object codec " + codecId);
+        }
+        return codec.decode(dis);
+    }
+
 }
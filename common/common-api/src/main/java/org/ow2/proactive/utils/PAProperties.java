@@ -38,6 +38,10 @@ public final class PAProperties {
 
     public static final String KEY_PA_FILE_ENCODING = "pa.file.encoding";
 
+    public static final String KEY_PA_SCRIPT_COMPILED_CACHE_SIZE = "pa.script.compiled.cache.size";
+
+    private static final int DEFAULT_SCRIPT_COMPILED_CACHE_SIZE = 256;
+
     /**
      * Returns value associated to Java property {@value #KEY_PA_FILE_ENCODING}
      * or the current JVM charset name if the previous property is not defined.
@@ -55,4 +59,26 @@ public final class PAProperties {
         return Charset.defaultCharset().name();
     }
 
+    /**
+     * Returns the number of compiled scripts kept per script engine, given by the Java
+     * property {@value #KEY_PA_SCRIPT_COMPILED_CACHE_SIZE}, or
+     * {@value #DEFAULT_SCRIPT_COMPILED_CACHE_SIZE} if this property is not defined or invalid.
+     * A value of 0 disables the compiled scripts cache.
+     *
+     * @return the number of compiled scripts kept per script engine.
+     */
+    public static int getCompiledScriptsCacheSize() {
+        String property = System.getProperty(KEY_PA_SCRIPT_COMPILED_CACHE_SIZE);
+
+        if (property != null) {
+            try {
+                return Integer.parseInt(property.trim());
+            } catch (NumberFormatException e) {
+                return DEFAULT_SCRIPT_COMPILED_CACHE_SIZE;
+            }
+        }
+
+        return DEFAULT_SCRIPT_COMPILED_CACHE_SIZE;
+    }
+
 }
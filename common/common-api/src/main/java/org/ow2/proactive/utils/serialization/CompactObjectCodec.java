@@ -0,0 +1,261 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.utils.serialization;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * Compact codec for strings, boxed primitives, byte arrays and the usual maps and lists of them,
+ * such as task variables, propagated variables or metadata.
+ * <p>
+ * Each value is written as a one byte tag followed by its content. Map and list classes are kept
+ * as is ({@link HashMap}, {@link LinkedHashMap}, {@link TreeMap} without comparator and {@link ArrayList}),
+ * other implementations are left to Java serialization.
+ */
+public class CompactObjectCodec implements ObjectCodec {
+
+    public static final byte ID = 1;
+
+    private static final int MAX_DEPTH = 32;
+
+    private static final byte NULL = 0;
+
+    private static final byte STRING = 1;
+
+    private static final byte TRUE = 2;
+
+    private static final byte FALSE = 3;
+
+    private static final byte INTEGER = 4;
+
+    private static final byte LONG = 5;
+
+    private static final byte DOUBLE = 6;
+
+    private static final byte FLOAT = 7;
+
+    private static final byte SHORT = 8;
+
+    private static final byte BYTE = 9;
+
+    private static final byte CHARACTER = 10;
+
+    private static final byte BYTES = 11;
+
+    private static final byte HASH_MAP = 12;
+
+    private static final byte LINKED_HASH_MAP = 13;
+
+    private static final byte TREE_MAP = 14;
+
+    private static final byte ARRAY_LIST = 15;
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public boolean canEncode(Object object) {
+        return canEncode(object, 0);
+    }
+
+    private boolean canEncode(Object object, int depth) {
+        if (object == null || object instanceof String || object instanceof Boolean || object instanceof Integer ||
+            object instanceof Long || object instanceof Double || object instanceof Float ||
+            object instanceof Short || object instanceof Byte || object instanceof Character ||
+            object instanceof byte[]) {
+            return true;
+        }
+        if (depth >= MAX_DEPTH) {
+            return false;
+        }
+        Class<?> type = object.getClass();
+        if (type == HashMap.class || type == LinkedHashMap.class ||
+            (type == TreeMap.class && ((TreeMap<?, ?>) object).comparator() == null)) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                if (!canEncode(entry.getKey(), depth + 1) || !canEncode(entry.getValue(), depth + 1)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (type == ArrayList.class) {
+            for (Object element : (Collection<?>) object) {
+                if (!canEncode(element, depth + 1)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void encode(Object object, DataOutputStream output) throws IOException {
+        if (object == null) {
+            output.writeByte(NULL);
+        } else if (object instanceof String) {
+            output.writeByte(STRING);
+            writeBytes(((String) object).getBytes(StandardCharsets.UTF_8), output);
+        } else if (object instanceof Boolean) {
+            output.writeByte((Boolean) object ? TRUE : FALSE);
+        } else if (object instanceof Integer) {
+            output.writeByte(INTEGER);
+            output.writeInt((Integer) object);
+        } else if (object instanceof Long) {
+            output.writeByte(LONG);
+            output.writeLong((Long) object);
+        } else if (object instanceof Double) {
+            output.writeByte(DOUBLE);
+            output.writeDouble((Double) object);
+        } else if (object instanceof Float) {
+            output.writeByte(FLOAT);
+            output.writeFloat((Float) object);
+        } else if (object instanceof Short) {
+            output.writeByte(SHORT);
+            output.writeShort((Short) object);
+        } else if (object instanceof Byte) {
+            output.writeByte(BYTE);
+            output.writeByte((Byte) object);
+        } else if (object instanceof Character) {
+            output.writeByte(CHARACTER);
+            output.writeChar((Character) object);
+        } else if (object instanceof byte[]) {
+            output.writeByte(BYTES);
+            writeBytes((byte[]) object, output);
+        } else if (object instanceof Map) {
+            Class<?> type = object.getClass();
+            output.writeByte(type == TreeMap.class ? TREE_MAP : type == LinkedHashMap.class ? LINKED_HASH_MAP : HASH_MAP);
+            Map<?, ?> map = (Map<?, ?>) object;
+            output.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                encode(entry.getKey(), output);
+                encode(entry.getValue(), output);
+            }
+        } else if (object instanceof List) {
+            output.writeByte(ARRAY_LIST);
+            List<?> list = (List<?>) object;
+            output.writeInt(list.size());
+            for (Object element : list) {
+                encode(element, output);
+            }
+        } else {
+            throw new IOException("Cannot encode " + object.getClass().getName());
+        }
+    }
+
+    @Override
+    public Object decode(DataInputStream input) throws IOException {
+        byte tag = input.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return new String(readBytes(input), StandardCharsets.UTF_8);
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INTEGER:
+                return input.readInt();
+            case LONG:
+                return input.readLong();
+            case DOUBLE:
+                return input.readDouble();
+            case FLOAT:
+                return input.readFloat();
+            case SHORT:
+                return input.readShort();
+            case BYTE:
+                return input.readByte();
+            case CHARACTER:
+                return input.readChar();
+            case BYTES:
+                return readBytes(input);
+            case HASH_MAP:
+                return readMap(new HashMap<>(), input);
+            case LINKED_HASH_MAP:
+                return readMap(new LinkedHashMap<>(), input);
+            case TREE_MAP:
+                return readMap(new TreeMap<>(), input);
+            case ARRAY_LIST:
+                int size = readSize(input);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(decode(input));
+                }
+                return list;
+            default:
+                throw new IOException("Unknown tag " + tag);
+        }
+    }
+
+    private Map<Object, Object> readMap(Map<Object, Object> map, DataInputStream input) throws IOException {
+        int size = readSize(input);
+        for (int i = 0; i < size; i++) {
+            Object key = decode(input);
+            map.put(key, decode(input));
+        }
+        return map;
+    }
+
+    private static void writeBytes(byte[] bytes, DataOutputStream output) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[readSize(input)];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private static int readSize(DataInputStream input) throws IOException {
+        int size = input.readInt();
+        if (size < 0 || size > input.available()) {
+            throw new IOException("Invalid size " + size);
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.utils.serialization;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+
+/**
+ * Serialization format used by {@link org.ow2.proactive.utils.ObjectByteConverter} for the objects
+ * it supports, instead of Java serialization.
+ * <p>
+ * Codecs are discovered with the service provider mechanism: additional codecs are registered in
+ * {@code META-INF/services/org.ow2.proactive.utils.serialization.ObjectCodec}.
+ * The identifier of the codec is written in the header of the encoded data, it must therefore be
+ * unique and never change once data has been stored with it.
+ *
+ * @see ObjectCodecRegistry
+ */
+public interface ObjectCodec {
+
+    /**
+     * @return the identifier of this codec, between 1 and 127 (values below 16 are reserved)
+     */
+    byte getId();
+
+    /**
+     * @param object the object to encode
+     * @return true if this codec can encode the given object and all the objects it contains
+     */
+    boolean canEncode(Object object);
+
+    /**
+     * Encode the given object, {@link #canEncode(Object)} having returned true.
+     * @param object the object to encode
+     * @param output the stream to write to
+     * @throws IOException if the object cannot be written
+     */
+    void encode(Object object, DataOutputStream output) throws IOException;
+
+    /**
+     * Decode an object encoded by {@link #encode(Object, DataOutputStream)}.
+     * @param input the stream to read from
+     * @return the decoded object
+     * @throws IOException if the data is corrupted
+     * @throws ClassNotFoundException if a class of the decoded object cannot be found
+     */
+    Object decode(DataInputStream input) throws IOException, ClassNotFoundException;
+
+}
@@ -0,0 +1,114 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.utils.serialization;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.imageio.spi.ServiceRegistry;
+
+import org.apache.log4j.Logger;
+
+
+/**
+ * Registry of the {@link ObjectCodec}s: the built-in {@link CompactObjectCodec} and the codecs
+ * declared as service providers.
+ */
+public class ObjectCodecRegistry {
+
+    private static final Logger logger = Logger.getLogger(ObjectCodecRegistry.class);
+
+    private final List<ObjectCodec> codecs = new ArrayList<>();
+
+    private final ObjectCodec[] codecsById = new ObjectCodec[128];
+
+    private ObjectCodecRegistry() {
+        register(new CompactObjectCodec());
+        load();
+    }
+
+    private void load() {
+        Iterator<ObjectCodec> loadedCodecs = ServiceRegistry.lookupProviders(ObjectCodec.class);
+        while (loadedCodecs.hasNext()) {
+            try {
+                register(loadedCodecs.next());
+            } catch (Exception err) {
+                logger.error("Failed to load object codec: " + err);
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Object codecs registered : " + codecs);
+        }
+    }
+
+    private void register(ObjectCodec codec) {
+        byte id = codec.getId();
+        if (id <= 0) {
+            logger.error("Object codec " + codec.getClass().getName() + " has an invalid identifier " + id);
+        } else if (codecsById[id] != null) {
+            logger.error("Object codec " + codec.getClass().getName() + " has the same identifier as " +
+                         codecsById[id].getClass().getName());
+        } else {
+            codecsById[id] = codec;
+            codecs.add(codec);
+        }
+    }
+
+    private static class LazyHolder {
+        private LazyHolder() {
+            //empty
+        }
+
+        private static final ObjectCodecRegistry INSTANCE = new ObjectCodecRegistry();
+    }
+
+    public static ObjectCodecRegistry getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    /**
+     * @param object the object to encode
+     * @return the first codec able to encode the given object, or null if it must be serialized
+     */
+    public ObjectCodec getCodec(Object object) {
+        for (ObjectCodec codec : codecs) {
+            if (codec.canEncode(object)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param id the identifier read from encoded data
+     * @return the codec having the given identifier, or null if it is not registered
+     */
+    public ObjectCodec getCodec(byte id) {
+        return id > 0 ? codecsById[id] : null;
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scripting;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.Serializable;
+
+import javax.script.CompiledScript;
+import javax.script.ScriptEngineFactory;
+
+import org.junit.Test;
+
+
+public class ScriptEngineRegistryTest {
+
+    @Test
+    public void testEngineFactoryLookup() {
+        ScriptEngineRegistry registry = new ScriptEngineRegistry(10);
+
+        ScriptEngineFactory groovy = registry.getEngineFactory("groovy");
+
+        assertNotNull(groovy);
+        assertSame(groovy, registry.getEngineFactory("GROOVY"));
+        assertSame(groovy, registry.getEngineFactory("/path/to/script.groovy"));
+        assertNull(registry.getEngineFactory("mySuperNonExistingScriptEngine"));
+    }
+
+    @Test
+    public void testCompiledScriptIsReused() throws Exception {
+        ScriptEngineRegistry registry = new ScriptEngineRegistry(10);
+        ScriptEngineFactory groovy = registry.getEngineFactory("groovy");
+
+        CompiledScript compiled = registry.getCompiledScript(groovy, "1 + 1", "test");
+
+        assertNotNull(compiled);
+        assertSame(compiled, registry.getCompiledScript(groovy, "1 + 1", "test"));
+        assertThat(registry.getCompiledScriptsStatistics().length, is(1));
+        assertThat(registry.getCompiledScriptsStatistics()[0], containsString("1 hits, 1 misses"));
+    }
+
+    @Test
+    public void testCompiledScriptsCacheCanBeDisabled() throws Exception {
+        ScriptEngineRegistry registry = new ScriptEngineRegistry(0);
+        ScriptEngineFactory groovy = registry.getEngineFactory("groovy");
+
+        assertNull(registry.getCompiledScript(groovy, "1 + 1", "test"));
+    }
+
+    @Test
+    public void testCompiledScriptExecutionsDoNotShareBindings() throws Exception {
+        String source = "selected = (args[0] == 'node1')";
+
+        ScriptResult<Boolean> first = new SelectionScript(source,
+                                                          "groovy",
+                                                          new Serializable[] { "node1" },
+                                                          true).execute();
+        ScriptResult<Boolean> second = new SelectionScript(source,
+                                                           "groovy",
+                                                           new Serializable[] { "node2" },
+                                                           true).execute();
+
+        assertNull(first.getException());
+        assertNull(second.getException());
+        assertThat(first.getResult(), is(true));
+        assertThat(second.getResult(), is(false));
+    }
+
+    @Test
+    public void testCompilationErrorIsReturnedInResult() throws Exception {
+        ScriptResult<Object> result = new SimpleScript("this is not groovy (", "groovy").execute();
+
+        assertNotNull(result.getException());
+    }
+
+}
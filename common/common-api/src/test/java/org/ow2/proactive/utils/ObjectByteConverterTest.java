@@ -0,0 +1,105 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+
+public class ObjectByteConverterTest {
+
+    @Test
+    public void compactCodecRoundTrip() throws Exception {
+        Map<String, byte[]> variables = new HashMap<>();
+        variables.put("a", new byte[] { 1, 2, 3 });
+        variables.put("b", new byte[0]);
+
+        for (boolean compress : new boolean[] { false, true }) {
+            byte[] bytes = ObjectByteConverter.objectToByteArray(variables, compress);
+            @SuppressWarnings("unchecked")
+            Map<String, byte[]> read = (Map<String, byte[]>) ObjectByteConverter.byteArrayToObject(bytes, compress);
+
+            assertEquals(HashMap.class, read.getClass());
+            assertEquals(variables.keySet(), read.keySet());
+            assertArrayEquals(variables.get("a"), read.get("a"));
+            assertArrayEquals(variables.get("b"), read.get("b"));
+        }
+    }
+
+    @Test
+    public void collectionTypesAndValuesAreKept() throws Exception {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("z", "\u00e9t\u00e9");
+        metadata.put("a", 42L);
+        metadata.put("list", new ArrayList<>(Arrays.asList(1, 2.5d, true, null, 'c')));
+        metadata.put("sorted", new TreeMap<>(metadata));
+
+        Object read = ObjectByteConverter.byteArrayToObject(ObjectByteConverter.objectToByteArray(metadata));
+
+        assertEquals(LinkedHashMap.class, read.getClass());
+        assertEquals(metadata, read);
+        assertEquals(Arrays.asList("z", "a", "list", "sorted"), new ArrayList<>(((Map<?, ?>) read).keySet()));
+    }
+
+    @Test
+    public void unsupportedObjectsAreSerialized() throws Exception {
+        List<Object> values = Arrays.<Object> asList("a", new Date(0));
+
+        byte[] bytes = ObjectByteConverter.objectToByteArray(values);
+
+        // Java serialization stream magic
+        assertEquals((byte) 0xAC, bytes[0]);
+        assertEquals(values, ObjectByteConverter.byteArrayToObject(bytes));
+    }
+
+    @Test
+    public void serializedDataIsStillRead() throws Exception {
+        Map<String, String> genericInformation = new HashMap<>();
+        genericInformation.put("key", "value");
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(genericInformation);
+        oos.close();
+
+        assertEquals(genericInformation, ObjectByteConverter.byteArrayToObject(baos.toByteArray()));
+        assertTrue(ObjectByteConverter.objectToByteArray(genericInformation).length < baos.size());
+    }
+}
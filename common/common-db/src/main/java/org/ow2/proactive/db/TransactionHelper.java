@@ -25,14 +25,21 @@
  */
 package org.ow2.proactive.db;
 
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 import org.apache.log4j.Logger;
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
-import org.hibernate.exception.LockAcquisitionException;
 import org.objectweb.proactive.utils.Sleeper;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 
 public class TransactionHelper {
 
@@ -40,6 +47,10 @@ public class TransactionHelper {
 
     private final SessionFactory sessionFactory;
 
+    private final TransactionStatistics statistics = new TransactionStatistics();
+
+    private ScheduledExecutorService retryExecutor;
+
     public TransactionHelper(SessionFactory sessionFactory) {
         this.sessionFactory = sessionFactory;
     }
@@ -69,6 +80,8 @@ public class TransactionHelper {
      * In case of database error while executing the query, a rollback is
      * performed and a retry executed depending of the value associated to
      * the property {@code PASchedulerProperties.SCHEDULER_DB_TRANSACTION_MAXIMUM_RETRIES}.
+     * <p>
+     * Several session works can be executed in a single transaction with a {@link UnitOfWork}.
      *
      * @param sessionWork the action to perform.
      * @param <T>         the result type of the session work.
@@ -82,6 +95,53 @@ public class TransactionHelper {
         return tryExecuteTransactionLoop(sessionWork, true, readOnlyEntities);
     }
 
+    /**
+     * Execute the specified {@code sessionWork} in a read/write transaction, like
+     * {@link #executeReadWriteTransaction(SessionWork)}, without blocking the calling thread
+     * during the retries.
+     * <p>
+     * The first attempt is executed by the calling thread, so the returned future is already
+     * done when it succeeds. When it fails, the retries are scheduled, after the same delays
+     * as the synchronous retries, and executed by a thread of this helper.
+     *
+     * @param sessionWork the action to perform.
+     * @param <T>         the result type of the session work.
+     * @return the result of the session work, or a {@link DatabaseManagerException} if all
+     * the attempts failed
+     */
+    public <T> ListenableFuture<T> executeReadWriteTransactionAsync(SessionWork<T> sessionWork) {
+        AsyncTransaction<T> transaction = new AsyncTransaction<>(sessionWork);
+        transaction.run();
+        return transaction.result;
+    }
+
+    /**
+     * Stops the thread executing the asynchronous retries. Pending retries are not executed.
+     */
+    public synchronized void shutdown() {
+        if (retryExecutor != null) {
+            retryExecutor.shutdownNow();
+            retryExecutor = null;
+        }
+    }
+
+    private synchronized ScheduledExecutorService getRetryExecutor() {
+        if (retryExecutor == null) {
+            retryExecutor = new ScheduledThreadPoolExecutor(1,
+                                                            new ThreadFactoryBuilder().setNameFormat("Database transaction retries")
+                                                                                      .setDaemon(true)
+                                                                                      .build());
+        }
+        return retryExecutor;
+    }
+
+    /**
+     * @return the latency and retries statistics of the transactions executed by this helper
+     */
+    public TransactionStatistics getStatistics() {
+        return statistics;
+    }
+
     private <T> T tryExecuteTransactionLoop(SessionWork<T> sessionWork, boolean readWriteTransaction,
             boolean readOnlyEntities) {
         Throwable lastException = null;
@@ -91,20 +151,28 @@ public class TransactionHelper {
         int maximumNumberOfRetries = Math.max(PASchedulerProperties.SCHEDULER_DB_TRANSACTION_MAXIMUM_RETRIES.getValueAsInt(),
                                               0);
 
+        long start = System.currentTimeMillis();
         for (int i = 0; i <= maximumNumberOfRetries; i++) {
             try {
-                return tryExecuteTransaction(sessionWork, readWriteTransaction, readOnlyEntities);
+                T result = tryExecuteTransaction(sessionWork, readWriteTransaction, readOnlyEntities);
+                statistics.transactionExecuted(System.currentTimeMillis() - start, i, false);
+                return result;
             } catch (Throwable exception) {
                 lastException = exception;
 
-                logger.warn(String.format("Database operation failed. Automatic retry in %d ms (attempt %d)", delay, i),
-                            exception);
+                if (i < maximumNumberOfRetries) {
+                    logger.warn(String.format("Database operation failed. Automatic retry in %d ms (attempt %d)",
+                                              delay,
+                                              i),
+                                exception);
 
-                new Sleeper(delay, logger).sleep();
+                    new Sleeper(delay, logger).sleep();
 
-                delay *= dampingFactor;
+                    delay *= dampingFactor;
+                }
             }
         }
+        statistics.transactionExecuted(System.currentTimeMillis() - start, maximumNumberOfRetries, true);
 
         logger.warn("Maximum number of transaction retries exceeded, giving up. Last exception is: ", lastException);
 
@@ -145,4 +213,67 @@ public class TransactionHelper {
         }
     }
 
+    /**
+     * A read/write transaction whose retries are scheduled instead of waited for.
+     */
+    private class AsyncTransaction<T> implements Runnable {
+
+        private final SessionWork<T> sessionWork;
+
+        private final SettableFuture<T> result = SettableFuture.create();
+
+        private final int dampingFactor = PASchedulerProperties.SCHEDULER_DB_TRANSACTION_DAMPING_FACTOR.getValueAsInt();
+
+        private final int maximumNumberOfRetries = Math.max(PASchedulerProperties.SCHEDULER_DB_TRANSACTION_MAXIMUM_RETRIES.getValueAsInt(),
+                                                            0);
+
+        private final long start = System.currentTimeMillis();
+
+        private int delay = PASchedulerProperties.SCHEDULER_DB_TRANSACTION_SLEEP_DELAY.getValueAsInt();
+
+        private int attempt;
+
+        AsyncTransaction(SessionWork<T> sessionWork) {
+            this.sessionWork = sessionWork;
+        }
+
+        @Override
+        public void run() {
+            T value;
+            try {
+                value = tryExecuteTransaction(sessionWork, true, true);
+            } catch (Throwable e) {
+                if (attempt < maximumNumberOfRetries && scheduleRetry(e)) {
+                    return;
+                }
+                statistics.transactionExecuted(System.currentTimeMillis() - start, attempt, true);
+                logger.warn("Maximum number of transaction retries exceeded, giving up. Last exception is: ", e);
+                result.setException(new DatabaseManagerException(e));
+                return;
+            }
+            statistics.transactionExecuted(System.currentTimeMillis() - start, attempt, false);
+            result.set(value);
+        }
+
+        private boolean scheduleRetry(Throwable e) {
+            logger.warn(String.format("Database operation failed. Automatic retry in %d ms (attempt %d)",
+                                      delay,
+                                      attempt),
+                        e);
+            // updated before scheduling, the retry may start right away in the retry thread
+            int retryDelay = delay;
+            attempt++;
+            delay *= dampingFactor;
+            try {
+                getRetryExecutor().schedule(this, retryDelay, TimeUnit.MILLISECONDS);
+                return true;
+            } catch (RuntimeException rejected) {
+                logger.warn("Failed to schedule the retry of a database operation", rejected);
+                attempt--;
+                return false;
+            }
+        }
+
+    }
+
 }
@@ -0,0 +1,131 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.db;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Latency and retries histograms of the transactions executed by a {@link TransactionHelper}.
+ *
+ * @author ActiveEon Team
+ */
+public class TransactionStatistics implements TransactionStatisticsMBean {
+
+    private static final long[] LATENCY_BUCKETS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000 };
+
+    private static final int MAXIMUM_COUNTED_RETRIES = 10;
+
+    private final AtomicLong transactionsCount = new AtomicLong();
+
+    private final AtomicLong failedTransactionsCount = new AtomicLong();
+
+    private final AtomicLong totalTransactionTime = new AtomicLong();
+
+    private final AtomicLongArray latencyHistogram = new AtomicLongArray(LATENCY_BUCKETS.length + 1);
+
+    private final AtomicLongArray retriesHistogram = new AtomicLongArray(MAXIMUM_COUNTED_RETRIES + 1);
+
+    /**
+     * Records a transaction.
+     *
+     * @param duration duration in milliseconds of the transaction, retries included
+     * @param retries number of times the transaction was retried
+     * @param failed true if the transaction failed after all its retries
+     */
+    void transactionExecuted(long duration, int retries, boolean failed) {
+        transactionsCount.incrementAndGet();
+        if (failed) {
+            failedTransactionsCount.incrementAndGet();
+        }
+        totalTransactionTime.addAndGet(duration);
+        latencyHistogram.incrementAndGet(latencyBucket(duration));
+        retriesHistogram.incrementAndGet(Math.min(retries, MAXIMUM_COUNTED_RETRIES));
+    }
+
+    private static int latencyBucket(long duration) {
+        for (int i = 0; i < LATENCY_BUCKETS.length; i++) {
+            if (duration < LATENCY_BUCKETS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BUCKETS.length;
+    }
+
+    @Override
+    public long getTransactionsCount() {
+        return transactionsCount.get();
+    }
+
+    @Override
+    public long getFailedTransactionsCount() {
+        return failedTransactionsCount.get();
+    }
+
+    @Override
+    public double getMeanTransactionTime() {
+        long count = transactionsCount.get();
+        return count == 0 ? 0 : totalTransactionTime.get() / (double) count;
+    }
+
+    @Override
+    public long[] getLatencyBuckets() {
+        return LATENCY_BUCKETS.clone();
+    }
+
+    @Override
+    public long[] getLatencyHistogram() {
+        return toArray(latencyHistogram);
+    }
+
+    @Override
+    public long[] getRetriesHistogram() {
+        return toArray(retriesHistogram);
+    }
+
+    @Override
+    public void reset() {
+        transactionsCount.set(0);
+        failedTransactionsCount.set(0);
+        totalTransactionTime.set(0);
+        for (int i = 0; i < latencyHistogram.length(); i++) {
+            latencyHistogram.set(i, 0);
+        }
+        for (int i = 0; i < retriesHistogram.length(); i++) {
+            retriesHistogram.set(i, 0);
+        }
+    }
+
+    private static long[] toArray(AtomicLongArray array) {
+        long[] result = new long[array.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = array.get(i);
+        }
+        return result;
+    }
+
+}
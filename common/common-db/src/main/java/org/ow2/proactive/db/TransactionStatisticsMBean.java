@@ -0,0 +1,74 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.db;
+
+/**
+ * Management interface of the statistics of the transactions executed by a
+ * {@link TransactionHelper}.
+ *
+ * @author ActiveEon Team
+ */
+public interface TransactionStatisticsMBean {
+
+    /**
+     * @return the number of executed transactions, successful or not
+     */
+    long getTransactionsCount();
+
+    /**
+     * @return the number of transactions which failed after all their retries
+     */
+    long getFailedTransactionsCount();
+
+    /**
+     * @return the mean duration in milliseconds of a transaction, retries included
+     */
+    double getMeanTransactionTime();
+
+    /**
+     * @return the upper bounds in milliseconds of the buckets of the latency histogram,
+     * the last bucket having no upper bound
+     */
+    long[] getLatencyBuckets();
+
+    /**
+     * @return the number of transactions whose duration, retries included, falls in each
+     * bucket of {@link #getLatencyBuckets()}
+     */
+    long[] getLatencyHistogram();
+
+    /**
+     * @return the number of transactions retried i times at index i, the last index
+     * counting the transactions retried at least that many times
+     */
+    long[] getRetriesHistogram();
+
+    /**
+     * Resets all the statistics.
+     */
+    void reset();
+
+}
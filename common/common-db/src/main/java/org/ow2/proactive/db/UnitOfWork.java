@@ -0,0 +1,79 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.Session;
+
+
+/**
+ * Groups several session works so that they are executed in a single session and transaction,
+ * and committed together. When the transaction is retried, all the session works are executed
+ * again.
+ *
+ * @author ActiveEon Team
+ */
+public class UnitOfWork implements SessionWork<List<Object>> {
+
+    private final List<SessionWork<?>> sessionWorks = new ArrayList<>();
+
+    /**
+     * Adds a session work, executed after the ones already added.
+     *
+     * @return this unit of work
+     */
+    public UnitOfWork add(SessionWork<?> sessionWork) {
+        sessionWorks.add(sessionWork);
+        return this;
+    }
+
+    public int size() {
+        return sessionWorks.size();
+    }
+
+    public boolean isEmpty() {
+        return sessionWorks.isEmpty();
+    }
+
+    /**
+     * @return the results of the session works, in the order they were added
+     */
+    @Override
+    public List<Object> doInTransaction(Session session) {
+        if (sessionWorks.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Object> results = new ArrayList<>(sessionWorks.size());
+        for (SessionWork<?> sessionWork : sessionWorks) {
+            results.add(sessionWork.doInTransaction(session));
+        }
+        return results;
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.db.types;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Properties;
+
+import org.hibernate.HibernateException;
+import org.hibernate.type.SerializableToBlobType;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.PrimitiveByteArrayTypeDescriptor;
+import org.hibernate.type.descriptor.java.SerializableTypeDescriptor;
+import org.ow2.proactive.utils.ObjectByteConverter;
+
+
+/**
+ * Stores serializable values in a BLOB using {@link ObjectByteConverter}, so that the values supported
+ * by a compact codec (maps of strings, byte arrays...) are not stored with Java serialization.
+ * <br>
+ * BLOBs written by {@link SerializableToBlobType} are still read, columns can therefore be switched
+ * to this type without migrating the data.
+ */
+public class CompactSerializableToBlobType extends SerializableToBlobType {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setParameterValues(Properties parameters) {
+        super.setParameterValues(parameters);
+        setJavaTypeDescriptor(new CompactSerializableTypeDescriptor(getReturnedClass()));
+    }
+
+    private static class CompactSerializableTypeDescriptor extends SerializableTypeDescriptor<Serializable> {
+
+        CompactSerializableTypeDescriptor(Class<Serializable> type) {
+            super(type);
+        }
+
+        @Override
+        public <X> X unwrap(Serializable value, Class<X> type, WrapperOptions options) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return PrimitiveByteArrayTypeDescriptor.INSTANCE.unwrap(ObjectByteConverter.objectToByteArray(value),
+                                                                        type,
+                                                                        options);
+            } catch (IOException e) {
+                throw new HibernateException("Could not serialize " + value.getClass().getName(), e);
+            }
+        }
+
+        @Override
+        public <X> Serializable wrap(X value, WrapperOptions options) {
+            byte[] bytes = PrimitiveByteArrayTypeDescriptor.INSTANCE.wrap(value, options);
+            if (bytes == null) {
+                return null;
+            }
+            try {
+                return (Serializable) ObjectByteConverter.byteArrayToObject(bytes);
+            } catch (IOException | ClassNotFoundException e) {
+                throw new HibernateException("Could not deserialize BLOB", e);
+            }
+        }
+    }
+
+}
@@ -39,6 +39,7 @@ import javax.security.auth.login.LoginException;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.PathSegment;
+import javax.ws.rs.core.Response;
 
 import org.jboss.resteasy.annotations.GZIP;
 import org.jboss.resteasy.annotations.providers.multipart.MultipartForm;
@@ -132,6 +133,42 @@ public interface SchedulerRestInterface {
             @QueryParam("finished") @DefaultValue("true") boolean finished)
             throws PermissionRestException, NotConnectedRestException;
 
+    /**
+     * Returns a page of jobs, read after the page identified by the given
+     * cursor. Jobs are sorted as in <code>revisionjobsinfo</code>: pending,
+     * running, then finished jobs, the most recent first. The size of the page
+     * is the approximate number of jobs matching the filters.
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param cursor
+     *            optional, the cursor returned with the previous page, the
+     *            first page is returned if not given
+     * @param limit
+     *            optional, the maximum number of jobs to return, the jobs
+     *            page size of the scheduler if not given
+     * @param myJobs
+     *            fetch only the jobs owned by the user making the request
+     * @param pending
+     *            fetch pending jobs
+     * @param running
+     *            fetch running jobs
+     * @param finished
+     *            fetch finished jobs
+     * @return a list of UserJobData and the cursor of the next page
+     */
+    @GET
+    @GZIP
+    @Path("jobsinfo/cursor")
+    @Produces({ "application/json", "application/xml" })
+    RestCursorPage<UserJobData> jobsInfoAfter(@HeaderParam("sessionid") String sessionId,
+            @QueryParam("cursor") String cursor, @QueryParam("limit") @DefaultValue("-1") int limit,
+            @QueryParam("myjobs") @DefaultValue("false") boolean myJobs,
+            @QueryParam("pending") @DefaultValue("true") boolean pending,
+            @QueryParam("running") @DefaultValue("true") boolean running,
+            @QueryParam("finished") @DefaultValue("true") boolean finished)
+            throws PermissionRestException, NotConnectedRestException;
+
     /**
      * Returns the revision number of the scheduler state
      * 
@@ -173,6 +210,25 @@ public interface SchedulerRestInterface {
     JobResultData jobResult(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId)
             throws NotConnectedRestException, PermissionRestException, UnknownJobRestException;
 
+    /**
+     * Returns the status of the last result of each task of the job referenced
+     * by the id <code>jobid</code>, without the values, exceptions and logs of
+     * the results
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param jobId
+     *            a job id
+     * @return the summaries of the available task results, by task name
+     */
+    @GET
+    @GZIP
+    @Path("jobs/{jobid}/result/summary")
+    @Produces("application/json")
+    Map<String, TaskResultSummaryData> jobResultSummary(@HeaderParam("sessionid") String sessionId,
+            @PathParam("jobid") String jobId)
+            throws NotConnectedRestException, PermissionRestException, UnknownJobRestException;
+
     /**
      * Returns the job info associated to the job referenced by the id
      * <code>jobid</code>
@@ -238,7 +294,7 @@ public interface SchedulerRestInterface {
     @GZIP
     @Path("jobs/{jobid}/log/server")
     @Produces("application/json")
-    String jobServerLog(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId)
+    Response jobServerLog(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId)
             throws NotConnectedRestException, UnknownJobRestException, PermissionRestException;
 
     /**
@@ -672,6 +728,56 @@ public interface SchedulerRestInterface {
             @QueryParam("sortparameters") SortSpecifierContainer sortParams)
             throws NotConnectedRestException, PermissionRestException;
 
+    /**
+     * Returns a page of <code>TaskStateData</code> regarding the given
+     * parameters (decoupled from the associated jobs), read after the page
+     * identified by the given cursor. Tasks are sorted by job id and task id.
+     * If the <code>limit</code> parameter is not specified, the
+     * <code>pa.scheduler.tasks.page.size</code> parameter is used. The size of
+     * the page is the approximate number of tasks matching the filters.
+     *
+     * @param sessionId
+     *            a valid session id.
+     * @param taskTag
+     *            optional, tag to filter the tasks. The tag should be complete
+     *            as the criteria is strict.
+     * @param from
+     *            the scheduled date to which we start fetching tasks. The
+     *            format is in Epoch time.
+     * @param to
+     *            the end scheduled end date to stop fetching tasks. The format
+     *            is in Epoch time.
+     * @param mytasks
+     *            <code>True</code> if you want to fetch only the user's tasks.
+     *            Default value is <code>False</code>.
+     * @param running
+     *            fetch running tasks. Default value is <code>True</code>.
+     * @param pending
+     *            fetch pending tasks. Default value is <code>True</code>.
+     * @param finished
+     *            fetch finished tasks. Default value is <code>True</code>.
+     * @param cursor
+     *            optional, the cursor returned with the previous page, the
+     *            first page is returned if not given
+     * @param limit
+     *            the maximum number of tasks to fetch, the tasks page size
+     *            of the scheduler if not given
+     * @return a list of <code>TaskStateData</code> and the cursor of the next
+     *         page
+     */
+    @GET
+    @GZIP
+    @Path("taskstates/cursor")
+    @Produces("application/json")
+    RestCursorPage<TaskStateData> getTaskStatesAfter(@HeaderParam("sessionid") String sessionId,
+            @QueryParam("tag") String taskTag, @QueryParam("from") @DefaultValue("0") long from,
+            @QueryParam("to") @DefaultValue("0") long to, @QueryParam("mytasks") @DefaultValue("false") boolean mytasks,
+            @QueryParam("running") @DefaultValue("true") boolean running,
+            @QueryParam("pending") @DefaultValue("true") boolean pending,
+            @QueryParam("finished") @DefaultValue("true") boolean finished, @QueryParam("cursor") String cursor,
+            @QueryParam("limit") @DefaultValue("-1") int limit)
+            throws NotConnectedRestException, PermissionRestException;
+
     /**
      * Returns full logs generated by tasks in job.
      *
@@ -1053,7 +1159,7 @@ public interface SchedulerRestInterface {
     @GZIP
     @Path("jobs/{jobid}/tasks/{taskname}/log/server")
     @Produces("application/json")
-    String taskServerLog(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId,
+    Response taskServerLog(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId,
             @PathParam("taskname") String taskname) throws NotConnectedRestException, UnknownJobRestException,
             UnknownTaskRestException, PermissionRestException;
 
@@ -1072,10 +1178,92 @@ public interface SchedulerRestInterface {
     @GZIP
     @Path("jobs/{jobid}/tasks/tag/{tasktag}/log/server")
     @Produces("application/json")
-    String taskServerLogByTag(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId,
+    Response taskServerLogByTag(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId,
             @PathParam("tasktag") String taskTag)
             throws NotConnectedRestException, UnknownJobRestException, PermissionRestException;
 
+    /**
+     * Streams a range of the job server logs. The position of the first
+     * returned byte and the total size of the logs are given by the
+     * <code>x-logs-offset</code> and <code>x-logs-size</code> headers.
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param jobId
+     *            the id of the job
+     * @param offset
+     *            position of the first byte to return, or if negative, number
+     *            of bytes to return from the end of the logs
+     * @param limit
+     *            maximum number of bytes to return, -1 to read until the end
+     *            of the logs
+     * @return job traces from the scheduler and resource manager
+     */
+    @GET
+    @GZIP
+    @Path("jobs/{jobid}/log/server/range")
+    @Produces("text/plain")
+    Response jobServerLogRange(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId,
+            @QueryParam("offset") @DefaultValue("0") long offset, @QueryParam("limit") @DefaultValue("-1") long limit)
+            throws NotConnectedRestException, UnknownJobRestException, PermissionRestException;
+
+    /**
+     * Streams a range of the task server logs. The position of the first
+     * returned byte and the total size of the logs are given by the
+     * <code>x-logs-offset</code> and <code>x-logs-size</code> headers.
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param jobId
+     *            the id of the job
+     * @param taskname
+     *            the name of the task
+     * @param offset
+     *            position of the first byte to return, or if negative, number
+     *            of bytes to return from the end of the logs
+     * @param limit
+     *            maximum number of bytes to return, -1 to read until the end
+     *            of the logs
+     * @return task traces from the scheduler and resource manager
+     */
+    @GET
+    @GZIP
+    @Path("jobs/{jobid}/tasks/{taskname}/log/server/range")
+    @Produces("text/plain")
+    Response taskServerLogRange(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId,
+            @PathParam("taskname") String taskname, @QueryParam("offset") @DefaultValue("0") long offset,
+            @QueryParam("limit") @DefaultValue("-1") long limit) throws NotConnectedRestException,
+            UnknownJobRestException, UnknownTaskRestException, PermissionRestException;
+
+    /**
+     * Streams a range of the server logs of the tasks filtered by a given tag.
+     * The position of the first returned byte and the total size of the logs
+     * are given by the <code>x-logs-offset</code> and <code>x-logs-size</code>
+     * headers.
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param jobId
+     *            the id of the job
+     * @param taskTag
+     *            the tag used to filter the tasks in the job.
+     * @param offset
+     *            position of the first byte to return, or if negative, number
+     *            of bytes to return from the end of the logs
+     * @param limit
+     *            maximum number of bytes to return, -1 to read until the end
+     *            of the logs
+     * @return task traces from the scheduler and resource manager
+     */
+    @GET
+    @GZIP
+    @Path("jobs/{jobid}/tasks/tag/{tasktag}/log/server/range")
+    @Produces("text/plain")
+    Response taskServerLogByTagRange(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId,
+            @PathParam("tasktag") String taskTag, @QueryParam("offset") @DefaultValue("0") long offset,
+            @QueryParam("limit") @DefaultValue("-1") long limit)
+            throws NotConnectedRestException, UnknownJobRestException, PermissionRestException;
+
     /**
      * Pauses the job represented by jobid
      * 
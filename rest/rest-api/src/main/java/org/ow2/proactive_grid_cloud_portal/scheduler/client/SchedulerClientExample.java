@@ -62,7 +62,7 @@ public class SchedulerClientExample {
         JobIdData flatJob = scheduler.submitFlat(sessionId, "echo hello", "test-hello", null, null);
         System.out.println("Jobid=" + flatJob);
 
-        String serverlog = scheduler.jobServerLog(sessionId, Long.toString(flatJob.getId()));
+        String serverlog = scheduler.jobServerLog(sessionId, Long.toString(flatJob.getId())).readEntity(String.class);
         System.out.println(serverlog);
 
         while (true) {
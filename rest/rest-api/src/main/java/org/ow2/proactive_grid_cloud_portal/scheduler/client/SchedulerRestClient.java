@@ -60,6 +60,7 @@ import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
 import org.jboss.resteasy.client.jaxrs.ResteasyWebTarget;
 import org.jboss.resteasy.plugins.providers.multipart.MultipartFormDataOutput;
 import org.jboss.resteasy.spi.ResteasyProviderFactory;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
 import org.ow2.proactive_grid_cloud_portal.common.SchedulerRestInterface;
 import org.ow2.proactive_grid_cloud_portal.common.exceptionmapper.ExceptionToJson;
 import org.ow2.proactive_grid_cloud_portal.dataspace.dto.ListFile;
@@ -419,6 +420,59 @@ public class SchedulerRestClient {
         }
     }
 
+    public ServerLogsChunk jobServerLogs(String sessionId, String jobId, long offset, int length) throws Exception {
+        return serverLogs(sessionId, "jobs/" + escapeUrlPathSegment(jobId) + "/log/server/range", offset, length);
+    }
+
+    public ServerLogsChunk taskServerLogs(String sessionId, String jobId, String taskName, long offset, int length)
+            throws Exception {
+        return serverLogs(sessionId,
+                          "jobs/" + escapeUrlPathSegment(jobId) + "/tasks/" + escapeUrlPathSegment(taskName) +
+                                     "/log/server/range",
+                          offset,
+                          length);
+    }
+
+    public ServerLogsChunk taskServerLogsByTag(String sessionId, String jobId, String taskTag, long offset,
+            int length) throws Exception {
+        return serverLogs(sessionId,
+                          "jobs/" + escapeUrlPathSegment(jobId) + "/tasks/tag/" + escapeUrlPathSegment(taskTag) +
+                                     "/log/server/range",
+                          offset,
+                          length);
+    }
+
+    private ServerLogsChunk serverLogs(String sessionId, String path, long offset, int length) throws Exception {
+        String uriTmpl = restEndpointURL + addSlashIfMissing(restEndpointURL) + "scheduler/" + path;
+        ResteasyClient client = new ResteasyClientBuilder().httpEngine(httpEngine)
+                                                           .providerFactory(providerFactory)
+                                                           .build();
+        ResteasyWebTarget target = client.target(uriTmpl).queryParam("offset", offset).queryParam("limit", length);
+        Response response = null;
+        try {
+            response = target.request().header("sessionid", sessionId).get();
+            if (response.getStatus() != HttpURLConnection.HTTP_OK) {
+                if (response.getStatus() == HttpURLConnection.HTTP_UNAUTHORIZED) {
+                    throw new NotConnectedRestException("User not authenticated or session timeout.");
+                } else {
+                    throwException(String.format("Cannot retrieve the server logs. Status code: %d",
+                                                 response.getStatus()),
+                                   response);
+                }
+            }
+            return new ServerLogsChunk(response.readEntity(byte[].class),
+                                       Long.parseLong(response.getHeaderString("x-logs-offset")),
+                                       Long.parseLong(response.getHeaderString("x-logs-size")));
+        } finally {
+            if (response != null) {
+                response.close();
+            }
+            if (!client.isClosed()) {
+                client.close();
+            }
+        }
+    }
+
     private JobIdData submit(String sessionId, InputStream job, MediaType mediaType, Map<String, String> variables)
             throws Exception {
         String uriTmpl = restEndpointURL + addSlashIfMissing(restEndpointURL) + "scheduler/submit";
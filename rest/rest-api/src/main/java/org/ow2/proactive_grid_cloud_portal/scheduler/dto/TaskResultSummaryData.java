@@ -0,0 +1,80 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.dto;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+
+@XmlRootElement
+public class TaskResultSummaryData {
+
+    private TaskIdData id;
+
+    private boolean hadException;
+
+    private boolean precious;
+
+    private long resultTime;
+
+    public TaskIdData getId() {
+        return id;
+    }
+
+    public void setId(TaskIdData id) {
+        this.id = id;
+    }
+
+    public boolean isHadException() {
+        return hadException;
+    }
+
+    public void setHadException(boolean hadException) {
+        this.hadException = hadException;
+    }
+
+    public boolean isPrecious() {
+        return precious;
+    }
+
+    public void setPrecious(boolean precious) {
+        this.precious = precious;
+    }
+
+    public long getResultTime() {
+        return resultTime;
+    }
+
+    public void setResultTime(long resultTime) {
+        this.resultTime = resultTime;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskResultSummaryData{" + "id=" + id + ", hadException=" + hadException + ", precious=" + precious +
+               ", resultTime=" + resultTime + '}';
+    }
+
+}
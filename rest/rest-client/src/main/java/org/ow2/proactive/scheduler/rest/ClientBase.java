@@ -28,6 +28,8 @@ package org.ow2.proactive.scheduler.rest;
 import org.ow2.proactive.scheduler.common.SchedulerEvent;
 import org.ow2.proactive.scheduler.common.SchedulerEventListener;
 import org.ow2.proactive.scheduler.common.SchedulerState;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
+import org.ow2.proactive.scheduler.common.ServerLogsSnapshot;
 import org.ow2.proactive.scheduler.common.exception.NotConnectedException;
 import org.ow2.proactive.scheduler.common.exception.PermissionException;
 import org.ow2.proactive.scheduler.common.exception.UnknownJobException;
@@ -91,6 +93,13 @@ public abstract class ClientBase implements ISchedulerClient {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public ServerLogsChunk getServerLogs(String arg0, ServerLogsSnapshot arg1, long arg2, int arg3)
+            throws NotConnectedException, UnknownJobException, PermissionException {
+        // the ranged REST calls return the whole range at once, without a snapshot
+        throw newUnsupportedOperationException();
+    }
+
     private UnsupportedOperationException newUnsupportedOperationException() {
         return new UnsupportedOperationException(String.format("%s does not implements %s(...).",
                                                                className(),
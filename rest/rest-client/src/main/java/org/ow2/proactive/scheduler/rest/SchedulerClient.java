@@ -49,6 +49,8 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import javax.ws.rs.core.Response;
+
 import org.apache.http.client.HttpClient;
 import org.apache.log4j.Logger;
 import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
@@ -63,6 +65,7 @@ import org.ow2.proactive.scheduler.common.job.*;
 import org.ow2.proactive.scheduler.common.job.factories.Job2XMLTransformer;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskResult;
+import org.ow2.proactive.scheduler.common.task.TaskResultSummary;
 import org.ow2.proactive.scheduler.common.task.TaskState;
 import org.ow2.proactive.scheduler.common.usage.JobUsage;
 import org.ow2.proactive.scheduler.job.JobIdImpl;
@@ -221,6 +224,25 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
         return jobResult;
     }
 
+    @Override
+    public Map<String, TaskResultSummary> getJobResultSummary(JobId jobId)
+            throws NotConnectedException, PermissionException, UnknownJobException {
+        return getJobResultSummary(jobId.value());
+    }
+
+    @Override
+    public Map<String, TaskResultSummary> getJobResultSummary(String jobId)
+            throws NotConnectedException, PermissionException, UnknownJobException {
+        Map<String, TaskResultSummary> summaries = null;
+        try {
+            Map<String, TaskResultSummaryData> summariesData = restApi().jobResultSummary(sid, jobId);
+            summaries = toTaskResultSummaries(JobIdImpl.makeJobId(jobId), summariesData);
+        } catch (Exception e) {
+            throwUJEOrNCEOrPE(e);
+        }
+        return summaries;
+    }
+
     @Override
     public JobState getJobState(String jobId) throws NotConnectedException, UnknownJobException, PermissionException {
         JobState jobState = null;
@@ -251,12 +273,38 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
         return jobInfos;
     }
 
+    @Override
+    public CursorPage<JobInfo> getJobsAfter(String cursor, int limit, JobFilterCriteria criteria)
+            throws NotConnectedException, PermissionException {
+        CursorPage<JobInfo> jobInfos = null;
+        try {
+            RestCursorPage<UserJobData> userJobDataList = restApi().jobsInfoAfter(sid,
+                                                                                  cursor,
+                                                                                  limit,
+                                                                                  criteria.isMyJobsOnly(),
+                                                                                  criteria.isPending(),
+                                                                                  criteria.isRunning(),
+                                                                                  criteria.isFinished());
+            jobInfos = new CursorPage<JobInfo>(toJobInfos(userJobDataList.getList()),
+                                               userJobDataList.getSize(),
+                                               userJobDataList.getNextCursor());
+        } catch (Exception e) {
+            throwNCEOrPE(e);
+        }
+        return jobInfos;
+    }
+
     @Override
     public String getJobServerLogs(String jobId)
             throws UnknownJobException, NotConnectedException, PermissionException {
         String jobServerLog = "";
         try {
-            jobServerLog = restApi().jobServerLog(sid, jobId);
+            Response response = restApi().jobServerLog(sid, jobId);
+            try {
+                jobServerLog = response.readEntity(String.class);
+            } finally {
+                response.close();
+            }
         } catch (Exception e) {
             throwUJEOrNCEOrPE(e);
         }
@@ -350,6 +398,42 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
         return taskLogs;
     }
 
+    @Override
+    public ServerLogsChunk getJobServerLogs(String jobId, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        ServerLogsChunk jobServerLog = null;
+        try {
+            jobServerLog = restApiClient().jobServerLogs(sid, jobId, offset, length);
+        } catch (Exception e) {
+            throwUJEOrNCEOrPE(e);
+        }
+        return jobServerLog;
+    }
+
+    @Override
+    public ServerLogsChunk getTaskServerLogs(String jobId, String taskName, long offset, int length)
+            throws UnknownJobException, UnknownTaskException, NotConnectedException, PermissionException {
+        ServerLogsChunk taskLogs = null;
+        try {
+            taskLogs = restApiClient().taskServerLogs(sid, jobId, taskName, offset, length);
+        } catch (Exception e) {
+            throwUJEOrNCEOrPEOrUTE(e);
+        }
+        return taskLogs;
+    }
+
+    @Override
+    public ServerLogsChunk getTaskServerLogsByTag(String jobId, String tag, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        ServerLogsChunk taskLogs = null;
+        try {
+            taskLogs = restApiClient().taskServerLogsByTag(sid, jobId, tag, offset, length);
+        } catch (Exception e) {
+            throwUJEOrNCEOrPE(e);
+        }
+        return taskLogs;
+    }
+
     @Override
     public List<SchedulerUserInfo> getUsers() throws NotConnectedException, PermissionException {
         List<SchedulerUserInfo> schedulerUserInfos = null;
@@ -1045,6 +1129,34 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
         return new Page<TaskState>(lTaskStates, page.getSize());
     }
 
+    @Override
+    public CursorPage<TaskState> getTaskStatesAfter(String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        RestCursorPage<TaskStateData> page = null;
+        try {
+            page = restApi().getTaskStatesAfter(sid,
+                                                taskTag,
+                                                from,
+                                                to,
+                                                mytasks,
+                                                running,
+                                                pending,
+                                                finished,
+                                                cursor,
+                                                limit);
+        } catch (NotConnectedRestException e) {
+            throw new NotConnectedException(e);
+        } catch (PermissionRestException e) {
+            throw new PermissionException(e);
+        }
+        List<TaskState> lTaskStates = new ArrayList<TaskState>(page.getList().size());
+        for (TaskStateData taskStateData : page.getList()) {
+            lTaskStates.add(new TaskStateImpl(taskStateData));
+        }
+        return new CursorPage<TaskState>(lTaskStates, page.getSize(), page.getNextCursor());
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         JobInfoData jobInfoData = null;
@@ -28,7 +28,9 @@ package org.ow2.proactive.scheduler.rest.data;
 import static org.ow2.proactive.scheduler.task.TaskIdImpl.createTaskId;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.ow2.proactive.scheduler.common.job.JobId;
 import org.ow2.proactive.scheduler.common.job.JobInfo;
@@ -39,6 +41,7 @@ import org.ow2.proactive.scheduler.common.job.JobStatus;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskInfo;
 import org.ow2.proactive.scheduler.common.task.TaskResult;
+import org.ow2.proactive.scheduler.common.task.TaskResultSummary;
 import org.ow2.proactive.scheduler.common.task.TaskState;
 import org.ow2.proactive.scheduler.common.task.TaskStatus;
 import org.ow2.proactive.scheduler.common.usage.JobUsage;
@@ -128,6 +131,20 @@ public class DataUtility {
         return new JobResultImpl(d);
     }
 
+    public static Map<String, TaskResultSummary> toTaskResultSummaries(JobId jobId,
+            Map<String, TaskResultSummaryData> dataMap) {
+        Map<String, TaskResultSummary> summaries = new HashMap<>(dataMap.size());
+        for (Map.Entry<String, TaskResultSummaryData> entry : dataMap.entrySet()) {
+            TaskResultSummaryData d = entry.getValue();
+            summaries.put(entry.getKey(),
+                          new TaskResultSummary(taskId(jobId, d.getId()),
+                                                d.isHadException(),
+                                                d.isPrecious(),
+                                                d.getResultTime()));
+        }
+        return summaries;
+    }
+
     public static List<JobUsage> toJobUsages(List<JobUsageData> dataList) {
         List<JobUsage> jobUsages = new ArrayList<>(dataList.size());
         for (JobUsageData d : dataList) {
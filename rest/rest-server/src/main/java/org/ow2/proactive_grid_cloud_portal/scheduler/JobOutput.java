@@ -25,49 +25,170 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler;
 
-import org.objectweb.proactive.core.util.CircularArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 
+/**
+ * Live output of a job, kept in a bounded ring buffer of lines.
+ * <p>
+ * Lines are numbered by a sequence and read from a cursor, so that readers never lock the
+ * writer and each poll only returns the lines written since the previous one. When the buffer is
+ * full, the oldest lines are overwritten. The characters kept by all the job outputs are limited
+ * by a global budget, new lines are dropped when it is exhausted.
+ * <p>
+ * Lines are written by a single thread at a time (the appender is synchronized).
+ */
 public class JobOutput {
 
-    private CircularArrayList<String> currentLogs;
+    public static final int DEFAULT_MAX_LINES = 10000;
+
+    public static final long DEFAULT_MAX_TOTAL_SIZE = 64 * 1024 * 1024;
+
+    /** Number of characters kept by all the job outputs */
+    private static final AtomicLong totalSize = new AtomicLong();
+
+    private final AtomicReferenceArray<Line> lines;
+
+    private final long maxTotalSize;
+
+    /** Sequence of the next line to write, lines before it are published */
+    private final AtomicLong writeSequence = new AtomicLong();
 
-    private CircularArrayList<String> allLogs;
+    /** Sequence of the next line to return by {@link #fetchNewLogs()} */
+    private final AtomicLong readCursor = new AtomicLong();
+
+    private long droppedLines;
+
+    private volatile long lastAccessTime = System.currentTimeMillis();
 
     public JobOutput() {
-        currentLogs = new CircularArrayList<>(50);
-        allLogs = new CircularArrayList<>(50);
+        this(DEFAULT_MAX_LINES, DEFAULT_MAX_TOTAL_SIZE);
+    }
+
+    /**
+     * @param maxLines the maximum number of lines kept for this job
+     * @param maxTotalSize the maximum number of characters kept by all the job outputs
+     */
+    public JobOutput(int maxLines, long maxTotalSize) {
+        this.lines = new AtomicReferenceArray<>(maxLines);
+        this.maxTotalSize = maxTotalSize;
     }
 
-    public synchronized void log(String message) {
-        currentLogs.add(message);
-        allLogs.add(message);
+    public void log(String message) {
+        if (droppedLines > 0) {
+            String summary = "[" + droppedLines + " log lines dropped]" + System.lineSeparator();
+            if (!write(summary)) {
+                droppedLines++;
+                return;
+            }
+            droppedLines = 0;
+        }
+        if (!write(message)) {
+            droppedLines++;
+        }
+    }
+
+    /**
+     * @return false if the line was dropped because the global budget is exhausted
+     */
+    private boolean write(String message) {
+        long sequence = writeSequence.get();
+        int index = index(sequence);
+        // release the line about to be overwritten before reserving, a full buffer must not count it twice
+        Line previous = lines.getAndSet(index, null);
+        if (previous != null) {
+            totalSize.addAndGet(-previous.text.length());
+        }
+        if (totalSize.addAndGet(message.length()) > maxTotalSize) {
+            totalSize.addAndGet(-message.length());
+            return false;
+        }
+        lines.set(index, new Line(sequence, message));
+        writeSequence.set(sequence + 1);
+        return true;
     }
 
     /**
      * @return the logs appended since last call, i.e logs are removed when fetched
      */
-    public synchronized String fetchNewLogs() {
-        int size = currentLogs.size();
-        StringBuilder mes = new StringBuilder();
-        for (int i = 0; i < size; i++) {
-            mes.append(currentLogs.remove(0));
+    public String fetchNewLogs() {
+        lastAccessTime = System.currentTimeMillis();
+        while (true) {
+            long cursor = readCursor.get();
+            long end = writeSequence.get();
+            String logs = read(cursor, end);
+            if (readCursor.compareAndSet(cursor, end)) {
+                return logs;
+            }
         }
-        return mes.toString();
     }
 
     /**
-     * @return all the logs since creation, i.e logs are not removed
+     * @return all the logs still kept in the buffer, i.e logs are not removed
      */
-    public synchronized String fetchAllLogs() {
-        StringBuilder mes = new StringBuilder();
-        for (String aSavedOutput : allLogs) {
-            mes.append(aSavedOutput);
+    public String fetchAllLogs() {
+        lastAccessTime = System.currentTimeMillis();
+        return read(0, writeSequence.get());
+    }
+
+    /**
+     * @return the number of lines not yet fetched by {@link #fetchNewLogs()}
+     */
+    public int size() {
+        lastAccessTime = System.currentTimeMillis();
+        long end = writeSequence.get();
+        return (int) (end - Math.max(readCursor.get(), end - lines.length()));
+    }
+
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    /**
+     * @return the number of characters kept by all the job outputs
+     */
+    static long getTotalSize() {
+        return totalSize.get();
+    }
+
+    /**
+     * Releases the lines kept by this job output.
+     */
+    public void clear() {
+        for (int i = 0; i < lines.length(); i++) {
+            Line line = lines.getAndSet(i, null);
+            if (line != null) {
+                totalSize.addAndGet(-line.text.length());
+            }
         }
-        return mes.toString();
     }
 
-    public synchronized int size() {
-        return currentLogs.size();
+    private String read(long from, long to) {
+        StringBuilder logs = new StringBuilder();
+        for (long sequence = Math.max(from, to - lines.length()); sequence < to; sequence++) {
+            Line line = lines.get(index(sequence));
+            // the line may have been overwritten by a newer one
+            if (line != null && line.sequence == sequence) {
+                logs.append(line.text);
+            }
+        }
+        return logs.toString();
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % lines.length());
+    }
+
+    private static final class Line {
+
+        private final long sequence;
+
+        private final String text;
+
+        private Line(long sequence, String text) {
+            this.sequence = sequence;
+            this.text = text;
+        }
     }
 }
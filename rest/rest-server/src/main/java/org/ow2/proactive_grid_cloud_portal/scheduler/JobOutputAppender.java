@@ -35,10 +35,15 @@ import org.ow2.proactive.scheduler.common.task.Log4JTaskLogs;
 
 public class JobOutputAppender extends AppenderSkeleton {
 
-    private JobOutput jobOutput = new JobOutput();
+    private final JobOutput jobOutput;
 
     public JobOutputAppender() throws NotConnectedException, UnknownJobException, PermissionException {
+        this(JobOutput.DEFAULT_MAX_LINES, JobOutput.DEFAULT_MAX_TOTAL_SIZE);
+    }
+
+    public JobOutputAppender(int maxLines, long maxTotalSize) {
         this.name = "Appender for job output";
+        this.jobOutput = new JobOutput(maxLines, maxTotalSize);
 
         this.setLayout(Log4JTaskLogs.getTaskLogLayout());
     }
@@ -51,8 +56,9 @@ public class JobOutputAppender extends AppenderSkeleton {
     }
 
     @Override
-    public void close() {
+    public synchronized void close() {
         super.closed = true;
+        jobOutput.clear();
     }
 
     @Override
@@ -71,4 +77,8 @@ public class JobOutputAppender extends AppenderSkeleton {
     public int size() {
         return jobOutput.size();
     }
+
+    public long getLastAccessTime() {
+        return jobOutput.getLastAccessTime();
+    }
 }
@@ -26,13 +26,19 @@
 package org.ow2.proactive_grid_cloud_portal.scheduler;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.core.util.log.ProActiveLogger;
+import org.objectweb.proactive.utils.NamedThreadFactory;
 import org.ow2.proactive.scheduler.common.exception.NotConnectedException;
 import org.ow2.proactive.scheduler.common.exception.PermissionException;
 import org.ow2.proactive.scheduler.common.exception.UnknownJobException;
@@ -45,6 +51,10 @@ import org.ow2.proactive_grid_cloud_portal.webapp.PortalConfiguration;
 
 /**
  * Create, show and remove jobs output
+ * <p>
+ * Reading the output of a job does not lock the controller, only the creation and
+ * the removal of job outputs do. Job outputs which are not read during
+ * {@link PortalConfiguration#scheduler_joboutput_idle_timeout} are removed.
  *
  * @author The ProActive Team
  * @since ProActive Scheduling 0.9
@@ -52,9 +62,16 @@ import org.ow2.proactive_grid_cloud_portal.webapp.PortalConfiguration;
 public class JobsOutputController {
     private static final Logger LOGGER = ProActiveLogger.getLogger(JobsOutputController.class);
 
+    private static final long EVICTION_PERIOD = 60; // s
+
+    /** Controllers having job outputs, checked for idle job outputs */
+    private static final Set<JobsOutputController> controllers = Collections.newSetFromMap(new ConcurrentHashMap<JobsOutputController, Boolean>());
+
+    private static ScheduledExecutorService evictor;
+
     private LogForwardingService logForwardingService;
 
-    private Map<String, JobOutputAppender> appenders = new HashMap<>();
+    private final Map<String, JobOutputAppender> appenders = new ConcurrentHashMap<>();
 
     private Set<String> listeningTo = new HashSet<>();
 
@@ -64,17 +81,17 @@ public class JobsOutputController {
         this.session = session;
     }
 
-    public synchronized String getNewLogs(String jobId) throws LogForwardingException, NotConnectedException,
+    public String getNewLogs(String jobId) throws LogForwardingException, NotConnectedException,
             UnknownJobException, PermissionException, IOException {
         return getJobOutputAppender(jobId).fetchNewLogs();
     }
 
-    public synchronized String getAllLogs(String jobId) throws LogForwardingException, NotConnectedException,
+    public String getAllLogs(String jobId) throws LogForwardingException, NotConnectedException,
             UnknownJobException, PermissionException, IOException {
         return getJobOutputAppender(jobId).fetchAllLogs();
     }
 
-    public synchronized int availableLinesCount(String jobId) {
+    public int availableLinesCount(String jobId) {
         JobOutputAppender appender = appenders.get(jobId);
         if (appender != null) {
             return appender.size();
@@ -90,7 +107,22 @@ public class JobsOutputController {
         }
     }
 
+    private void removeIdleAppenders(long idleTimeout) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, JobOutputAppender> entry : appenders.entrySet()) {
+            if (now - entry.getValue().getLastAccessTime() > idleTimeout) {
+                LOGGER.debug("Removing idle output of job " + entry.getKey());
+                removeAppender(entry.getKey());
+            }
+        }
+    }
+
     public synchronized void terminate() {
+        controllers.remove(this);
+        for (JobOutputAppender appender : appenders.values()) {
+            appender.close();
+        }
+        appenders.clear();
         try {
             if (logForwardingService != null) {
                 logForwardingService.terminate();
@@ -123,11 +155,17 @@ public class JobsOutputController {
         return jobOutputAppender;
     }
 
-    private JobOutputAppender createJobOutputAppender(String jobId) throws NotConnectedException, UnknownJobException,
-            PermissionException, LogForwardingException, IOException {
+    private synchronized JobOutputAppender createJobOutputAppender(String jobId) throws NotConnectedException,
+            UnknownJobException, PermissionException, LogForwardingException, IOException {
 
-        JobOutputAppender jobOutputAppender = new JobOutputAppender();
-        addJobOutputAppender(jobId, jobOutputAppender);
+        JobOutputAppender jobOutputAppender = appenders.get(jobId);
+        if (jobOutputAppender == null) {
+            jobOutputAppender = new JobOutputAppender(getIntProperty(PortalConfiguration.scheduler_joboutput_max_lines,
+                                                                     JobOutput.DEFAULT_MAX_LINES),
+                                                      getLongProperty(PortalConfiguration.scheduler_joboutput_max_total_size,
+                                                                      JobOutput.DEFAULT_MAX_TOTAL_SIZE));
+            addJobOutputAppender(jobId, jobOutputAppender);
+        }
         return jobOutputAppender;
     }
 
@@ -140,6 +178,46 @@ public class JobsOutputController {
             listeningTo.add(jobId);
         }
         appenders.put(jobId, jobOutputAppender);
+        controllers.add(this);
+        startEvictor();
+    }
+
+    private static synchronized void startEvictor() {
+        if (evictor == null) {
+            final long idleTimeout = TimeUnit.SECONDS.toMillis(getLongProperty(PortalConfiguration.scheduler_joboutput_idle_timeout,
+                                                                               600));
+            evictor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("Job output evictor", true));
+            evictor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    for (JobsOutputController controller : controllers) {
+                        try {
+                            controller.removeIdleAppenders(idleTimeout);
+                        } catch (RuntimeException e) {
+                            LOGGER.warn("Could not remove idle job outputs", e);
+                        }
+                    }
+                }
+            }, EVICTION_PERIOD, EVICTION_PERIOD, TimeUnit.SECONDS);
+        }
+    }
+
+    private static int getIntProperty(String name, int defaultValue) {
+        return (int) getLongProperty(name, defaultValue);
+    }
+
+    private static long getLongProperty(String name, long defaultValue) {
+        Properties properties = PortalConfiguration.getProperties();
+        String value = properties == null ? null : properties.getProperty(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Invalid value " + value + " for " + name + ", using " + defaultValue, e);
+            return defaultValue;
+        }
     }
 
 }
@@ -125,6 +125,12 @@ public class SchedulerStateRest implements SchedulerRestInterface {
 
     private static final int TASKS_PAGE_SIZE = PASchedulerProperties.TASKS_PAGE_SIZE.getValueAsInt();
 
+    private static final int DEFAULT_JOBS_PAGE_SIZE = 100;
+
+    private static final int JOBS_PAGE_SIZE = PASchedulerProperties.JOBS_PAGE_SIZE.isSet()
+                                                                                           ? PASchedulerProperties.JOBS_PAGE_SIZE.getValueAsInt()
+                                                                                           : DEFAULT_JOBS_PAGE_SIZE;
+
     static {
         sortableTaskAttrMap = createSortableTaskAttrMap();
     }
@@ -302,6 +308,66 @@ public class SchedulerStateRest implements SchedulerRestInterface {
         }
     }
 
+    /**
+     * Returns a page of jobs, read after the page identified by the given
+     * cursor. Jobs are sorted as in <code>revisionjobsinfo</code>: pending,
+     * running, then finished jobs, the most recent first. The size of the page
+     * is the approximate number of jobs matching the filters.
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param cursor
+     *            optional, the cursor returned with the previous page, the
+     *            first page is returned if not given
+     * @param limit
+     *            optional, the maximum number of jobs to return, the jobs
+     *            page size of the scheduler if not given
+     * @param myJobs
+     *            fetch only the jobs for the user making the request
+     * @param pending
+     *            fetch pending jobs
+     * @param running
+     *            fetch running jobs
+     * @param finished
+     *            fetch finished jobs
+     * @return a list of UserJobData and the cursor of the next page
+     */
+    @Override
+    @GET
+    @GZIP
+    @Path("jobsinfo/cursor")
+    @Produces({ "application/json", "application/xml" })
+    public RestCursorPage<UserJobData> jobsInfoAfter(@HeaderParam("sessionid") String sessionId,
+            @QueryParam("cursor") String cursor, @QueryParam("limit") @DefaultValue("-1") int limit,
+            @QueryParam("myjobs") @DefaultValue("false") boolean myJobs,
+            @QueryParam("pending") @DefaultValue("true") boolean pending,
+            @QueryParam("running") @DefaultValue("true") boolean running,
+            @QueryParam("finished") @DefaultValue("true") boolean finished)
+            throws PermissionRestException, NotConnectedRestException {
+        try {
+            Scheduler s = checkAccess(sessionId, "jobsinfo/cursor?cursor=" + cursor + "&limit=" + limit);
+            String user = sessionStore.get(sessionId).getUserName();
+
+            boolean onlyUserJobs = (myJobs && user != null && user.trim().length() > 0);
+
+            CursorPage<JobInfo> page = s.getJobsAfter(cursor,
+                                                      limit > 0 ? limit : JOBS_PAGE_SIZE,
+                                                      new JobFilterCriteria(onlyUserJobs, pending, running, finished));
+            List<UserJobData> jobs = new ArrayList<>(page.getList().size());
+            for (JobInfo jobInfo : page.getList()) {
+                jobs.add(new UserJobData(mapper.map(jobInfo, JobInfoData.class)));
+            }
+            return new RestCursorPage<>(jobs, page.getSize(), page.getNextCursor());
+        } catch (PermissionException e) {
+            throw new PermissionRestException(e);
+        } catch (NotConnectedException e) {
+            throw new NotConnectedRestException(e);
+        } catch (IllegalArgumentException e) {
+            // malformed cursor
+            throw new BadRequestException(e.getMessage(), e);
+        }
+    }
+
     /**
      * Returns the revision number of the scheduler state
      *
@@ -464,6 +530,48 @@ public class SchedulerStateRest implements SchedulerRestInterface {
         }
     }
 
+    /**
+     * Returns the status of the last result of each task of the job referenced
+     * by the id <code>jobid</code>, without the values, exceptions and logs of
+     * the results
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param jobId
+     *            a job id
+     * @return the summaries of the available task results, by task name
+     */
+    @Override
+    @GET
+    @GZIP
+    @Path("jobs/{jobid}/result/summary")
+    @Produces("application/json")
+    public Map<String, TaskResultSummaryData> jobResultSummary(@HeaderParam("sessionid") String sessionId,
+            @PathParam("jobid") String jobId)
+            throws NotConnectedRestException, PermissionRestException, UnknownJobRestException {
+        try {
+            Scheduler s = checkAccess(sessionId, "jobs/" + jobId + "/result/summary");
+            Map<String, TaskResultSummary> summaries = s.getJobResultSummary(jobId);
+            Map<String, TaskResultSummaryData> res = new HashMap<>(summaries.size());
+            for (Entry<String, TaskResultSummary> entry : summaries.entrySet()) {
+                TaskResultSummary summary = entry.getValue();
+                TaskResultSummaryData summaryData = new TaskResultSummaryData();
+                summaryData.setId(mapper.map(summary.getTaskId(), TaskIdData.class));
+                summaryData.setHadException(summary.hadException());
+                summaryData.setPrecious(summary.isPrecious());
+                summaryData.setResultTime(summary.getResultTime());
+                res.put(entry.getKey(), summaryData);
+            }
+            return res;
+        } catch (PermissionException e) {
+            throw new PermissionRestException(e);
+        } catch (UnknownJobException e) {
+            throw new UnknownJobRestException(e);
+        } catch (NotConnectedException e) {
+            throw new NotConnectedRestException(e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -571,11 +679,12 @@ public class SchedulerStateRest implements SchedulerRestInterface {
     @GZIP
     @Path("jobs/{jobid}/log/server")
     @Produces("application/json")
-    public String jobServerLog(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId)
+    public Response jobServerLog(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId)
             throws NotConnectedRestException, UnknownJobRestException, PermissionRestException {
         try {
             Scheduler s = checkAccess(sessionId, "jobs/" + jobId + "/log/server");
-            return s.getJobServerLogs(jobId);
+            ServerLogsChunk firstChunk = s.getJobServerLogs(jobId, 0, ServerLogsInputStream.firstChunkLength(-1));
+            return serverLogsResponse(new ServerLogsInputStream(s, jobId, firstChunk, -1));
         } catch (PermissionException e) {
             throw new PermissionRestException(e);
         } catch (UnknownJobException e) {
@@ -1899,12 +2008,16 @@ public class SchedulerStateRest implements SchedulerRestInterface {
     @GZIP
     @Path("jobs/{jobid}/tasks/{taskname}/log/server")
     @Produces("application/json")
-    public String taskServerLog(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId,
+    public Response taskServerLog(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId,
             @PathParam("taskname") String taskname) throws NotConnectedRestException, UnknownJobRestException,
             UnknownTaskRestException, PermissionRestException {
         try {
             Scheduler s = checkAccess(sessionId, "jobs/" + jobId + "/tasks/" + taskname + "/log/server");
-            return s.getTaskServerLogs(jobId, taskname);
+            ServerLogsChunk firstChunk = s.getTaskServerLogs(jobId,
+                                                             taskname,
+                                                             0,
+                                                             ServerLogsInputStream.firstChunkLength(-1));
+            return serverLogsResponse(new ServerLogsInputStream(s, jobId, firstChunk, -1));
         } catch (PermissionException e) {
             throw new PermissionRestException(e);
         } catch (UnknownJobException e) {
@@ -1932,12 +2045,142 @@ public class SchedulerStateRest implements SchedulerRestInterface {
     @GZIP
     @Path("jobs/{jobid}/tasks/tag/{tasktag}/log/server")
     @Produces("application/json")
-    public String taskServerLogByTag(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId,
-            @PathParam("tasktag") String taskTag)
+    public Response taskServerLogByTag(@HeaderParam("sessionid") String sessionId,
+            @PathParam("jobid") String jobId, @PathParam("tasktag") String taskTag)
             throws NotConnectedRestException, UnknownJobRestException, PermissionRestException {
         try {
             Scheduler s = checkAccess(sessionId, "jobs/" + jobId + "/tasks/tag/" + taskTag + "/log/server");
-            return s.getTaskServerLogsByTag(jobId, taskTag);
+            ServerLogsChunk firstChunk = s.getTaskServerLogsByTag(jobId,
+                                                                  taskTag,
+                                                                  0,
+                                                                  ServerLogsInputStream.firstChunkLength(-1));
+            return serverLogsResponse(new ServerLogsInputStream(s, jobId, firstChunk, -1));
+        } catch (PermissionException e) {
+            throw new PermissionRestException(e);
+        } catch (UnknownJobException e) {
+            throw new UnknownJobRestException(e);
+        } catch (NotConnectedException e) {
+            throw new NotConnectedRestException(e);
+        }
+    }
+
+    /**
+     * Streams a range of the job server logs
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param jobId
+     *            the id of the job
+     * @param offset
+     *            position of the first byte to return, or if negative, number
+     *            of bytes to return from the end of the logs
+     * @param limit
+     *            maximum number of bytes to return, -1 to read until the end
+     *            of the logs
+     * @return job traces from the scheduler and resource manager
+     */
+    @Override
+    @GET
+    @GZIP
+    @Path("jobs/{jobid}/log/server/range")
+    @Produces("text/plain")
+    public Response jobServerLogRange(@HeaderParam("sessionid") String sessionId,
+            @PathParam("jobid") String jobId, @QueryParam("offset") @DefaultValue("0") long offset,
+            @QueryParam("limit") @DefaultValue("-1") long limit)
+            throws NotConnectedRestException, UnknownJobRestException, PermissionRestException {
+        try {
+            Scheduler s = checkAccess(sessionId, "jobs/" + jobId + "/log/server/range");
+            ServerLogsChunk firstChunk = s.getJobServerLogs(jobId,
+                                                            offset,
+                                                            ServerLogsInputStream.firstChunkLength(limit));
+            return serverLogsResponse(new ServerLogsInputStream(s, jobId, firstChunk, limit));
+        } catch (PermissionException e) {
+            throw new PermissionRestException(e);
+        } catch (UnknownJobException e) {
+            throw new UnknownJobRestException(e);
+        } catch (NotConnectedException e) {
+            throw new NotConnectedRestException(e);
+        }
+    }
+
+    /**
+     * Streams a range of the task server logs
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param jobId
+     *            the id of the job
+     * @param taskname
+     *            the name of the task
+     * @param offset
+     *            position of the first byte to return, or if negative, number
+     *            of bytes to return from the end of the logs
+     * @param limit
+     *            maximum number of bytes to return, -1 to read until the end
+     *            of the logs
+     * @return task traces from the scheduler and resource manager
+     */
+    @Override
+    @GET
+    @GZIP
+    @Path("jobs/{jobid}/tasks/{taskname}/log/server/range")
+    @Produces("text/plain")
+    public Response taskServerLogRange(@HeaderParam("sessionid") String sessionId,
+            @PathParam("jobid") String jobId, @PathParam("taskname") String taskname,
+            @QueryParam("offset") @DefaultValue("0") long offset, @QueryParam("limit") @DefaultValue("-1") long limit)
+            throws NotConnectedRestException, UnknownJobRestException, UnknownTaskRestException,
+            PermissionRestException {
+        try {
+            Scheduler s = checkAccess(sessionId, "jobs/" + jobId + "/tasks/" + taskname + "/log/server/range");
+            ServerLogsChunk firstChunk = s.getTaskServerLogs(jobId,
+                                                             taskname,
+                                                             offset,
+                                                             ServerLogsInputStream.firstChunkLength(limit));
+            return serverLogsResponse(new ServerLogsInputStream(s, jobId, firstChunk, limit));
+        } catch (PermissionException e) {
+            throw new PermissionRestException(e);
+        } catch (UnknownJobException e) {
+            throw new UnknownJobRestException(e);
+        } catch (NotConnectedException e) {
+            throw new NotConnectedRestException(e);
+        } catch (UnknownTaskException e) {
+            throw new UnknownTaskRestException(e);
+        }
+    }
+
+    /**
+     * Streams a range of the server logs of the tasks filtered by a given tag.
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param jobId
+     *            the id of the job
+     * @param taskTag
+     *            the tag used to filter the tasks in the job.
+     * @param offset
+     *            position of the first byte to return, or if negative, number
+     *            of bytes to return from the end of the logs
+     * @param limit
+     *            maximum number of bytes to return, -1 to read until the end
+     *            of the logs
+     * @return task traces from the scheduler and resource manager
+     */
+    @Override
+    @GET
+    @GZIP
+    @Path("jobs/{jobid}/tasks/tag/{tasktag}/log/server/range")
+    @Produces("text/plain")
+    public Response taskServerLogByTagRange(@HeaderParam("sessionid") String sessionId,
+            @PathParam("jobid") String jobId, @PathParam("tasktag") String taskTag,
+            @QueryParam("offset") @DefaultValue("0") long offset, @QueryParam("limit") @DefaultValue("-1") long limit)
+            throws NotConnectedRestException, UnknownJobRestException, PermissionRestException {
+        try {
+            Scheduler s = checkAccess(sessionId, "jobs/" + jobId + "/tasks/tag/" + taskTag + "/log/server/range");
+            ServerLogsChunk firstChunk = s.getTaskServerLogsByTag(jobId,
+                                                                  taskTag,
+                                                                  offset,
+                                                                  ServerLogsInputStream.firstChunkLength(limit));
+            return serverLogsResponse(new ServerLogsInputStream(s, jobId, firstChunk, limit));
         } catch (PermissionException e) {
             throw new PermissionRestException(e);
         } catch (UnknownJobException e) {
@@ -1947,6 +2190,27 @@ public class SchedulerStateRest implements SchedulerRestInterface {
         }
     }
 
+    /**
+     * Builds a response streaming the logs chunk by chunk, without an
+     * entity length, so that the container uses chunked transfer
+     */
+    private Response serverLogsResponse(final ServerLogsInputStream logs) {
+        StreamingOutput body = new StreamingOutput() {
+            @Override
+            public void write(OutputStream output) throws IOException {
+                try {
+                    IOUtils.copy(logs, output);
+                } finally {
+                    logs.close();
+                }
+            }
+        };
+        return Response.ok(body)
+                       .header("x-logs-offset", logs.getOffset())
+                       .header("x-logs-size", logs.getSize())
+                       .build();
+    }
+
     /**
      * the method check if the session id is valid i.e. a scheduler client is
      * associated to the session id in the session map. If not, a
@@ -3397,6 +3661,34 @@ public class SchedulerStateRest implements SchedulerRestInterface {
         }
     }
 
+    @Override
+    public RestCursorPage<TaskStateData> getTaskStatesAfter(String sessionId, String taskTag, long from, long to,
+            boolean mytasks, boolean running, boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedRestException, PermissionRestException {
+        Scheduler s = checkAccess(sessionId, "taskstates/cursor");
+
+        try {
+            CursorPage<TaskState> page = s.getTaskStatesAfter(taskTag,
+                                                              from,
+                                                              to,
+                                                              mytasks,
+                                                              running,
+                                                              pending,
+                                                              finished,
+                                                              cursor,
+                                                              limit > 0 ? limit : TASKS_PAGE_SIZE);
+            List<TaskStateData> tasks = map(page.getList(), TaskStateData.class);
+            return new RestCursorPage<TaskStateData>(tasks, page.getSize(), page.getNextCursor());
+        } catch (NotConnectedException e) {
+            throw new NotConnectedRestException(e);
+        } catch (PermissionException e) {
+            throw new PermissionRestException(e);
+        } catch (IllegalArgumentException e) {
+            // malformed cursor
+            throw new BadRequestException(e.getMessage(), e);
+        }
+    }
+
     /**
      * Translates the tasks attributes names that are used to sort the result
      * For example the task status is called `status` client-side, it is
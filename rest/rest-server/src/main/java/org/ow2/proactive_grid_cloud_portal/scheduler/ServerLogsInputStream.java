@@ -0,0 +1,125 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.ow2.proactive.scheduler.common.Scheduler;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
+
+
+/**
+ * Streams a range of server logs, fetching them from the scheduler chunk by chunk
+ * as the stream is consumed. The chunks after the first one are read from the snapshot
+ * of the logs returned with the first chunk.
+ */
+public class ServerLogsInputStream extends InputStream {
+
+    public static final int CHUNK_SIZE = 1024 * 1024;
+
+    private final Scheduler scheduler;
+
+    private final String jobId;
+
+    private final ServerLogsChunk firstChunk;
+
+    private ServerLogsChunk chunk;
+
+    private int index;
+
+    private long remaining;
+
+    /**
+     * @param jobId the job the logs belong to
+     * @param firstChunk the first chunk of the range, fetched with {@link #firstChunkLength(long)}
+     * @param limit maximum number of bytes to stream, negative to stream until the end of the logs
+     */
+    public ServerLogsInputStream(Scheduler scheduler, String jobId, ServerLogsChunk firstChunk, long limit) {
+        this.scheduler = scheduler;
+        this.jobId = jobId;
+        this.firstChunk = firstChunk;
+        this.chunk = firstChunk;
+        this.remaining = limit < 0 ? Long.MAX_VALUE : limit;
+    }
+
+    public static int firstChunkLength(long limit) {
+        return limit < 0 ? CHUNK_SIZE : (int) Math.min(limit, CHUNK_SIZE);
+    }
+
+    /**
+     * @return the position of the first streamed byte in the logs
+     */
+    public long getOffset() {
+        return firstChunk.getOffset();
+    }
+
+    /**
+     * @return the size of the logs in their snapshot, which is the size of the whole stream
+     */
+    public long getSize() {
+        return firstChunk.getSize();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (remaining <= 0) {
+            return -1;
+        }
+        if (index == chunk.getContent().length) {
+            if (chunk.isLast() || chunk.getContent().length == 0) {
+                return -1;
+            }
+            try {
+                chunk = scheduler.getServerLogs(jobId,
+                                                firstChunk.getSnapshot(),
+                                                chunk.getOffset() + chunk.getContent().length,
+                                                (int) Math.min(remaining, CHUNK_SIZE));
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+            index = 0;
+            if (chunk.getContent().length == 0) {
+                return -1;
+            }
+        }
+        int read = (int) Math.min(Math.min(len, chunk.getContent().length - index), remaining);
+        System.arraycopy(chunk.getContent(), index, b, off, read);
+        index += read;
+        remaining -= read;
+        return read;
+    }
+
+}
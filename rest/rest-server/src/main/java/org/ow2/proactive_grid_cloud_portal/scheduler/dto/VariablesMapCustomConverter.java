@@ -0,0 +1,63 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.dto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.dozer.DozerConverter;
+
+
+/**
+ * Copies the propagated variables of a task result into a plain map. The scheduler returns them
+ * as a read-only view merging the variables of the job with the changes made by the task, which
+ * Dozer cannot instantiate.
+ */
+public class VariablesMapCustomConverter extends DozerConverter<Map, Map> {
+
+    public VariablesMapCustomConverter() {
+        super(Map.class, Map.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map convertTo(Map source, Map destination) {
+        return copy(source);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map convertFrom(Map source, Map destination) {
+        return copy(source);
+    }
+
+    private static Map<String, byte[]> copy(Map<String, byte[]> source) {
+        if (source == null) {
+            return null;
+        }
+        return new HashMap<>(source);
+    }
+}
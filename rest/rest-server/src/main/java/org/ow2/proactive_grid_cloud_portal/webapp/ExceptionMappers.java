@@ -30,6 +30,7 @@ import java.net.HttpURLConnection;
 import java.security.KeyException;
 
 import javax.security.auth.login.LoginException;
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -87,6 +88,13 @@ public class ExceptionMappers {
         }
     }
 
+    public static class BadRequestExceptionMapper extends BaseExceptionMapper<BadRequestException> {
+        @Override
+        protected int getErrorCode() {
+            return HttpURLConnection.HTTP_BAD_REQUEST;
+        }
+    }
+
     public static class JobAlreadyFinishedExceptionExceptionMapper
             extends BaseExceptionMapper<JobAlreadyFinishedException> {
         @Override
@@ -43,6 +43,12 @@ public class PortalConfiguration {
 
     public static String scheduler_logforwardingservice_provider = "scheduler.logforwardingservice.provider";
 
+    public static String scheduler_joboutput_max_lines = "scheduler.joboutput.max.lines";
+
+    public static String scheduler_joboutput_max_total_size = "scheduler.joboutput.max.total.size";
+
+    public static String scheduler_joboutput_idle_timeout = "scheduler.joboutput.idle.timeout";
+
     public static String rm_url = "rm.url";
 
     public static String rm_cache_login = "rm.cache.login";
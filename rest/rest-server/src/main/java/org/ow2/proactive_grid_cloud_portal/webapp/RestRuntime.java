@@ -145,6 +145,7 @@ public class RestRuntime {
         dispatcher.registerProvider(ExceptionMappers.PermissionRestExceptionExceptionMapper.class);
         dispatcher.registerProvider(ExceptionMappers.SchedulerRestExceptionExceptionMapper.class);
         dispatcher.registerProvider(ExceptionMappers.NotFoundExceptionMapper.class);
+        dispatcher.registerProvider(ExceptionMappers.BadRequestExceptionMapper.class);
         dispatcher.registerProvider(ExceptionMappers.SubmissionClosedRestExceptionExceptionMapper.class);
         dispatcher.registerProvider(ExceptionMappers.UnknownJobRestExceptionExceptionMapper.class);
         dispatcher.registerProvider(ExceptionMappers.UnknownTaskExceptionExceptionMapper.class);
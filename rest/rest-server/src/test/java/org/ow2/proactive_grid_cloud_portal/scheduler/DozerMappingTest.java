@@ -25,11 +25,15 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -42,13 +46,16 @@ import org.ow2.proactive.scheduler.common.job.JobType;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskInfo;
 import org.ow2.proactive.scheduler.common.task.TaskState;
+import org.ow2.proactive.scheduler.common.task.util.DeltaVariableMap;
 import org.ow2.proactive.scheduler.job.ClientJobState;
 import org.ow2.proactive.scheduler.job.JobIdImpl;
 import org.ow2.proactive.scheduler.job.JobInfoImpl;
 import org.ow2.proactive.scheduler.task.ClientTaskState;
 import org.ow2.proactive.scheduler.task.TaskIdImpl;
 import org.ow2.proactive.scheduler.task.TaskInfoImpl;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
 import org.ow2.proactive_grid_cloud_portal.scheduler.dto.JobStateData;
+import org.ow2.proactive_grid_cloud_portal.scheduler.dto.TaskResultData;
 
 
 public class DozerMappingTest {
@@ -67,6 +74,34 @@ public class DozerMappingTest {
         }
     }
 
+    @Test
+    public void taskResultPropagatedVariables_MergedFromDelta_AreMapped() throws Exception {
+        Map<String, byte[]> base = new HashMap<>();
+        base.put("unchanged", new byte[] { 1 });
+        base.put("modified", new byte[] { 2 });
+        Map<String, byte[]> delta = new HashMap<>();
+        delta.put("modified", new byte[] { 3 });
+        delta.put("added", new byte[] { 4 });
+
+        // task results loaded from the database hold their delta variables as a read-only view
+        TaskId taskId = TaskIdImpl.createTaskId(new JobIdImpl(42, "job"), "task", 1);
+        TaskResultImpl taskResult = new TaskResultImpl(taskId,
+                                                       new byte[0],
+                                                       null,
+                                                       null,
+                                                       null,
+                                                       new DeltaVariableMap(base, delta));
+
+        TaskResultData taskResultData = mapper.map(taskResult, TaskResultData.class);
+
+        Map<String, byte[]> variables = taskResultData.getPropagatedVariables();
+        assertThat(variables, instanceOf(HashMap.class));
+        assertEquals(3, variables.size());
+        assertArrayEquals(new byte[] { 1 }, variables.get("unchanged"));
+        assertArrayEquals(new byte[] { 3 }, variables.get("modified"));
+        assertArrayEquals(new byte[] { 4 }, variables.get("added"));
+    }
+
     private JobState createJobState() {
         return new ClientJobState(new JobState() {
             @Override
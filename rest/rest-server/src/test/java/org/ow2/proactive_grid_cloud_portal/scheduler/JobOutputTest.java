@@ -0,0 +1,92 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+
+public class JobOutputTest {
+
+    @Test
+    public void newLogsAreReadFromCursor() {
+        JobOutput jobOutput = new JobOutput(10, JobOutput.DEFAULT_MAX_TOTAL_SIZE);
+
+        jobOutput.log("a");
+        jobOutput.log("b");
+        assertEquals(2, jobOutput.size());
+        assertEquals("ab", jobOutput.fetchNewLogs());
+        assertEquals(0, jobOutput.size());
+
+        jobOutput.log("c");
+        assertEquals("c", jobOutput.fetchNewLogs());
+        assertEquals("", jobOutput.fetchNewLogs());
+        assertEquals("abc", jobOutput.fetchAllLogs());
+
+        jobOutput.clear();
+    }
+
+    @Test
+    public void oldestLinesAreOverwritten() {
+        JobOutput jobOutput = new JobOutput(3, JobOutput.DEFAULT_MAX_TOTAL_SIZE);
+
+        for (int i = 0; i < 5; i++) {
+            jobOutput.log(Integer.toString(i));
+        }
+
+        assertEquals(3, jobOutput.size());
+        assertEquals("234", jobOutput.fetchAllLogs());
+        assertEquals("234", jobOutput.fetchNewLogs());
+
+        jobOutput.clear();
+        assertEquals("", jobOutput.fetchAllLogs());
+    }
+
+    @Test
+    public void overwrittenLinesAreReleasedBeforeReserving() {
+        // the budget only leaves room for the lines of a full buffer
+        JobOutput jobOutput = new JobOutput(2, JobOutput.getTotalSize() + 2);
+
+        jobOutput.log("a");
+        jobOutput.log("b");
+        jobOutput.log("c");
+
+        assertEquals("bc", jobOutput.fetchAllLogs());
+
+        jobOutput.clear();
+    }
+
+    @Test
+    public void linesAreDroppedBeyondTotalSize() {
+        JobOutput jobOutput = new JobOutput(10, 0);
+
+        jobOutput.log("a");
+
+        assertEquals(0, jobOutput.size());
+        assertEquals("", jobOutput.fetchNewLogs());
+    }
+}
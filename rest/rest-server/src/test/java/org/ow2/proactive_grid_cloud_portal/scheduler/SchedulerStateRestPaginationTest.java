@@ -26,15 +26,27 @@
 package org.ow2.proactive_grid_cloud_portal.scheduler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import javax.ws.rs.BadRequestException;
+
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.ow2.proactive.scheduler.common.CursorPage;
+import org.ow2.proactive.scheduler.common.JobFilterCriteria;
 import org.ow2.proactive.scheduler.common.job.JobId;
+import org.ow2.proactive.scheduler.common.job.JobInfo;
 import org.ow2.proactive.scheduler.common.job.JobState;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskState;
@@ -123,6 +135,26 @@ public class SchedulerStateRestPaginationTest extends RestTestServer {
 
     }
 
+    @Test
+    public void testJobsInfoAfterIsBoundedWithoutLimit() throws Throwable {
+        CursorPage<JobInfo> emptyPage = new CursorPage<>(Collections.<JobInfo> emptyList(), 0, null);
+        when(mockOfScheduler.getJobsAfter(any(String.class), anyInt(), any(JobFilterCriteria.class))).thenReturn(emptyPage);
+
+        restInterface.jobsInfoAfter(sessionId, null, -1, false, true, true, true);
+
+        ArgumentCaptor<Integer> limit = ArgumentCaptor.forClass(Integer.class);
+        verify(mockOfScheduler).getJobsAfter(eq((String) null), limit.capture(), any(JobFilterCriteria.class));
+        assertTrue(limit.getValue() > 0);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testJobsInfoAfterWithMalformedCursor() throws Throwable {
+        IllegalArgumentException invalidCursor = new IllegalArgumentException("Invalid cursor: malformed");
+        when(mockOfScheduler.getJobsAfter(eq("malformed"), anyInt(), any(JobFilterCriteria.class))).thenThrow(invalidCursor);
+
+        restInterface.jobsInfoAfter(sessionId, "malformed", 10, false, true, true, true);
+    }
+
     private JobState newMockedJob(final String jobIdStr, final int nbTasks) {
         JobState mockedJob = mock(JobState.class);
         JobId mockedJobId = mock(JobId.class);
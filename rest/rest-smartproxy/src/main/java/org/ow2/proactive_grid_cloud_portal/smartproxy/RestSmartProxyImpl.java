@@ -37,6 +37,7 @@ import java.util.concurrent.TimeoutException;
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector;
 import org.ow2.proactive.authentication.ConnectionInfo;
+import org.ow2.proactive.scheduler.common.CursorPage;
 import org.ow2.proactive.scheduler.common.Page;
 import org.ow2.proactive.scheduler.common.SchedulerConstants;
 import org.ow2.proactive.scheduler.common.SchedulerEvent;
@@ -574,6 +575,21 @@ public class RestSmartProxyImpl extends AbstractSmartProxy<RestJobTrackerImpl>
                                              sortParams);
     }
 
+    @Override
+    public CursorPage<TaskState> getTaskStatesAfter(String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        return _getScheduler().getTaskStatesAfter(taskTag,
+                                                  from,
+                                                  to,
+                                                  mytasks,
+                                                  running,
+                                                  pending,
+                                                  finished,
+                                                  cursor,
+                                                  limit);
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         return _getScheduler().getJobInfo(jobId);
@@ -35,6 +35,10 @@ public class RMJMXBeans {
 
     public static final String MANAGEMENT_MBEAN_NAME = "ProActiveResourceManager:name=Management";
 
+    public static final String TRANSACTIONS_MBEAN_NAME = "ProActiveResourceManager:name=Transactions";
+
+    public static final String SCRIPT_ENGINES_MBEAN_NAME = "ProActiveResourceManager:name=ScriptEngines";
+
     private RMJMXBeans() {
     }
 }
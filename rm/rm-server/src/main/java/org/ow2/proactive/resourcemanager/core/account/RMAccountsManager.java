@@ -25,15 +25,10 @@
  */
 package org.ow2.proactive.resourcemanager.core.account;
 
-import java.util.List;
-
-import javax.persistence.Column;
-import javax.persistence.Table;
-
 import org.apache.log4j.Logger;
 import org.ow2.proactive.account.AbstractAccountsManager;
-import org.ow2.proactive.resourcemanager.core.history.NodeHistory;
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
+import org.ow2.proactive.resourcemanager.db.NodeUsageSummary;
 import org.ow2.proactive.resourcemanager.db.RMDBManager;
 
 
@@ -67,108 +62,17 @@ public final class RMAccountsManager extends AbstractAccountsManager<RMAccount>
     }
 
     /**
-     * 
-     * Computes user account data by scanning the data base.
-     * 
+     * Reads user account data from the node usage maintained by the data base manager.
      */
     public RMAccount readAccount(final String user) {
-
-        try {
-
-            RMAccount account = new RMAccount();
-            account.username = user;
-
-            String history = NodeHistory.class.getAnnotation(Table.class).name();
-            String endTime = NodeHistory.class.getDeclaredField("endTime").getAnnotation(Column.class).name();
-            String startTime = NodeHistory.class.getDeclaredField("startTime").getAnnotation(Column.class).name();
-            String nodeState = NodeHistory.class.getDeclaredField("nodeState").getAnnotation(Column.class).name();
-            String userName = NodeHistory.class.getDeclaredField("userName").getAnnotation(Column.class).name();
-            String providerName = NodeHistory.class.getDeclaredField("providerName").getAnnotation(Column.class).name();
-            String nodeUrl = NodeHistory.class.getDeclaredField("nodeUrl").getAnnotation(Column.class).name();
-
-            // counting the time of finished actions 
-            // select SUM(endTime-startTime) from History where endTime <> 0 and nodeState = 1 and userName='NAME'
-            String wereBusy = "SELECT SUM(" + endTime + "-" + startTime + ") " + "FROM " + history + " WHERE " +
-                              userName + "='" + user + "' AND " + endTime + " <> 0 AND " + nodeState + " = 1";
-
-            List<?> rows = dbmanager.executeSqlQuery(wereBusy);
-            account.usedNodeTime += aggregateNodeUsageTime(rows);
-
-            String areBusy = "SELECT SUM(" + System.currentTimeMillis() + "-" + startTime + ") " + "FROM " + history +
-                             " WHERE " + userName + "='" + user + "' AND " + endTime + " = 0 AND " + nodeState + " = 1";
-            rows = dbmanager.executeSqlQuery(areBusy);
-            account.usedNodeTime += aggregateNodeUsageTime(rows);
-
-            // select SUM(endTime-startTime), COUNT(DISTINCT nodeUrl) from History where endTime <> 0 and nodeState in (0,1,3,6) and providerName='rm'
-            String wereProvided = "SELECT COUNT(DISTINCT " + nodeUrl + "), SUM(" + endTime + "-" + startTime + ") " +
-                                  "FROM " + history + " WHERE " + providerName + "='" + user + "' AND " + endTime +
-                                  " <> 0 AND " + nodeState + " in (0,1,3,6)";
-            // select SUM(CURRNET_TIME-startTime), COUNT(DISTINCT nodeUrl) from History where endTime = 0 and nodeState in (0,1,3,6) and providerName='rm'
-            String areProvided = "SELECT 0, SUM(" + System.currentTimeMillis() + "-" + startTime + ") " + "FROM " +
-                                 history + " WHERE " + providerName + "='" + user + "' AND " + endTime + " = 0 AND " +
-                                 nodeState + " in (0,1,3,6)";
-
-            rows = dbmanager.executeSqlQuery(wereProvided);
-            account.providedNodesCount += aggregateProvidedNodesCount(rows);
-            account.providedNodeTime += aggregateProvidedNodeTime(rows);
-
-            rows = dbmanager.executeSqlQuery(areProvided);
-            account.providedNodesCount += aggregateProvidedNodesCount(rows);
-            account.providedNodeTime += aggregateProvidedNodeTime(rows);
-
-            return account;
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private int aggregateNodeUsageTime(List<?> rows) {
-        int usedNodeTime = 0;
-        for (Object row : rows) {
-            try {
-                if (row != null) {
-                    // result could be empty or null
-                    usedNodeTime += Long.parseLong(row.toString());
-                }
-            } catch (RuntimeException e) {
-                logger.warn(e.getMessage(), e);
-                usedNodeTime = 0;
-            }
-        }
-        return usedNodeTime;
-    }
-
-    private int aggregateProvidedNodesCount(List<?> rows) {
-        int providedNodesCount = 0;
-        for (Object row : rows) {
-            Object[] columns = (Object[]) row;
-            if (columns.length > 0 && columns[0] != null) {
-                try {
-                    // result could be empty or null
-                    providedNodesCount += Integer.parseInt(columns[0].toString());
-                } catch (RuntimeException e) {
-                    logger.warn(e.getMessage(), e);
-                    providedNodesCount = 0;
-                }
-            }
-        }
-        return providedNodesCount;
-    }
-
-    private int aggregateProvidedNodeTime(List<?> rows) {
-        int providedNodeTime = 0;
-        for (Object row : rows) {
-            Object[] columns = (Object[]) row;
-            if (columns.length > 1 && columns[1] != null) {
-                try {
-                    // result could be empty or null
-                    providedNodeTime += Long.parseLong(columns[1].toString());
-                } catch (RuntimeException e) {
-                    logger.warn(e.getMessage(), e);
-                    providedNodeTime = 0;
-                }
-            }
-        }
-        return providedNodeTime;
+        NodeUsageSummary nodeUsage = dbmanager.getNodeUsageSummary();
+        long now = System.currentTimeMillis();
+
+        RMAccount account = new RMAccount();
+        account.username = user;
+        account.usedNodeTime = nodeUsage.getUsedNodeTime(user, now);
+        account.providedNodeTime = nodeUsage.getProvidedNodeTime(user, now);
+        account.providedNodesCount = nodeUsage.getProvidedNodesCount(user);
+        return account;
     }
 }
@@ -0,0 +1,106 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.core.history;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+
+/**
+ * Stores the node usage accumulated by a user or a node provider over all
+ * finished node history records. This summary is kept up to date while the node
+ * history is written, so that accounts do not have to be computed by scanning the
+ * {@link NodeHistory} table.
+ *
+ * @see org.ow2.proactive.resourcemanager.db.RMDBManager
+ * @see org.ow2.proactive.resourcemanager.core.account.RMAccountsManager
+ */
+@Entity
+@Table(name = "AccountUsage")
+public class AccountUsage {
+
+    @Id
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "usedNodeTime")
+    private long usedNodeTime;
+
+    @Column(name = "providedNodeTime")
+    private long providedNodeTime;
+
+    @Column(name = "providedNodesCount")
+    private int providedNodesCount;
+
+    /**
+     * Default constructor
+     */
+    public AccountUsage() {
+        // required by Hibernate
+    }
+
+    public AccountUsage(String name, long usedNodeTime, long providedNodeTime, int providedNodesCount) {
+        this.name = name;
+        this.usedNodeTime = usedNodeTime;
+        this.providedNodeTime = providedNodeTime;
+        this.providedNodesCount = providedNodesCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getUsedNodeTime() {
+        return usedNodeTime;
+    }
+
+    public void setUsedNodeTime(long usedNodeTime) {
+        this.usedNodeTime = usedNodeTime;
+    }
+
+    public long getProvidedNodeTime() {
+        return providedNodeTime;
+    }
+
+    public void setProvidedNodeTime(long providedNodeTime) {
+        this.providedNodeTime = providedNodeTime;
+    }
+
+    public int getProvidedNodesCount() {
+        return providedNodesCount;
+    }
+
+    public void setProvidedNodesCount(int providedNodesCount) {
+        this.providedNodesCount = providedNodesCount;
+    }
+
+}
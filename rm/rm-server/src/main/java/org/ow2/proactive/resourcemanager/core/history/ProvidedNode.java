@@ -0,0 +1,82 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.core.history;
+
+import javax.persistence.*;
+
+
+/**
+ * Records that a node has been provided by a given node provider, so that the
+ * number of distinct nodes of a provider can be maintained without counting
+ * them in the {@link NodeHistory} table.
+ *
+ * @see AccountUsage
+ */
+@Entity
+@Table(name = "ProvidedNode", indexes = { @Index(name = "PROVIDED_NODE_PROVIDER", columnList = "providerName,nodeUrl") })
+public class ProvidedNode {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PROVIDED_NODE_ID_SEQUENCE")
+    @SequenceGenerator(name = "PROVIDED_NODE_ID_SEQUENCE", sequenceName = "PROVIDED_NODE_ID_SEQUENCE")
+    @SuppressWarnings("unused")
+    protected long id;
+
+    @Column(name = "providerName")
+    private String providerName;
+
+    @Column(name = "nodeUrl")
+    private String nodeUrl;
+
+    /**
+     * Default constructor
+     */
+    public ProvidedNode() {
+        // required by Hibernate
+    }
+
+    public ProvidedNode(String providerName, String nodeUrl) {
+        this.providerName = providerName;
+        this.nodeUrl = nodeUrl;
+    }
+
+    public String getProviderName() {
+        return providerName;
+    }
+
+    public void setProviderName(String providerName) {
+        this.providerName = providerName;
+    }
+
+    public String getNodeUrl() {
+        return nodeUrl;
+    }
+
+    public void setNodeUrl(String nodeUrl) {
+        this.nodeUrl = nodeUrl;
+    }
+
+}
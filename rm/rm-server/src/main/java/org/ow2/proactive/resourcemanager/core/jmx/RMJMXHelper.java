@@ -44,7 +44,9 @@ import org.ow2.proactive.resourcemanager.core.jmx.mbean.MyAccountMBeanImpl;
 import org.ow2.proactive.resourcemanager.core.jmx.mbean.RuntimeDataMBean;
 import org.ow2.proactive.resourcemanager.core.jmx.mbean.RuntimeDataMBeanImpl;
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
+import org.ow2.proactive.resourcemanager.db.RMDBManager;
 import org.ow2.proactive.resourcemanager.frontend.RMMonitoringImpl;
+import org.ow2.proactive.scripting.ScriptEngineRegistry;
 
 
 /**
@@ -137,6 +139,21 @@ public final class RMJMXHelper extends AbstractJMXHelper {
         } catch (Exception e) {
             LOGGER.error("Unable to register the ManagementMBean", e);
         }
+
+        // Register the database transactions MBean into the MBean server
+        try {
+            final ObjectName name = new ObjectName(RMJMXBeans.TRANSACTIONS_MBEAN_NAME);
+            mbs.registerMBean(RMDBManager.getInstance().getTransactionStatistics(), name);
+        } catch (Exception e) {
+            LOGGER.error("Unable to register the TransactionStatisticsMBean", e);
+        }
+        // Register the script engines MBean into the MBean server
+        try {
+            final ObjectName name = new ObjectName(RMJMXBeans.SCRIPT_ENGINES_MBEAN_NAME);
+            mbs.registerMBean(ScriptEngineRegistry.getInstance(), name);
+        } catch (Exception e) {
+            LOGGER.error("Unable to register the ScriptEngineRegistryMBean", e);
+        }
     }
 
     /**
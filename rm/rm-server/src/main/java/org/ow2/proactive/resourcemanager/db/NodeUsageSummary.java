@@ -0,0 +1,213 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.db;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.ow2.proactive.resourcemanager.common.NodeState;
+import org.ow2.proactive.resourcemanager.core.history.AccountUsage;
+import org.ow2.proactive.resourcemanager.core.history.NodeHistory;
+
+
+/**
+ * In memory view of the node usage of users and node providers.
+ * <p>
+ * The usage of finished node history records is loaded from the {@link AccountUsage}
+ * table and then updated by {@link RMDBManager} each time a node history record is closed.
+ * The usage of the records which are still open is kept as counters, so that the usage
+ * of an account is computed in constant time.
+ */
+public class NodeUsageSummary {
+
+    /** States in which the node time is accounted to the node provider */
+    static final EnumSet<NodeState> PROVIDED_STATES = EnumSet.of(NodeState.FREE,
+                                                                 NodeState.BUSY,
+                                                                 NodeState.TO_BE_REMOVED,
+                                                                 NodeState.CONFIGURING);
+
+    private final Map<String, Usage> usages = new HashMap<>();
+
+    /** Open node history record of each node */
+    private final Map<String, NodeHistory> openRecords = new HashMap<>();
+
+    /** Provider of the registered nodes which are already counted in its provided nodes */
+    private final Map<String, String> countedNodes = new HashMap<>();
+
+    /**
+     * Returns the time the nodes were used by the given user.
+     */
+    public synchronized long getUsedNodeTime(String name, long now) {
+        Usage usage = usages.get(name);
+        if (usage == null) {
+            return 0;
+        }
+        return usage.usedNodeTime + usage.openBusyCount * now - usage.openBusyStartTimes;
+    }
+
+    /**
+     * Returns the time the nodes of the given provider were available.
+     */
+    public synchronized long getProvidedNodeTime(String name, long now) {
+        Usage usage = usages.get(name);
+        if (usage == null) {
+            return 0;
+        }
+        return usage.providedNodeTime + usage.openProvidedCount * now - usage.openProvidedStartTimes;
+    }
+
+    /**
+     * Returns the number of distinct nodes the given provider has provided.
+     */
+    public synchronized int getProvidedNodesCount(String name) {
+        Usage usage = usages.get(name);
+        if (usage == null) {
+            return 0;
+        }
+        return usage.providedNodesCount;
+    }
+
+    synchronized void load(Collection<AccountUsage> accountUsages) {
+        for (AccountUsage accountUsage : accountUsages) {
+            Usage usage = getUsage(accountUsage.getName());
+            usage.usedNodeTime = accountUsage.getUsedNodeTime();
+            usage.providedNodeTime = accountUsage.getProvidedNodeTime();
+            usage.providedNodesCount = accountUsage.getProvidedNodesCount();
+        }
+    }
+
+    synchronized NodeHistory getOpenRecord(String nodeUrl) {
+        return openRecords.get(nodeUrl);
+    }
+
+    synchronized boolean isCounted(String providerName, String nodeUrl) {
+        return providerName.equals(countedNodes.get(nodeUrl));
+    }
+
+    /**
+     * Applies the changes committed in the data base when a node history record is saved.
+     *
+     * @param changes usage of the records closed by the transaction
+     * @param closedRecord the open record of the node closed by the transaction, may be null
+     * @param newRecord the record saved by the transaction
+     */
+    synchronized void apply(Changes changes, NodeHistory closedRecord, NodeHistory newRecord) {
+        for (AccountUsage delta : changes.deltas.values()) {
+            Usage usage = getUsage(delta.getName());
+            usage.usedNodeTime += delta.getUsedNodeTime();
+            usage.providedNodeTime += delta.getProvidedNodeTime();
+            usage.providedNodesCount += delta.getProvidedNodesCount();
+        }
+        countedNodes.putAll(changes.countedNodes);
+
+        if (closedRecord != null) {
+            openRecords.remove(closedRecord.getNodeUrl());
+            updateOpenRecord(closedRecord, -1);
+        }
+
+        if (newRecord.isStoreInDataBase()) {
+            openRecords.put(newRecord.getNodeUrl(), newRecord);
+            updateOpenRecord(newRecord, 1);
+        } else {
+            // the node is being removed
+            countedNodes.remove(newRecord.getNodeUrl());
+        }
+    }
+
+    private void updateOpenRecord(NodeHistory record, int count) {
+        if (record.getNodeState() == NodeState.BUSY && record.getUserName() != null) {
+            Usage usage = getUsage(record.getUserName());
+            usage.openBusyCount += count;
+            usage.openBusyStartTimes += count * record.getStartTime();
+        }
+        if (PROVIDED_STATES.contains(record.getNodeState()) && record.getProviderName() != null) {
+            Usage usage = getUsage(record.getProviderName());
+            usage.openProvidedCount += count;
+            usage.openProvidedStartTimes += count * record.getStartTime();
+        }
+    }
+
+    private Usage getUsage(String name) {
+        Usage usage = usages.get(name);
+        if (usage == null) {
+            usage = new Usage();
+            usages.put(name, usage);
+        }
+        return usage;
+    }
+
+    /**
+     * Usage accumulated by a transaction, applied once the transaction is committed.
+     */
+    static final class Changes {
+
+        /** Usage to add per account */
+        final Map<String, AccountUsage> deltas = new LinkedHashMap<>();
+
+        /** Nodes found counted for their provider */
+        final Map<String, String> countedNodes = new HashMap<>();
+
+        AccountUsage delta(String name) {
+            AccountUsage delta = deltas.get(name);
+            if (delta == null) {
+                delta = new AccountUsage(name, 0, 0, 0);
+                deltas.put(name, delta);
+            }
+            return delta;
+        }
+
+        /**
+         * Forgets the usage accumulated by a transaction which is going to be retried.
+         */
+        void clear() {
+            deltas.clear();
+            countedNodes.clear();
+        }
+
+    }
+
+    private static final class Usage {
+
+        private long usedNodeTime;
+
+        private long providedNodeTime;
+
+        private int providedNodesCount;
+
+        private long openBusyCount;
+
+        private long openBusyStartTimes;
+
+        private long openProvidedCount;
+
+        private long openProvidedStartTimes;
+
+    }
+
+}
@@ -29,13 +29,16 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.TreeMap;
 
 import org.apache.log4j.Logger;
 import org.hibernate.Query;
@@ -47,13 +50,22 @@ import org.objectweb.proactive.core.util.log.ProActiveLogger;
 import org.ow2.proactive.db.DatabaseManagerException;
 import org.ow2.proactive.db.SessionWork;
 import org.ow2.proactive.db.TransactionHelper;
+import org.ow2.proactive.db.TransactionStatistics;
+import org.ow2.proactive.db.UnitOfWork;
+import org.ow2.proactive.resourcemanager.common.NodeState;
+import org.ow2.proactive.resourcemanager.core.history.AccountUsage;
 import org.ow2.proactive.resourcemanager.core.history.Alive;
 import org.ow2.proactive.resourcemanager.core.history.LockHistory;
 import org.ow2.proactive.resourcemanager.core.history.NodeHistory;
+import org.ow2.proactive.resourcemanager.core.history.ProvidedNode;
 import org.ow2.proactive.resourcemanager.core.history.UserHistory;
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
 
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 
 public class RMDBManager {
@@ -66,6 +78,14 @@ public class RMDBManager {
 
     private final TransactionHelper transactionHelper;
 
+    private final NodeUsageSummary nodeUsageSummary = new NodeUsageSummary();
+
+    /** Node history records waiting to be written, in the order they were saved */
+    private final List<NodeHistory> pendingNodeHistories = new ArrayList<>();
+
+    /** Whether a thread is writing the node history records, guarded by pendingNodeHistories */
+    private boolean writingNodeHistories;
+
     private static final class LazyHolder {
 
         private static final RMDBManager INSTANCE = createUsingProperties();
@@ -125,10 +145,12 @@ public class RMDBManager {
      */
     public RMDBManager(Configuration configuration, boolean drop, boolean dropNS) {
         try {
+            configuration.addAnnotatedClass(AccountUsage.class);
             configuration.addAnnotatedClass(Alive.class);
             configuration.addAnnotatedClass(LockHistory.class);
             configuration.addAnnotatedClass(NodeHistory.class);
             configuration.addAnnotatedClass(NodeSourceData.class);
+            configuration.addAnnotatedClass(ProvidedNode.class);
             configuration.addAnnotatedClass(UserHistory.class);
             if (drop) {
                 configuration.setProperty("hibernate.hbm2ddl.auto", "create");
@@ -157,9 +179,17 @@ public class RMDBManager {
                     removeNodeSources();
                 }
 
-                recover(lastAliveTimeResult.getTime());
+                boolean rebuildAccountUsage = isAccountUsageMissing();
+
+                recover(lastAliveTimeResult.getTime(), !rebuildAccountUsage);
+
+                if (rebuildAccountUsage) {
+                    rebuildAccountUsage();
+                }
             }
 
+            nodeUsageSummary.load((List<AccountUsage>) executeSqlQuery("from AccountUsage"));
+
             int periodInMilliseconds = PAResourceManagerProperties.RM_ALIVE_EVENT_FREQUENCY.getValueAsInt();
 
             timer = new Timer("Periodic RM live event saver");
@@ -187,12 +217,22 @@ public class RMDBManager {
         return (Alive) lastAliveTimeResult.get(0);
     }
 
-    private void recover(final long lastAliveTime) {
+    private void recover(final long lastAliveTime, final boolean updateAccountUsage) {
 
         // updating node events with uncompleted end time
         executeReadWriteTransaction(new SessionWork<Void>() {
             @Override
+            @SuppressWarnings("unchecked")
             public Void doInTransaction(Session session) {
+                if (updateAccountUsage) {
+                    List<NodeHistory> openRecords = session.createQuery("from NodeHistory where endTime = 0").list();
+                    NodeUsageSummary.Changes changes = new NodeUsageSummary.Changes();
+                    for (NodeHistory openRecord : openRecords) {
+                        addClosedRecordUsage(session, openRecord, lastAliveTime, changes);
+                    }
+                    saveAccountUsage(session, changes);
+                }
+
                 int updated = session.createSQLQuery("update NodeHistory set endTime = :endTime where endTime = 0")
                                      .setParameter("endTime", lastAliveTime)
                                      .executeUpdate();
@@ -254,11 +294,21 @@ public class RMDBManager {
                 logger.info("Closing session factory");
                 sessionFactory.close();
             }
+            if (transactionHelper != null) {
+                transactionHelper.shutdown();
+            }
         } catch (Exception e) {
             logger.error("Error while closing database", e);
         }
     }
 
+    /**
+     * @return the latency and retries statistics of the transactions of the resource manager database
+     */
+    public TransactionStatistics getTransactionStatistics() {
+        return transactionHelper.getStatistics();
+    }
+
     //======================================================================================
 
     public boolean addNodeSource(final NodeSourceData nodeSourceData) {
@@ -330,18 +380,193 @@ public class RMDBManager {
         });
     }
 
-    public void saveNodeHistory(final NodeHistory nodeHistory) {
+    /**
+     * Saves a node history record, closing the previous record of the node.
+     * The usage of the closed record is added to the account usage in the same transaction.
+     * <p>
+     * The records are written by one thread at a time, in the order they are saved:
+     * the records saved while a transaction is in progress are committed together by
+     * the next one. The retries of a failed transaction do not block the caller, and
+     * the records are dropped if all the retries fail.
+     */
+    public void saveNodeHistory(NodeHistory nodeHistory) {
+        saveNodeHistories(Collections.singletonList(nodeHistory));
+    }
+
+    /**
+     * Saves several node history records in a single transaction, in the given order.
+     *
+     * @see #saveNodeHistory(NodeHistory)
+     */
+    public void saveNodeHistories(Collection<NodeHistory> nodeHistories) {
+        synchronized (pendingNodeHistories) {
+            pendingNodeHistories.addAll(nodeHistories);
+            if (writingNodeHistories) {
+                return;
+            }
+            writingNodeHistories = true;
+        }
+        writePendingNodeHistories();
+    }
+
+    private void writePendingNodeHistories() {
+        while (true) {
+            List<NodeHistory> nodeHistories;
+            synchronized (pendingNodeHistories) {
+                if (pendingNodeHistories.isEmpty()) {
+                    writingNodeHistories = false;
+                    return;
+                }
+                nodeHistories = new ArrayList<>(pendingNodeHistories);
+                pendingNodeHistories.clear();
+            }
+
+            final NodeHistoryWrite write = new NodeHistoryWrite(nodeHistories);
+            final ListenableFuture<List<Object>> result = transactionHelper.executeReadWriteTransactionAsync(write.unitOfWork);
+            if (!result.isDone()) {
+                // the transaction is retried by another thread, which resumes the writing
+                result.addListener(new Runnable() {
+                    @Override
+                    public void run() {
+                        write.completed(result);
+                        writePendingNodeHistories();
+                    }
+                }, MoreExecutors.directExecutor());
+                return;
+            }
+            write.completed(result);
+        }
+    }
+
+    /**
+     * Returns the node usage of users and node providers, maintained from the node history.
+     */
+    public NodeUsageSummary getNodeUsageSummary() {
+        return nodeUsageSummary;
+    }
+
+    private void addClosedRecordUsage(Session session, NodeHistory record, long endTime,
+            NodeUsageSummary.Changes changes) {
+        long duration = Math.max(0, endTime - record.getStartTime());
+
+        if (record.getNodeState() == NodeState.BUSY && record.getUserName() != null) {
+            AccountUsage delta = changes.delta(record.getUserName());
+            delta.setUsedNodeTime(delta.getUsedNodeTime() + duration);
+        }
+
+        String providerName = record.getProviderName();
+        if (NodeUsageSummary.PROVIDED_STATES.contains(record.getNodeState()) && providerName != null) {
+            AccountUsage delta = changes.delta(providerName);
+            delta.setProvidedNodeTime(delta.getProvidedNodeTime() + duration);
+
+            String nodeUrl = record.getNodeUrl();
+            if (!providerName.equals(changes.countedNodes.get(nodeUrl)) &&
+                !nodeUsageSummary.isCounted(providerName, nodeUrl)) {
+                List<?> providedNodes = session.createQuery("select id from ProvidedNode where providerName = :providerName and nodeUrl = :nodeUrl")
+                                               .setParameter("providerName", providerName)
+                                               .setParameter("nodeUrl", nodeUrl)
+                                               .setMaxResults(1)
+                                               .list();
+                if (providedNodes.isEmpty()) {
+                    session.save(new ProvidedNode(providerName, nodeUrl));
+                    delta.setProvidedNodesCount(delta.getProvidedNodesCount() + 1);
+                }
+                changes.countedNodes.put(nodeUrl, providerName);
+            }
+        }
+    }
+
+    private void saveAccountUsage(Session session, NodeUsageSummary.Changes changes) {
+        // the rows are updated in the order of their names so that concurrent transactions
+        // lock them in the same order
+        for (AccountUsage delta : new TreeMap<>(changes.deltas).values()) {
+            AccountUsage accountUsage = session.get(AccountUsage.class, delta.getName());
+
+            if (accountUsage == null) {
+                session.save(new AccountUsage(delta.getName(),
+                                              delta.getUsedNodeTime(),
+                                              delta.getProvidedNodeTime(),
+                                              delta.getProvidedNodesCount()));
+            } else {
+                session.createSQLQuery("update AccountUsage set usedNodeTime = usedNodeTime + :usedNodeTime, " +
+                                       "providedNodeTime = providedNodeTime + :providedNodeTime, " +
+                                       "providedNodesCount = providedNodesCount + :providedNodesCount " +
+                                       "where name = :name")
+                       .setParameter("usedNodeTime", delta.getUsedNodeTime())
+                       .setParameter("providedNodeTime", delta.getProvidedNodeTime())
+                       .setParameter("providedNodesCount", delta.getProvidedNodesCount())
+                       .setParameter("name", delta.getName())
+                       .executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * The account usage is missing when the data base has been created by a version
+     * of the resource manager which was not maintaining it.
+     */
+    private boolean isAccountUsageMissing() {
+        return executeReadTransaction(new SessionWork<Boolean>() {
+            @Override
+            public Boolean doInTransaction(Session session) {
+                return session.createQuery("select name from AccountUsage").setMaxResults(1).list().isEmpty() &&
+                       !session.createQuery("select id from NodeHistory").setMaxResults(1).list().isEmpty();
+            }
+        });
+    }
+
+    /**
+     * Computes the account usage by scanning the node history.
+     */
+    private void rebuildAccountUsage() {
+        logger.info("Rebuilding the account usage from the node history");
+
         executeReadWriteTransaction(new SessionWork<Void>() {
             @Override
+            @SuppressWarnings("unchecked")
             public Void doInTransaction(Session session) {
-                session.createSQLQuery("update NodeHistory set endTime=:endTime where nodeUrl=:nodeUrl and endTime=0")
-                       .setParameter("endTime", nodeHistory.getStartTime())
-                       .setParameter("nodeUrl", nodeHistory.getNodeUrl())
-                       .executeUpdate();
+                NodeUsageSummary.Changes changes = new NodeUsageSummary.Changes();
+
+                List<Object[]> usedNodeTimes = session.createQuery("select userName, sum(endTime - startTime) from NodeHistory " +
+                                                                   "where endTime <> 0 and nodeState = :busy and userName is not null " +
+                                                                   "group by userName")
+                                                      .setParameter("busy", NodeState.BUSY)
+                                                      .list();
+                for (Object[] row : usedNodeTimes) {
+                    changes.delta((String) row[0]).setUsedNodeTime(((Number) row[1]).longValue());
+                }
 
-                if (nodeHistory.isStoreInDataBase()) {
-                    session.save(nodeHistory);
+                List<Object[]> providedNodeTimes = session.createQuery("select providerName, sum(endTime - startTime), count(distinct nodeUrl) " +
+                                                                       "from NodeHistory where endTime <> 0 and nodeState in (:states) " +
+                                                                       "and providerName is not null group by providerName")
+                                                          .setParameterList("states", NodeUsageSummary.PROVIDED_STATES)
+                                                          .list();
+                for (Object[] row : providedNodeTimes) {
+                    AccountUsage delta = changes.delta((String) row[0]);
+                    delta.setProvidedNodeTime(((Number) row[1]).longValue());
+                    delta.setProvidedNodesCount(((Number) row[2]).intValue());
                 }
+
+                List<Object[]> providedNodes = session.createQuery("select distinct providerName, nodeUrl from NodeHistory " +
+                                                                   "where endTime <> 0 and nodeState in (:states) " +
+                                                                   "and providerName is not null")
+                                                      .setParameterList("states", NodeUsageSummary.PROVIDED_STATES)
+                                                      .list();
+                int saved = 0;
+                for (Object[] row : providedNodes) {
+                    session.save(new ProvidedNode((String) row[0], (String) row[1]));
+                    if (++saved % 100 == 0) {
+                        session.flush();
+                        session.clear();
+                    }
+                }
+
+                saveAccountUsage(session, changes);
+
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Account usage rebuilt for " + changes.deltas.size() + " accounts");
+                }
+
                 return null;
             }
         });
@@ -490,4 +715,81 @@ public class RMDBManager {
         });
     }
 
+    /**
+     * The node history records written by one transaction, one session work per record.
+     */
+    private class NodeHistoryWrite {
+
+        private final UnitOfWork unitOfWork = new UnitOfWork();
+
+        private final List<NodeHistoryWork> works;
+
+        NodeHistoryWrite(List<NodeHistory> nodeHistories) {
+            works = new ArrayList<>(nodeHistories.size());
+            // open records of the nodes saved by this transaction
+            Map<String, NodeHistory> openRecords = new HashMap<>();
+            for (NodeHistory nodeHistory : nodeHistories) {
+                String nodeUrl = nodeHistory.getNodeUrl();
+                NodeHistory closedRecord = openRecords.containsKey(nodeUrl) ? openRecords.get(nodeUrl)
+                                                                            : nodeUsageSummary.getOpenRecord(nodeUrl);
+                openRecords.put(nodeUrl, nodeHistory.isStoreInDataBase() ? nodeHistory : null);
+
+                NodeHistoryWork work = new NodeHistoryWork(nodeHistory, closedRecord);
+                works.add(work);
+                unitOfWork.add(work);
+            }
+        }
+
+        void completed(ListenableFuture<?> result) {
+            try {
+                Futures.getUnchecked(result);
+            } catch (UncheckedExecutionException e) {
+                logger.error("Failed to save " + works.size() + " node history records", e.getCause());
+                return;
+            }
+            for (NodeHistoryWork work : works) {
+                nodeUsageSummary.apply(work.changes, work.closedRecord, work.nodeHistory);
+            }
+        }
+
+    }
+
+    private class NodeHistoryWork implements SessionWork<Void> {
+
+        private final NodeHistory nodeHistory;
+
+        private final NodeHistory closedRecord;
+
+        private final NodeUsageSummary.Changes changes = new NodeUsageSummary.Changes();
+
+        NodeHistoryWork(NodeHistory nodeHistory, NodeHistory closedRecord) {
+            this.nodeHistory = nodeHistory;
+            this.closedRecord = closedRecord;
+        }
+
+        @Override
+        public Void doInTransaction(Session session) {
+            // the transaction may be retried
+            changes.clear();
+
+            // the records saved by the previous works of the transaction must be visible to the update
+            session.flush();
+            session.createSQLQuery("update NodeHistory set endTime=:endTime where nodeUrl=:nodeUrl and endTime=0")
+                   .setParameter("endTime", nodeHistory.getStartTime())
+                   .setParameter("nodeUrl", nodeHistory.getNodeUrl())
+                   .executeUpdate();
+
+            if (closedRecord != null) {
+                addClosedRecordUsage(session, closedRecord, nodeHistory.getStartTime(), changes);
+                saveAccountUsage(session, changes);
+            }
+
+            if (nodeHistory.isStoreInDataBase()) {
+                session.save(nodeHistory);
+            }
+            return null;
+        }
+
+    }
+
 }
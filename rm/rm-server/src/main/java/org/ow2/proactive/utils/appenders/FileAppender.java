@@ -26,16 +26,14 @@
 package org.ow2.proactive.utils.appenders;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.Enumeration;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.log4j.Appender;
 import org.apache.log4j.Logger;
 import org.apache.log4j.MDC;
 import org.apache.log4j.PatternLayout;
-import org.apache.log4j.RollingFileAppender;
 import org.apache.log4j.WriterAppender;
+import org.apache.log4j.spi.Filter;
 import org.apache.log4j.spi.LoggingEvent;
 
 
@@ -45,7 +43,8 @@ import org.apache.log4j.spi.LoggingEvent;
  * depending on "filename" property in log4j context.
  * 
  * Is used to put server logs for tasks and jobs into files with 
- * different names.
+ * different names. The files are kept open and buffered by the
+ * shared {@link FileWriterPool}.
  *
  */
 public class FileAppender extends WriterAppender {
@@ -71,6 +70,30 @@ public class FileAppender extends WriterAppender {
         }
     }
 
+    /**
+     * Same as {@link org.apache.log4j.AppenderSkeleton#doAppend(LoggingEvent)} without holding
+     * the lock of this appender, which is shared by all the files: the {@link FileWriterPool}
+     * locks the file an event is written to.
+     */
+    @Override
+    public void doAppend(LoggingEvent event) {
+        if (!isAsSevereAsThreshold(event.getLevel())) {
+            return;
+        }
+        Filter filter = getFilter();
+        while (filter != null) {
+            int decision = filter.decide(event);
+            if (decision == Filter.DENY) {
+                return;
+            }
+            if (decision == Filter.ACCEPT) {
+                break;
+            }
+            filter = filter.getNext();
+        }
+        append(event);
+    }
+
     @Override
     public void append(LoggingEvent event) {
         Object value = MDC.get(FILE_NAME);
@@ -80,34 +103,36 @@ public class FileAppender extends WriterAppender {
     }
 
     public void append(String fileName, LoggingEvent event) {
-        if (filesLocation != null) {
-            fileName = filesLocation + File.separator + fileName;
-        }
-        File file = new File(fileName);
-        if (!file.exists()) {
-            try {
-                FileUtils.forceMkdirParent(file);
-                FileUtils.touch(file);
-            } catch (IOException e) {
-                Logger.getRootLogger().error(e.getMessage(), e);
-            }
-        }
+        FileWriterPool.getInstance().append(getFilePath(fileName), event, this);
+    }
 
-        try {
-            RollingFileAppender appender = new RollingFileAppender(getLayout(), fileName, true);
-            appender.setMaxBackupIndex(1);
-            if (maxFileSize != null) {
-                appender.setMaxFileSize(maxFileSize);
-            }
-            appender.append(event);
-            appender.close();
-        } catch (IOException e) {
-            Logger.getRootLogger().error(e.getMessage(), e);
+    /**
+     * Writes the buffered lines of all open files.
+     */
+    public void flush() {
+        FileWriterPool.getInstance().flush();
+    }
+
+    /**
+     * Closes the open files whose path, relative to the files location, starts with the given prefix.
+     * Must be called before removing the files from the disk.
+     *
+     * @param relativePathPrefix prefix of the files to close, an empty string closes all the files of the location
+     */
+    public void closeFiles(String relativePathPrefix) {
+        FileWriterPool.getInstance().closeFiles(getFilePath(relativePathPrefix));
+    }
+
+    private String getFilePath(String fileName) {
+        if (filesLocation != null) {
+            return filesLocation + File.separator + fileName;
         }
+        return fileName;
     }
 
     @Override
     public void close() {
+        flush();
     }
 
     @Override
@@ -0,0 +1,278 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.utils.appenders;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Layout;
+import org.apache.log4j.Logger;
+import org.apache.log4j.RollingFileAppender;
+import org.apache.log4j.spi.LoggingEvent;
+import org.objectweb.proactive.utils.NamedThreadFactory;
+
+
+/**
+ * A bounded pool of open and buffered log files, shared by all the {@link FileAppender}s so that
+ * a file written by several appenders (e.g. task logs written by the scheduler and by the
+ * resource manager selection) is opened only once.
+ *
+ * The least recently written file is closed when the pool is full. Buffered lines are
+ * written by a background thread every flush period, or on demand with {@link #flush()}.
+ *
+ * The pool lock is only held to look up, open and evict files: writes lock the file they
+ * go to, so that files are written concurrently.
+ *
+ */
+public class FileWriterPool implements FileWriterPoolMBean {
+
+    public static final int DEFAULT_MAX_OPEN_FILES = 128;
+
+    public static final long DEFAULT_FLUSH_PERIOD = 1000;
+
+    private static final FileWriterPool instance = new FileWriterPool();
+
+    // access order, the eldest entry is the least recently written file
+    private final Map<String, PooledFileAppender> openFiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    private volatile int maxOpenFiles = DEFAULT_MAX_OPEN_FILES;
+
+    private ScheduledExecutorService flusher;
+
+    private final AtomicLong flushes = new AtomicLong();
+
+    private final AtomicLong totalFlushTime = new AtomicLong();
+
+    private final AtomicLong maxFlushTime = new AtomicLong();
+
+    public static FileWriterPool getInstance() {
+        return instance;
+    }
+
+    /**
+     * Appends an event to a file, opening the file with the layout and the maximum size
+     * of the given appender if it is not already open.
+     */
+    void append(String fileName, LoggingEvent event, FileAppender appender) {
+        while (true) {
+            PooledFileAppender file;
+            List<PooledFileAppender> evicted = null;
+            synchronized (openFiles) {
+                file = openFiles.get(fileName);
+                if (file == null) {
+                    file = open(fileName, appender);
+                    if (file == null) {
+                        return;
+                    }
+                    openFiles.put(fileName, file);
+                    evicted = removeEldestFiles();
+                    startFlusher();
+                }
+            }
+            close(evicted);
+
+            synchronized (file) {
+                // the file may have been evicted since it was looked up, open it again in this case
+                if (!file.isClosed()) {
+                    file.doAppend(event);
+                    return;
+                }
+            }
+        }
+    }
+
+    private PooledFileAppender open(String fileName, FileAppender appender) {
+        File file = new File(fileName);
+        if (!file.exists()) {
+            try {
+                FileUtils.forceMkdirParent(file);
+                FileUtils.touch(file);
+            } catch (IOException e) {
+                Logger.getRootLogger().error(e.getMessage(), e);
+            }
+        }
+
+        try {
+            PooledFileAppender pooledAppender = new PooledFileAppender(appender.getLayout(), fileName);
+            pooledAppender.setMaxBackupIndex(1);
+            if (appender.getMaxFileSize() != null) {
+                pooledAppender.setMaxFileSize(appender.getMaxFileSize());
+            }
+            return pooledAppender;
+        } catch (IOException e) {
+            Logger.getRootLogger().error(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /*
+     * Removes the least recently written files from the pool when it is full, must be called
+     * with the pool lock held. The removed files are closed afterwards, without the pool lock.
+     */
+    private List<PooledFileAppender> removeEldestFiles() {
+        List<PooledFileAppender> evicted = new ArrayList<>();
+        Iterator<PooledFileAppender> iterator = openFiles.values().iterator();
+        while (openFiles.size() > maxOpenFiles && iterator.hasNext()) {
+            evicted.add(iterator.next());
+            iterator.remove();
+        }
+        return evicted;
+    }
+
+    private static void close(List<PooledFileAppender> files) {
+        if (files != null) {
+            for (PooledFileAppender file : files) {
+                file.close();
+            }
+        }
+    }
+
+    private void startFlusher() {
+        if (flusher == null) {
+            flusher = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("FileWriterPool flusher",
+                                                                                        true));
+            flusher.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            }, DEFAULT_FLUSH_PERIOD, DEFAULT_FLUSH_PERIOD, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the buffered lines of all open files.
+     */
+    public void flush() {
+        List<PooledFileAppender> files;
+        synchronized (openFiles) {
+            if (openFiles.isEmpty()) {
+                return;
+            }
+            files = new ArrayList<>(openFiles.values());
+        }
+
+        long start = System.nanoTime();
+        for (PooledFileAppender file : files) {
+            file.flush();
+        }
+        long duration = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+        flushes.incrementAndGet();
+        totalFlushTime.addAndGet(duration);
+        long max = maxFlushTime.get();
+        while (duration > max && !maxFlushTime.compareAndSet(max, duration)) {
+            max = maxFlushTime.get();
+        }
+    }
+
+    /**
+     * Closes the open files whose name starts with the given prefix.
+     * Must be called before removing the files from the disk.
+     */
+    public void closeFiles(String fileNamePrefix) {
+        List<PooledFileAppender> removed = new ArrayList<>();
+        synchronized (openFiles) {
+            Iterator<Map.Entry<String, PooledFileAppender>> iterator = openFiles.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, PooledFileAppender> entry = iterator.next();
+                if (entry.getKey().startsWith(fileNamePrefix)) {
+                    removed.add(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+        close(removed);
+    }
+
+    @Override
+    public int getOpenFiles() {
+        synchronized (openFiles) {
+            return openFiles.size();
+        }
+    }
+
+    @Override
+    public int getMaxOpenFiles() {
+        return maxOpenFiles;
+    }
+
+    public void setMaxOpenFiles(int maxOpenFiles) {
+        this.maxOpenFiles = Math.max(1, maxOpenFiles);
+        List<PooledFileAppender> evicted;
+        synchronized (openFiles) {
+            evicted = removeEldestFiles();
+        }
+        close(evicted);
+    }
+
+    @Override
+    public long getFlushCount() {
+        return flushes.get();
+    }
+
+    @Override
+    public long getAverageFlushTime() {
+        long count = flushes.get();
+        return count == 0 ? 0 : totalFlushTime.get() / count;
+    }
+
+    @Override
+    public long getMaxFlushTime() {
+        return maxFlushTime.get();
+    }
+
+    /*
+     * A rolling file appender which stays open and buffers its output.
+     */
+    private static class PooledFileAppender extends RollingFileAppender {
+
+        private PooledFileAppender(Layout layout, String fileName) throws IOException {
+            setLayout(layout);
+            setFile(fileName, true, true, getBufferSize());
+        }
+
+        private synchronized void flush() {
+            if (!closed && qw != null) {
+                qw.flush();
+            }
+        }
+
+        private synchronized boolean isClosed() {
+            return closed;
+        }
+    }
+}
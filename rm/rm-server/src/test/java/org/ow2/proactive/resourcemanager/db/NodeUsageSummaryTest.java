@@ -0,0 +1,143 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.db;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.hibernate.cfg.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.resourcemanager.common.NodeState;
+import org.ow2.proactive.resourcemanager.core.history.AccountUsage;
+import org.ow2.proactive.resourcemanager.core.history.NodeHistory;
+import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
+
+
+public class NodeUsageSummaryTest {
+
+    private RMDBManager dbManager;
+
+    @Before
+    public void initDB() throws Exception {
+        PAResourceManagerProperties.RM_ALIVE_EVENT_FREQUENCY.updateProperty("100");
+        Configuration config = new Configuration().configure("/functionaltests/config/hibernate.cfg.xml");
+        dbManager = new RMDBManager(config, true, true);
+    }
+
+    @After
+    public void cleanup() {
+        if (dbManager != null) {
+            dbManager.close();
+        }
+    }
+
+    @Test
+    public void testUsageIsMaintainedFromNodeHistory() throws Exception {
+        dbManager.saveNodeHistory(createNodeHistory("url1", NodeState.FREE, null, 10, true));
+        dbManager.saveNodeHistory(createNodeHistory("url1", NodeState.BUSY, "user", 20, true));
+        dbManager.saveNodeHistory(createNodeHistory("url1", NodeState.FREE, null, 50, true));
+        dbManager.saveNodeHistory(createNodeHistory("url1", NodeState.FREE, null, 70, false));
+        dbManager.saveNodeHistory(createNodeHistory("url2", NodeState.BUSY, "user", 100, true));
+
+        NodeUsageSummary summary = dbManager.getNodeUsageSummary();
+
+        // url1 was busy from 20 to 50, url2 is busy since 100
+        assertEquals(30 + 100, summary.getUsedNodeTime("user", 200));
+        // url1 was provided from 10 to 70, url2 is provided since 100
+        assertEquals(60 + 100, summary.getProvidedNodeTime("admin", 200));
+        // only the nodes with a finished record are counted
+        assertEquals(1, summary.getProvidedNodesCount("admin"));
+        assertEquals(0, summary.getUsedNodeTime("unknown", 200));
+
+        dbManager.saveNodeHistory(createNodeHistory("url2", NodeState.FREE, null, 150, true));
+        assertEquals(30 + 50, summary.getUsedNodeTime("user", 200));
+        assertEquals(60 + 100, summary.getProvidedNodeTime("admin", 200));
+        assertEquals(2, summary.getProvidedNodesCount("admin"));
+
+        AccountUsage adminUsage = (AccountUsage) dbManager.executeSqlQuery("from AccountUsage where name = 'admin'")
+                                                          .get(0);
+        assertEquals(60 + 50, adminUsage.getProvidedNodeTime());
+        assertEquals(2, adminUsage.getProvidedNodesCount());
+
+        AccountUsage userUsage = (AccountUsage) dbManager.executeSqlQuery("from AccountUsage where name = 'user'")
+                                                         .get(0);
+        assertEquals(30 + 50, userUsage.getUsedNodeTime());
+    }
+
+    @Test
+    public void testNodeHistoriesAreSavedInOneTransaction() throws Exception {
+        // no periodic alive event transaction during the test
+        dbManager.close();
+        PAResourceManagerProperties.RM_ALIVE_EVENT_FREQUENCY.updateProperty("3600000");
+        dbManager = new RMDBManager(new Configuration().configure("/functionaltests/config/hibernate.cfg.xml"),
+                                    true,
+                                    true);
+
+        long transactions = dbManager.getTransactionStatistics().getTransactionsCount();
+
+        dbManager.saveNodeHistories(Arrays.asList(createNodeHistory("url1", NodeState.FREE, null, 10, true),
+                                                  createNodeHistory("url1", NodeState.BUSY, "user", 20, true),
+                                                  createNodeHistory("url1", NodeState.FREE, null, 50, true),
+                                                  createNodeHistory("url1", NodeState.FREE, null, 70, false),
+                                                  createNodeHistory("url2", NodeState.BUSY, "user", 100, true)));
+
+        assertEquals(transactions + 1, dbManager.getTransactionStatistics().getTransactionsCount());
+
+        // same usage as when the records are saved one by one
+        NodeUsageSummary summary = dbManager.getNodeUsageSummary();
+        assertEquals(30 + 100, summary.getUsedNodeTime("user", 200));
+        assertEquals(60 + 100, summary.getProvidedNodeTime("admin", 200));
+        assertEquals(1, summary.getProvidedNodesCount("admin"));
+
+        // each record is closed by the next record of its node
+        assertEquals(1, dbManager.executeSqlQuery("from NodeHistory where endTime = 0").size());
+        AccountUsage adminUsage = (AccountUsage) dbManager.executeSqlQuery("from AccountUsage where name = 'admin'")
+                                                          .get(0);
+        assertEquals(60, adminUsage.getProvidedNodeTime());
+        assertEquals(1, adminUsage.getProvidedNodesCount());
+    }
+
+    private NodeHistory createNodeHistory(String nodeUrl, NodeState nodeState, String userName, long startTime,
+            boolean storeInDataBase) {
+
+        NodeHistory nodeHistory = new NodeHistory();
+
+        nodeHistory.setHost("host");
+        nodeHistory.setNodeSource("ns");
+        nodeHistory.setNodeState(nodeState);
+        nodeHistory.setNodeUrl(nodeUrl);
+        nodeHistory.setUserName(userName);
+        nodeHistory.setProviderName("admin");
+        nodeHistory.setStartTime(startTime);
+        nodeHistory.setEndTime(0);
+        nodeHistory.setStoreInDataBase(storeInDataBase);
+
+        return nodeHistory;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common;
+
+import java.io.Serializable;
+import java.util.List;
+
+
+/**
+ * A page of a listing read with keyset pagination.
+ *
+ * The next page is read by giving back the cursor of this page, which identifies the last
+ * element of this page. The cursor is <code>null</code> when there are no more elements to read.
+ * The size of the page is the approximate number of elements of the whole listing.
+ */
+public class CursorPage<T extends Serializable> extends Page<T> {
+
+    private String nextCursor;
+
+    public CursorPage() {
+
+    }
+
+    public CursorPage(List<T> list, int size, String nextCursor) {
+        super(list, size);
+        this.nextCursor = nextCursor;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "CursorPage{" + "size=" + getSize() + ", nextCursor='" + nextCursor + '\'' + ", list='" + getList() +
+               '\'' + '}';
+    }
+
+}
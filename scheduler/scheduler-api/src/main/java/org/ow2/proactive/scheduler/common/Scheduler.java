@@ -46,6 +46,7 @@ import org.ow2.proactive.scheduler.common.job.JobResult;
 import org.ow2.proactive.scheduler.common.job.JobState;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskResult;
+import org.ow2.proactive.scheduler.common.task.TaskResultSummary;
 import org.ow2.proactive.scheduler.common.task.TaskState;
 import org.ow2.proactive.scheduler.common.usage.SchedulerUsage;
 import org.ow2.proactive.scheduler.common.util.logforwarder.AppenderProvider;
@@ -558,6 +559,44 @@ public interface Scheduler extends SchedulerUsage, ThirdPartyCredentials {
      */
     JobResult getJobResult(String jobId) throws NotConnectedException, PermissionException, UnknownJobException;
 
+    /**
+     * Get the status of the last result of each task of the given job, without reading nor
+     * transferring the values, exceptions, logs and propagated variables of the results.<br>
+     * Unlike {@link #getJobResult(JobId)}, it can be called on a job which is not finished
+     * and does not schedule the removal of the job.
+     *
+     * @param jobId
+     *            the job whose results are summarized
+     * @return the summaries of the available task results, by task name
+     * @throws NotConnectedException
+     *             if you are not authenticated.
+     * @throws UnknownJobException
+     *             if the job does not exist.
+     * @throws PermissionException
+     *             if you can't access to this particular job.
+     */
+    Map<String, TaskResultSummary> getJobResultSummary(JobId jobId)
+            throws NotConnectedException, PermissionException, UnknownJobException;
+
+    /**
+     * Get the status of the last result of each task of the given job.<br>
+     * The jobId is given as a string. It's in fact the string returned by the
+     * {@link JobId#value()} method.
+     *
+     * @param jobId
+     *            the job whose results are summarized
+     * @return the summaries of the available task results, by task name
+     * @throws NotConnectedException
+     *             if you are not authenticated.
+     * @throws UnknownJobException
+     *             if the job does not exist.
+     * @throws PermissionException
+     *             if you can't access to this particular job.
+     * @see #getJobResultSummary(JobId)
+     */
+    Map<String, TaskResultSummary> getJobResultSummary(String jobId)
+            throws NotConnectedException, PermissionException, UnknownJobException;
+
     /**
      * Get the result for the given task name in the given jobId. <br >
      * The jobId is given as a string. It's in fact the string returned by the
@@ -1239,6 +1278,111 @@ public interface Scheduler extends SchedulerUsage, ThirdPartyCredentials {
     String getTaskServerLogsByTag(String id, String taskTag)
             throws UnknownJobException, NotConnectedException, PermissionException;
 
+    /**
+     * Retrieves a range of the server logs of a job, as returned by
+     * {@link #getJobServerLogs(String)}, without reading the whole logs.
+     *
+     * @param id
+     *            of the job for which logs are requested
+     * @param offset
+     *            position of the first byte to read, or if negative, number of
+     *            bytes to read from the end of the logs
+     * @param length
+     *            maximum number of bytes to read
+     *
+     * @return the range of the job's logs, with the snapshot of the logs to read the
+     *         next ranges with {@link #getServerLogs(String, ServerLogsSnapshot, long, int)}
+     * @throws UnknownJobException
+     *             if the job does not exist.
+     * @throws NotConnectedException
+     *             if you are not authenticated.
+     * @throws PermissionException
+     *             if you have not enough permission to access this method.
+     */
+    ServerLogsChunk getJobServerLogs(String id, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException;
+
+    /**
+     * Retrieves a range of the server logs of a task, as returned by
+     * {@link #getTaskServerLogs(String, String)}, without reading the whole logs.
+     *
+     * @param id
+     *            of the job where the task is.
+     * @param taskName
+     *            the name of the task.
+     * @param offset
+     *            position of the first byte to read, or if negative, number of
+     *            bytes to read from the end of the logs
+     * @param length
+     *            maximum number of bytes to read
+     *
+     * @return the range of the task's logs, with the snapshot of the logs to read the
+     *         next ranges with {@link #getServerLogs(String, ServerLogsSnapshot, long, int)}
+     * @throws UnknownJobException
+     *             if the job does not exist.
+     * @throws UnknownTaskException
+     *             if this task does not exist in the job.
+     * @throws NotConnectedException
+     *             if you are not authenticated.
+     * @throws PermissionException
+     *             if you have not enough permission to access this method.
+     */
+    ServerLogsChunk getTaskServerLogs(String id, String taskName, long offset, int length)
+            throws UnknownJobException, UnknownTaskException, NotConnectedException, PermissionException;
+
+    /**
+     * Retrieves a range of the server logs of the tasks filtered by the given tag, as
+     * returned by {@link #getTaskServerLogsByTag(String, String)}, without reading the whole logs.
+     *
+     * @param id
+     *            of the job where the task is.
+     * @param taskTag
+     *            the tag used to filter tasks.
+     * @param offset
+     *            position of the first byte to read, or if negative, number of
+     *            bytes to read from the end of the logs
+     * @param length
+     *            maximum number of bytes to read
+     *
+     * @return the range of the tasks' logs, with the snapshot of the logs to read the
+     *         next ranges with {@link #getServerLogs(String, ServerLogsSnapshot, long, int)}
+     * @throws UnknownJobException
+     *             if the job does not exist.
+     * @throws NotConnectedException
+     *             if you are not authenticated.
+     * @throws PermissionException
+     *             if you have not enough permission to access this method.
+     */
+    ServerLogsChunk getTaskServerLogsByTag(String id, String taskTag, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException;
+
+    /**
+     * Retrieves another range of server logs from the snapshot returned with a first range
+     * by {@link #getJobServerLogs(String, long, int)}, {@link #getTaskServerLogs(String, String, long, int)}
+     * or {@link #getTaskServerLogsByTag(String, String, long, int)}. The logs are read as they
+     * were when the snapshot was taken, without listing the log files again.
+     *
+     * @param id
+     *            of the job the logs belong to
+     * @param snapshot
+     *            the snapshot of the logs
+     * @param offset
+     *            position of the first byte to read, or if negative, number of
+     *            bytes to read from the end of the logs
+     * @param length
+     *            maximum number of bytes to read
+     *
+     * @return the range of the logs, without the snapshot
+     * @throws UnknownJobException
+     *             if the job does not exist.
+     * @throws NotConnectedException
+     *             if you are not authenticated.
+     * @throws PermissionException
+     *             if you have not enough permission to access this method.
+     */
+    ServerLogsChunk getServerLogs(String id, ServerLogsSnapshot snapshot, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException;
+
     /**
      * Retrieves a job list of the scheduler.
      *
@@ -1266,6 +1410,33 @@ public interface Scheduler extends SchedulerUsage, ThirdPartyCredentials {
     Page<JobInfo> getJobs(int offset, int limit, JobFilterCriteria filterCriteria,
             List<SortParameter<JobSortParameter>> sortParameters) throws NotConnectedException, PermissionException;
 
+    /**
+     * Retrieves a job list of the scheduler, page after page.
+     * <p>
+     * Jobs are sorted by state (pending jobs, then running jobs, then finished jobs) and from the
+     * most recently submitted to the oldest one. Unlike {@link #getJobs(int, int, JobFilterCriteria, List)},
+     * the cost of reading a page does not depend on its position in the list, and jobs are neither
+     * skipped nor repeated when jobs are submitted or removed between two pages. The size of the
+     * returned page is the approximate total number of jobs matching the criteria.
+     *
+     * @param cursor
+     *            the cursor of the previous page, or <code>null</code> to
+     *            retrieve the first page
+     * @param limit
+     *            max number of jobs to retrieve
+     * @param filterCriteria
+     *            defines types of job (myonly, pending, running, finished).
+     *
+     * @return jobs list according to all criteria, with the cursor of the next page
+     * @throws NotConnectedException
+     *             if you are not authenticated.
+     * @throws PermissionException
+     *             if you have not enough permission to access this method.
+     * @see CursorPage#getNextCursor()
+     */
+    CursorPage<JobInfo> getJobsAfter(String cursor, int limit, JobFilterCriteria filterCriteria)
+            throws NotConnectedException, PermissionException;
+
     /**
      * Returns a list of connected users.
      */
@@ -1344,6 +1515,43 @@ public interface Scheduler extends SchedulerUsage, ThirdPartyCredentials {
             boolean finished, int offset, int limit, SortSpecifierContainer sortParams)
             throws NotConnectedException, PermissionException;
 
+    /**
+     * Retrieve a taskstates list from the scheduler, page after page.
+     * <p>
+     * Tasks are sorted by job id and task id. The size of the returned page is the approximate
+     * total number of tasks satisfying the given criterias.
+     *
+     * @param taskTag
+     *            a complete tag to use to filter tasks
+     * @param from
+     *            the starting date to fetch tasks from. The format is in Epoch
+     *            time.
+     * @param to
+     *            the end date to stop fetching tasks. The format is in Epoch
+     *            time.
+     * @param mytasks
+     *            <code>True</code> will only fetch the user tasks,
+     *            <code>False</code> will fetch everyones.
+     * @param running
+     *            fetch the running tasks.
+     * @param pending
+     *            fetch the pending tasks.
+     * @param finished
+     *            fetch the finished tasks.
+     * @param cursor
+     *            the cursor of the previous page, or <code>null</code> to
+     *            retrieve the first page
+     * @param limit
+     *            max number of tasks to retrieve
+     * @return the page of taskstates satisfying the given criterias, with the cursor of the next page
+     * @throws NotConnectedException
+     * @throws PermissionException
+     * @see CursorPage#getNextCursor()
+     */
+    CursorPage<TaskState> getTaskStatesAfter(String taskTag, long from, long to, boolean mytasks, boolean running,
+            boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException;
+
     /**
      * Retrieve a job info by it id.
      * 
@@ -0,0 +1,110 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.objectweb.proactive.annotation.PublicAPI;
+import org.ow2.proactive.scheduler.common.job.JobInfo;
+import org.ow2.proactive.scheduler.common.job.JobState;
+import org.ow2.proactive.scheduler.common.job.UserIdentification;
+import org.ow2.proactive.scheduler.common.task.TaskInfo;
+
+
+/**
+ * Ordered list of scheduler events sent to a {@link SchedulerEventBatchListener}.<br>
+ * Each event is identified by the name of the {@link SchedulerEventListener} method
+ * which handles it, and holds the single argument of this method.
+ *
+ * @author The ProActive Team
+ */
+@PublicAPI
+public final class SchedulerEventBatch implements Serializable {
+
+    private final List<String> eventMethods;
+
+    private final List<Object> eventArguments;
+
+    public SchedulerEventBatch(int capacity) {
+        this.eventMethods = new ArrayList<>(capacity);
+        this.eventArguments = new ArrayList<>(capacity);
+    }
+
+    /**
+     * Appends an event to this batch.
+     *
+     * @param eventMethod the name of the listener method handling the event.
+     * @param argument the argument of this method.
+     */
+    public void add(String eventMethod, Object argument) {
+        eventMethods.add(eventMethod);
+        eventArguments.add(argument);
+    }
+
+    /**
+     * @return the number of events of this batch.
+     */
+    public int size() {
+        return eventMethods.size();
+    }
+
+    /**
+     * Calls, for each event of this batch and in order, the corresponding method of the given listener.
+     *
+     * @param listener the listener handling the events.
+     */
+    @SuppressWarnings("unchecked")
+    public void dispatchTo(SchedulerEventListener listener) {
+        for (int i = 0; i < eventMethods.size(); i++) {
+            Object argument = eventArguments.get(i);
+            switch (eventMethods.get(i)) {
+                case "schedulerStateUpdatedEvent":
+                    listener.schedulerStateUpdatedEvent((SchedulerEvent) argument);
+                    break;
+                case "jobSubmittedEvent":
+                    listener.jobSubmittedEvent((JobState) argument);
+                    break;
+                case "jobStateUpdatedEvent":
+                    listener.jobStateUpdatedEvent((NotificationData<JobInfo>) argument);
+                    break;
+                case "jobUpdatedFullDataEvent":
+                    listener.jobUpdatedFullDataEvent((JobState) argument);
+                    break;
+                case "taskStateUpdatedEvent":
+                    listener.taskStateUpdatedEvent((NotificationData<TaskInfo>) argument);
+                    break;
+                case "usersUpdatedEvent":
+                    listener.usersUpdatedEvent((NotificationData<UserIdentification>) argument);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown scheduler event method: " + eventMethods.get(i));
+            }
+        }
+    }
+
+}
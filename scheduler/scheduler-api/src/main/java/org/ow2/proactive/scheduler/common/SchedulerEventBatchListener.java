@@ -0,0 +1,50 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common;
+
+import org.objectweb.proactive.annotation.PublicAPI;
+
+
+/**
+ * Scheduler listener able to receive several events in a single call.<br>
+ * When a listener implements this interface, the Scheduler groups the events waiting to be
+ * sent to it instead of sending them one by one.
+ *
+ * @author The ProActive Team
+ */
+@PublicAPI
+public interface SchedulerEventBatchListener extends SchedulerEventListener {
+
+    /**
+     * Invoked with the events sent to this listener, in their order of emission.<br>
+     * {@link SchedulerEventBatch#dispatchTo(SchedulerEventListener)} can be used to handle
+     * each event with the corresponding method of this listener.
+     *
+     * @param batch the events.
+     */
+    void schedulerEventsBatch(SchedulerEventBatch batch);
+
+}
@@ -0,0 +1,100 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common;
+
+import java.io.Serializable;
+
+
+/**
+ * A range of the server logs of a job or a task, as returned by
+ * {@link Scheduler#getJobServerLogs(String, long, int)}.
+ */
+public class ServerLogsChunk implements Serializable {
+
+    private final byte[] content;
+
+    private final long offset;
+
+    private final long size;
+
+    private final ServerLogsSnapshot snapshot;
+
+    public ServerLogsChunk(byte[] content, long offset, long size) {
+        this.content = content;
+        this.offset = offset;
+        this.size = size;
+        this.snapshot = null;
+    }
+
+    public ServerLogsChunk(byte[] content, long offset, ServerLogsSnapshot snapshot) {
+        this.content = content;
+        this.offset = offset;
+        this.size = snapshot.getSize();
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * @return the bytes of the range
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * @return the position of the first byte of the range in the logs
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the total size of the logs, in bytes, when their snapshot was taken
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the snapshot of the logs the range was read from, to read the next ranges
+     * consistently, or null if the chunk does not carry it
+     */
+    public ServerLogsSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return true if the range reaches the end of the logs
+     */
+    public boolean isLast() {
+        return offset + content.length >= size;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerLogsChunk{" + "offset=" + offset + ", length=" + content.length + ", size=" + size + '}';
+    }
+
+}
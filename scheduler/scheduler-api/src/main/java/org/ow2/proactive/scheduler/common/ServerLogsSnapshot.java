@@ -0,0 +1,123 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common;
+
+import java.io.Serializable;
+import java.util.List;
+
+
+/**
+ * The layout of the server logs of a job or a task when a first range of them was read:
+ * the log files, in a stable order and with their length at that time, and the headers
+ * between them. The next ranges are read from the snapshot with
+ * {@link Scheduler#getServerLogs(String, ServerLogsSnapshot, long, int)}, so that the
+ * offsets and the total size stay consistent while the logs grow.
+ */
+public class ServerLogsSnapshot implements Serializable {
+
+    private final List<Part> parts;
+
+    private final long size;
+
+    public ServerLogsSnapshot(List<Part> parts) {
+        this.parts = parts;
+        long size = 0;
+        for (Part part : parts) {
+            size += part.getLength();
+        }
+        this.size = size;
+    }
+
+    /**
+     * @return the parts of the logs, in order
+     */
+    public List<Part> getParts() {
+        return parts;
+    }
+
+    /**
+     * @return the total size of the logs, in bytes, when the snapshot was taken
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerLogsSnapshot{" + "parts=" + parts.size() + ", size=" + size + '}';
+    }
+
+    /**
+     * A part of the logs: a log file, to read up to its length when the snapshot was taken,
+     * or a text added by the scheduler.
+     */
+    public static final class Part implements Serializable {
+
+        private final String file;
+
+        private final byte[] text;
+
+        private final long length;
+
+        private Part(String file, byte[] text, long length) {
+            this.file = file;
+            this.text = text;
+            this.length = length;
+        }
+
+        /**
+         * @param file path of the log file, relative to the logs location of the scheduler
+         * @param length length of the file when the snapshot was taken
+         */
+        public static Part ofFile(String file, long length) {
+            return new Part(file, null, length);
+        }
+
+        public static Part ofText(byte[] text) {
+            return new Part(null, text, text.length);
+        }
+
+        /**
+         * @return the path of the log file, relative to the logs location of the scheduler,
+         * or null if the part is a text
+         */
+        public String getFile() {
+            return file;
+        }
+
+        /**
+         * @return the text, or null if the part is a log file
+         */
+        public byte[] getText() {
+            return text;
+        }
+
+        public long getLength() {
+            return length;
+        }
+    }
+
+}
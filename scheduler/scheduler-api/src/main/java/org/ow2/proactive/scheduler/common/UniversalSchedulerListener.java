@@ -41,7 +41,7 @@ import org.ow2.proactive.scheduler.common.task.TaskInfo;
  * @author The ProActive Team
  * @since ProActive Scheduling 2.1
  */
-public class UniversalSchedulerListener implements SchedulerEventListener, Serializable {
+public class UniversalSchedulerListener implements SchedulerEventBatchListener, Serializable {
 
     // wrapped listener
     private final SchedulerEventListener internalListener;
@@ -128,4 +128,16 @@ public class UniversalSchedulerListener implements SchedulerEventListener, Seria
         this.internalListener.usersUpdatedEvent(notification);
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.ow2.proactive.scheduler.common.SchedulerEventBatchListener#schedulerEventsBatch(org.ow2.
+     * proactive.scheduler.common.SchedulerEventBatch)
+     */
+    @Override
+    public void schedulerEventsBatch(SchedulerEventBatch batch) {
+        batch.dispatchTo(this.internalListener);
+    }
+
 }
@@ -27,13 +27,16 @@ package org.ow2.proactive.scheduler.common.job.factories;
 
 import static org.ow2.proactive.scheduler.common.util.VariableSubstitutor.filterAndUpdate;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -85,6 +88,7 @@ import org.ow2.proactive.topology.descriptor.TopologyDescriptor;
 import org.ow2.proactive.utils.Tools;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.BaseEncoding;
 
 
 /**
@@ -105,6 +109,13 @@ public class StaxJobFactory extends JobFactory {
         OTHER
     }
 
+    /**
+     * Content hashes of the last workflows which passed the validation of their XML descriptor.
+     * The variables of a workflow are only resolved once parsed, so this validation
+     * does not depend on the submitted variables.
+     */
+    private static final ValidatedWorkflows validatedWorkflows = new ValidatedWorkflows(validationCacheSize());
+
     /**
      * XML input factory
      */
@@ -169,18 +180,23 @@ public class StaxJobFactory extends JobFactory {
             if (!file.exists()) {
                 throw new FileNotFoundException("This file has not been found: " + file.getAbsolutePath());
             }
-            //validate content using the proper XML schema
-            validate(file);
+            byte[] content = Files.readAllBytes(file.toPath());
+            //validate content using the proper XML schema, unless this content was already validated
+            String contentHash = digest(content);
+            if (!validatedWorkflows.contains(contentHash)) {
+                validate(file);
+                validatedWorkflows.add(contentHash);
+            }
             //set relative path
             relativePathRoot = file.getParentFile().getAbsolutePath();
             //create and get XML STAX reader
             XMLStreamReader xmlsr;
             // use the server side property to accept encoding
             if (PASchedulerProperties.FILE_ENCODING.isSet()) {
-                xmlsr = xmlInputFactory.createXMLStreamReader(new FileInputStream(file),
+                xmlsr = xmlInputFactory.createXMLStreamReader(new ByteArrayInputStream(content),
                                                               PASchedulerProperties.FILE_ENCODING.getValueAsString());
             } else {
-                xmlsr = xmlInputFactory.createXMLStreamReader(new FileInputStream(file));
+                xmlsr = xmlInputFactory.createXMLStreamReader(new ByteArrayInputStream(content));
             }
             //Dependencies
             Map<String, ArrayList<String>> dependencies = new HashMap<>();
@@ -205,6 +221,22 @@ public class StaxJobFactory extends JobFactory {
         }
     }
 
+    private static int validationCacheSize() {
+        if (PASchedulerProperties.JOB_FACTORY_VALIDATION_CACHE_SIZE.isSet()) {
+            return PASchedulerProperties.JOB_FACTORY_VALIDATION_CACHE_SIZE.getValueAsInt();
+        }
+        return 1000;
+    }
+
+    private static String digest(byte[] content) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return BaseEncoding.base16().lowerCase().encode(messageDigest.digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /*
      * Validate the given job descriptor
      */
@@ -1783,4 +1815,30 @@ public class StaxJobFactory extends JobFactory {
             }
         }
     }
+
+    /**
+     * Bounded set of workflow content hashes, the least recently used are forgotten first.
+     */
+    private static class ValidatedWorkflows {
+
+        private final Map<String, Boolean> hashes;
+
+        ValidatedWorkflows(final int maxSize) {
+            this.hashes = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        synchronized boolean contains(String hash) {
+            return hashes.get(hash) != null;
+        }
+
+        synchronized void add(String hash) {
+            hashes.put(hash, Boolean.TRUE);
+        }
+    }
+
 }
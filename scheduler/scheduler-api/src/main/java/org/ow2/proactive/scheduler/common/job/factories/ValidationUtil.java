@@ -33,11 +33,12 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.iso_relax.verifier.Schema;
 import org.iso_relax.verifier.Verifier;
 import org.iso_relax.verifier.VerifierConfigurationException;
-import org.iso_relax.verifier.VerifierFactory;
 import org.iso_relax.verifier.VerifierHandler;
 import org.ow2.proactive.scheduler.common.exception.JobCreationException;
 import org.xml.sax.Attributes;
@@ -58,6 +59,9 @@ import com.sun.msv.verifier.ValidityViolation;
  */
 public class ValidationUtil {
 
+    /** Compiled schemas by resource location, a compiled schema is thread safe and can be shared */
+    private static final ConcurrentMap<String, Schema> compiledSchemas = new ConcurrentHashMap<>();
+
     /**
      * Validates the job descriptor file against the specified schema.
      * 
@@ -71,12 +75,56 @@ public class ValidationUtil {
      */
     public static void validate(File jobFile, InputStream schemaIs)
             throws SAXException, IOException, JobCreationException {
+        Schema schema;
         try {
+            schema = new com.sun.msv.verifier.jarv.TheFactoryImpl().compileSchema(schemaIs);
+        } catch (VerifierConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+        validate(jobFile, schema);
+    }
 
-            XMLReader reader = XMLReaderFactory.createXMLReader("org.apache.xerces.parsers.SAXParser");
-            VerifierFactory vfactory = new com.sun.msv.verifier.jarv.TheFactoryImpl();
-            Schema schema = vfactory.compileSchema(schemaIs);
+    /**
+     * Validates the job descriptor file against the schema found at the given
+     * resource location. The schema is compiled once and reused for the next validations.
+     *
+     * @param jobFile
+     *            the job descriptor file
+     * @param schemaLocation
+     *            the resource location of the job schema, see {@link Schemas#getLocation()}
+     *
+     * @throws JobCreationException
+     *             if the job descriptor is invalid
+     */
+    public static void validate(File jobFile, String schemaLocation)
+            throws SAXException, IOException, JobCreationException {
+        validate(jobFile, getCompiledSchema(schemaLocation));
+    }
 
+    private static Schema getCompiledSchema(String schemaLocation) throws SAXException, IOException {
+        Schema schema = compiledSchemas.get(schemaLocation);
+        if (schema == null) {
+            try (InputStream schemaIs = ValidationUtil.class.getResourceAsStream(schemaLocation)) {
+                if (schemaIs == null) {
+                    throw new IOException("Job schema not found: " + schemaLocation);
+                }
+                schema = new com.sun.msv.verifier.jarv.TheFactoryImpl().compileSchema(schemaIs);
+            } catch (VerifierConfigurationException e) {
+                throw new IllegalStateException(e);
+            }
+            Schema previous = compiledSchemas.putIfAbsent(schemaLocation, schema);
+            if (previous != null) {
+                schema = previous;
+            }
+        }
+        return schema;
+    }
+
+    private static void validate(File jobFile, Schema schema) throws SAXException, IOException, JobCreationException {
+        try {
+
+            XMLReader reader = XMLReaderFactory.createXMLReader("org.apache.xerces.parsers.SAXParser");
+            // a verifier holds the state of one validation, it is not shared
             Verifier verifier = schema.newVerifier();
             VerifierHandler handler = verifier.getVerifierHandler();
             ContentHandlerDecorator contentHandlerDecorator = new ContentHandlerDecorator(handler);
@@ -28,7 +28,6 @@ package org.ow2.proactive.scheduler.common.job.factories.spi.stax;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.InputStream;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
@@ -64,8 +63,7 @@ public class StaxJobValidatorServiceProvider implements JobValidatorService {
         String findSchemaByNamespaceUsed;
         try {
             findSchemaByNamespaceUsed = findSchemaByNamespaceUsed(jobFile);
-            InputStream schemaStream = this.getClass().getResourceAsStream(findSchemaByNamespaceUsed);
-            ValidationUtil.validate(jobFile, schemaStream);
+            ValidationUtil.validate(jobFile, findSchemaByNamespaceUsed);
         } catch (Exception e) {
             // wrap all occurring exceptions as a schema exception
             throw new JobValidationException(true, e);
@@ -0,0 +1,90 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.task;
+
+import java.io.Serializable;
+
+import org.objectweb.proactive.annotation.PublicAPI;
+
+
+/**
+ * Status of the last result of a task, without its value, exception, logs and variables.
+ * <p>
+ * It is meant for the callers that only need to know which tasks have a result and whether
+ * they failed, without transferring the content of the results.
+ */
+@PublicAPI
+public class TaskResultSummary implements Serializable {
+
+    private final TaskId taskId;
+
+    private final boolean hadException;
+
+    private final boolean precious;
+
+    private final long resultTime;
+
+    public TaskResultSummary(TaskId taskId, boolean hadException, boolean precious, long resultTime) {
+        this.taskId = taskId;
+        this.hadException = hadException;
+        this.precious = precious;
+        this.resultTime = resultTime;
+    }
+
+    /**
+     * Returns the id of the task this result belongs to.
+     */
+    public TaskId getTaskId() {
+        return taskId;
+    }
+
+    /**
+     * Returns true if the task has finished with an exception.
+     */
+    public boolean hadException() {
+        return hadException;
+    }
+
+    /**
+     * Returns true if the result of the task is precious.
+     */
+    public boolean isPrecious() {
+        return precious;
+    }
+
+    /**
+     * Returns the time at which the result was stored.
+     */
+    public long getResultTime() {
+        return resultTime;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskResultSummary{taskId=" + taskId + ", hadException=" + hadException + ", precious=" + precious +
+               ", resultTime=" + resultTime + '}';
+    }
+}
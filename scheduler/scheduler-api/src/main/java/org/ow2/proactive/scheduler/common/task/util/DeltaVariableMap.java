@@ -0,0 +1,131 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.task.util;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Read-only map of serialized variables made of the changes (delta) applied to a base map.
+ * <p>
+ * A null value in the delta marks a variable of the base which was removed. Single lookups
+ * read the delta then the base, the merged map is only built when the whole map is iterated.
+ * Maps sharing the same base instance (the variables of a job) do not copy it, and their base
+ * is written once when they are serialized in the same stream.
+ *
+ * @author ActiveEon Team
+ */
+public class DeltaVariableMap extends AbstractMap<String, byte[]> implements Serializable {
+
+    private final Map<String, byte[]> base;
+
+    private final Map<String, byte[]> delta;
+
+    private transient Map<String, byte[]> merged;
+
+    /**
+     * @param base the base variables, must not be modified afterwards
+     * @param delta the variables added, modified (non null value) or removed (null value) from the base
+     */
+    public DeltaVariableMap(Map<String, byte[]> base, Map<String, byte[]> delta) {
+        this.base = base != null ? base : Collections.<String, byte[]> emptyMap();
+        this.delta = delta != null ? delta : Collections.<String, byte[]> emptyMap();
+    }
+
+    /**
+     * Compute the changes to apply to {@code base} to obtain {@code variables}.
+     *
+     * @param base the base variables
+     * @param variables the variables to compare to the base
+     * @return the added and modified variables, and the removed ones associated to null
+     */
+    public static Map<String, byte[]> diff(Map<String, byte[]> base, Map<String, byte[]> variables) {
+        Map<String, byte[]> delta = new HashMap<>();
+        for (Map.Entry<String, byte[]> variable : variables.entrySet()) {
+            byte[] baseValue = base.get(variable.getKey());
+            if (baseValue == null || !Arrays.equals(baseValue, variable.getValue())) {
+                delta.put(variable.getKey(), variable.getValue());
+            }
+        }
+        for (String name : base.keySet()) {
+            if (!variables.containsKey(name)) {
+                delta.put(name, null);
+            }
+        }
+        return delta;
+    }
+
+    public Map<String, byte[]> getBase() {
+        return base;
+    }
+
+    public Map<String, byte[]> getDelta() {
+        return delta;
+    }
+
+    @Override
+    public byte[] get(Object key) {
+        if (delta.containsKey(key)) {
+            return delta.get(key);
+        }
+        return base.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (delta.containsKey(key)) {
+            return delta.get(key) != null;
+        }
+        return base.containsKey(key);
+    }
+
+    @Override
+    public Set<Entry<String, byte[]>> entrySet() {
+        return merged().entrySet();
+    }
+
+    private synchronized Map<String, byte[]> merged() {
+        if (merged == null) {
+            Map<String, byte[]> variables = new HashMap<>(base);
+            for (Map.Entry<String, byte[]> change : delta.entrySet()) {
+                if (change.getValue() == null) {
+                    variables.remove(change.getKey());
+                } else {
+                    variables.put(change.getKey(), change.getValue());
+                }
+            }
+            merged = Collections.unmodifiableMap(variables);
+        }
+        return merged;
+    }
+
+}
@@ -62,6 +62,21 @@ public class SerializationUtil {
         return deserialized;
     }
 
+    /**
+     * Merge serialized variable maps, the later maps overriding the earlier ones, then deserialize
+     * the merged variables. Variables shared by several maps are deserialized only once.
+     */
+    public static Map<String, Serializable> deserializeMergedVariableMaps(Iterable<Map<String, byte[]>> targets)
+            throws IOException, ClassNotFoundException {
+        Map<String, byte[]> merged = new HashMap<>();
+        for (Map<String, byte[]> target : targets) {
+            if (target != null) {
+                merged.putAll(target);
+            }
+        }
+        return deserializeVariableMap(merged);
+    }
+
     public static Map<String, byte[]> serializeVariableMap(Map<String, Serializable> variableMap) {
         Map<String, byte[]> serializedMap = new HashMap<String, byte[]>();
         for (String key : variableMap.keySet()) {
@@ -128,6 +128,13 @@ public enum PASchedulerProperties {
      * a thread unlock. */
     SCHEDULER_LISTENERS_THREADNUMBER("pa.scheduler.core.listener.threadnumber", PropertyType.INTEGER),
 
+    /** Maximum number of events waiting to be sent to a client. A client which does not keep up
+     * with its events is disconnected when this number is reached. */
+    SCHEDULER_LISTENERS_MAX_PENDING_EVENTS("pa.scheduler.core.listener.maxpendingevents", PropertyType.INTEGER),
+
+    /** Maximum number of events sent in a single call to the clients able to receive events by batches. */
+    SCHEDULER_LISTENERS_BATCH_SIZE("pa.scheduler.core.listener.batchsize", PropertyType.INTEGER),
+
     /* ***************************************************************** */
     /* ********************** AUTHENTICATION PROPERTIES **************** */
     /* ***************************************************************** */
@@ -178,6 +185,9 @@ public enum PASchedulerProperties {
     /** File encoding used by the scheduler */
     FILE_ENCODING(PAProperties.KEY_PA_FILE_ENCODING, PropertyType.STRING),
 
+    /** Number of workflow contents whose schema validation result is kept by the job factory (0 = no cache) */
+    JOB_FACTORY_VALIDATION_CACHE_SIZE("pa.scheduler.job.factory.validation.cache.size", PropertyType.INTEGER),
+
     /* ***************************************************************** */
     /* ************************ TASKS PROPERTIES *********************** */
     /* ***************************************************************** */
@@ -199,6 +209,9 @@ public enum PASchedulerProperties {
     /** Number of tasks to fetch per page when pagination is used */
     TASKS_PAGE_SIZE("pa.scheduler.tasks.page.size", PropertyType.INTEGER),
 
+    /** Number of jobs to fetch per page when paging by cursor without a limit */
+    JOBS_PAGE_SIZE("pa.scheduler.jobs.page.size", PropertyType.INTEGER),
+
     /**
      * If set to non-null value the scheduler can executes only forkenvironment and clean scripts from
      * this directory. All other scripts will be rejected.
@@ -265,6 +278,9 @@ public enum PASchedulerProperties {
 
     SCHEDULER_JOB_LOGS_MAX_SIZE("pa.scheduler.job.logs.max.size", PropertyType.STRING),
 
+    /** Maximum number of job and task log files kept open by the scheduler */
+    SCHEDULER_JOB_LOGS_MAX_OPEN_FILES("pa.scheduler.job.logs.max.open.files", PropertyType.INTEGER),
+
     //    /** Log max size (in lines per tasks) */
     //    LOGS_MAX_SIZE("pa.scheduler.logs.maxsize", PropertyType.INTEGER),
 
@@ -334,6 +350,48 @@ public enum PASchedulerProperties {
 
     SCHEDULER_DB_RECOVERY_LOAD_JOBS_BATCH_SIZE("pa.scheduler.db.recovery.load.jobs.batch_size", PropertyType.INTEGER),
 
+    /**
+     * Directory where the serialized values and propagated variables of task results are stored
+     * instead of the database. If this property isn't set, task results are fully stored in the database.
+     */
+    SCHEDULER_DB_RESULTS_STORAGE_DIR("pa.scheduler.db.results.storage.dir", PropertyType.STRING),
+
+    /** Minimum size (in bytes) of a task result content to be moved to the results storage directory */
+    SCHEDULER_DB_RESULTS_STORAGE_THRESHOLD("pa.scheduler.db.results.storage.threshold", PropertyType.INTEGER),
+
+    /** Payloads (job contents, stored task results) smaller than this size (in bytes) are not compressed */
+    SCHEDULER_DB_COMPRESSION_MIN_SIZE("pa.scheduler.db.compression.min.size", PropertyType.INTEGER),
+
+    /** Payloads bigger than this size (in bytes) are compressed with a fast codec instead of Deflate, -1 to always use Deflate */
+    SCHEDULER_DB_COMPRESSION_FAST_THRESHOLD("pa.scheduler.db.compression.fast.threshold", PropertyType.INTEGER),
+
+    /** Deflate level (1 to 9, -1 for the default level) used for payloads smaller than the fast threshold */
+    SCHEDULER_DB_COMPRESSION_DEFLATE_LEVEL("pa.scheduler.db.compression.deflate.level", PropertyType.INTEGER),
+
+    /** Store payloads which look already compressed as is */
+    SCHEDULER_DB_COMPRESSION_DETECT_COMPRESSED("pa.scheduler.db.compression.detect.compressed", PropertyType.BOOLEAN),
+
+    /** Size (in MB) of the in-memory cache of the results used to start dependent tasks, 0 to disable it */
+    SCHEDULER_DB_RESULTS_CACHE_SIZE("pa.scheduler.db.results.cache.size", PropertyType.INTEGER),
+
+    /** Minimum delay (in seconds) between two counts of a job or task listing total, 0 to count after each change */
+    SCHEDULER_DB_LISTING_TOTALS_REFRESH_PERIOD("pa.scheduler.db.listing.totals.refresh.period", PropertyType.INTEGER),
+
+    /** Delay (in seconds) between two saves of the scheduler statistics, 0 to save them only on shutdown */
+    SCHEDULER_DB_STATISTICS_SAVE_PERIOD("pa.scheduler.db.statistics.save.period", PropertyType.INTEGER),
+
+    /** Maximum number of jobs removed by the housekeeping in one transaction, 0 for no limit */
+    SCHEDULER_DB_HOUSEKEEPING_CHUNK_SIZE("pa.scheduler.db.housekeeping.chunk.size", PropertyType.INTEGER),
+
+    /** Pause (in milliseconds) between two transactions of the housekeeping */
+    SCHEDULER_DB_HOUSEKEEPING_CHUNK_DELAY("pa.scheduler.db.housekeeping.chunk.delay", PropertyType.INTEGER),
+
+    /** Maximum duration (in seconds) of a housekeeping, 0 for no limit */
+    SCHEDULER_DB_HOUSEKEEPING_TIME_BUDGET("pa.scheduler.db.housekeeping.time.budget", PropertyType.INTEGER),
+
+    /** Directory where the jobs removed by the housekeeping are archived, not archived if not set */
+    SCHEDULER_DB_HOUSEKEEPING_ARCHIVE_DIR("pa.scheduler.db.housekeeping.archive.dir", PropertyType.STRING),
+
     /* ***************************************************************** */
     /* ***************** EMAIL NOTIFICATION PROPERTIES ***************** */
     /* ***************************************************************** */
@@ -0,0 +1,67 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.job.factories;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.job.factories.spi.JobValidatorService;
+
+
+/**
+ * Job validator accepting every job and counting the validations, registered for the tests
+ * of this module.
+ */
+public class CountingJobValidatorService implements JobValidatorService {
+
+    private static final ConcurrentMap<String, AtomicInteger> fileValidations = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger jobValidations = new AtomicInteger();
+
+    @Override
+    public void validateJob(File jobFile) {
+        AtomicInteger count = new AtomicInteger();
+        AtomicInteger previous = fileValidations.putIfAbsent(jobFile.getAbsolutePath(), count);
+        (previous != null ? previous : count).incrementAndGet();
+    }
+
+    @Override
+    public void validateJob(TaskFlowJob job) {
+        jobValidations.incrementAndGet();
+    }
+
+    public static int getFileValidations(File jobFile) {
+        AtomicInteger count = fileValidations.get(jobFile.getAbsolutePath());
+        return count == null ? 0 : count.get();
+    }
+
+    public static int getJobValidations() {
+        return jobValidations.get();
+    }
+}
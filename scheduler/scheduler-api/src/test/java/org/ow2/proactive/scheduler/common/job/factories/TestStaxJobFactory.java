@@ -30,10 +30,12 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.util.Map;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -98,6 +100,53 @@ public class TestStaxJobFactory {
         assertEquals("updated_job_name2", testScriptJob.getName());
     }
 
+    @Test
+    public void testCreateJobTwiceFromTheSameContentShouldUseTheSubmittedVariables() throws Exception {
+        Map<String, String> variablesMap = Maps.newHashMap();
+        variablesMap.put("job_name", "first_submission");
+        assertEquals("first_submission", factory.createJob(jobDescriptorUri, variablesMap).getName());
+
+        variablesMap.put("job_name", "second_submission");
+        assertEquals("second_submission", factory.createJob(jobDescriptorUri, variablesMap).getName());
+        assertEquals("updated_job_name", factory.createJob(jobDescriptorUri).getName());
+    }
+
+    @Test
+    public void testIdenticalSubmissionsShouldValidateTheDescriptorOnce() throws Exception {
+        // a unique content, which the validation cache shared by the factories cannot know yet
+        File workflow = File.createTempFile("job_update_variables", ".xml");
+        workflow.deleteOnExit();
+        String content = new String(Files.readAllBytes(new File(jobDescriptorUri).toPath()), "UTF-8") + "<!-- " +
+                         System.nanoTime() + " -->";
+        Files.write(workflow.toPath(), content.getBytes("UTF-8"));
+
+        int submissions = 5;
+        int jobValidations = CountingJobValidatorService.getJobValidations();
+        for (int i = 0; i < submissions; i++) {
+            assertEquals("updated_job_name", factory.createJob(workflow.toURI()).getName());
+        }
+
+        assertEquals(1, CountingJobValidatorService.getFileValidations(workflow));
+        assertEquals(jobValidations + submissions, CountingJobValidatorService.getJobValidations());
+    }
+
+    @Test
+    public void testInvalidJobShouldBeRejectedAtEachSubmission() throws Exception {
+        File invalidJob = File.createTempFile("invalid_job", ".xml");
+        invalidJob.deleteOnExit();
+        Files.write(invalidJob.toPath(),
+                    "<job xmlns=\"urn:proactive:jobdescriptor:dev\" name=\"invalid\"><taskFlow/></job>".getBytes());
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                factory.createJob(invalidJob.toURI());
+                Assert.fail("An invalid job should not be created");
+            } catch (JobCreationException e) {
+                // expected
+            }
+        }
+    }
+
     @Test
     public void testCreateJobShouldUseJobVariablesToReplaceTaskGenericInfoVariables() throws Exception {
         TaskFlowJob testJob = (TaskFlowJob) factory.createJob(jobDescriptorUri);
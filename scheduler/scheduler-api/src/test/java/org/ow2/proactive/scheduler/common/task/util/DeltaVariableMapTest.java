@@ -0,0 +1,96 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.task.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+
+public class DeltaVariableMapTest {
+
+    @Test
+    public void testDiffAndMerge() throws Exception {
+        Map<String, byte[]> base = serialize("unchanged", "a", "modified", "b", "removed", "c");
+        Map<String, byte[]> variables = serialize("unchanged", "a", "modified", "B", "added", "d");
+
+        Map<String, byte[]> delta = DeltaVariableMap.diff(base, variables);
+        assertThat(delta.size(), is(3));
+        assertThat(delta.containsKey("unchanged"), is(false));
+        assertThat(delta.get("removed"), is(nullValue()));
+
+        DeltaVariableMap merged = new DeltaVariableMap(base, delta);
+        assertThat(merged.size(), is(3));
+        assertThat(merged.containsKey("removed"), is(false));
+        assertThat(merged.get("removed"), is(nullValue()));
+        assertThat(merged.containsKey("unchanged"), is(true));
+        assertThat(SerializationUtil.deserializeVariableMap(merged),
+                   is(SerializationUtil.deserializeVariableMap(variables)));
+    }
+
+    @Test
+    public void testSharedBaseIsSerializedOnce() throws Exception {
+        Map<String, byte[]> base = serialize("large", new String(new char[100000]));
+        DeltaVariableMap first = new DeltaVariableMap(base, serialize("first", "1"));
+        DeltaVariableMap second = new DeltaVariableMap(base, serialize("second", "2"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(first);
+            out.flush();
+            int firstSize = bytes.size();
+            out.writeObject(second);
+            out.flush();
+            assertThat(bytes.size() - firstSize < 1000, is(true));
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            DeltaVariableMap firstCopy = (DeltaVariableMap) in.readObject();
+            DeltaVariableMap secondCopy = (DeltaVariableMap) in.readObject();
+            assertThat(firstCopy.getBase() == secondCopy.getBase(), is(true));
+            assertThat(secondCopy.keySet().size(), is(2));
+        }
+    }
+
+    private static Map<String, byte[]> serialize(String... namesAndValues) {
+        Map<String, Serializable> variables = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            variables.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return SerializationUtil.serializeVariableMap(variables);
+    }
+
+}
@@ -43,6 +43,7 @@ import org.objectweb.proactive.extensions.annotation.ActiveObject;
 import org.ow2.proactive.authentication.crypto.CredData;
 import org.ow2.proactive.authentication.crypto.Credentials;
 import org.ow2.proactive.db.SortParameter;
+import org.ow2.proactive.scheduler.common.CursorPage;
 import org.ow2.proactive.scheduler.common.JobFilterCriteria;
 import org.ow2.proactive.scheduler.common.JobSortParameter;
 import org.ow2.proactive.scheduler.common.Page;
@@ -53,6 +54,8 @@ import org.ow2.proactive.scheduler.common.SchedulerEvent;
 import org.ow2.proactive.scheduler.common.SchedulerEventListener;
 import org.ow2.proactive.scheduler.common.SchedulerState;
 import org.ow2.proactive.scheduler.common.SchedulerStatus;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
+import org.ow2.proactive.scheduler.common.ServerLogsSnapshot;
 import org.ow2.proactive.scheduler.common.SortSpecifierContainer;
 import org.ow2.proactive.scheduler.common.exception.InternalSchedulerException;
 import org.ow2.proactive.scheduler.common.exception.JobAlreadyFinishedException;
@@ -71,6 +74,7 @@ import org.ow2.proactive.scheduler.common.job.JobResult;
 import org.ow2.proactive.scheduler.common.job.JobState;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskResult;
+import org.ow2.proactive.scheduler.common.task.TaskResultSummary;
 import org.ow2.proactive.scheduler.common.task.TaskState;
 import org.ow2.proactive.scheduler.common.usage.JobUsage;
 import org.ow2.proactive.scheduler.common.util.logforwarder.AppenderProvider;
@@ -265,6 +269,20 @@ public class SchedulerProxyUserInterface implements Scheduler, Serializable {
         return uischeduler.getJobResult(jobId);
     }
 
+    @Override
+    public Map<String, TaskResultSummary> getJobResultSummary(JobId jobId)
+            throws NotConnectedException, PermissionException, UnknownJobException {
+        checkSchedulerConnection();
+        return uischeduler.getJobResultSummary(jobId);
+    }
+
+    @Override
+    public Map<String, TaskResultSummary> getJobResultSummary(String jobId)
+            throws NotConnectedException, PermissionException, UnknownJobException {
+        checkSchedulerConnection();
+        return uischeduler.getJobResultSummary(jobId);
+    }
+
     @Override
     public TaskResult getTaskResult(String jobId, String taskName)
             throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
@@ -552,12 +570,42 @@ public class SchedulerProxyUserInterface implements Scheduler, Serializable {
         return uischeduler.getTaskServerLogsByTag(id, taskTag);
     }
 
+    @Override
+    public ServerLogsChunk getJobServerLogs(String id, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        return uischeduler.getJobServerLogs(id, offset, length);
+    }
+
+    @Override
+    public ServerLogsChunk getTaskServerLogs(String id, String taskName, long offset, int length)
+            throws UnknownJobException, UnknownTaskException, NotConnectedException, PermissionException {
+        return uischeduler.getTaskServerLogs(id, taskName, offset, length);
+    }
+
+    @Override
+    public ServerLogsChunk getTaskServerLogsByTag(String id, String taskTag, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        return uischeduler.getTaskServerLogsByTag(id, taskTag, offset, length);
+    }
+
+    @Override
+    public ServerLogsChunk getServerLogs(String id, ServerLogsSnapshot snapshot, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        return uischeduler.getServerLogs(id, snapshot, offset, length);
+    }
+
     @Override
     public Page<JobInfo> getJobs(int index, int range, JobFilterCriteria filterCriteria,
             List<SortParameter<JobSortParameter>> sortParameters) throws NotConnectedException, PermissionException {
         return uischeduler.getJobs(index, range, filterCriteria, sortParameters);
     }
 
+    @Override
+    public CursorPage<JobInfo> getJobsAfter(String cursor, int limit, JobFilterCriteria filterCriteria)
+            throws NotConnectedException, PermissionException {
+        return uischeduler.getJobsAfter(cursor, limit, filterCriteria);
+    }
+
     @Override
     public List<SchedulerUserInfo> getUsers() throws NotConnectedException, PermissionException {
         return uischeduler.getUsers();
@@ -619,6 +667,13 @@ public class SchedulerProxyUserInterface implements Scheduler, Serializable {
                                          sortParams);
     }
 
+    @Override
+    public CursorPage<TaskState> getTaskStatesAfter(String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        return uischeduler.getTaskStatesAfter(taskTag, from, to, mytasks, running, pending, finished, cursor, limit);
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         return uischeduler.getJobInfo(jobId);
@@ -0,0 +1,284 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.util.logforwarder.appenders;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.objectweb.proactive.utils.NamedThreadFactory;
+import org.ow2.proactive.scheduler.common.task.Log4JTaskLogs;
+import org.ow2.proactive.scheduler.common.util.logforwarder.util.LogBatchCodec;
+
+
+/**
+ * Appender that buffers logging events and sends them in binary batches (see {@link LogBatchCodec}).
+ * <p>
+ * The flushing period adapts to the volume of events: it is reset to {@link #MIN_FLUSH_PERIOD}
+ * when a full batch is sent and doubles up to {@link #MAX_FLUSH_PERIOD} otherwise, so that a verbose
+ * task sends large batches often while a quiet one sends small batches rarely.
+ * When the buffer is full, events are dropped and replaced by a summary line giving the number
+ * of lost lines. Lines longer than the maximum line length are truncated. The numbers of dropped
+ * and truncated events are sent with the batches, to be counted by the collector.
+ *
+ * @see org.ow2.proactive.scheduler.common.util.logforwarder.util.LogForwardingStatistics
+ */
+public abstract class BatchingAppender extends AppenderSkeleton {
+
+    private static final Logger logger = Logger.getLogger(BatchingAppender.class);
+
+    /** Default maximum number of events waiting to be sent */
+    public static final int DEFAULT_MAX_BUFFERED_EVENTS = 10000;
+
+    /** Default maximum number of events sent in a batch */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+
+    /** Default maximum length of a forwarded line */
+    public static final int DEFAULT_MAX_LINE_LENGTH = 16 * 1024;
+
+    public static final long MIN_FLUSH_PERIOD = 50; // ms
+
+    public static final long MAX_FLUSH_PERIOD = 1000; // ms
+
+    private static final ScheduledExecutorService flusher = Executors.newScheduledThreadPool(2,
+                                                                                             new NamedThreadFactory("Log forwarding flusher",
+                                                                                                                    true));
+
+    private final int maxBufferedEvents;
+
+    private final int maxBatchSize;
+
+    private final int maxLineLength;
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            scheduledFlush();
+        }
+    };
+
+    // keeps the batches in order when the appender is closed during a scheduled flush
+    private final Object sendLock = new Object();
+
+    // guarded by buffer
+    private final ArrayDeque<LoggingEvent> buffer = new ArrayDeque<>();
+
+    private long flushPeriod = MIN_FLUSH_PERIOD;
+
+    private ScheduledFuture<?> nextFlush;
+
+    private boolean closing;
+
+    private long pendingDroppedEvents;
+
+    private LoggingEvent lastDroppedEvent;
+
+    private long droppedEvents;
+
+    private long truncatedEvents;
+
+    // events dropped or truncated but not yet reported in a sent batch
+    private int unreportedDroppedEvents;
+
+    private int unreportedTruncatedEvents;
+
+    /**
+     * Create a BatchingAppender with default parameters.
+     */
+    protected BatchingAppender() {
+        this(DEFAULT_MAX_BUFFERED_EVENTS, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_LINE_LENGTH);
+    }
+
+    /**
+     * Create a BatchingAppender.
+     * @param maxBufferedEvents the maximum number of events waiting to be sent.
+     * @param maxBatchSize the maximum number of events sent in a batch.
+     * @param maxLineLength the maximum length of a forwarded line.
+     */
+    protected BatchingAppender(int maxBufferedEvents, int maxBatchSize, int maxLineLength) {
+        this.maxBufferedEvents = maxBufferedEvents;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Sends an encoded batch to the log server.
+     * @param batch the batch encoded by {@link LogBatchCodec}.
+     * @throws Exception if the batch cannot be sent, its events are then counted as dropped.
+     */
+    protected abstract void send(byte[] batch) throws Exception;
+
+    @Override
+    protected void append(LoggingEvent event) {
+        // the MDC must be copied in the logging thread
+        event.getMDCCopy();
+        LoggingEvent truncated = truncate(event);
+
+        synchronized (buffer) {
+            if (closing) {
+                return;
+            }
+            if (buffer.size() >= maxBufferedEvents) {
+                pendingDroppedEvents++;
+                droppedEvents++;
+                lastDroppedEvent = truncated;
+                unreportedDroppedEvents++;
+            } else {
+                buffer.addLast(truncated);
+            }
+            if (nextFlush == null) {
+                nextFlush = flusher.schedule(flushTask, flushPeriod, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private LoggingEvent truncate(LoggingEvent event) {
+        String message = event.getRenderedMessage();
+        if (message == null || message.length() <= maxLineLength) {
+            return event;
+        }
+        synchronized (buffer) {
+            truncatedEvents++;
+            unreportedTruncatedEvents++;
+        }
+        return LogBatchCodec.createEvent(event.getLoggerName(),
+                                         event.getLevel(),
+                                         event.getTimeStamp(),
+                                         message.substring(0, maxLineLength) + " ... [" +
+                                                  (message.length() - maxLineLength) + " characters truncated]",
+                                         event.getProperties());
+    }
+
+    private void scheduledFlush() {
+        int sent = flushBatch();
+        synchronized (buffer) {
+            if (sent >= maxBatchSize) {
+                flushPeriod = MIN_FLUSH_PERIOD;
+            } else {
+                flushPeriod = Math.min(MAX_FLUSH_PERIOD, flushPeriod * 2);
+            }
+            if (closing || (buffer.isEmpty() && pendingDroppedEvents == 0)) {
+                nextFlush = null;
+            } else {
+                nextFlush = flusher.schedule(flushTask, flushPeriod, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Sends at most one batch of buffered events.
+     * @return the number of sent events.
+     */
+    private int flushBatch() {
+        synchronized (sendLock) {
+            return sendBatch();
+        }
+    }
+
+    private int sendBatch() {
+        List<LoggingEvent> batch;
+        int reportedDroppedEvents;
+        int reportedTruncatedEvents;
+        synchronized (buffer) {
+            batch = new ArrayList<>(Math.min(buffer.size(), maxBatchSize) + 1);
+            while (batch.size() < maxBatchSize && !buffer.isEmpty()) {
+                batch.add(buffer.pollFirst());
+            }
+            // dropped events are newer than the buffered ones
+            if (buffer.isEmpty() && pendingDroppedEvents > 0) {
+                batch.add(LogBatchCodec.createEvent(lastDroppedEvent.getLoggerName(),
+                                                    Log4JTaskLogs.STDERR_LEVEL,
+                                                    lastDroppedEvent.getTimeStamp(),
+                                                    "[" + pendingDroppedEvents + " log lines dropped by the log forwarder]",
+                                                    lastDroppedEvent.getProperties()));
+                pendingDroppedEvents = 0;
+                lastDroppedEvent = null;
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            reportedDroppedEvents = unreportedDroppedEvents;
+            reportedTruncatedEvents = unreportedTruncatedEvents;
+            unreportedDroppedEvents = 0;
+            unreportedTruncatedEvents = 0;
+        }
+
+        try {
+            send(LogBatchCodec.encode(batch, reportedDroppedEvents, reportedTruncatedEvents));
+        } catch (Exception e) {
+            synchronized (buffer) {
+                droppedEvents += batch.size();
+                // reported with the next batch, if any
+                unreportedDroppedEvents += reportedDroppedEvents + batch.size();
+                unreportedTruncatedEvents += reportedTruncatedEvents;
+            }
+            logger.debug("Cannot forward " + batch.size() + " log events", e);
+        }
+        return batch.size();
+    }
+
+    /**
+     * Sends the buffered events and closes the appender.
+     */
+    @Override
+    public void close() {
+        synchronized (buffer) {
+            if (closing) {
+                return;
+            }
+            closing = true;
+            if (nextFlush != null) {
+                nextFlush.cancel(false);
+                nextFlush = null;
+            }
+        }
+
+        while (flushBatch() > 0) {
+            // send remaining batches
+        }
+
+        synchronized (buffer) {
+            if (droppedEvents > 0 || truncatedEvents > 0) {
+                logger.info("Log forwarding of " + getName() + " dropped " + droppedEvents + " and truncated " +
+                            truncatedEvents + " log events");
+            }
+        }
+        this.closed = true;
+    }
+
+    @Override
+    public boolean requiresLayout() {
+        return false;
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.util.logforwarder.providers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.objectweb.proactive.api.PARemoteObject;
+import org.objectweb.proactive.core.ProActiveException;
+import org.objectweb.proactive.core.remoteobject.RemoteObjectExposer;
+import org.objectweb.proactive.core.runtime.ProActiveRuntimeImpl;
+import org.ow2.proactive.scheduler.common.util.logforwarder.*;
+import org.ow2.proactive.scheduler.common.util.logforwarder.appenders.BatchingAppender;
+import org.ow2.proactive.scheduler.common.util.logforwarder.util.LogBatchCodec;
+import org.ow2.proactive.scheduler.common.util.logforwarder.util.LogForwardingStatistics;
+
+
+/**
+ * ProActive communication based log forwarding service sending logging events in compact binary batches.
+ * Unlike {@link ProActiveBasedForwardingProvider}, events are not serialized one by one: the
+ * events of a task are grouped by a {@link BatchingAppender} which adapts its batches to the volume
+ * of output and drops lines when the log server cannot keep up.
+ * @see BatchingAppender
+ */
+public class BatchedForwardingProvider implements LogForwardingProvider {
+
+    // log collector deployer
+    private BatchCollectorDeployer collectorDeployer;
+
+    // used for unique collector name
+    private static final AtomicInteger collectorCounter = new AtomicInteger(0);
+
+    // bind name
+    public static final String COLLECTOR_BIND_NAME = "proactive_lfs_batch_collector";
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see LogForwardingProvider#createAppenderProvider(java.net.URI)
+     */
+    public AppenderProvider createAppenderProvider(URI serverURI) throws LogForwardingException {
+        try {
+            return new BatchingAppenderProvider(new URI(this.collectorDeployer.getCollectorURL()));
+        } catch (Exception e) {
+            throw new LogForwardingException("Cannot create batching appender provider.", e);
+        }
+    }
+
+    @Override
+    public URI createServer(LoggingEventProcessor eventProcessor) throws LogForwardingException {
+        try {
+            collectorDeployer = new BatchCollectorDeployer(ProActiveRuntimeImpl.getProActiveRuntime()
+                                                                               .getVMInformation()
+                                                                               .getName() +
+                                                           COLLECTOR_BIND_NAME + collectorCounter.addAndGet(1),
+                                                           eventProcessor);
+            return new URI(collectorDeployer.getCollectorURL());
+        } catch (URISyntaxException e) {
+            throw new LogForwardingException("Cannot create ProActive log batch collector.", e);
+        } catch (ProActiveException e) {
+            throw new LogForwardingException("Cannot create ProActive log batch collector.", e);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see LogForwardingProvider#destroyServer()
+     */
+    public void terminateServer() throws LogForwardingException {
+        try {
+            this.collectorDeployer.terminate();
+            this.collectorDeployer = null;
+        } catch (ProActiveException e) {
+            throw new LogForwardingException("Cannot terminate ProActive log batch collector.", e);
+        }
+    }
+
+    public static class BatchingAppenderProvider implements AppenderProvider {
+
+        private URI remoteCollectorURI;
+
+        BatchingAppenderProvider(URI remoteCollectorURI) {
+            this.remoteCollectorURI = remoteCollectorURI;
+        }
+
+        public Appender getAppender() throws LogForwardingException {
+            try {
+                BatchCollector remoteCollector = (BatchCollector) PARemoteObject.lookup(remoteCollectorURI);
+                return new RemoteBatchingAppender(remoteCollector);
+            } catch (ProActiveException e) {
+                throw new LogForwardingException("Cannot lookup remote log batch collector at " +
+                                                 this.remoteCollectorURI, e);
+            }
+        }
+
+    }
+
+    /**
+     * Batching appender sending its batches to a remote collector.
+     */
+    public static class RemoteBatchingAppender extends BatchingAppender {
+
+        private final BatchCollector collector;
+
+        RemoteBatchingAppender(BatchCollector collector) {
+            this.collector = collector;
+        }
+
+        @Override
+        protected void send(byte[] batch) {
+            collector.sendBatch(batch);
+        }
+
+    }
+
+    public static class BatchCollectorDeployer {
+        final private String url;
+
+        final private BatchCollector collector;
+
+        final RemoteObjectExposer<BatchCollector> roe;
+
+        public BatchCollectorDeployer(String name, LoggingEventProcessor eventProcessor) throws ProActiveException {
+            this.collector = new BatchCollector(eventProcessor);
+            this.roe = PARemoteObject.newRemoteObject(BatchCollector.class.getName(), this.collector);
+            this.roe.createRemoteObject(name, false);
+            this.url = roe.getURL();
+        }
+
+        public String getCollectorURL() {
+            return this.url;
+        }
+
+        public void terminate() throws ProActiveException {
+            roe.unexportAll();
+        }
+    }
+
+    public static class BatchCollector {
+
+        private static final Logger logger = Logger.getLogger(BatchCollector.class);
+
+        private LoggingEventProcessor eventProcessor;
+
+        public BatchCollector() {
+        }
+
+        public BatchCollector(LoggingEventProcessor eventProcessor) {
+            this.eventProcessor = eventProcessor;
+        }
+
+        public void sendBatch(byte[] batch) {
+            try {
+                LogBatchCodec.Batch decoded = LogBatchCodec.decode(batch);
+                LogForwardingStatistics.getInstance().received(decoded);
+                for (LoggingEvent event : decoded.getEvents()) {
+                    eventProcessor.processEvent(event);
+                }
+            } catch (IOException e) {
+                LogForwardingStatistics.getInstance().rejected();
+                logger.warn("Cannot decode log batch of " + batch.length + " bytes", e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,244 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.util.logforwarder.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Category;
+import org.apache.log4j.Level;
+import org.apache.log4j.spi.LoggingEvent;
+
+
+/**
+ * Compact binary encoding of a batch of logging events.
+ * <p>
+ * A batch starts with a version byte and the numbers of events dropped and truncated by the
+ * appender since its previous batch, followed by records. A section record holds the logger
+ * name and the MDC properties shared by the event records that follow it, so that the
+ * events of a task only carry their level, time stamp and message.
+ *
+ * @see org.ow2.proactive.scheduler.common.util.logforwarder.appenders.BatchingAppender
+ */
+public final class LogBatchCodec {
+
+    private static final byte VERSION = 1;
+
+    private static final byte SECTION_RECORD = 1;
+
+    private static final byte EVENT_RECORD = 2;
+
+    private static final String FQN = LogBatchCodec.class.getName();
+
+    private LogBatchCodec() {
+    }
+
+    /**
+     * Encodes the given events.
+     * @param events the events to encode.
+     * @param droppedEvents the number of events dropped since the previous batch.
+     * @param truncatedEvents the number of events truncated since the previous batch.
+     * @return the encoded batch.
+     * @throws IOException if an event cannot be encoded.
+     */
+    public static byte[] encode(List<LoggingEvent> events, int droppedEvents, int truncatedEvents)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * (events.size() + 1));
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeByte(VERSION);
+        out.writeInt(droppedEvents);
+        out.writeInt(truncatedEvents);
+        String currentLoggerName = null;
+        Map<?, ?> currentProperties = null;
+        for (LoggingEvent event : events) {
+            Map<?, ?> properties = event.getProperties();
+            if (!event.getLoggerName().equals(currentLoggerName) || !properties.equals(currentProperties)) {
+                currentLoggerName = event.getLoggerName();
+                currentProperties = properties;
+
+                out.writeByte(SECTION_RECORD);
+                writeString(out, currentLoggerName);
+                out.writeShort(properties.size());
+                for (Map.Entry<?, ?> property : properties.entrySet()) {
+                    writeString(out, String.valueOf(property.getKey()));
+                    writeString(out, String.valueOf(property.getValue()));
+                }
+            }
+
+            out.writeByte(EVENT_RECORD);
+            out.writeInt(event.getLevel().toInt());
+            out.writeLong(event.getTimeStamp());
+            writeString(out, getMessage(event));
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a batch produced by {@link #encode(List, int, int)}.
+     * @param batch the encoded batch.
+     * @return the decoded batch.
+     * @throws IOException if the batch is corrupted or has an unknown version.
+     */
+    public static Batch decode(byte[] batch) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(batch));
+
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported log batch version " + version);
+        }
+        int droppedEvents = in.readInt();
+        int truncatedEvents = in.readInt();
+
+        List<LoggingEvent> events = new ArrayList<>();
+        String loggerName = null;
+        Map<String, String> properties = Collections.emptyMap();
+        while (in.available() > 0) {
+            byte record = in.readByte();
+            switch (record) {
+                case SECTION_RECORD:
+                    loggerName = readString(in);
+                    int size = in.readUnsignedShort();
+                    properties = new HashMap<>(size * 2);
+                    for (int i = 0; i < size; i++) {
+                        properties.put(readString(in), readString(in));
+                    }
+                    break;
+                case EVENT_RECORD:
+                    if (loggerName == null) {
+                        throw new IOException("Log event without section in log batch");
+                    }
+                    Level level = Level.toLevel(in.readInt());
+                    long timeStamp = in.readLong();
+                    events.add(createEvent(loggerName, level, timeStamp, readString(in), properties));
+                    break;
+                default:
+                    throw new IOException("Unknown record " + record + " in log batch");
+            }
+        }
+        return new Batch(events, droppedEvents, truncatedEvents);
+    }
+
+    /**
+     * Creates a logging event for the given logger name without registering a logger
+     * in the log4j repository.
+     */
+    public static LoggingEvent createEvent(String loggerName, Level level, long timeStamp, String message,
+            Map<?, ?> properties) {
+        return new LoggingEvent(FQN,
+                                new NamedCategory(loggerName),
+                                timeStamp,
+                                level,
+                                message,
+                                null,
+                                null,
+                                null,
+                                null,
+                                properties);
+    }
+
+    private static String getMessage(LoggingEvent event) {
+        String message = event.getRenderedMessage();
+        String[] throwable = event.getThrowableStrRep();
+        if (throwable == null) {
+            return message == null ? "" : message;
+        }
+        StringBuilder builder = new StringBuilder(message == null ? "" : message);
+        for (String line : throwable) {
+            builder.append(System.lineSeparator()).append(line);
+        }
+        return builder.toString();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IOException("Invalid string length " + length + " in log batch");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A decoded batch.
+     */
+    public static final class Batch {
+
+        private final List<LoggingEvent> events;
+
+        private final int droppedEvents;
+
+        private final int truncatedEvents;
+
+        private Batch(List<LoggingEvent> events, int droppedEvents, int truncatedEvents) {
+            this.events = events;
+            this.droppedEvents = droppedEvents;
+            this.truncatedEvents = truncatedEvents;
+        }
+
+        public List<LoggingEvent> getEvents() {
+            return events;
+        }
+
+        /**
+         * @return the number of events dropped by the appender since its previous batch.
+         */
+        public int getDroppedEvents() {
+            return droppedEvents;
+        }
+
+        /**
+         * @return the number of events truncated by the appender since its previous batch.
+         */
+        public int getTruncatedEvents() {
+            return truncatedEvents;
+        }
+    }
+
+    private static final class NamedCategory extends Category {
+        NamedCategory(String name) {
+            super(name);
+        }
+    }
+
+}
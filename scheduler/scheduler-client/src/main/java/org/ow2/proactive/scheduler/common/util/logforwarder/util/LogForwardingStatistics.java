@@ -0,0 +1,81 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.util.logforwarder.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Counts the log events lost by the batching appenders, as reported by the batches received
+ * by the log collectors of this JVM.
+ *
+ * @see LogBatchCodec
+ */
+public class LogForwardingStatistics implements LogForwardingStatisticsMBean {
+
+    private static final LogForwardingStatistics instance = new LogForwardingStatistics();
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private final AtomicLong truncatedEvents = new AtomicLong();
+
+    private final AtomicLong rejectedBatches = new AtomicLong();
+
+    public static LogForwardingStatistics getInstance() {
+        return instance;
+    }
+
+    private LogForwardingStatistics() {
+    }
+
+    /**
+     * Counts the events lost by the appender which sent the given batch.
+     */
+    public void received(LogBatchCodec.Batch batch) {
+        droppedEvents.addAndGet(batch.getDroppedEvents());
+        truncatedEvents.addAndGet(batch.getTruncatedEvents());
+    }
+
+    public void rejected() {
+        rejectedBatches.incrementAndGet();
+    }
+
+    @Override
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    @Override
+    public long getTruncatedEvents() {
+        return truncatedEvents.get();
+    }
+
+    @Override
+    public long getRejectedBatches() {
+        return rejectedBatches.get();
+    }
+
+}
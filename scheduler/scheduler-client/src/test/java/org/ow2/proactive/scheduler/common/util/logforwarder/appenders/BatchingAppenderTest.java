@@ -0,0 +1,143 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.util.logforwarder.appenders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.MDC;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
+import org.junit.Test;
+import org.ow2.proactive.scheduler.common.task.Log4JTaskLogs;
+import org.ow2.proactive.scheduler.common.util.logforwarder.util.LogBatchCodec;
+
+
+public class BatchingAppenderTest {
+
+    private final List<LoggingEvent> received = Collections.synchronizedList(new ArrayList<LoggingEvent>());
+
+    @After
+    public void clearMDC() {
+        MDC.remove(Log4JTaskLogs.MDC_TASK_ID);
+    }
+
+    @Test
+    public void eventsAreSentInBatches() throws Exception {
+        Logger logger = createLogger("logger.scheduler.1.10001");
+        CollectingAppender appender = new CollectingAppender(100, 10, 1000);
+        logger.addAppender(appender);
+
+        MDC.put(Log4JTaskLogs.MDC_TASK_ID, "10001");
+        for (int i = 0; i < 25; i++) {
+            logger.log(i % 2 == 0 ? Log4JTaskLogs.STDOUT_LEVEL : Log4JTaskLogs.STDERR_LEVEL, "line " + i);
+        }
+        appender.close();
+
+        assertTrue(appender.batches >= 3);
+        assertEquals(25, received.size());
+        for (int i = 0; i < 25; i++) {
+            LoggingEvent event = received.get(i);
+            assertEquals("line " + i, event.getRenderedMessage());
+            assertEquals(i % 2 == 0 ? Level.INFO : Level.ERROR, event.getLevel());
+            assertEquals("logger.scheduler.1.10001", event.getLoggerName());
+            assertEquals("10001", event.getMDC(Log4JTaskLogs.MDC_TASK_ID));
+        }
+    }
+
+    @Test
+    public void overflowIsSummarised() throws Exception {
+        Logger logger = createLogger("logger.scheduler.1.10002");
+        CollectingAppender appender = new CollectingAppender(5, 10, 10);
+        logger.addAppender(appender);
+
+        for (int i = 0; i < 8; i++) {
+            logger.info("a very long line " + i);
+        }
+        appender.close();
+
+        assertEquals(3, appender.droppedEvents);
+        assertEquals(8, appender.truncatedEvents);
+        assertEquals(6, received.size());
+        assertEquals("a very lon ... [8 characters truncated]", received.get(0).getRenderedMessage());
+        assertTrue(received.get(5).getRenderedMessage().contains("3 log lines dropped"));
+    }
+
+    @Test
+    public void codecRoundTrip() throws Exception {
+        Logger logger = createLogger("logger.scheduler.2.20001");
+        MDC.put(Log4JTaskLogs.MDC_TASK_ID, "20001");
+        LoggingEvent event = new LoggingEvent(Logger.class.getName(), logger, Level.ERROR, "h\u00e9llo", null);
+        event.getMDCCopy();
+
+        LogBatchCodec.Batch batch = LogBatchCodec.decode(LogBatchCodec.encode(Collections.singletonList(event), 2, 1));
+        List<LoggingEvent> decoded = batch.getEvents();
+
+        assertEquals(2, batch.getDroppedEvents());
+        assertEquals(1, batch.getTruncatedEvents());
+        assertEquals(1, decoded.size());
+        assertEquals("h\u00e9llo", decoded.get(0).getRenderedMessage());
+        assertEquals(event.getTimeStamp(), decoded.get(0).getTimeStamp());
+        assertEquals("20001", decoded.get(0).getMDC(Log4JTaskLogs.MDC_TASK_ID));
+    }
+
+    private Logger createLogger(String name) {
+        Logger logger = Logger.getLogger(name);
+        logger.setAdditivity(false);
+        logger.setLevel(Level.INFO);
+        logger.removeAllAppenders();
+        return logger;
+    }
+
+    private class CollectingAppender extends BatchingAppender {
+
+        private int batches;
+
+        private int droppedEvents;
+
+        private int truncatedEvents;
+
+        CollectingAppender(int maxBufferedEvents, int maxBatchSize, int maxLineLength) {
+            super(maxBufferedEvents, maxBatchSize, maxLineLength);
+        }
+
+        @Override
+        protected void send(byte[] batch) throws Exception {
+            batches++;
+            LogBatchCodec.Batch decoded = LogBatchCodec.decode(batch);
+            received.addAll(decoded.getEvents());
+            droppedEvents += decoded.getDroppedEvents();
+            truncatedEvents += decoded.getTruncatedEvents();
+        }
+    }
+
+}
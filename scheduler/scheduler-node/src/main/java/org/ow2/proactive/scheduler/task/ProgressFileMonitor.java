@@ -0,0 +1,378 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+
+/**
+ * Monitors the progress files of all the tasks running in the JVM with a single thread.
+ * <p>
+ * The directories of the progress files are registered to one shared {@link WatchService}, the
+ * files whose directory cannot be watched (watch limit reached, unsupported file system) are
+ * polled by the same thread instead. A file is monitored from {@link #register(ProgressFileReader)}
+ * until {@link #unregister(ProgressFileReader)}, usually called when its task terminates. Watches
+ * of deleted directories are cleaned up asynchronously by the monitoring thread, which stops
+ * itself and closes the watch service after a period without monitored file.
+ *
+ * @author ActiveEon Team
+ */
+public class ProgressFileMonitor {
+
+    private static final Logger logger = Logger.getLogger(ProgressFileMonitor.class);
+
+    private static final String THREAD_NAME = "Progress file monitor";
+
+    /** Delay between two checks of the polled files and of the watched directories */
+    static final long POLL_PERIOD = TimeUnit.SECONDS.toMillis(1);
+
+    /** The monitoring thread stops after this delay without monitored files */
+    static final long IDLE_TIMEOUT = TimeUnit.SECONDS.toMillis(60);
+
+    private final Object lock = new Object();
+
+    /** Watched directories by watch key */
+    private final Map<WatchKey, WatchedDirectory> watchedDirectories = new HashMap<>();
+
+    /** Watched directories by path, several progress files may share the same directory */
+    private final Map<Path, WatchedDirectory> watchedDirectoriesByPath = new HashMap<>();
+
+    /** Progress files which could not be watched */
+    private final List<ProgressFileReader> polledReaders = new ArrayList<>();
+
+    private WatchService watchService;
+
+    private Thread thread;
+
+    private long idleSince;
+
+    private final long idleTimeout;
+
+    ProgressFileMonitor(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public static ProgressFileMonitor getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    /**
+     * Start monitoring the progress file of the given reader.
+     */
+    public void register(ProgressFileReader reader) {
+        Path directory = reader.getProgressFile().getParent();
+        synchronized (lock) {
+            startIfNeeded();
+            WatchedDirectory watchedDirectory = watchedDirectoriesByPath.get(directory);
+            if (watchedDirectory == null && watchService != null) {
+                try {
+                    WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY);
+                    watchedDirectory = new WatchedDirectory(key, directory);
+                    watchedDirectories.put(key, watchedDirectory);
+                    watchedDirectoriesByPath.put(directory, watchedDirectory);
+                } catch (IOException e) {
+                    logger.debug("Cannot watch " + directory + ", progress file will be polled", e);
+                }
+            }
+            if (watchedDirectory != null) {
+                watchedDirectory.readers.put(reader.getProgressFile().getFileName().toString(), reader);
+            } else {
+                polledReaders.add(reader);
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Progress file " + reader.getProgressFile() + " registered, " + this);
+            }
+        }
+    }
+
+    /**
+     * Stop monitoring the progress file of the given reader.
+     */
+    public void unregister(ProgressFileReader reader) {
+        Path directory = reader.getProgressFile().getParent();
+        synchronized (lock) {
+            WatchedDirectory watchedDirectory = watchedDirectoriesByPath.get(directory);
+            if (watchedDirectory != null &&
+                watchedDirectory.readers.remove(reader.getProgressFile().getFileName().toString()) != null &&
+                watchedDirectory.readers.isEmpty()) {
+                cancel(watchedDirectory);
+            }
+            polledReaders.remove(reader);
+            if (isEmpty()) {
+                idleSince = System.currentTimeMillis();
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Progress file " + reader.getProgressFile() + " unregistered, " + this);
+            }
+        }
+    }
+
+    /**
+     * @return the number of threads used to monitor progress files, 0 or 1
+     */
+    public int getThreadCount() {
+        synchronized (lock) {
+            return thread != null ? 1 : 0;
+        }
+    }
+
+    /**
+     * @return the number of directories registered to the watch service
+     */
+    public int getWatchCount() {
+        synchronized (lock) {
+            return watchedDirectories.size();
+        }
+    }
+
+    /**
+     * @return the number of monitored progress files, watched or polled
+     */
+    public int getFileCount() {
+        synchronized (lock) {
+            int count = polledReaders.size();
+            for (WatchedDirectory watchedDirectory : watchedDirectories.values()) {
+                count += watchedDirectory.readers.size();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * @return the number of progress files polled because their directory could not be watched
+     */
+    public int getPolledFileCount() {
+        synchronized (lock) {
+            return polledReaders.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "progress file monitor: " + getThreadCount() + " thread, " + getWatchCount() + " watches, " +
+               getFileCount() + " files (" + getPolledFileCount() + " polled)";
+    }
+
+    private void startIfNeeded() {
+        if (watchService == null) {
+            try {
+                watchService = FileSystems.getDefault().newWatchService();
+            } catch (IOException e) {
+                logger.warn("Cannot create watch service, progress files will be polled", e);
+            }
+        }
+        if (thread == null) {
+            thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    monitor();
+                }
+            }, THREAD_NAME);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void monitor() {
+        long lastCheck = System.currentTimeMillis();
+        try {
+            while (true) {
+                WatchService service;
+                synchronized (lock) {
+                    if (isEmpty() && System.currentTimeMillis() - idleSince >= idleTimeout) {
+                        stop();
+                        return;
+                    }
+                    service = watchService;
+                }
+
+                WatchKey key;
+                if (service != null) {
+                    key = service.poll(POLL_PERIOD, TimeUnit.MILLISECONDS);
+                } else {
+                    Thread.sleep(POLL_PERIOD);
+                    key = null;
+                }
+                if (key != null) {
+                    processEvents(key);
+                }
+
+                if (System.currentTimeMillis() - lastCheck >= POLL_PERIOD) {
+                    lastCheck = System.currentTimeMillis();
+                    pollFiles();
+                    removeDeadWatches();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            synchronized (lock) {
+                stop();
+            }
+        } catch (ClosedWatchServiceException e) {
+            logger.debug("Watch service closed");
+            synchronized (lock) {
+                stop();
+            }
+        }
+    }
+
+    private void processEvents(WatchKey key) {
+        List<ProgressFileReader> modifiedReaders = new ArrayList<>();
+        synchronized (lock) {
+            WatchedDirectory watchedDirectory = watchedDirectories.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (watchedDirectory == null) {
+                    continue;
+                }
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    modifiedReaders.addAll(watchedDirectory.readers.values());
+                } else {
+                    ProgressFileReader reader = watchedDirectory.readers.get(event.context().toString());
+                    if (reader != null && !modifiedReaders.contains(reader)) {
+                        modifiedReaders.add(reader);
+                    }
+                }
+            }
+            if (!key.reset() && watchedDirectory != null) {
+                // the directory was deleted
+                cancel(watchedDirectory);
+            }
+        }
+        for (ProgressFileReader reader : modifiedReaders) {
+            reader.onProgressFileModified();
+        }
+    }
+
+    private void pollFiles() {
+        List<ProgressFileReader> readers;
+        synchronized (lock) {
+            if (polledReaders.isEmpty()) {
+                return;
+            }
+            readers = new ArrayList<>(polledReaders);
+        }
+        for (ProgressFileReader reader : readers) {
+            reader.onProgressFileModified();
+        }
+    }
+
+    private void removeDeadWatches() {
+        synchronized (lock) {
+            boolean removed = false;
+            Iterator<WatchedDirectory> iterator = watchedDirectories.values().iterator();
+            while (iterator.hasNext()) {
+                WatchedDirectory watchedDirectory = iterator.next();
+                if (!watchedDirectory.key.isValid() || !Files.isDirectory(watchedDirectory.directory)) {
+                    iterator.remove();
+                    watchedDirectoriesByPath.remove(watchedDirectory.directory);
+                    watchedDirectory.key.cancel();
+                    removed = true;
+                    logger.debug("Removed dead watch of " + watchedDirectory.directory);
+                }
+            }
+            Iterator<ProgressFileReader> polledIterator = polledReaders.iterator();
+            while (polledIterator.hasNext()) {
+                if (!Files.exists(polledIterator.next().getProgressFile())) {
+                    polledIterator.remove();
+                    removed = true;
+                }
+            }
+            if (removed && isEmpty()) {
+                idleSince = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private void cancel(WatchedDirectory watchedDirectory) {
+        watchedDirectory.key.cancel();
+        watchedDirectories.remove(watchedDirectory.key);
+        watchedDirectoriesByPath.remove(watchedDirectory.directory);
+        if (isEmpty()) {
+            idleSince = System.currentTimeMillis();
+        }
+    }
+
+    private boolean isEmpty() {
+        return watchedDirectories.isEmpty() && polledReaders.isEmpty();
+    }
+
+    private void stop() {
+        thread = null;
+        if (!isEmpty()) {
+            logger.warn("Progress file monitor stopped while monitoring files, " + this);
+        }
+        watchedDirectories.clear();
+        watchedDirectoriesByPath.clear();
+        polledReaders.clear();
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.warn("Cannot close watch service", e);
+            }
+            watchService = null;
+        }
+        logger.debug("Progress file monitor stopped");
+    }
+
+    private static final class WatchedDirectory {
+
+        private final WatchKey key;
+
+        private final Path directory;
+
+        /** Readers by progress file name */
+        private final Map<String, ProgressFileReader> readers = new HashMap<>();
+
+        private WatchedDirectory(WatchKey key, Path directory) {
+            this.key = key;
+            this.directory = directory;
+        }
+    }
+
+    private static class LazyHolder {
+
+        private static final ProgressFileMonitor INSTANCE = new ProgressFileMonitor(IDLE_TIMEOUT);
+
+    }
+
+}
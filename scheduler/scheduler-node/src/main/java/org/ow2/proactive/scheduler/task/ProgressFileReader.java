@@ -30,9 +30,9 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.*;
 import java.nio.file.attribute.FileTime;
-import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.apache.log4j.Logger;
 import org.ow2.proactive.scheduler.common.task.TaskId;
@@ -46,6 +46,9 @@ import org.ow2.proactive.scheduler.task.utils.ForkerUtils;
  * - reading new value and saving it in memory
  * - exposing the last read value
  * <p>
+ * Changes are detected by the {@link ProgressFileMonitor} shared by all the readers of the JVM,
+ * from {@link #start(File, TaskId)} until {@link #stop()}.
+ * <p>
  * Instances of this class are NOT thread-safe.
  *
  * @author The ProActive Team
@@ -56,21 +59,29 @@ public class ProgressFileReader {
 
     private static final String PROGRESS_FILE_DIR = ".tasks-progress";
 
+    private final ProgressFileMonitor monitor;
+
     private Path progressFileDir;
 
     private Path progressFile;
 
     private volatile int progress;
 
-    private WatchService watchService;
+    /** Only accessed by the monitor thread */
+    private FileTime lastModificationTime = FileTime.fromMillis(0);
 
-    private Thread watchServiceThread;
+    private boolean started;
 
-    private Set<Listener> observers;
+    private final Set<Listener> observers;
 
     public ProgressFileReader() {
+        this(ProgressFileMonitor.getInstance());
+    }
+
+    ProgressFileReader(ProgressFileMonitor monitor) {
+        this.monitor = monitor;
         // mainly for test purposes
-        observers = new HashSet<>(0);
+        observers = new CopyOnWriteArraySet<>();
     }
 
     public boolean start(File workingDir, TaskId taskId) {
@@ -84,15 +95,10 @@ public class ProgressFileReader {
         try {
             createProgressFile(workingDir, filename);
 
-            watchService = FileSystems.getDefault().newWatchService();
-
-            watchServiceThread = new Thread(new ProgressFileReaderThread(filename));
-            watchServiceThread.setName(ProgressFileReaderThread.class.getName());
-            watchServiceThread.start();
-
             progress = 0;
 
-            progressFileDir.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY);
+            monitor.register(this);
+            started = true;
 
             return true;
         } catch (IOException e) {
@@ -103,11 +109,11 @@ public class ProgressFileReader {
 
     private void createProgressFile(File workingDir, String progressFileName) throws IOException {
         progressFileDir = workingDir.toPath().resolve(PROGRESS_FILE_DIR);
+        progressFile = progressFileDir.resolve(progressFileName);
 
         try {
             Files.createDirectories(progressFileDir);
             ForkerUtils.setSharedExecutablePermissions(progressFileDir.toFile());
-            progressFile = progressFileDir.resolve(progressFileName);
             Files.createFile(progressFile);
             ForkerUtils.setSharedPermissions(progressFile.toFile());
         } catch (FileAlreadyExistsException e) {
@@ -134,15 +140,10 @@ public class ProgressFileReader {
     }
 
     public void stop() {
-        if (watchService != null) {
+        if (started) {
+            started = false;
             try {
-                watchService.close();
-                watchServiceThread.join();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                logger.info(e);
-            } catch (IOException e) {
-                logger.error(e);
+                monitor.unregister(this);
             } finally {
                 removeProgressFileDir();
             }
@@ -156,98 +157,60 @@ public class ProgressFileReader {
         org.apache.commons.io.FileUtils.deleteQuietly(progressFileDir.toFile());
     }
 
-    public interface Listener {
-
-        void onProgressUpdate(int newValue);
-
-    }
-
-    public final class ProgressFileReaderThread implements Runnable {
-
-        private final String progressFileName;
+    /**
+     * Called by the monitor thread when the progress file may have been modified.
+     */
+    void onProgressFileModified() {
+        try {
+            // compare file modification time to prevent duplicate events since
+            // updating content and metadata may be detected as two independent update operations
+            FileTime newLastModificationTime = Files.getLastModifiedTime(progressFile);
 
-        public ProgressFileReaderThread(String progressFileName) {
-            this.progressFileName = progressFileName;
+            if (newLastModificationTime.compareTo(lastModificationTime) > 0) {
+                readNewValue();
+                lastModificationTime = newLastModificationTime;
+            }
+        } catch (NoSuchFileException e) {
+            logger.debug("Progress file " + progressFile + " was removed");
+        } catch (IOException e) {
+            logger.warn(e);
         }
+    }
 
-        @Override
-        public void run() {
-            FileTime lastModificationTime = FileTime.fromMillis(0);
+    private void readNewValue() {
+        try {
+            String line = com.google.common.io.Files.readFirstLine(progressFile.toFile(), Charset.defaultCharset());
 
-            try {
-                WatchKey watchKey;
+            if (line != null) {
+                try {
+                    // try to parse double to allow int + double
+                    int value = (int) Double.parseDouble(line);
 
-                while ((watchKey = watchService.take()) != null) {
-                    // we have a polled event, now we traverse it and
-                    // receive all the states from it
-                    for (WatchEvent<?> event : watchKey.pollEvents()) {
-                        WatchEvent<Path> ev = cast(event);
-                        WatchEvent.Kind kind = event.kind();
+                    if (value >= 0 && value <= 100) {
+                        progress = value;
 
-                        if (kind == StandardWatchEventKinds.OVERFLOW) {
-                            continue;
+                        for (Listener observer : observers) {
+                            observer.onProgressUpdate(progress);
                         }
 
-                        Path path = ev.context();
-
-                        // compare file modification time to prevent duplicate events since
-                        // updating content and metadata may be detected as two independent update operations
-                        FileTime newLastModificationTime = Files.getLastModifiedTime(progressFile);
-
-                        if (newLastModificationTime.compareTo(lastModificationTime) > 0 &&
-                            path.toString().equals(progressFileName)) {
-                            readNewValue();
-                            lastModificationTime = newLastModificationTime;
+                        if (logger.isDebugEnabled()) {
+                            logger.debug("New progress value read: " + value);
                         }
+                    } else {
+                        logger.warn("Invalid progress value: " + value);
                     }
-
-                    watchKey.reset();
+                } catch (NumberFormatException e) {
+                    logger.warn("Progress value is a not a numeric value: " + line);
                 }
-            } catch (InterruptedException e) {
-                logger.warn(e);
-                Thread.currentThread().interrupt();
-            } catch (IOException e) {
-                logger.warn(e);
-            } catch (ClosedWatchServiceException e) {
-                logger.debug("Watch service closed");
             }
+        } catch (IOException e) {
+            logger.warn("Error while reading the first line of " + progressFile);
         }
+    }
 
-        @SuppressWarnings("unchecked")
-        private WatchEvent<Path> cast(WatchEvent<?> event) {
-            return (WatchEvent<Path>) event;
-        }
-
-        private void readNewValue() {
-            try {
-                String line = com.google.common.io.Files.readFirstLine(progressFile.toFile(), Charset.defaultCharset());
-
-                if (line != null) {
-                    try {
-                        // try to parse double to allow int + double
-                        int value = (int) Double.parseDouble(line);
-
-                        if (value >= 0 && value <= 100) {
-                            progress = value;
-
-                            for (Listener observer : observers) {
-                                observer.onProgressUpdate(progress);
-                            }
+    public interface Listener {
 
-                            if (logger.isDebugEnabled()) {
-                                logger.debug("New progress value read: " + value);
-                            }
-                        } else {
-                            logger.warn("Invalid progress value: " + value);
-                        }
-                    } catch (NumberFormatException e) {
-                        logger.warn("Progress value is a not a numeric value: " + line);
-                    }
-                }
-            } catch (IOException e) {
-                logger.warn("Error while reading the first line of " + progressFile);
-            }
-        }
+        void onProgressUpdate(int newValue);
 
     }
 
@@ -48,6 +48,7 @@ import org.ow2.proactive.scheduler.common.job.JobResult;
 import org.ow2.proactive.scheduler.common.job.JobState;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskResult;
+import org.ow2.proactive.scheduler.common.task.TaskResultSummary;
 import org.ow2.proactive.scheduler.common.task.TaskState;
 import org.ow2.proactive.scheduler.common.usage.JobUsage;
 import org.ow2.proactive.scheduler.common.util.logforwarder.AppenderProvider;
@@ -129,6 +130,20 @@ public class SchedulerNodeClient implements ISchedulerClient {
         return client.getJobResult(jobId);
     }
 
+    @Override
+    public Map<String, TaskResultSummary> getJobResultSummary(JobId jobId)
+            throws NotConnectedException, PermissionException, UnknownJobException {
+        renewSession();
+        return client.getJobResultSummary(jobId);
+    }
+
+    @Override
+    public Map<String, TaskResultSummary> getJobResultSummary(String jobId)
+            throws NotConnectedException, PermissionException, UnknownJobException {
+        renewSession();
+        return client.getJobResultSummary(jobId);
+    }
+
     @Override
     public TaskResult getTaskResultFromIncarnation(JobId jobId, String taskName, int inc)
             throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
@@ -496,6 +511,34 @@ public class SchedulerNodeClient implements ISchedulerClient {
         return client.getTaskServerLogsByTag(id, taskTag);
     }
 
+    @Override
+    public ServerLogsChunk getJobServerLogs(String id, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        renewSession();
+        return client.getJobServerLogs(id, offset, length);
+    }
+
+    @Override
+    public ServerLogsChunk getTaskServerLogs(String id, String taskName, long offset, int length)
+            throws UnknownJobException, UnknownTaskException, NotConnectedException, PermissionException {
+        renewSession();
+        return client.getTaskServerLogs(id, taskName, offset, length);
+    }
+
+    @Override
+    public ServerLogsChunk getTaskServerLogsByTag(String id, String taskTag, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        renewSession();
+        return client.getTaskServerLogsByTag(id, taskTag, offset, length);
+    }
+
+    @Override
+    public ServerLogsChunk getServerLogs(String id, ServerLogsSnapshot snapshot, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        renewSession();
+        return client.getServerLogs(id, snapshot, offset, length);
+    }
+
     @Override
     public Page<JobInfo> getJobs(int offset, int limit, JobFilterCriteria filterCriteria,
             List<SortParameter<JobSortParameter>> sortParameters) throws NotConnectedException, PermissionException {
@@ -503,6 +546,13 @@ public class SchedulerNodeClient implements ISchedulerClient {
         return client.getJobs(offset, limit, filterCriteria, sortParameters);
     }
 
+    @Override
+    public CursorPage<JobInfo> getJobsAfter(String cursor, int limit, JobFilterCriteria filterCriteria)
+            throws NotConnectedException, PermissionException {
+        renewSession();
+        return client.getJobsAfter(cursor, limit, filterCriteria);
+    }
+
     @Override
     public List<SchedulerUserInfo> getUsers() throws NotConnectedException, PermissionException {
         renewSession();
@@ -531,6 +581,14 @@ public class SchedulerNodeClient implements ISchedulerClient {
         return client.getTaskStates(taskTag, from, to, mytasks, running, pending, finished, offset, limit, sortParams);
     }
 
+    @Override
+    public CursorPage<TaskState> getTaskStatesAfter(String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        renewSession();
+        return client.getTaskStatesAfter(taskTag, from, to, mytasks, running, pending, finished, cursor, limit);
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         renewSession();
@@ -27,7 +27,9 @@ package org.ow2.proactive.scheduler.task.context;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.ow2.proactive.scheduler.common.job.JobVariable;
@@ -149,12 +151,10 @@ public class TaskContextVariableExtractor implements Serializable {
 
     private Map<String, Serializable> extractPreviousTaskResultVariablesFromTaskContext(TaskContext container)
             throws IOException, ClassNotFoundException {
-        Map<String, Serializable> result = new HashMap<>();
+        List<Map<String, byte[]>> previousVariables = new ArrayList<>(container.getPreviousTasksResults().length);
         for (TaskResult previousTaskResult : container.getPreviousTasksResults()) {
-            if (previousTaskResult.getPropagatedVariables() != null) {
-                result.putAll(SerializationUtil.deserializeVariableMap(previousTaskResult.getPropagatedVariables()));
-            }
+            previousVariables.add(previousTaskResult.getPropagatedVariables());
         }
-        return result;
+        return SerializationUtil.deserializeMergedVariableMaps(previousVariables);
     }
 }
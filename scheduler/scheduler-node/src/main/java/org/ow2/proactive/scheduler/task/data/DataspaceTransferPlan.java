@@ -0,0 +1,216 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.data;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.objectweb.proactive.extensions.dataspaces.api.DataSpacesFileObject;
+import org.objectweb.proactive.extensions.dataspaces.api.FileType;
+
+
+/**
+ * Transfer of a set of files to a single destination space.
+ * <p>
+ * Files are registered with their path relative to the destination. Once their
+ * types are known, the plan gives the minimal set of folders to create, so that
+ * every destination folder costs a single remote call whatever the number of
+ * files it contains, and the files to copy, folders being created beforehand.
+ * The plan also collects the duration of each phase and the amount of data
+ * transferred, for reporting purposes.
+ */
+class DataspaceTransferPlan {
+
+    enum Phase {
+        LISTING,
+        PLANNING,
+        FOLDERS,
+        TRANSFER
+    }
+
+    private static final String SEPARATOR = "/";
+
+    private final Map<String, DataSpacesFileObject> files = new LinkedHashMap<>();
+
+    private final Set<String> folderEntries = new HashSet<>();
+
+    private final NavigableSet<String> folders = new TreeSet<>();
+
+    private final Map<Phase, Long> phaseDurations = new EnumMap<>(Phase.class);
+
+    private final AtomicInteger nbFoldersCreated = new AtomicInteger();
+
+    private final AtomicInteger nbFilesCopied = new AtomicInteger();
+
+    private final AtomicInteger nbFilesUpToDate = new AtomicInteger();
+
+    private final AtomicLong nbBytesCopied = new AtomicLong();
+
+    /**
+     * Registers a file to transfer.
+     *
+     * @return the file previously registered for the same relative path, or {@code null}
+     */
+    DataSpacesFileObject addFile(String relativePath, DataSpacesFileObject file) {
+        return files.put(relativePath, file);
+    }
+
+    /**
+     * @return all the registered files, including folders, by relative path
+     */
+    Map<String, DataSpacesFileObject> getEntries() {
+        return Collections.unmodifiableMap(files);
+    }
+
+    /**
+     * Records the type of a registered file. A folder is created rather than copied,
+     * a file requires its parent folder. Other types are left untouched and simply copied.
+     */
+    void setType(String relativePath, FileType type) {
+        if (FileType.FOLDER.equals(type)) {
+            folderEntries.add(relativePath);
+            addFolder(relativePath);
+        } else if (FileType.FILE.equals(type)) {
+            int index = relativePath.lastIndexOf(SEPARATOR);
+            if (index > 0) {
+                addFolder(relativePath.substring(0, index));
+            }
+        }
+    }
+
+    private void addFolder(String relativePath) {
+        if (!relativePath.isEmpty()) {
+            folders.add(relativePath);
+        }
+    }
+
+    /**
+     * Folders created by the plan are the deepest ones only: creating a folder creates
+     * its missing ancestors as well.
+     *
+     * @return the relative paths of the folders to create, sorted
+     */
+    Set<String> getFoldersToCreate() {
+        Set<String> result = new TreeSet<>();
+
+        for (String folder : folders) {
+            String next = folders.ceiling(folder + SEPARATOR);
+
+            if (next == null || !next.startsWith(folder + SEPARATOR)) {
+                result.add(folder);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the files to copy by relative path, folders excluded
+     */
+    Map<String, DataSpacesFileObject> getFilesToCopy() {
+        if (folderEntries.isEmpty()) {
+            return getEntries();
+        }
+
+        Map<String, DataSpacesFileObject> result = new LinkedHashMap<>(files);
+        result.keySet().removeAll(folderEntries);
+
+        return result;
+    }
+
+    void recordPhase(Phase phase, long durationInMillis) {
+        Long previous = phaseDurations.get(phase);
+        phaseDurations.put(phase, previous == null ? durationInMillis : previous + durationInMillis);
+    }
+
+    long getPhaseDuration(Phase phase) {
+        Long duration = phaseDurations.get(phase);
+        return duration == null ? 0 : duration;
+    }
+
+    void folderCreated() {
+        nbFoldersCreated.incrementAndGet();
+    }
+
+    void fileCopied(long size) {
+        nbFilesCopied.incrementAndGet();
+        nbBytesCopied.addAndGet(Math.max(size, 0));
+    }
+
+    void fileUpToDate() {
+        nbFilesUpToDate.incrementAndGet();
+    }
+
+    int getNbFoldersCreated() {
+        return nbFoldersCreated.get();
+    }
+
+    int getNbFilesCopied() {
+        return nbFilesCopied.get();
+    }
+
+    long getNbBytesCopied() {
+        return nbBytesCopied.get();
+    }
+
+    /**
+     * @return a one line summary of the transfer with its throughput and per phase timings
+     */
+    String report(String destination) {
+        long total = 0;
+        for (long duration : phaseDurations.values()) {
+            total += duration;
+        }
+
+        long transfer = getPhaseDuration(Phase.TRANSFER);
+        double seconds = Math.max(transfer, 1) / 1000d;
+
+        return String.format("Transferred %d file(s) (%d byte(s), %d already up to date) to %s in %d ms " +
+                             "(%.2f MB/s, %.1f files/s): listing %d ms, planning %d ms, " +
+                             "folders %d ms (%d created), transfer %d ms",
+                             nbFilesCopied.get(),
+                             nbBytesCopied.get(),
+                             nbFilesUpToDate.get(),
+                             destination,
+                             total,
+                             nbBytesCopied.get() / seconds / (1024 * 1024),
+                             nbFilesCopied.get() / seconds,
+                             getPhaseDuration(Phase.LISTING),
+                             getPhaseDuration(Phase.PLANNING),
+                             getPhaseDuration(Phase.FOLDERS),
+                             nbFoldersCreated.get(),
+                             transfer);
+    }
+
+}
@@ -31,7 +31,7 @@ import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -409,6 +409,8 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
             ArrayList<DataSpacesFileObject> globalSpaceCacheFiles = new ArrayList<>();
             ArrayList<DataSpacesFileObject> userSpaceCacheFiles = new ArrayList<>();
 
+            long startTime = System.currentTimeMillis();
+
             FileSystemException exception = findFilesToCopyFromInput(inputSelectors,
                                                                      inputSpaceFiles,
                                                                      outputSpaceFiles,
@@ -423,6 +425,8 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
                 throw exception;
             }
 
+            long listingTime = System.currentTimeMillis() - startTime;
+
             String inputSpaceUri = virtualResolve(INPUT);
             String outputSpaceUri = virtualResolve(OUTPUT);
             String globalSpaceUri = virtualResolve(GLOBAL);
@@ -434,19 +438,18 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
                 cacheTransferLock.lockInterruptibly();
                 try {
 
-                    Map<String, DataSpacesFileObject> filesToCopyToCache = createFolderHierarchySequentially(CACHE,
-                                                                                                             inputSpaceUri,
-                                                                                                             inputSpaceCacheFiles,
-                                                                                                             outputSpaceUri,
-                                                                                                             outputSpaceCacheFiles,
-                                                                                                             globalSpaceUri,
-                                                                                                             globalSpaceCacheFiles,
-                                                                                                             userSpaceUri,
-                                                                                                             userSpaceCacheFiles);
-
-                    List<Future<Boolean>> transferFuturesCache = doCopyInputDataToSpace(CACHE, filesToCopyToCache);
-
-                    handleResults(transferFuturesCache);
+                    DataspaceTransferPlan cachePlan = planInputTransfer(listingTime,
+                                                                        inputSpaceUri,
+                                                                        inputSpaceCacheFiles,
+                                                                        outputSpaceUri,
+                                                                        outputSpaceCacheFiles,
+                                                                        globalSpaceUri,
+                                                                        globalSpaceCacheFiles,
+                                                                        userSpaceUri,
+                                                                        userSpaceCacheFiles);
+
+                    createFolderHierarchy(CACHE, cachePlan);
+                    transferFiles(CACHE, cachePlan, true);
                 } finally {
                     if (cacheTransferPresent) {
                         cacheTransferLock.unlock();
@@ -457,19 +460,18 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
                                     DataspacesStatusLevel.ERROR);
             }
 
-            Map<String, DataSpacesFileObject> filesToCopyToScratch = createFolderHierarchySequentially(SCRATCH,
-                                                                                                       inputSpaceUri,
-                                                                                                       inputSpaceFiles,
-                                                                                                       outputSpaceUri,
-                                                                                                       outputSpaceFiles,
-                                                                                                       globalSpaceUri,
-                                                                                                       globalSpaceFiles,
-                                                                                                       userSpaceUri,
-                                                                                                       userSpaceFiles);
+            DataspaceTransferPlan scratchPlan = planInputTransfer(listingTime,
+                                                                  inputSpaceUri,
+                                                                  inputSpaceFiles,
+                                                                  outputSpaceUri,
+                                                                  outputSpaceFiles,
+                                                                  globalSpaceUri,
+                                                                  globalSpaceFiles,
+                                                                  userSpaceUri,
+                                                                  userSpaceFiles);
 
-            List<Future<Boolean>> transferFuturesScratch = doCopyInputDataToSpace(SCRATCH, filesToCopyToScratch);
-
-            handleResults(transferFuturesScratch);
+            createFolderHierarchy(SCRATCH, scratchPlan);
+            transferFiles(SCRATCH, scratchPlan, true);
 
         } finally {
             // display dataspaces error and warns if any
@@ -477,15 +479,15 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
         }
     }
 
-    private Map<String, DataSpacesFileObject> createFolderHierarchySequentially(DataSpacesFileObject space,
-            String inputSpaceUri, ArrayList<DataSpacesFileObject> inputSpaceFiles, String outputSpaceUri,
+    private DataspaceTransferPlan planInputTransfer(long listingTime, String inputSpaceUri,
+            ArrayList<DataSpacesFileObject> inputSpaceFiles, String outputSpaceUri,
             ArrayList<DataSpacesFileObject> outputSpaceFiles, String globalSpaceUri,
             ArrayList<DataSpacesFileObject> globalSpaceFiles, String userSpaceUri,
             ArrayList<DataSpacesFileObject> userSpaceFiles) throws FileSystemException {
 
-        // This map will contain the files that have to be copied.
-        Map<String, DataSpacesFileObject> result = new HashMap<>(outputSpaceFiles.size() + globalSpaceFiles.size() +
-                                                                 userSpaceFiles.size() + inputSpaceFiles.size());
+        // This plan will contain the files that have to be copied.
+        DataspaceTransferPlan plan = new DataspaceTransferPlan();
+        plan.recordPhase(DataspaceTransferPlan.Phase.LISTING, listingTime);
 
         // Since multiple spaces are involved, it is possible to have
         // a file with the same name present in each space. Consequently,
@@ -495,46 +497,24 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
         // of the spaces when the previous situation occurs:
         // output, input, user and global space
         // Precedence is given to the more specific files
-        createFolderHierarchySequentially(space, globalSpaceUri, globalSpaceFiles, result);
-        createFolderHierarchySequentially(space, userSpaceUri, userSpaceFiles, result);
-        createFolderHierarchySequentially(space, inputSpaceUri, inputSpaceFiles, result);
-        createFolderHierarchySequentially(space, outputSpaceUri, outputSpaceFiles, result);
+        selectFilesToCopy(globalSpaceUri, globalSpaceFiles, plan);
+        selectFilesToCopy(userSpaceUri, userSpaceFiles, plan);
+        selectFilesToCopy(inputSpaceUri, inputSpaceFiles, plan);
+        selectFilesToCopy(outputSpaceUri, outputSpaceFiles, plan);
 
-        return result;
+        return plan;
     }
 
     /*
-     * Create the folder hierarchy and select the files to copy
-     * from the specified list of FileObjects.
+     * Select the files to copy from the specified list of FileObjects.
      */
-    protected void createFolderHierarchySequentially(DataSpacesFileObject destination, String spaceUri,
-            List<DataSpacesFileObject> spaceFiles, Map<String, DataSpacesFileObject> filesToCopy)
-            throws FileSystemException {
-
-        boolean isDebugEnabled = logger.isDebugEnabled();
-        boolean isFolderHierarchyCreationEnabled = isCreateFolderHierarchySequentiallyEnabled();
-        long startTime = 0;
-
-        if (isDebugEnabled) {
-            startTime = System.currentTimeMillis();
-        }
+    protected void selectFilesToCopy(String spaceUri, List<DataSpacesFileObject> spaceFiles,
+            DataspaceTransferPlan plan) throws FileSystemException {
 
         for (DataSpacesFileObject fileObject : spaceFiles) {
             String relativePath = relativize(spaceUri, fileObject);
 
-            if (isFolderHierarchyCreationEnabled) {
-                try {
-                    DataSpacesFileObject target = destination.resolveFile(relativePath);
-                    createFolderHierarchy(isDebugEnabled, fileObject, target);
-                } catch (FileSystemException e) {
-                    String message = "Could not create folder hierarchy for " + relativePath + " on " +
-                                     destination.getRealURI();
-                    logger.warn(message);
-                    logDataspacesStatus(message, DataspacesStatusLevel.WARNING);
-                }
-            }
-
-            DataSpacesFileObject oldFileObject = filesToCopy.put(relativePath, fileObject);
+            DataSpacesFileObject oldFileObject = plan.addFile(relativePath, fileObject);
             if (oldFileObject != null) {
                 String message = fileObject.getRealURI() + " will be copied instead of " + oldFileObject.getRealURI() +
                                  ".\n " + "Precedence order is output space, input space, user space, global space.";
@@ -542,37 +522,78 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
                 logDataspacesStatus(message, DataspacesStatusLevel.WARNING);
             }
         }
+    }
+
+    /*
+     * Create in a single pass the folder hierarchy required by the planned files.
+     * The type of each file is resolved concurrently, then each distinct folder
+     * is created once, whatever the number of files it contains.
+     */
+    protected void createFolderHierarchy(DataSpacesFileObject destination, DataspaceTransferPlan plan)
+            throws FileSystemException {
 
-        if (isDebugEnabled) {
-            long timeToCreateHierarchySequentially = System.currentTimeMillis() - startTime;
-            logger.debug("Executing TaskProActiveDataspaces#createFolderHierarchySequentially has taken " +
-                         timeToCreateHierarchySequentially + " ms");
+        if (!isCreateFolderHierarchySequentiallyEnabled()) {
+            return;
         }
-    }
 
-    protected void createFolderHierarchy(boolean isDebugEnabled, DataSpacesFileObject fileObject,
-            DataSpacesFileObject target) throws FileSystemException {
+        long startTime = System.currentTimeMillis();
 
-        FileType fileObjectType = fileObject.getType();
+        resolveFileTypes(plan);
 
-        if (FileType.FOLDER.equals(fileObjectType)) {
-            if (isDebugEnabled) {
-                logger.debug("Creating folder " + target.getRealURI());
-            }
-            if (!target.exists()) {
-                target.createFolder();
-                setFolderRightsForRunAsUserMode(target);
-            }
+        plan.recordPhase(DataspaceTransferPlan.Phase.PLANNING, System.currentTimeMillis() - startTime);
 
-        } else if (FileType.FILE.equals(fileObjectType)) {
-            DataSpacesFileObject parent = target.getParent();
+        boolean isDebugEnabled = logger.isDebugEnabled();
+        startTime = System.currentTimeMillis();
+
+        for (String folder : plan.getFoldersToCreate()) {
+            try {
+                DataSpacesFileObject target = destination.resolveFile(folder);
 
-            if (isDebugEnabled) {
-                logger.debug("Creating folder " + parent.getRealURI());
+                if (isDebugEnabled) {
+                    logger.debug("Creating folder " + target.getRealURI());
+                }
+                if (!target.exists()) {
+                    target.createFolder();
+                    setFolderRightsForRunAsUserMode(target);
+                    plan.folderCreated();
+                }
+            } catch (FileSystemException e) {
+                String message = "Could not create folder hierarchy for " + folder + " on " +
+                                 destination.getRealURI();
+                logger.warn(message);
+                logDataspacesStatus(message, DataspacesStatusLevel.WARNING);
             }
-            if (!parent.exists()) {
-                parent.createFolder();
-                setFolderRightsForRunAsUserMode(parent);
+        }
+
+        plan.recordPhase(DataspaceTransferPlan.Phase.FOLDERS, System.currentTimeMillis() - startTime);
+    }
+
+    private void resolveFileTypes(DataspaceTransferPlan plan) throws FileSystemException {
+        Map<String, Future<FileType>> types = new LinkedHashMap<>(plan.getEntries().size());
+
+        for (final Map.Entry<String, DataSpacesFileObject> entry : plan.getEntries().entrySet()) {
+            types.put(entry.getKey(), executorTransfer.submit(new Callable<FileType>() {
+                @Override
+                public FileType call() throws FileSystemException {
+                    return entry.getValue().getType();
+                }
+            }));
+        }
+
+        for (Map.Entry<String, Future<FileType>> entry : types.entrySet()) {
+            try {
+                plan.setType(entry.getKey(), entry.getValue().get());
+            } catch (ExecutionException e) {
+                // the file will still be copied, creating its parent folders if needed
+                String message = "Could not resolve the type of " + entry.getKey();
+                logger.warn(message, e.getCause());
+                logDataspacesStatus(message, DataspacesStatusLevel.WARNING);
+            } catch (InterruptedException e) {
+                for (Future<FileType> future : types.values()) {
+                    future.cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                throw new FileSystemException("Interrupted while resolving the type of the files to transfer");
             }
         }
     }
@@ -700,21 +721,32 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
         return toBeThrown;
     }
 
-    private List<Future<Boolean>> doCopyInputDataToSpace(DataSpacesFileObject space,
-            Map<String, DataSpacesFileObject> filesToCopy) {
+    private void transferFiles(DataSpacesFileObject destination, DataspaceTransferPlan plan, boolean isInputFile)
+            throws FileSystemException {
+
+        long startTime = System.currentTimeMillis();
+
+        Map<String, DataSpacesFileObject> filesToCopy = plan.getFilesToCopy();
 
         List<Future<Boolean>> transferFutures = new ArrayList<>(filesToCopy.size());
 
         for (Map.Entry<String, DataSpacesFileObject> entry : filesToCopy.entrySet()) {
-            transferFutures.add(parallelFileCopy(entry.getValue(), space, entry.getKey(), true));
+            transferFutures.add(parallelFileCopy(entry.getValue(), destination, entry.getKey(), isInputFile, plan));
         }
 
-        return transferFutures;
+        try {
+            handleResults(transferFutures);
+        } finally {
+            plan.recordPhase(DataspaceTransferPlan.Phase.TRANSFER, System.currentTimeMillis() - startTime);
+            if (!filesToCopy.isEmpty()) {
+                logger.info(plan.report(destination.getRealURI()));
+            }
+        }
     }
 
     private Future<Boolean> parallelFileCopy(final DataSpacesFileObject source,
             final DataSpacesFileObject destinationBase, final String destinationRelativeToBase,
-            final boolean isInputFile) {
+            final boolean isInputFile, final DataspaceTransferPlan plan) {
 
         logger.debug("------------ resolving " + destinationRelativeToBase);
 
@@ -723,6 +755,7 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
             public Boolean call() throws FileSystemException {
 
                 DataSpacesFileObject target = destinationBase.resolveFile(destinationRelativeToBase);
+                boolean copied = true;
                 if (!target.exists()) {
                     logger.info("Copying " + source.getRealURI() + " to " + destinationBase.getRealURI() + "/" +
                                 destinationRelativeToBase);
@@ -733,6 +766,8 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
                     target.copyFrom(source, FileSelector.SELECT_SELF);
                 } else {
                     logger.info("Destination file " + target.getRealURI() + " is already present and newer.");
+                    plan.fileUpToDate();
+                    copied = false;
                 }
 
                 target.refresh();
@@ -746,12 +781,25 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
                     if (isInputFile) {
                         setFileRightsForRunAsUserMode(target);
                     }
+                    if (copied) {
+                        // the size is read on the local side of the transfer
+                        plan.fileCopied(getSize(isInputFile ? target : source));
+                    }
                 }
                 return true;
             }
         });
     }
 
+    private long getSize(DataSpacesFileObject file) {
+        try {
+            return FileType.FILE.equals(file.getType()) ? file.getContent().getSize() : 0;
+        } catch (FileSystemException e) {
+            logger.debug("Could not read the size of " + file.getRealURI(), e);
+            return 0;
+        }
+    }
+
     private FileSystemException findFilesToCopyFromInput(DataSpacesFileObject space, String spaceName,
             InputSelector inputSelector,
             org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector selector,
@@ -954,6 +1002,8 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
             org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector selector,
             List<DataSpacesFileObject> results) throws FileSystemException {
 
+        long startTime = System.currentTimeMillis();
+
         Utils.findFiles(SCRATCH, selector, results);
 
         if (logger.isDebugEnabled()) {
@@ -966,17 +1016,13 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
 
         String base = SCRATCH.getVirtualURI();
 
-        Map<String, DataSpacesFileObject> filesToCopy = new HashMap<>(results.size());
-
-        createFolderHierarchySequentially(dataspaceDestination, base, results, filesToCopy);
+        DataspaceTransferPlan plan = new DataspaceTransferPlan();
+        plan.recordPhase(DataspaceTransferPlan.Phase.LISTING, System.currentTimeMillis() - startTime);
 
-        ArrayList<Future<Boolean>> transferFutures = new ArrayList<>(results.size());
-
-        for (Map.Entry<String, DataSpacesFileObject> entry : filesToCopy.entrySet()) {
-            transferFutures.add(parallelFileCopy(entry.getValue(), dataspaceDestination, entry.getKey(), false));
-        }
+        selectFilesToCopy(base, results, plan);
 
-        handleResults(transferFutures);
+        createFolderHierarchy(dataspaceDestination, plan);
+        transferFiles(dataspaceDestination, plan, false);
     }
 
 }
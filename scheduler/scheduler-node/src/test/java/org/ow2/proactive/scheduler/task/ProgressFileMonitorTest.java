@@ -0,0 +1,123 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+public class ProgressFileMonitorTest {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(20);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ProgressFileMonitor monitor = new ProgressFileMonitor(0);
+
+    @Test
+    public void testProgressFilesShareOneThread() throws Exception {
+        ProgressFileReader reader1 = new ProgressFileReader(monitor);
+        ProgressFileReader reader2 = new ProgressFileReader(monitor);
+        reader1.start(folder.newFolder("task1"), "task1");
+        reader2.start(folder.newFolder("task2"), "task2");
+
+        assertThat(monitor.getThreadCount(), is(1));
+        assertThat(monitor.getWatchCount() + monitor.getPolledFileCount(), is(2));
+        assertThat(monitor.getFileCount(), is(2));
+
+        setProgress(reader1.getProgressFile(), 42, 1);
+        setProgress(reader2.getProgressFile(), 17, 1);
+        waitForProgress(reader1, 42);
+        waitForProgress(reader2, 17);
+
+        setProgress(reader1.getProgressFile(), 100, 2);
+        waitForProgress(reader1, 100);
+
+        reader1.stop();
+        assertThat(monitor.getFileCount(), is(1));
+        reader2.stop();
+        assertThat(monitor.getFileCount(), is(0));
+        assertThat(monitor.getWatchCount(), is(0));
+
+        waitForThreadCount(0);
+    }
+
+    @Test
+    public void testDeadWatchesAreRemoved() throws Exception {
+        File workingDir = folder.newFolder("task");
+        ProgressFileReader reader = new ProgressFileReader(monitor);
+        reader.start(workingDir, "task");
+        assertThat(monitor.getFileCount(), is(1));
+
+        // the working directory is removed without stopping the reader
+        FileUtils.deleteDirectory(workingDir);
+
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (monitor.getFileCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(monitor.getFileCount(), is(0));
+        waitForThreadCount(0);
+    }
+
+    private static void setProgress(Path progressFile, int value, int version) throws IOException {
+        Files.write(progressFile, Integer.toString(value).getBytes(StandardCharsets.UTF_8));
+        // file systems may only store modification times with a one second precision
+        Files.setLastModifiedTime(progressFile, FileTime.fromMillis(System.currentTimeMillis() + version * 2000));
+    }
+
+    private static void waitForProgress(ProgressFileReader reader, int value) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (reader.getProgress() != value && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(reader.getProgress(), is(value));
+    }
+
+    private void waitForThreadCount(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (monitor.getThreadCount() != count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(monitor.toString(), monitor.getThreadCount() == count);
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.data;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.objectweb.proactive.extensions.dataspaces.api.DataSpacesFileObject;
+import org.objectweb.proactive.extensions.dataspaces.api.FileType;
+
+
+public class DataspaceTransferPlanTest {
+
+    @Test
+    public void testFoldersToCreateAreTheDeepestOnes() {
+        DataspaceTransferPlan plan = new DataspaceTransferPlan();
+
+        add(plan, "a/b/c/file1", FileType.FILE);
+        add(plan, "a/b/c/file2", FileType.FILE);
+        add(plan, "a/b", FileType.FOLDER);
+        add(plan, "a/b-c/file3", FileType.FILE);
+        add(plan, "a/b.d", FileType.FOLDER);
+        add(plan, "e", FileType.FOLDER);
+        add(plan, "file4", FileType.FILE);
+
+        assertThat(plan.getFoldersToCreate()).containsExactly("a/b-c", "a/b.d", "a/b/c", "e").inOrder();
+    }
+
+    @Test
+    public void testFoldersAreNotCopied() {
+        DataspaceTransferPlan plan = new DataspaceTransferPlan();
+
+        add(plan, "a", FileType.FOLDER);
+        add(plan, "a/file", FileType.FILE);
+        add(plan, "unknown", null);
+        plan.addFile("untyped", Mockito.mock(DataSpacesFileObject.class));
+
+        assertThat(plan.getEntries()).hasSize(4);
+        assertThat(plan.getFilesToCopy().keySet()).containsExactly("a/file", "unknown", "untyped").inOrder();
+        assertThat(plan.getFoldersToCreate()).containsExactly("a");
+    }
+
+    @Test
+    public void testReport() {
+        DataspaceTransferPlan plan = new DataspaceTransferPlan();
+
+        plan.recordPhase(DataspaceTransferPlan.Phase.LISTING, 10);
+        plan.recordPhase(DataspaceTransferPlan.Phase.FOLDERS, 5);
+        plan.recordPhase(DataspaceTransferPlan.Phase.FOLDERS, 5);
+        plan.recordPhase(DataspaceTransferPlan.Phase.TRANSFER, 1000);
+        plan.folderCreated();
+        plan.fileCopied(1024);
+        plan.fileCopied(2048);
+        plan.fileUpToDate();
+
+        assertThat(plan.getPhaseDuration(DataspaceTransferPlan.Phase.FOLDERS)).isEqualTo(10L);
+        assertThat(plan.getPhaseDuration(DataspaceTransferPlan.Phase.PLANNING)).isEqualTo(0L);
+        assertThat(plan.getNbFilesCopied()).isEqualTo(2);
+        assertThat(plan.getNbBytesCopied()).isEqualTo(3072L);
+
+        String report = plan.report("scratch");
+
+        assertThat(report).contains("Transferred 2 file(s) (3072 byte(s), 1 already up to date) to scratch in 1020 ms");
+        assertThat(report).contains("folders 10 ms (1 created), transfer 1000 ms");
+    }
+
+    private static void add(DataspaceTransferPlan plan, String relativePath, FileType type) {
+        plan.addFile(relativePath, Mockito.mock(DataSpacesFileObject.class));
+        plan.setType(relativePath, type);
+    }
+
+}
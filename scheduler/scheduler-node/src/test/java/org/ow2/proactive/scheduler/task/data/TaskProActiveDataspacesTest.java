@@ -32,11 +32,8 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
@@ -44,6 +41,7 @@ import org.junit.Test;
 import org.mockito.Mockito;
 import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
 import org.objectweb.proactive.extensions.dataspaces.api.DataSpacesFileObject;
+import org.objectweb.proactive.extensions.dataspaces.api.FileType;
 import org.objectweb.proactive.extensions.dataspaces.exceptions.FileSystemException;
 import org.ow2.proactive.scheduler.common.task.dataspaces.InputSelector;
 import org.ow2.proactive.scheduler.job.JobIdImpl;
@@ -70,46 +68,68 @@ public class TaskProActiveDataspacesTest {
 
     @Test
     public void testCreateFolderHierarchySequentially() throws Exception {
-        CreateFolderHierarchySequentiallyFixture fixture = new CreateFolderHierarchySequentiallyFixture(10);
+        System.clearProperty(TaskProActiveDataspaces.PA_NODE_DATASPACE_CREATE_FOLDER_HIERARCHY_SEQUENTIALLY);
+
+        CreateFolderHierarchySequentiallyFixture fixture = new CreateFolderHierarchySequentiallyFixture();
 
         fixture.test();
 
-        verify(fixture.taskProActiveDataspaces,
-               times(fixture.nbFiles)).createFolderHierarchy(Mockito.anyBoolean(),
-                                                             Mockito.<DataSpacesFileObject> anyObject(),
-                                                             Mockito.<DataSpacesFileObject> anyObject());
+        // each distinct folder is created once, ancestors being created along with their children
+        verify(fixture.destination, times(2)).resolveFile(anyString());
+        verify(fixture.destination).resolveFile("a/b");
+        verify(fixture.destination).resolveFile("a/c/d");
+        verify(fixture.target, times(2)).createFolder();
 
-        int halfNbFiles = fixture.nbFiles / 2;
-        verify(fixture.spaceFileWithFolderType, times(halfNbFiles)).getType();
-        verify(fixture.spaceFileWithFolderType, times(halfNbFiles)).getType();
-        verify(fixture.target, times(halfNbFiles)).getParent();
-        verify(fixture.target, times(fixture.nbFiles)).createFolder();
+        for (DataSpacesFileObject spaceFile : fixture.spaceFiles) {
+            verify(spaceFile, times(1)).getType();
+        }
 
-        assertThat(fixture.filesToCopy).hasSize(1);
-        verify(fixture.filesToCopy, times(fixture.nbFiles)).put(anyString(),
-                                                                Mockito.<DataSpacesFileObject> anyObject());
+        assertThat(fixture.plan.getNbFoldersCreated()).isEqualTo(2);
+        assertThat(fixture.plan.getEntries()).hasSize(fixture.spaceFiles.size());
+        assertThat(fixture.plan.getFilesToCopy().keySet()).containsExactly("a/b/f1", "a/b/f2", "a/c/d/f3", "top");
     }
 
     @Test
     public void testCreateFolderHierarchySequentiallyDisabled() throws Exception {
         System.setProperty(TaskProActiveDataspaces.PA_NODE_DATASPACE_CREATE_FOLDER_HIERARCHY_SEQUENTIALLY, "fAlSe");
 
-        CreateFolderHierarchySequentiallyFixture fixture = new CreateFolderHierarchySequentiallyFixture(10);
+        try {
+            CreateFolderHierarchySequentiallyFixture fixture = new CreateFolderHierarchySequentiallyFixture();
 
-        fixture.test();
+            fixture.test();
 
-        verify(fixture.spaceFileWithFolderType, never()).getType();
-        verify(fixture.spaceFileWithFolderType, never()).getType();
-        verify(fixture.target, never()).getParent();
+            for (DataSpacesFileObject spaceFile : fixture.spaceFiles) {
+                verify(spaceFile, never()).getType();
+            }
+            verify(fixture.destination, never()).resolveFile(anyString());
+            verify(fixture.target, never()).createFolder();
+
+            assertThat(fixture.plan.getFilesToCopy()).hasSize(fixture.spaceFiles.size());
+        } finally {
+            System.clearProperty(TaskProActiveDataspaces.PA_NODE_DATASPACE_CREATE_FOLDER_HIERARCHY_SEQUENTIALLY);
+        }
+    }
+
+    @Test
+    public void testSelectFilesToCopyPrecedence() throws Exception {
+        DataSpacesFileObject globalFile = mockSpaceFile("global/file", FileType.FILE);
+        DataSpacesFileObject inputFile = mockSpaceFile("input/file", FileType.FILE);
+
+        TaskProActiveDataspaces taskProActiveDataspaces = new TaskProActiveDataspaces();
+        DataspaceTransferPlan plan = new DataspaceTransferPlan();
 
-        verify(fixture.taskProActiveDataspaces,
-               Mockito.never()).createFolderHierarchy(Mockito.anyBoolean(),
-                                                      Mockito.<DataSpacesFileObject> anyObject(),
-                                                      Mockito.<DataSpacesFileObject> anyObject());
+        taskProActiveDataspaces.selectFilesToCopy("global", ImmutableList.of(globalFile), plan);
+        taskProActiveDataspaces.selectFilesToCopy("input", ImmutableList.of(inputFile), plan);
 
-        assertThat(fixture.filesToCopy).hasSize(1);
-        verify(fixture.filesToCopy, times(fixture.nbFiles)).put(anyString(),
-                                                                Mockito.<DataSpacesFileObject> anyObject());
+        assertThat(plan.getEntries()).hasSize(1);
+        assertThat(plan.getEntries()).containsEntry("file", inputFile);
+    }
+
+    private static DataSpacesFileObject mockSpaceFile(String virtualUri, FileType type) throws FileSystemException {
+        DataSpacesFileObject file = Mockito.mock(DataSpacesFileObject.class);
+        doReturn(virtualUri).when(file).getVirtualURI();
+        doReturn(type).when(file).getType();
+        return file;
     }
 
     private static final class CreateFolderHierarchySequentiallyFixture {
@@ -122,52 +142,30 @@ public class TaskProActiveDataspacesTest {
 
         List<DataSpacesFileObject> spaceFiles;
 
-        DataSpacesFileObject spaceFileWithFolderType;
-
-        DataSpacesFileObject spaceFileWithFileType;
-
-        Map<String, DataSpacesFileObject> filesToCopy;
+        DataspaceTransferPlan plan;
 
         TaskProActiveDataspaces taskProActiveDataspaces;
 
-        int nbFiles;
-
-        public CreateFolderHierarchySequentiallyFixture(int nbFiles) throws FileSystemException {
+        public CreateFolderHierarchySequentiallyFixture() throws FileSystemException {
             target = Mockito.mock(DataSpacesFileObject.class);
-            doReturn(target).when(target).getParent();
 
             destination = Mockito.mock(DataSpacesFileObject.class);
             doReturn(target).when(destination).resolveFile(Mockito.anyString());
 
-            spaceFiles = new ArrayList<>(nbFiles);
-            filesToCopy = Mockito.spy(new HashMap<String, DataSpacesFileObject>());
-
-            spaceFileWithFolderType = Mockito.mock(DataSpacesFileObject.class);
-            doReturn(org.objectweb.proactive.extensions.dataspaces.api.FileType.FOLDER).when(spaceFileWithFolderType)
-                                                                                       .getType();
-
-            spaceFileWithFileType = Mockito.mock(DataSpacesFileObject.class);
-            doReturn(org.objectweb.proactive.extensions.dataspaces.api.FileType.FILE).when(spaceFileWithFileType)
-                                                                                     .getType();
-
-            for (int i = 0; i < nbFiles; i++) {
-                if (i % 2 == 0) {
-                    spaceFiles.add(spaceFileWithFolderType);
-                } else {
-                    spaceFiles.add(spaceFileWithFileType);
-                }
-            }
-
-            taskProActiveDataspaces = Mockito.spy(new TaskProActiveDataspaces());
+            spaceFiles = ImmutableList.of(mockSpaceFile(spaceUri + "/a/b/f1", FileType.FILE),
+                                          mockSpaceFile(spaceUri + "/a/b/f2", FileType.FILE),
+                                          mockSpaceFile(spaceUri + "/a/c", FileType.FOLDER),
+                                          mockSpaceFile(spaceUri + "/a/c/d/f3", FileType.FILE),
+                                          mockSpaceFile(spaceUri + "/top", FileType.FILE));
 
-            doReturn("relativizedValue").when(taskProActiveDataspaces)
-                                        .relativize(Mockito.anyString(), Mockito.<DataSpacesFileObject> anyObject());
+            plan = new DataspaceTransferPlan();
 
-            this.nbFiles = nbFiles;
+            taskProActiveDataspaces = new TaskProActiveDataspaces();
         }
 
         public void test() throws FileSystemException {
-            taskProActiveDataspaces.createFolderHierarchySequentially(destination, spaceUri, spaceFiles, filesToCopy);
+            taskProActiveDataspaces.selectFilesToCopy(spaceUri, spaceFiles, plan);
+            taskProActiveDataspaces.createFolderHierarchy(destination, plan);
         }
 
     }
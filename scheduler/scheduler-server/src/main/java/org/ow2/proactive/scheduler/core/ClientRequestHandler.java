@@ -26,24 +26,41 @@
 package org.ow2.proactive.scheduler.core;
 
 import java.lang.reflect.Method;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.core.UniqueID;
 import org.objectweb.proactive.utils.NamedThreadFactory;
+import org.ow2.proactive.scheduler.common.NotificationData;
+import org.ow2.proactive.scheduler.common.SchedulerEvent;
+import org.ow2.proactive.scheduler.common.SchedulerEventBatch;
+import org.ow2.proactive.scheduler.common.SchedulerEventBatchListener;
 import org.ow2.proactive.scheduler.common.SchedulerEventListener;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.TaskInfo;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
-import org.ow2.proactive.threading.ReifiedMethodCall;
 
 
 /**
  * ClientRequestHandler is used to delegate event call to client.
  * This class should be used with the ThreadPoolController which handles threads.
+ * <p>
+ * Events are sent by batches to the clients implementing {@link SchedulerEventBatchListener}.
+ * A pending progress event of a task is replaced by the next one of the same task.
+ * A client whose pending events exceed the configured maximum is disconnected.
  *
  * @author The ProActive Team
  * @since ProActive Scheduling 2.0
@@ -55,12 +72,26 @@ public class ClientRequestHandler {
     /** Number of threads used by the thread pool for clients events sending */
     private static final int THREAD_NUMBER = PASchedulerProperties.SCHEDULER_LISTENERS_THREADNUMBER.getValueAsInt();
 
+    /** Maximum number of pending events of a client */
+    private static final int MAX_PENDING_EVENTS = getIntProperty(PASchedulerProperties.SCHEDULER_LISTENERS_MAX_PENDING_EVENTS,
+                                                                 10000);
+
+    /** Maximum number of events of a batch */
+    private static final int BATCH_SIZE = Math.max(getIntProperty(PASchedulerProperties.SCHEDULER_LISTENERS_BATCH_SIZE,
+                                                                  500),
+                                                   1);
+
+    private static final String TASK_STATE_UPDATED_EVENT_METHOD = "taskStateUpdatedEvent";
+
     /** thread pool */
     private static final ExecutorService threadPoolForNetworkCalls = Executors.newFixedThreadPool(THREAD_NUMBER,
                                                                                                   new NamedThreadFactory("ClientEventHandlerPool"));
 
     private static final AtomicInteger requestLeft = new AtomicInteger();
 
+    /** Handlers of the connected listeners, for the statistics */
+    private static final Set<ClientRequestHandler> handlers = Collections.newSetFromMap(new ConcurrentHashMap<ClientRequestHandler, Boolean>());
+
     public static void terminate() {
         // Precondition: no new event is emitted
         try {
@@ -76,33 +107,84 @@ public class ClientRequestHandler {
         }
     }
 
+    private static int getIntProperty(PASchedulerProperties property, int defaultValue) {
+        return property.isSet() ? property.getValueAsInt() : defaultValue;
+    }
+
+    /**
+     * Returns the event delivery statistics of every connected listener, one line per listener.
+     *
+     * @return the statistics of the listeners
+     */
+    public static List<String> getStatistics() {
+        List<String> statistics = new ArrayList<>(handlers.size());
+        for (ClientRequestHandler handler : handlers) {
+            statistics.add(handler.toStatistics());
+        }
+        return statistics;
+    }
+
+    private static void requestsDone(int count) {
+        //unlock shutdown request if needed
+        if (count > 0 && requestLeft.addAndGet(-count) == 0) {
+            synchronized (requestLeft) {
+                //inner synchronized OK since only used during termination (= no new event)
+                requestLeft.notify();
+            }
+        }
+    }
+
     /** Busy state of this client request queue */
     private final AtomicBoolean busy = new AtomicBoolean(false);
 
     /** Client id on which to send the request */
     private final UniqueID clientId;
 
+    /** Name of the user owning the client */
+    private final String username;
+
     /** Client (listener) on which to send the request */
     private final SchedulerEventListener client;
 
     /** Events queue to be stored */
-    private final LinkedList<ReifiedMethodCall> eventCallsToStore;
+    private final ArrayDeque<PendingEvent> eventCallsToStore;
+
+    /** Pending progress events of the tasks, which can still be replaced by a newer one */
+    private final Map<TaskId, PendingEvent> pendingProgressEvents;
 
     /** Cross reference to the front-end : used to mark client as dirty */
     private final SchedulerFrontendState frontend;
 
+    /** True once the client is disconnected: its events are dropped */
+    private boolean closed;
+
+    private int maxPendingEvents;
+
+    private final AtomicLong sentEvents = new AtomicLong();
+
+    private final AtomicLong sentCalls = new AtomicLong();
+
+    private final AtomicLong coalescedEvents = new AtomicLong();
+
+    private final AtomicLong totalLatency = new AtomicLong();
+
     /**
      * Create a new instance of ClientRequestHandler
      *
      * @param frontend a link to the front-end
      * @param clientId the Id of the client on which to talk to.
+     * @param username the name of the user owning the client.
      * @param client the reference on the client itself.
      */
-    public ClientRequestHandler(SchedulerFrontendState frontend, UniqueID clientId, SchedulerEventListener client) {
+    public ClientRequestHandler(SchedulerFrontendState frontend, UniqueID clientId, String username,
+            SchedulerEventListener client) {
         this.client = client;
         this.frontend = frontend;
         this.clientId = clientId;
-        this.eventCallsToStore = new LinkedList<>();
+        this.username = username;
+        this.eventCallsToStore = new ArrayDeque<>();
+        this.pendingProgressEvents = new HashMap<>();
+        handlers.add(this);
     }
 
     /**
@@ -113,30 +195,126 @@ public class ClientRequestHandler {
      */
     public void addEvent(Method method, Object... args) {
         synchronized (eventCallsToStore) {
-            eventCallsToStore.add(new ReifiedMethodCall(method, args));
+            if (closed) {
+                return;
+            }
+            TaskId taskId = getTaskId(method, args);
+            if (taskId != null) {
+                if (isProgress(args)) {
+                    PendingEvent pendingProgress = pendingProgressEvents.get(taskId);
+                    if (pendingProgress != null) {
+                        // the client only needs the last progress of the task
+                        pendingProgress.args = args;
+                        coalescedEvents.incrementAndGet();
+                        return;
+                    }
+                } else {
+                    // the next progress must not overtake this event
+                    pendingProgressEvents.remove(taskId);
+                }
+            }
+            if (MAX_PENDING_EVENTS > 0 && eventCallsToStore.size() >= MAX_PENDING_EVENTS) {
+                logger.warn("Disconnecting the listener of user " + username + " (" + clientId + "): " +
+                            eventCallsToStore.size() + " events are waiting to be sent, the client is too slow");
+                closeQueue();
+                frontend.markAsDirty(clientId);
+                return;
+            }
+            PendingEvent event = new PendingEvent(method, args);
+            eventCallsToStore.add(event);
+            if (taskId != null && isProgress(args)) {
+                pendingProgressEvents.put(taskId, event);
+            }
+            maxPendingEvents = Math.max(maxPendingEvents, eventCallsToStore.size());
             requestLeft.incrementAndGet();
         }
         tryStartTask();
     }
 
+    /**
+     * Drops the pending events of this client, which is no more listening.
+     */
+    public void close() {
+        synchronized (eventCallsToStore) {
+            closeQueue();
+        }
+    }
+
+    private void closeQueue() {
+        closed = true;
+        handlers.remove(this);
+        int dropped = eventCallsToStore.size();
+        eventCallsToStore.clear();
+        pendingProgressEvents.clear();
+        requestsDone(dropped);
+    }
+
+    private static TaskId getTaskId(Method method, Object[] args) {
+        if (TASK_STATE_UPDATED_EVENT_METHOD.equals(method.getName()) && args.length == 1 &&
+            args[0] instanceof NotificationData) {
+            Object data = ((NotificationData<?>) args[0]).getData();
+            if (data instanceof TaskInfo) {
+                return ((TaskInfo) data).getTaskId();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isProgress(Object[] args) {
+        return ((NotificationData<?>) args[0]).getEventType() == SchedulerEvent.TASK_PROGRESS;
+    }
+
     /**
      * Try to create a task with new events to send, and start it in the thread pool.
      * Can do nothing if some previous events are currently being sent.
      *
      * Can be called from two different thread, even if it is private!
      */
-    @SuppressWarnings("unchecked")
     private void tryStartTask() {
         synchronized (eventCallsToStore) {
             if (eventCallsToStore.size() > 0 && !busy.get()) {
-                LinkedList<ReifiedMethodCall> tasks = (LinkedList<ReifiedMethodCall>) eventCallsToStore.clone();
+                List<PendingEvent> tasks = new ArrayList<>(eventCallsToStore);
                 eventCallsToStore.clear();
+                // the events being sent can no more be replaced
+                pendingProgressEvents.clear();
                 busy.set(true);
                 threadPoolForNetworkCalls.execute(new TaskRunnable(tasks));
             }
         }
     }
 
+    private String toStatistics() {
+        int pendingEvents;
+        int maxPending;
+        synchronized (eventCallsToStore) {
+            pendingEvents = eventCallsToStore.size();
+            maxPending = maxPendingEvents;
+        }
+        long sent = sentEvents.get();
+        return "user=" + username + ", client=" + clientId + ", pendingEvents=" + pendingEvents +
+               ", maxPendingEvents=" + maxPending + ", sentEvents=" + sent + ", calls=" + sentCalls.get() +
+               ", coalescedEvents=" + coalescedEvents.get() + ", meanLatencyMs=" +
+               (sent == 0 ? 0 : totalLatency.get() / sent);
+    }
+
+    /**
+     * An event waiting to be sent.
+     */
+    private static class PendingEvent {
+
+        private final Method method;
+
+        /** Replaced when a newer progress of the task is coalesced into this event */
+        private Object[] args;
+
+        private final long creationTime = System.currentTimeMillis();
+
+        PendingEvent(Method method, Object[] args) {
+            this.method = method;
+            this.args = args;
+        }
+    }
+
     /**
      * TaskRunnable is the task in charge to send the events in its list.
      *
@@ -146,14 +324,14 @@ public class ClientRequestHandler {
     class TaskRunnable implements Runnable {
 
         /** Events queue to be sent */
-        private final LinkedList<ReifiedMethodCall> eventCallsToSend;
+        private final List<PendingEvent> eventCallsToSend;
 
         /**
          * Create a new instance of Task
          *
-         * @param eventCallsToSend
+         * @param eventCalls
          */
-        public TaskRunnable(LinkedList<ReifiedMethodCall> eventCalls) {
+        public TaskRunnable(List<PendingEvent> eventCalls) {
             if (eventCalls == null || eventCalls.size() == 0) {
                 throw new IllegalArgumentException("List argument must not be null nor empty !");
             }
@@ -165,26 +343,27 @@ public class ClientRequestHandler {
          */
         public void run() {
             try {
-                //unlock shutdown request if needed
-                if (requestLeft.addAndGet(-eventCallsToSend.size()) == 0) {
-                    synchronized (requestLeft) {
-                        //inner synchronized OK since only used during termination (= no new event)
-                        requestLeft.notify();
+                requestsDone(eventCallsToSend.size());
+                if (client instanceof SchedulerEventBatchListener) {
+                    sendBatches((SchedulerEventBatchListener) client);
+                } else {
+                    //loop on the list and send events
+                    for (PendingEvent event : eventCallsToSend) {
+                        event.method.invoke(client, event.args);
+                        eventSent(event, 1);
                     }
                 }
-                //loop on the list and send events
-                while (!eventCallsToSend.isEmpty()) {
-                    ReifiedMethodCall methodCall = eventCallsToSend.removeFirst();
-                    methodCall.getMethod().invoke(client, methodCall.getArguments());
-                }
                 busy.set(false);
                 //try to empty the events list if no event comes from the core
                 tryStartTask();
             } catch (Throwable t) {
+                logger.info("Disconnecting the listener of user " + username + " (" + clientId +
+                            "): an event could not be sent (" + t + ")");
                 if (logger.isDebugEnabled()) {
                     logger.debug("Error during sending event to the cleint " + clientId, t);
                 }
                 //remove this client from Frontend (client dead or timed out)
+                close();
                 frontend.markAsDirty(clientId);
                 //do not set busy here, we don't want to wait N times for the network timeout
                 //so when client is dead keep busy to avoid re-execution of this run method by another thread
@@ -192,6 +371,29 @@ public class ClientRequestHandler {
             }
         }
 
+        private void sendBatches(SchedulerEventBatchListener batchListener) {
+            for (int start = 0; start < eventCallsToSend.size(); start += BATCH_SIZE) {
+                List<PendingEvent> events = eventCallsToSend.subList(start,
+                                                                     Math.min(start + BATCH_SIZE,
+                                                                              eventCallsToSend.size()));
+                SchedulerEventBatch batch = new SchedulerEventBatch(events.size());
+                for (PendingEvent event : events) {
+                    batch.add(event.method.getName(), event.args[0]);
+                }
+                batchListener.schedulerEventsBatch(batch);
+                sentCalls.incrementAndGet();
+                for (PendingEvent event : events) {
+                    eventSent(event, 0);
+                }
+            }
+        }
+
+        private void eventSent(PendingEvent event, int calls) {
+            sentEvents.incrementAndGet();
+            sentCalls.addAndGet(calls);
+            totalLatency.addAndGet(System.currentTimeMillis() - event.creationTime);
+        }
+
     }
 
 }
@@ -66,13 +66,19 @@ public class ListeningUser {
         if (listener == null) {
             throw new IllegalArgumentException("Listener must not be null !");
         }
+        if (this.listener != null) {
+            this.listener.close();
+        }
         this.listener = listener;
     }
 
     /**
-     * clear the listener associated to this user
+     * clear the listener associated to this user, its pending events are dropped
      */
     public void clearListener() {
+        if (this.listener != null) {
+            this.listener.close();
+        }
         this.listener = null;
     }
 
@@ -85,6 +85,7 @@ import org.ow2.proactive.db.SortParameter;
 import org.ow2.proactive.policy.ClientsPolicy;
 import org.ow2.proactive.resourcemanager.frontend.RMConnection;
 import org.ow2.proactive.scheduler.authentication.SchedulerAuthentication;
+import org.ow2.proactive.scheduler.common.CursorPage;
 import org.ow2.proactive.scheduler.common.JobFilterCriteria;
 import org.ow2.proactive.scheduler.common.JobSortParameter;
 import org.ow2.proactive.scheduler.common.Page;
@@ -95,6 +96,8 @@ import org.ow2.proactive.scheduler.common.SchedulerEvent;
 import org.ow2.proactive.scheduler.common.SchedulerEventListener;
 import org.ow2.proactive.scheduler.common.SchedulerState;
 import org.ow2.proactive.scheduler.common.SchedulerStatus;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
+import org.ow2.proactive.scheduler.common.ServerLogsSnapshot;
 import org.ow2.proactive.scheduler.common.SortSpecifierContainer;
 import org.ow2.proactive.scheduler.common.exception.AlreadyConnectedException;
 import org.ow2.proactive.scheduler.common.exception.JobAlreadyFinishedException;
@@ -118,6 +121,7 @@ import org.ow2.proactive.scheduler.common.task.SimpleTaskLogs;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskInfo;
 import org.ow2.proactive.scheduler.common.task.TaskResult;
+import org.ow2.proactive.scheduler.common.task.TaskResultSummary;
 import org.ow2.proactive.scheduler.common.task.TaskState;
 import org.ow2.proactive.scheduler.common.usage.JobUsage;
 import org.ow2.proactive.scheduler.common.util.logforwarder.AppenderProvider;
@@ -454,6 +458,36 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
         return this.getJobResult(JobIdImpl.makeJobId(jobId));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @ImmediateService
+    public Map<String, TaskResultSummary> getJobResultSummary(JobId jobId)
+            throws NotConnectedException, PermissionException, UnknownJobException {
+
+        // checking permissions
+        IdentifiedJob ij = frontendState.getIdentifiedJob(jobId);
+
+        frontendState.checkPermissions("getJobResult", ij, YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_RESULT_OF_THIS_JOB);
+
+        Map<String, TaskResultSummary> summaries = dbManager.loadJobResultSummary(jobId);
+        if (summaries == null) {
+            throw new UnknownJobException(jobId);
+        }
+        return summaries;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @ImmediateService
+    public Map<String, TaskResultSummary> getJobResultSummary(String jobId)
+            throws NotConnectedException, PermissionException, UnknownJobException {
+        return this.getJobResultSummary(JobIdImpl.makeJobId(jobId));
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1091,13 +1125,7 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
                                        frontendState.getIdentifiedJob(id),
                                        YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_TASK_LOGS_OF_THIS_JOB);
 
-        for (TaskId taskId : frontendState.getJobTasks(id)) {
-            if (taskId.getReadableName().equals(taskName)) {
-                return ServerJobAndTaskLogs.getTaskLog(taskId);
-            }
-        }
-
-        throw new UnknownTaskException("Unknown task " + taskName + " in job " + jobId);
+        return ServerJobAndTaskLogs.getTaskLog(getTaskIdByName(id, taskName));
     }
 
     @Override
@@ -1108,13 +1136,75 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
         frontendState.checkPermissions("getTaskServerLogsByTag",
                                        frontendState.getIdentifiedJob(id),
                                        YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_TASK_LOGS_OF_THIS_JOB);
-        List<TaskState> lTaskState = frontendState.getJobState(id).getTasksByTag(taskTag);
+        return ServerJobAndTaskLogs.getJobLog(id, getTaskIdsByTag(id, taskTag));
+    }
+
+    @Override
+    @ImmediateService
+    public ServerLogsChunk getJobServerLogs(String jobId, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        JobId id = JobIdImpl.makeJobId(jobId);
+        frontendState.checkPermissions("getJobServerLogs",
+                                       frontendState.getIdentifiedJob(id),
+                                       YOU_DO_NOT_HAVE_PERMISSIONS_TO_GET_THE_LOGS_OF_THIS_JOB);
+
+        return ServerJobAndTaskLogs.readJobLog(id, frontendState.getJobTasks(id), offset, length);
+    }
+
+    @Override
+    @ImmediateService
+    public ServerLogsChunk getTaskServerLogs(String jobId, String taskName, long offset, int length)
+            throws UnknownJobException, UnknownTaskException, NotConnectedException, PermissionException {
+        JobId id = JobIdImpl.makeJobId(jobId);
+        frontendState.checkPermissions("getTaskServerLogs",
+                                       frontendState.getIdentifiedJob(id),
+                                       YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_TASK_LOGS_OF_THIS_JOB);
+
+        return ServerJobAndTaskLogs.readTaskLog(getTaskIdByName(id, taskName), offset, length);
+    }
+
+    @Override
+    @ImmediateService
+    public ServerLogsChunk getTaskServerLogsByTag(String jobId, String taskTag, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        JobId id = JobIdImpl.makeJobId(jobId);
+        frontendState.checkPermissions("getTaskServerLogsByTag",
+                                       frontendState.getIdentifiedJob(id),
+                                       YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_TASK_LOGS_OF_THIS_JOB);
+
+        return ServerJobAndTaskLogs.readJobLog(id, getTaskIdsByTag(id, taskTag), offset, length);
+    }
+
+    @Override
+    @ImmediateService
+    public ServerLogsChunk getServerLogs(String jobId, ServerLogsSnapshot snapshot, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        JobId id = JobIdImpl.makeJobId(jobId);
+        frontendState.checkPermissions("getServerLogs",
+                                       frontendState.getIdentifiedJob(id),
+                                       YOU_DO_NOT_HAVE_PERMISSIONS_TO_GET_THE_LOGS_OF_THIS_JOB);
+
+        return ServerJobAndTaskLogs.readLog(id, snapshot, offset, length);
+    }
+
+    private TaskId getTaskIdByName(JobId jobId, String taskName) throws UnknownTaskException {
+        for (TaskId taskId : frontendState.getJobTasks(jobId)) {
+            if (taskId.getReadableName().equals(taskName)) {
+                return taskId;
+            }
+        }
+
+        throw new UnknownTaskException("Unknown task " + taskName + " in job " + jobId);
+    }
+
+    private Set<TaskId> getTaskIdsByTag(JobId jobId, String taskTag)
+            throws NotConnectedException, UnknownJobException, PermissionException {
+        List<TaskState> lTaskState = frontendState.getJobState(jobId).getTasksByTag(taskTag);
         Set<TaskId> tasksIds = new HashSet<>(lTaskState.size());
         for (TaskState taskState : lTaskState) {
             tasksIds.add(taskState.getId());
         }
-
-        return ServerJobAndTaskLogs.getJobLog(id, tasksIds);
+        return tasksIds;
     }
 
     /**
@@ -1144,6 +1234,25 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
                                  sortParameters);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @ImmediateService
+    public CursorPage<JobInfo> getJobsAfter(String cursor, int limit, JobFilterCriteria filterCriteria)
+            throws NotConnectedException, PermissionException {
+        UserIdentificationImpl ident = frontendState.checkPermission("getJobs",
+                                                                     "You don't have permissions to load jobs");
+
+        String user = filterCriteria.isMyJobsOnly() ? ident.getUsername() : null;
+        return dbManager.getJobsAfter(cursor,
+                                      limit,
+                                      user,
+                                      filterCriteria.isPending(),
+                                      filterCriteria.isRunning(),
+                                      filterCriteria.isFinished());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1288,6 +1397,34 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
 
     }
 
+    @Override
+    @ImmediateService
+    public CursorPage<TaskState> getTaskStatesAfter(String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        RestPageParameters params = new RestPageParameters(frontendState,
+                                                           "getTaskStates",
+                                                           from,
+                                                           to,
+                                                           mytasks,
+                                                           running,
+                                                           pending,
+                                                           finished,
+                                                           0,
+                                                           limit,
+                                                           taskTag,
+                                                           SortSpecifierContainer.EMPTY_CONTAINER);
+        return dbManager.getTaskStatesAfter(params.getFrom(),
+                                            params.getTo(),
+                                            params.getTag(),
+                                            cursor,
+                                            params.getLimit(),
+                                            params.getUserName(),
+                                            params.isPending(),
+                                            params.isRunning(),
+                                            params.isFinished());
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         return getJobState(JobIdImpl.makeJobId(jobId)).getJobInfo();
@@ -36,6 +36,7 @@ import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.Vector;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.api.PAActiveObject;
@@ -79,6 +80,7 @@ import org.ow2.proactive.scheduler.permissions.ChangePriorityPermission;
 import org.ow2.proactive.scheduler.permissions.ConnectToResourceManagerPermission;
 import org.ow2.proactive.scheduler.permissions.HandleOnlyMyJobsPermission;
 import org.ow2.proactive.scheduler.util.JobLogger;
+import org.ow2.proactive.scheduler.util.MonitoredReadWriteLock;
 import org.ow2.proactive.scheduler.util.TaskLogger;
 
 
@@ -212,6 +214,20 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
 
     private final Map<JobId, JobState> jobsMap;
 
+    /**
+     * Guards the maps of this class: requests of the clients read them concurrently while
+     * connections and job state transitions modify them exclusively. The content of a job
+     * state is guarded by the job state itself.
+     */
+    private final MonitoredReadWriteLock stateLock;
+
+    /**
+     * Serializes the updates sent by the core and the connections of the users, so that
+     * events are dispatched to the listeners in the order of the updates, without holding
+     * {@link #stateLock} exclusively during the dispatch.
+     */
+    private final ReentrantLock eventLock;
+
     SchedulerFrontendState(SchedulerStateImpl sState, SchedulerJMXHelper jmxHelper) {
         this.identifications = new HashMap<>();
         this.credentials = new HashMap<>();
@@ -221,6 +237,9 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         this.jobs = new HashMap<>();
         this.sessionTimer = new Timer("SessionTimer");
         this.sState = sState;
+        this.stateLock = new MonitoredReadWriteLock();
+        this.eventLock = new ReentrantLock();
+        jmxHelper.getSchedulerRuntimeMBean().setFrontendStateLock(stateLock);
         recover(sState);
     }
 
@@ -282,20 +301,30 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
      * @throws SchedulerException
      *             If an error occurred during connection with the front-end.
      */
-    synchronized void connect(UniqueID sourceBodyID, UserIdentificationImpl identification, Credentials cred)
+    void connect(UniqueID sourceBodyID, UserIdentificationImpl identification, Credentials cred)
             throws AlreadyConnectedException {
-        if (identifications.containsKey(sourceBodyID)) {
-            logger.warn("Active object already connected for this user :" + identification.getUsername());
-            throw new AlreadyConnectedException("This active object is already connected to the scheduler !");
+        eventLock.lock();
+        try {
+            stateLock.lockWrite();
+            try {
+                if (identifications.containsKey(sourceBodyID)) {
+                    logger.warn("Active object already connected for this user :" + identification.getUsername());
+                    throw new AlreadyConnectedException("This active object is already connected to the scheduler !");
+                }
+                logger.info(identification.getUsername() + " successfully connected !");
+                identifications.put(sourceBodyID, new ListeningUser(identification));
+                credentials.put(sourceBodyID, cred);
+                renewUserSession(sourceBodyID, identification);
+                // add this new user in the list of connected user
+                sState.getUsers().update(identification);
+            } finally {
+                stateLock.unlockWrite();
+            }
+            // send events
+            usersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE, identification));
+        } finally {
+            eventLock.unlock();
         }
-        logger.info(identification.getUsername() + " successfully connected !");
-        identifications.put(sourceBodyID, new ListeningUser(identification));
-        credentials.put(sourceBodyID, cred);
-        renewUserSession(sourceBodyID, identification);
-        // add this new user in the list of connected user
-        sState.getUsers().update(identification);
-        // send events
-        usersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE, identification));
     }
 
     /**
@@ -309,45 +338,57 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
      *            the user on which to renew the session
      */
     private void renewUserSession(final UniqueID id, UserIdentificationImpl identification) {
-        if (identifications.get(id).isListening()) {
-            // if this id has a listener, do not renew user session
-            return;
+        stateLock.lockRead();
+        try {
+            ListeningUser listeningUser = identifications.get(id);
+            if (listeningUser == null || listeningUser.isListening()) {
+                // if this id has a listener, do not renew user session
+                return;
+            }
+        } finally {
+            stateLock.unlockRead();
         }
         final String userName = identification.getUsername();
-        TimerTask session = identification.getSession();
-        if (session != null) {
-            session.cancel();
-        }
-        identification.setSession(new TimerTask() {
-            @Override
-            public void run() {
-                logger.info("End of session for user " + userName + ", id=" + id);
-                disconnect(id);
+        // concurrent requests of the same user must not schedule two sessions
+        synchronized (identification) {
+            TimerTask session = identification.getSession();
+            if (session != null) {
+                session.cancel();
             }
-        });
-        sessionTimer.purge();
-        sessionTimer.schedule(identification.getSession(), USER_SESSION_DURATION);
+            identification.setSession(new TimerTask() {
+                @Override
+                public void run() {
+                    logger.info("End of session for user " + userName + ", id=" + id);
+                    disconnect(id);
+                }
+            });
+            sessionTimer.purge();
+            sessionTimer.schedule(identification.getSession(), USER_SESSION_DURATION);
+        }
     }
 
-    synchronized SchedulerStatus getStatus() throws NotConnectedException, PermissionException {
+    SchedulerStatus getStatus() throws NotConnectedException, PermissionException {
         // checking permissions
         checkPermission("getStatus", YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_STATUS);
 
         return sState.getStatus();
     }
 
-    synchronized SchedulerState getState() throws NotConnectedException, PermissionException {
+    SchedulerState getState() throws NotConnectedException, PermissionException {
         return getState(false);
     }
 
-    synchronized SchedulerState getState(boolean myJobsOnly) throws NotConnectedException, PermissionException {
-        // checking permissions
-        checkPermission("getState", YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_STATE);
-
-        ListeningUser ui = identifications.get(PAActiveObject.getContext().getCurrentRequest().getSourceBodyID());
-
-        return myJobsOnly ? sState.filterOnUser(ui.getUser().getUsername()) : sState;
+    SchedulerState getState(boolean myJobsOnly) throws NotConnectedException, PermissionException {
+        stateLock.lockRead();
+        try {
+            // checking permissions
+            ListeningUser ui = checkPermissionReturningListeningUser("getState",
+                                                                     YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_STATE);
 
+            return myJobsOnly ? sState.filterOnUser(ui.getUser().getUsername()) : sState;
+        } finally {
+            stateLock.unlockRead();
+        }
     }
 
     /**
@@ -362,19 +403,35 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
      * @throws PermissionException
      *             if permission is denied
      */
-    synchronized void handleOnlyMyJobsPermission(boolean myOnly, UserIdentificationImpl ui, String errorMessage)
+    void handleOnlyMyJobsPermission(boolean myOnly, UserIdentificationImpl ui, String errorMessage)
             throws PermissionException {
         ui.checkPermission(new HandleOnlyMyJobsPermission(myOnly),
                            ui.getUsername() + " does not have permissions to handle other users jobs (" + errorMessage +
                                                                    ")");
     }
 
-    synchronized void addEventListener(SchedulerEventListener sel, boolean myEventsOnly, SchedulerEvent... events)
+    void addEventListener(SchedulerEventListener sel, boolean myEventsOnly, SchedulerEvent... events)
             throws NotConnectedException, PermissionException {
         addEventListener(sel, myEventsOnly, false, events);
     }
 
-    synchronized SchedulerState addEventListener(SchedulerEventListener sel, boolean myEventsOnly,
+    SchedulerState addEventListener(SchedulerEventListener sel, boolean myEventsOnly, boolean getCurrentState,
+            SchedulerEvent... events) throws NotConnectedException, PermissionException {
+        // no event can be dispatched between the copy of the state and the registration
+        eventLock.lock();
+        try {
+            stateLock.lockWrite();
+            try {
+                return addEventListenerInternal(sel, myEventsOnly, getCurrentState, events);
+            } finally {
+                stateLock.unlockWrite();
+            }
+        } finally {
+            eventLock.unlock();
+        }
+    }
+
+    private SchedulerState addEventListenerInternal(SchedulerEventListener sel, boolean myEventsOnly,
             boolean getCurrentState, SchedulerEvent... events) throws NotConnectedException, PermissionException {
         // checking permissions
         ListeningUser uIdent = checkPermissionReturningListeningUser("addEventListener",
@@ -408,39 +465,56 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         uIdent.getUser().setMyEventsOnly(myEventsOnly);
         // add the listener to the list of listener for this user.
         UniqueID id = PAActiveObject.getContext().getCurrentRequest().getSourceBodyID();
-        uIdent.setListener(new ClientRequestHandler(this, id, sel));
+        uIdent.setListener(new ClientRequestHandler(this, id, uIdent.getUser().getUsername(), sel));
         // cancel timer for this user : session is now managed by events
         uIdent.getUser().getSession().cancel();
         // return to the user
         return currentState;
     }
 
-    synchronized void removeEventListener() throws NotConnectedException, PermissionException {
-        // Remove the listener on that user designated by its given UniqueID,
-        // then renew its user session as it is no more managed by the listener.
-        UniqueID id = checkAccess();
-        ListeningUser uIdent = identifications.get(id);
-        uIdent.clearListener();
-        // recreate the session for this user which is no more managed by
-        // listener
-        renewUserSession(id, uIdent.getUser());
+    void removeEventListener() throws NotConnectedException, PermissionException {
+        stateLock.lockWrite();
+        try {
+            // Remove the listener on that user designated by its given UniqueID,
+            // then renew its user session as it is no more managed by the listener.
+            UniqueID id = checkAccess();
+            ListeningUser uIdent = identifications.get(id);
+            uIdent.clearListener();
+            // recreate the session for this user which is no more managed by
+            // listener
+            renewUserSession(id, uIdent.getUser());
+        } finally {
+            stateLock.unlockWrite();
+        }
     }
 
     private UniqueID checkAccess() throws NotConnectedException {
         UniqueID id = PAActiveObject.getContext().getCurrentRequest().getSourceBodyID();
-        if (!identifications.containsKey(id)) {
-            logger.info(ACCESS_DENIED);
-            throw new NotConnectedException(ACCESS_DENIED);
+        stateLock.lockRead();
+        try {
+            if (!identifications.containsKey(id)) {
+                logger.info(ACCESS_DENIED);
+                throw new NotConnectedException(ACCESS_DENIED);
+            }
+        } finally {
+            stateLock.unlockRead();
         }
         return id;
     }
 
-    synchronized InternalJob createJob(Job userJob, UserIdentificationImpl ident)
+    InternalJob createJob(Job userJob, UserIdentificationImpl ident)
             throws NotConnectedException, PermissionException, SubmissionClosedException, JobCreationException {
-        UniqueID id = checkAccess();
+        Credentials userCredentials;
+        stateLock.lockRead();
+        try {
+            UniqueID id = checkAccess();
+            userCredentials = this.credentials.get(id);
+        } finally {
+            stateLock.unlockRead();
+        }
 
         // get the internal job.
-        InternalJob job = InternalJobFactory.createJob(userJob, this.credentials.get(id));
+        InternalJob job = InternalJobFactory.createJob(userJob, userCredentials);
 
         // setting job informations
         if (job.getTasks().size() == 0) {
@@ -466,14 +540,24 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         return job;
     }
 
-    synchronized void jobSubmitted(InternalJob job, UserIdentificationImpl ident)
+    void jobSubmitted(InternalJob job, UserIdentificationImpl ident)
             throws NotConnectedException, PermissionException, SubmissionClosedException, JobCreationException {
-        // put the job inside the frontend management list
-        jobs.put(job.getId(), new IdentifiedJob(job.getId(), ident));
-        // increase number of submit for this user
-        ident.addSubmit();
-        // send update user event
-        usersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE, ident));
+        eventLock.lock();
+        try {
+            stateLock.lockWrite();
+            try {
+                // put the job inside the frontend management list
+                jobs.put(job.getId(), new IdentifiedJob(job.getId(), ident));
+                // increase number of submit for this user
+                ident.addSubmit();
+            } finally {
+                stateLock.unlockWrite();
+            }
+            // send update user event
+            usersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE, ident));
+        } finally {
+            eventLock.unlock();
+        }
         jlogger.info(job.getId(),
                      "submitted: name '" + job.getName() + "', tasks '" + job.getTotalNumberOfTasks() + "', owner '" +
                                   job.getOwner() + "'");
@@ -484,11 +568,11 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
-    synchronized ListeningUser checkPermissionReturningListeningUser(String methodName, String permissionMsg)
+    ListeningUser checkPermissionReturningListeningUser(String methodName, String permissionMsg)
             throws NotConnectedException, PermissionException {
         UniqueID id = checkAccess();
 
-        ListeningUser ident = identifications.get(id);
+        ListeningUser ident = getListeningUser(id);
         // renew session for this user
         renewUserSession(id, ident.getUser());
 
@@ -504,12 +588,32 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         return ident;
     }
 
-    synchronized UserIdentificationImpl checkPermission(String methodName, String permissionMsg)
+    UserIdentificationImpl checkPermission(String methodName, String permissionMsg)
             throws NotConnectedException, PermissionException {
         return checkPermissionReturningListeningUser(methodName, permissionMsg).getUser();
     }
 
-    synchronized void disconnect() throws NotConnectedException, PermissionException {
+    /**
+     * Returns the identification of a connected user.
+     *
+     * @throws NotConnectedException if the user disconnected meanwhile
+     */
+    private ListeningUser getListeningUser(UniqueID id) throws NotConnectedException {
+        ListeningUser ident;
+        stateLock.lockRead();
+        try {
+            ident = identifications.get(id);
+        } finally {
+            stateLock.unlockRead();
+        }
+        if (ident == null) {
+            logger.info(ACCESS_DENIED);
+            throw new NotConnectedException(ACCESS_DENIED);
+        }
+        return ident;
+    }
+
+    void disconnect() throws NotConnectedException, PermissionException {
         UniqueID id = checkAccess();
         disconnect(id);
     }
@@ -520,27 +624,41 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
      * @param id
      *            the uniqueID of the user
      */
-    private synchronized void disconnect(UniqueID id) {
-        credentials.remove(id);
-        ListeningUser ident = identifications.remove(id);
-        if (ident != null) {
-            // remove listeners if needed
-            ident.clearListener();
-            // remove this user to the list of connected user if it has not
-            // already been removed
-            ident.getUser().setToRemove();
-            sState.getUsers().update(ident.getUser());
-            // cancel the timer
-            ident.getUser().getSession().cancel();
-            // log and send events
-            String user = ident.getUser().getUsername();
-            logger.info("User '" + user + "' has disconnect the scheduler !");
-            dispatchUsersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE, ident.getUser()),
-                                 false);
+    private void disconnect(UniqueID id) {
+        eventLock.lock();
+        try {
+            ListeningUser ident;
+            stateLock.lockWrite();
+            try {
+                credentials.remove(id);
+                ident = identifications.remove(id);
+                if (ident != null) {
+                    // remove listeners if needed
+                    ident.clearListener();
+                    // remove this user to the list of connected user if it has not
+                    // already been removed
+                    ident.getUser().setToRemove();
+                    sState.getUsers().update(ident.getUser());
+                    // cancel the timer
+                    ident.getUser().getSession().cancel();
+                }
+            } finally {
+                stateLock.unlockWrite();
+            }
+            if (ident != null) {
+                // log and send events
+                String user = ident.getUser().getUsername();
+                logger.info("User '" + user + "' has disconnect the scheduler !");
+                dispatchUsersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE,
+                                                                              ident.getUser()),
+                                     false);
+            }
+        } finally {
+            eventLock.unlock();
         }
     }
 
-    synchronized boolean isConnected() {
+    boolean isConnected() {
         try {
             checkAccess();
             return true;
@@ -549,15 +667,21 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
-    synchronized void renewSession() throws NotConnectedException {
+    void renewSession() throws NotConnectedException {
         UniqueID id = checkAccess();
-        UserIdentificationImpl ident = identifications.get(id).getUser();
+        UserIdentificationImpl ident = getListeningUser(id).getUser();
         // renew session for this user
         renewUserSession(id, ident);
     }
 
-    synchronized IdentifiedJob getIdentifiedJob(JobId jobId) throws UnknownJobException {
-        IdentifiedJob ij = jobs.get(jobId);
+    IdentifiedJob getIdentifiedJob(JobId jobId) throws UnknownJobException {
+        IdentifiedJob ij;
+        stateLock.lockRead();
+        try {
+            ij = jobs.get(jobId);
+        } finally {
+            stateLock.unlockRead();
+        }
 
         if (ij == null) {
             String msg = "The job represented by this ID '" + jobId + "' is unknown !";
@@ -569,17 +693,17 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
 
     }
 
-    synchronized void checkChangeJobPriority(JobId jobId, JobPriority priority)
+    void checkChangeJobPriority(JobId jobId, JobPriority priority)
             throws NotConnectedException, UnknownJobException, PermissionException, JobAlreadyFinishedException {
 
+        IdentifiedJob identifiedJob = getIdentifiedJob(jobId);
         checkPermissions("changeJobPriority",
-                         getIdentifiedJob(jobId),
+                         identifiedJob,
                          YOU_DO_NOT_HAVE_PERMISSION_TO_CHANGE_THE_PRIORITY_OF_THIS_JOB);
 
-        UserIdentificationImpl ui = identifications.get(PAActiveObject.getContext()
-                                                                      .getCurrentRequest()
-                                                                      .getSourceBodyID())
-                                                   .getUser();
+        UserIdentificationImpl ui = getListeningUser(PAActiveObject.getContext()
+                                                                   .getCurrentRequest()
+                                                                   .getSourceBodyID()).getUser();
 
         try {
             ui.checkPermission(new ChangePriorityPermission(priority.getPriority()),
@@ -589,14 +713,14 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
             throw ex;
         }
 
-        if (jobs.get(jobId).isFinished()) {
+        if (identifiedJob.isFinished()) {
             String msg = " is already finished";
             jlogger.info(jobId, msg);
             throw new JobAlreadyFinishedException("Job " + jobId + msg);
         }
     }
 
-    synchronized void checkPermissions(String methodName, IdentifiedJob identifiedJob, String errorMessage)
+    void checkPermissions(String methodName, IdentifiedJob identifiedJob, String errorMessage)
             throws NotConnectedException, UnknownJobException, PermissionException {
         try {
             checkJobOwner(methodName, identifiedJob, errorMessage);
@@ -606,7 +730,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
-    synchronized void checkJobOwner(String methodName, IdentifiedJob IdentifiedJob, String permissionMsg)
+    void checkJobOwner(String methodName, IdentifiedJob IdentifiedJob, String permissionMsg)
             throws NotConnectedException, UnknownJobException, PermissionException {
         ListeningUser ident = checkPermissionReturningListeningUser(methodName, permissionMsg);
 
@@ -615,88 +739,110 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
-    synchronized Set<TaskId> getJobTasks(JobId jobId) {
-        JobState jobState = jobsMap.get(jobId);
+    /**
+     * Returns the state of a job known by the frontend, or null if the job is unknown.
+     * The content of the returned state must be accessed while holding its monitor.
+     */
+    private JobState getStoredJobState(JobId jobId) {
+        stateLock.lockRead();
+        try {
+            return jobsMap.get(jobId);
+        } finally {
+            stateLock.unlockRead();
+        }
+    }
+
+    Set<TaskId> getJobTasks(JobId jobId) {
+        JobState jobState = getStoredJobState(jobId);
         if (jobState == null) {
             return Collections.emptySet();
         } else {
-            Set<TaskId> tasks = new HashSet<>(jobState.getTasks().size());
-            for (TaskState task : jobState.getTasks()) {
-                tasks.add(task.getId());
+            synchronized (jobState) {
+                Set<TaskId> tasks = new HashSet<>(jobState.getHMTasks().size());
+                for (TaskId taskId : jobState.getHMTasks().keySet()) {
+                    tasks.add(taskId);
+                }
+                return tasks;
             }
-            return tasks;
         }
     }
 
-    synchronized JobState getJobState(JobId jobId)
-            throws NotConnectedException, UnknownJobException, PermissionException {
+    JobState getJobState(JobId jobId) throws NotConnectedException, UnknownJobException, PermissionException {
         checkPermissions("getJobState",
                          getIdentifiedJob(jobId),
                          YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_STATE_OF_THIS_JOB);
-        return jobsMap.get(jobId);
+        return getStoredJobState(jobId);
     }
 
-    synchronized TaskState getTaskState(JobId jobId, TaskId taskId)
+    TaskState getTaskState(JobId jobId, TaskId taskId)
             throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
         checkPermissions("getJobState",
                          getIdentifiedJob(jobId),
                          YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_STATE_OF_THIS_TASK);
-        if (jobsMap.get(jobId) == null) {
+        JobState jobState = getStoredJobState(jobId);
+        if (jobState == null) {
             throw new UnknownJobException(jobId);
         }
-        TaskState ts = jobsMap.get(jobId).getHMTasks().get(taskId);
+        TaskState ts;
+        synchronized (jobState) {
+            ts = jobState.getHMTasks().get(taskId);
+        }
         if (ts == null) {
             throw new UnknownTaskException(taskId, jobId);
         }
         return ts;
     }
 
-    synchronized TaskState getTaskState(JobId jobId, String taskName)
+    TaskState getTaskState(JobId jobId, String taskName)
             throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
 
         checkPermissions("getJobState",
                          getIdentifiedJob(jobId),
                          YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_STATE_OF_THIS_TASK);
 
-        if (jobsMap.get(jobId) == null) {
+        JobState jobState = getStoredJobState(jobId);
+        if (jobState == null) {
             throw new UnknownJobException(jobId);
         }
-        TaskId taskId = null;
-        for (TaskId t : getJobTasks(jobId)) {
-            if (t.getReadableName().equals(taskName)) {
-                taskId = t;
+        synchronized (jobState) {
+            TaskState ts = jobState.getHMTasks().get(findTaskId(jobState, taskName));
+            if (ts == null) {
+                throw new UnknownTaskException(taskName, jobId);
             }
+            return ts;
         }
-        if (taskId == null) {
-            throw new UnknownTaskException(taskName, jobId);
-        }
-        TaskState ts = jobsMap.get(jobId).getHMTasks().get(taskId);
-        if (ts == null) {
-            throw new UnknownTaskException(taskId, jobId);
-        }
-        return ts;
     }
 
-    synchronized TaskId getTaskId(JobId jobId, String taskName) throws UnknownTaskException, UnknownJobException {
-        if (jobsMap.get(jobId) == null) {
+    TaskId getTaskId(JobId jobId, String taskName) throws UnknownTaskException, UnknownJobException {
+        JobState jobState = getStoredJobState(jobId);
+        if (jobState == null) {
             throw new UnknownJobException(jobId);
         }
+        synchronized (jobState) {
+            return findTaskId(jobState, taskName);
+        }
+    }
+
+    /**
+     * Must be called while holding the monitor of the job state.
+     */
+    private TaskId findTaskId(JobState jobState, String taskName) throws UnknownTaskException {
         TaskId taskId = null;
-        for (TaskId t : getJobTasks(jobId)) {
+        for (TaskId t : jobState.getHMTasks().keySet()) {
             if (t.getReadableName().equals(taskName)) {
                 taskId = t;
             }
         }
         if (taskId == null) {
-            throw new UnknownTaskException(taskName, jobId);
+            throw new UnknownTaskException(taskName, jobState.getId());
         }
         return taskId;
     }
 
-    synchronized void checkChangePolicy() throws NotConnectedException, PermissionException {
+    void checkChangePolicy() throws NotConnectedException, PermissionException {
         UniqueID id = checkAccess();
 
-        UserIdentificationImpl ident = identifications.get(id).getUser();
+        UserIdentificationImpl ident = getListeningUser(id).getUser();
         // renew session for this user
         renewUserSession(id, ident);
 
@@ -709,10 +855,10 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
-    synchronized void checkLinkResourceManager() throws NotConnectedException, PermissionException {
+    void checkLinkResourceManager() throws NotConnectedException, PermissionException {
         UniqueID id = checkAccess();
 
-        UserIdentificationImpl ident = identifications.get(id).getUser();
+        UserIdentificationImpl ident = getListeningUser(id).getUser();
         // renew session for this user
         renewUserSession(id, ident);
 
@@ -779,17 +925,22 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
             if (logger.isDebugEnabled()) {
                 logger.debug("event [" + eventType.toString() + "]");
             }
-            for (ListeningUser userId : identifications.values()) {
-                // if this user has a listener
-                if (userId.isListening()) {
-                    // if there is no specified event OR if the specified event
-                    // is allowed
-                    if ((userId.getUser().getUserEvents() == null) ||
-                        userId.getUser().getUserEvents().contains(eventType)) {
-                        userId.getListener().addEvent(eventMethods.get(SCHEDULER_STATE_UPDATED_EVENT_METHOD),
-                                                      eventType);
+            stateLock.lockRead();
+            try {
+                for (ListeningUser userId : identifications.values()) {
+                    // if this user has a listener
+                    if (userId.isListening()) {
+                        // if there is no specified event OR if the specified event
+                        // is allowed
+                        if ((userId.getUser().getUserEvents() == null) ||
+                            userId.getUser().getUserEvents().contains(eventType)) {
+                            userId.getListener().addEvent(eventMethods.get(SCHEDULER_STATE_UPDATED_EVENT_METHOD),
+                                                          eventType);
+                        }
                     }
                 }
+            } finally {
+                stateLock.unlockRead();
             }
             clearListeners();
         } catch (SecurityException e) {
@@ -808,23 +959,28 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
             if (logger.isDebugEnabled()) {
                 jlogger.debug(job.getJobInfo().getJobId(), " event [" + SchedulerEvent.JOB_SUBMITTED + "]");
             }
-            for (ListeningUser listeningUserId : identifications.values()) {
-                // if this user has a listener
-                if (listeningUserId.isListening()) {
-                    UserIdentificationImpl userId = listeningUserId.getUser();
-                    // if there is no specified event OR if the specified
-                    // event is allowed
-                    if ((userId.getUserEvents() == null) ||
-                        userId.getUserEvents().contains(SchedulerEvent.JOB_SUBMITTED)) {
-                        // if this userId have the myEventOnly=false or
-                        // (myEventOnly=true and it is its event)
-                        if (!userId.isMyEventsOnly() ||
-                            (userId.isMyEventsOnly() && userId.getUsername().equals(job.getOwner()))) {
-                            listeningUserId.getListener().addEvent(eventMethods.get(JOB_SUBMITTED_EVENT_METHOD), job);
+            stateLock.lockRead();
+            try {
+                for (ListeningUser listeningUserId : identifications.values()) {
+                    // if this user has a listener
+                    if (listeningUserId.isListening()) {
+                        UserIdentificationImpl userId = listeningUserId.getUser();
+                        // if there is no specified event OR if the specified
+                        // event is allowed
+                        if ((userId.getUserEvents() == null) ||
+                            userId.getUserEvents().contains(SchedulerEvent.JOB_SUBMITTED)) {
+                            // if this userId have the myEventOnly=false or
+                            // (myEventOnly=true and it is its event)
+                            if (!userId.isMyEventsOnly() ||
+                                (userId.isMyEventsOnly() && userId.getUsername().equals(job.getOwner()))) {
+                                listeningUserId.getListener().addEvent(eventMethods.get(JOB_SUBMITTED_EVENT_METHOD), job);
+                            }
                         }
-                    }
 
+                    }
                 }
+            } finally {
+                stateLock.unlockRead();
             }
             clearListeners();
         } catch (SecurityException e) {
@@ -853,23 +1009,28 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
                     jlogger.debug(notification.getData().getJobId(), " event [" + notification.getEventType() + "]");
                 }
             }
-            for (ListeningUser listeningUserId : identifications.values()) {
-                // if this user has a listener
-                if (listeningUserId.isListening()) {
-                    UserIdentificationImpl userId = listeningUserId.getUser();
-                    // if there is no specified event OR if the specified event
-                    // is allowed
-                    if ((userId.getUserEvents() == null) ||
-                        userId.getUserEvents().contains(notification.getEventType())) {
-                        // if this userId have the myEventOnly=false or
-                        // (myEventOnly=true and it is its event)
-                        if (!userId.isMyEventsOnly() ||
-                            (userId.isMyEventsOnly() && userId.getUsername().equals(owner))) {
-                            listeningUserId.getListener().addEvent(eventMethods.get(JOB_STATE_UPDATED_EVENT_METHOD),
-                                                                   notification);
+            stateLock.lockRead();
+            try {
+                for (ListeningUser listeningUserId : identifications.values()) {
+                    // if this user has a listener
+                    if (listeningUserId.isListening()) {
+                        UserIdentificationImpl userId = listeningUserId.getUser();
+                        // if there is no specified event OR if the specified event
+                        // is allowed
+                        if ((userId.getUserEvents() == null) ||
+                            userId.getUserEvents().contains(notification.getEventType())) {
+                            // if this userId have the myEventOnly=false or
+                            // (myEventOnly=true and it is its event)
+                            if (!userId.isMyEventsOnly() ||
+                                (userId.isMyEventsOnly() && userId.getUsername().equals(owner))) {
+                                listeningUserId.getListener().addEvent(eventMethods.get(JOB_STATE_UPDATED_EVENT_METHOD),
+                                                                       notification);
+                            }
                         }
                     }
                 }
+            } finally {
+                stateLock.unlockRead();
             }
             clearListeners();
         } catch (SecurityException e) {
@@ -890,24 +1051,29 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
             if (logger.isDebugEnabled()) {
                 jlogger.debug(job.getJobInfo().getJobId(), " event [" + SchedulerEvent.JOB_UPDATED + "]");
             }
-            for (ListeningUser listeningUserId : identifications.values()) {
-                // if this user has a listener
-                if (listeningUserId.isListening()) {
-                    UserIdentificationImpl userId = listeningUserId.getUser();
-                    // if there is no specified event OR if the specified
-                    // event is allowed
-                    if ((userId.getUserEvents() == null) ||
-                        userId.getUserEvents().contains(SchedulerEvent.JOB_UPDATED)) {
-                        // if this userId have the myEventOnly=false or
-                        // (myEventOnly=true and it is its event)
-                        if (!userId.isMyEventsOnly() ||
-                            (userId.isMyEventsOnly() && userId.getUsername().equals(job.getOwner()))) {
-                            listeningUserId.getListener().addEvent(eventMethods.get(JOB_UPDATED_FULL_DATA_EVENT_METHOD),
-                                                                   job);
+            stateLock.lockRead();
+            try {
+                for (ListeningUser listeningUserId : identifications.values()) {
+                    // if this user has a listener
+                    if (listeningUserId.isListening()) {
+                        UserIdentificationImpl userId = listeningUserId.getUser();
+                        // if there is no specified event OR if the specified
+                        // event is allowed
+                        if ((userId.getUserEvents() == null) ||
+                            userId.getUserEvents().contains(SchedulerEvent.JOB_UPDATED)) {
+                            // if this userId have the myEventOnly=false or
+                            // (myEventOnly=true and it is its event)
+                            if (!userId.isMyEventsOnly() ||
+                                (userId.isMyEventsOnly() && userId.getUsername().equals(job.getOwner()))) {
+                                listeningUserId.getListener().addEvent(eventMethods.get(JOB_UPDATED_FULL_DATA_EVENT_METHOD),
+                                                                       job);
+                            }
                         }
-                    }
 
+                    }
                 }
+            } finally {
+                stateLock.unlockRead();
             }
             clearListeners();
         } catch (SecurityException e) {
@@ -928,23 +1094,28 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
             if (logger.isDebugEnabled()) {
                 tlogger.debug(notification.getData().getTaskId(), "event [" + notification.getEventType() + "]");
             }
-            for (ListeningUser listeningUserId : identifications.values()) {
-                // if this user has a listener
-                if (listeningUserId.isListening()) {
-                    UserIdentificationImpl userId = listeningUserId.getUser();
-                    // if there is no specified event OR if the specified event
-                    // is allowed
-                    if ((userId.getUserEvents() == null) ||
-                        userId.getUserEvents().contains(notification.getEventType())) {
-                        // if this userId have the myEventOnly=false or
-                        // (myEventOnly=true and it is its event)
-                        if (!userId.isMyEventsOnly() ||
-                            (userId.isMyEventsOnly() && userId.getUsername().equals(owner))) {
-                            listeningUserId.getListener().addEvent(eventMethods.get(TASK_STATE_UPDATED_EVENT_METHOD),
-                                                                   notification);
+            stateLock.lockRead();
+            try {
+                for (ListeningUser listeningUserId : identifications.values()) {
+                    // if this user has a listener
+                    if (listeningUserId.isListening()) {
+                        UserIdentificationImpl userId = listeningUserId.getUser();
+                        // if there is no specified event OR if the specified event
+                        // is allowed
+                        if ((userId.getUserEvents() == null) ||
+                            userId.getUserEvents().contains(notification.getEventType())) {
+                            // if this userId have the myEventOnly=false or
+                            // (myEventOnly=true and it is its event)
+                            if (!userId.isMyEventsOnly() ||
+                                (userId.isMyEventsOnly() && userId.getUsername().equals(owner))) {
+                                listeningUserId.getListener().addEvent(eventMethods.get(TASK_STATE_UPDATED_EVENT_METHOD),
+                                                                       notification);
+                            }
                         }
                     }
                 }
+            } finally {
+                stateLock.unlockRead();
             }
             clearListeners();
         } catch (SecurityException e) {
@@ -963,24 +1134,29 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
             if (logger.isDebugEnabled()) {
                 logger.debug("event [" + notification.getEventType() + "]");
             }
-            for (ListeningUser listeningUserId : identifications.values()) {
-                // if this user has a listener
-                if (listeningUserId.isListening()) {
-                    UserIdentificationImpl userId = listeningUserId.getUser();
-                    // if there is no specified event OR if the specified event
-                    // is allowed
-                    if ((userId.getUserEvents() == null) ||
-                        userId.getUserEvents().contains(notification.getEventType())) {
-                        // if this userId have the myEventOnly=false or
-                        // (myEventOnly=true and it is its event)
-                        if (!userId.isMyEventsOnly() ||
-                            (userId.isMyEventsOnly() &&
-                             userId.getUsername().equals(notification.getData().getUsername()))) {
-                            listeningUserId.getListener().addEvent(eventMethods.get(USERS_UPDATED_EVENT_METHOD),
-                                                                   notification);
+            stateLock.lockRead();
+            try {
+                for (ListeningUser listeningUserId : identifications.values()) {
+                    // if this user has a listener
+                    if (listeningUserId.isListening()) {
+                        UserIdentificationImpl userId = listeningUserId.getUser();
+                        // if there is no specified event OR if the specified event
+                        // is allowed
+                        if ((userId.getUserEvents() == null) ||
+                            userId.getUserEvents().contains(notification.getEventType())) {
+                            // if this userId have the myEventOnly=false or
+                            // (myEventOnly=true and it is its event)
+                            if (!userId.isMyEventsOnly() ||
+                                (userId.isMyEventsOnly() &&
+                                 userId.getUsername().equals(notification.getData().getUsername()))) {
+                                listeningUserId.getListener().addEvent(eventMethods.get(USERS_UPDATED_EVENT_METHOD),
+                                                                       notification);
+                            }
                         }
                     }
                 }
+            } finally {
+                stateLock.unlockRead();
             }
             // Important condition to avoid recursive checks
             if (checkForDownUser) {
@@ -993,7 +1169,23 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
     }
 
     @Override
-    public synchronized void schedulerStateUpdated(SchedulerEvent eventType) {
+    public void schedulerStateUpdated(SchedulerEvent eventType) {
+        eventLock.lock();
+        try {
+            if (updateSchedulerStatus(eventType)) {
+                // send the event for all case, except default
+                dispatchSchedulerStateUpdated(eventType);
+                this.jmxHelper.getSchedulerRuntimeMBean().schedulerStateUpdatedEvent(eventType);
+            }
+        } finally {
+            eventLock.unlock();
+        }
+    }
+
+    /**
+     * @return false if the event is not a scheduler state update
+     */
+    private boolean updateSchedulerStatus(SchedulerEvent eventType) {
         switch (eventType) {
             case STARTED:
                 sState.setState(SchedulerStatus.STARTED);
@@ -1028,25 +1220,60 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
                 break;
             default:
                 logger.warn("**WARNING** - Unconsistent update type received from Scheduler Core : " + eventType);
-                return;
+                return false;
         }
-        // send the event for all case, except default
-        dispatchSchedulerStateUpdated(eventType);
-        this.jmxHelper.getSchedulerRuntimeMBean().schedulerStateUpdatedEvent(eventType);
+        return true;
     }
 
     @Override
-    public synchronized void jobSubmitted(JobState job) {
+    public void jobSubmitted(JobState job) {
+        // the copy is done before locking
         ClientJobState storedJobState = new ClientJobState(job);
-        jobsMap.put(job.getId(), storedJobState);
-        sState.getPendingJobs().add(storedJobState);
-        dispatchJobSubmitted(job);
+        eventLock.lock();
+        try {
+            stateLock.lockWrite();
+            try {
+                jobsMap.put(job.getId(), storedJobState);
+                sState.getPendingJobs().add(storedJobState);
+            } finally {
+                stateLock.unlockWrite();
+            }
+            dispatchJobSubmitted(job);
+        } finally {
+            eventLock.unlock();
+        }
     }
 
     @Override
-    public synchronized void jobStateUpdated(String owner, NotificationData<JobInfo> notification) {
-        JobState js = jobsMap.get(notification.getData().getJobId());
-        js.update(notification.getData());
+    public void jobStateUpdated(String owner, NotificationData<JobInfo> notification) {
+        JobState js;
+        eventLock.lock();
+        try {
+            stateLock.lockWrite();
+            try {
+                js = jobsMap.get(notification.getData().getJobId());
+                synchronized (js) {
+                    js.update(notification.getData());
+                }
+                if (!updateJobLists(js, notification)) {
+                    return;
+                }
+            } finally {
+                stateLock.unlockWrite();
+            }
+            dispatchJobStateUpdated(owner, notification);
+        } finally {
+            eventLock.unlock();
+        }
+        new JobEmailNotification(js, notification).checkAndSend();
+    }
+
+    /**
+     * Must be called while holding the write lock.
+     *
+     * @return false if the event is not a job state update
+     */
+    private boolean updateJobLists(JobState js, NotificationData<JobInfo> notification) {
         switch (notification.getEventType()) {
             case JOB_PENDING_TO_RUNNING:
                 sState.getPendingJobs().remove(js);
@@ -1081,21 +1308,38 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
             default:
                 logger.warn("**WARNING** - Unconsistent update type received from Scheduler Core : " +
                             notification.getEventType());
-                return;
+                return false;
         }
-        dispatchJobStateUpdated(owner, notification);
-        new JobEmailNotification(js, notification).checkAndSend();
+        return true;
     }
 
     @Override
-    public synchronized void jobUpdatedFullData(JobState jobstate) {
+    public void jobUpdatedFullData(JobState jobstate) {
         ClientJobState storedJobState = new ClientJobState(jobstate);
-        dispatchJobUpdatedFullData(storedJobState);
+        eventLock.lock();
+        try {
+            dispatchJobUpdatedFullData(storedJobState);
+        } finally {
+            eventLock.unlock();
+        }
     }
 
     @Override
-    public synchronized void taskStateUpdated(String owner, NotificationData<TaskInfo> notification) {
-        jobsMap.get(notification.getData().getJobId()).update(notification.getData());
+    public void taskStateUpdated(String owner, NotificationData<TaskInfo> notification) {
+        eventLock.lock();
+        try {
+            // only the state of the job changes, the readers of other jobs are not blocked
+            JobState js = getStoredJobState(notification.getData().getJobId());
+            synchronized (js) {
+                js.update(notification.getData());
+            }
+            dispatchTaskStateUpdatedEvent(owner, notification);
+        } finally {
+            eventLock.unlock();
+        }
+    }
+
+    private void dispatchTaskStateUpdatedEvent(String owner, NotificationData<TaskInfo> notification) {
         switch (notification.getEventType()) {
             case TASK_PENDING_TO_RUNNING:
             case TASK_RUNNING_TO_FINISHED:
@@ -1119,10 +1363,15 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
     }
 
     @Override
-    public synchronized void usersUpdated(NotificationData<UserIdentification> notification) {
+    public void usersUpdated(NotificationData<UserIdentification> notification) {
         switch (notification.getEventType()) {
             case USERS_UPDATE:
-                dispatchUsersUpdated(notification, true);
+                eventLock.lock();
+                try {
+                    dispatchUsersUpdated(notification, true);
+                } finally {
+                    eventLock.unlock();
+                }
                 break;
             default:
                 logger.warn("**WARNING** - Unconsistent update type received from Scheduler Core : " +
@@ -1130,17 +1379,22 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
-    synchronized List<SchedulerUserInfo> getUsers() {
-        List<SchedulerUserInfo> users = new ArrayList<>(identifications.size());
-        for (ListeningUser listeningUser : identifications.values()) {
-            UserIdentificationImpl user = listeningUser.getUser();
-            users.add(new SchedulerUserInfo(user.getHostName(),
-                                            user.getUsername(),
-                                            user.getConnectionTime(),
-                                            user.getLastSubmitTime(),
-                                            user.getSubmitNumber()));
+    List<SchedulerUserInfo> getUsers() {
+        stateLock.lockRead();
+        try {
+            List<SchedulerUserInfo> users = new ArrayList<>(identifications.size());
+            for (ListeningUser listeningUser : identifications.values()) {
+                UserIdentificationImpl user = listeningUser.getUser();
+                users.add(new SchedulerUserInfo(user.getHostName(),
+                                                user.getUsername(),
+                                                user.getConnectionTime(),
+                                                user.getLastSubmitTime(),
+                                                user.getSubmitNumber()));
+            }
+            return users;
+        } finally {
+            stateLock.unlockRead();
         }
-        return users;
     }
 
 }
@@ -68,8 +68,17 @@ public final class SchedulingThread extends Thread {
     }
 
     protected void sleepSchedulingThread() throws InterruptedException {
+        long timeout = SCHEDULER_TIME_OUT;
+        // wake up when the next delayed task becomes schedulable, if it happens before the time out
+        long nextEligibilityTime = service.getPolicy().getNextEligibilityTime();
+        if (nextEligibilityTime != Long.MAX_VALUE) {
+            long untilNextEligibility = Math.max(1, nextEligibilityTime - System.currentTimeMillis());
+            if (timeout <= 0 || untilNextEligibility < timeout) {
+                timeout = untilNextEligibility;
+            }
+        }
         synchronized (this) {
-            this.wait(SCHEDULER_TIME_OUT);
+            this.wait(timeout);
         }
     }
 
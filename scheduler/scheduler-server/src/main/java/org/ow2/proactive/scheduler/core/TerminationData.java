@@ -246,10 +246,10 @@ final class TerminationData {
 
     private void getResultsFromListOfTaskResults(Map<String, Serializable> variables,
             Map<TaskId, TaskResult> taskResults) throws IOException, ClassNotFoundException {
+        List<Map<String, byte[]>> resultsVariables = new ArrayList<>(taskResults.size());
         for (TaskResult currentTaskResult : taskResults.values()) {
-            if (currentTaskResult.getPropagatedVariables() != null) {
-                variables.putAll(SerializationUtil.deserializeVariableMap(currentTaskResult.getPropagatedVariables()));
-            }
+            resultsVariables.add(currentTaskResult.getPropagatedVariables());
         }
+        variables.putAll(SerializationUtil.deserializeMergedVariableMaps(resultsVariables));
     }
 }
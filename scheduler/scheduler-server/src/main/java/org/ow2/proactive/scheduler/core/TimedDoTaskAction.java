@@ -137,6 +137,7 @@ public class TimedDoTaskAction implements CallableWithTimeoutAction<Void> {
             fillContainer();
             // try launch the task
             launcher.doTask(task.getExecutableContainer(), params, terminateNotification);
+            schedulingService.getInfrastructure().getDBManager().taskStartedWithParentResults(job, task);
         } catch (Throwable e) {
             logger.warn("Failed to start task: " + e.getMessage(), e);
             restartTask();
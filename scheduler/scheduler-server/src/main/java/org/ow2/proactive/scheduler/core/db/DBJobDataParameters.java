@@ -99,4 +99,12 @@ public class DBJobDataParameters {
     public Set<JobStatus> getStatuses() {
         return status;
     }
+
+    /**
+     * @return an identifier of the jobs matching these parameters, regardless of pagination and sorting
+     */
+    public String getListingKey() {
+        boolean hasUser = user != null && !user.isEmpty();
+        return "jobs|" + (hasUser ? user : "") + "|" + pending + "|" + running + "|" + finished;
+    }
 }
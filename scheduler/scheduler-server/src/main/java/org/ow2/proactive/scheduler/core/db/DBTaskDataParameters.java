@@ -154,6 +154,14 @@ public class DBTaskDataParameters {
         return sortParams;
     }
 
+    /**
+     * @return an identifier of the tasks matching these parameters, regardless of pagination and sorting
+     */
+    public String getListingKey() {
+        return "tasks|" + (hasUser() ? user : "") + "|" + (hasTag() ? tag : "") + "|" + (hasDateFrom() ? from : 0) +
+               "|" + (hasDateTo() ? to : 0) + "|" + pending + "|" + running + "|" + finished;
+    }
+
     public static class Builder {
 
         private String tag;
@@ -25,6 +25,10 @@
  */
 package org.ow2.proactive.scheduler.core.db;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 import org.hibernate.Criteria;
 import org.hibernate.HibernateException;
 import org.hibernate.criterion.CriteriaQuery;
@@ -32,6 +36,9 @@ import org.hibernate.criterion.Order;
 import org.ow2.proactive.db.SortOrder;
 import org.ow2.proactive.scheduler.common.job.JobStatus;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
 
 /**
  * A custom sort for JobStatus.
@@ -44,6 +51,21 @@ import org.ow2.proactive.scheduler.common.job.JobStatus;
  */
 public class GroupByStatusSortOrder extends Order {
 
+    private static final Set<JobStatus> PENDING_GROUP = Sets.immutableEnumSet(JobStatus.PENDING);
+
+    private static final Set<JobStatus> RUNNING_GROUP = Sets.immutableEnumSet(JobStatus.RUNNING,
+                                                                               JobStatus.STALLED,
+                                                                               JobStatus.PAUSED);
+
+    private static final Set<JobStatus> OTHER_GROUP = Sets.immutableEnumSet(Sets.difference(EnumSet.allOf(JobStatus.class),
+                                                                                            Sets.union(PENDING_GROUP,
+                                                                                                       RUNNING_GROUP)));
+
+    /**
+     * Job statuses of each group, in ascending order.
+     */
+    static final List<Set<JobStatus>> STATUS_GROUPS = ImmutableList.of(PENDING_GROUP, RUNNING_GROUP, OTHER_GROUP);
+
     private String propertyName;
 
     private boolean ascending;
@@ -0,0 +1,109 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.hibernate.Session;
+
+
+/**
+ * Writes the jobs removed by the housekeeping, and their tasks, to gzipped text files before
+ * they are deleted from the database.
+ * <p>
+ * Each removed chunk of jobs gives one file, named after the first and last job ids of the
+ * chunk, with one tab-separated line per job:
+ * <pre>job id name owner project status submittedTime startTime finishedTime totalNumberOfTasks</pre>
+ * followed by one line per task of the job:
+ * <pre>task jobId taskId name status startTime finishedTime executionDuration executionHostName</pre>
+ */
+public class HousekeepingArchive {
+
+    private final File directory;
+
+    public HousekeepingArchive(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create the housekeeping archive directory " + directory);
+        }
+        this.directory = directory;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Writes the given jobs and their tasks, as they are in the database.
+     *
+     * @return the archive file
+     */
+    @SuppressWarnings("unchecked")
+    File archive(Session session, List<Long> jobIdList) throws IOException {
+        List<Object[]> jobs = session.createQuery("select id, jobName, owner, projectName, status, submittedTime, " +
+                                                  "startTime, finishedTime, totalNumberOfTasks from JobData " +
+                                                  "where id in :jobIdList order by id")
+                                     .setParameterList("jobIdList", jobIdList)
+                                     .list();
+        List<Object[]> tasks = session.createQuery("select id.jobId, id.taskId, taskName, taskStatus, startTime, " +
+                                                   "finishedTime, executionDuration, executionHostName from TaskData " +
+                                                   "where jobData.id in :jobIdList order by id.jobId, id.taskId")
+                                      .setParameterList("jobIdList", jobIdList)
+                                      .list();
+
+        File file = new File(directory,
+                             "jobs-" + jobIdList.get(0) + "-" + jobIdList.get(jobIdList.size() - 1) + ".txt.gz");
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(file)),
+                                                                       StandardCharsets.UTF_8))) {
+            int taskIndex = 0;
+            for (Object[] job : jobs) {
+                writeLine(writer, "job", job);
+                while (taskIndex < tasks.size() && tasks.get(taskIndex)[0].equals(job[0])) {
+                    writeLine(writer, "task", tasks.get(taskIndex++));
+                }
+            }
+        }
+        return file;
+    }
+
+    private static void writeLine(Writer writer, String type, Object[] values) throws IOException {
+        writer.write(type);
+        for (Object value : values) {
+            writer.write('\t');
+            if (value != null) {
+                writer.write(value.toString().replace('\t', ' ').replace('\n', ' ').replace('\r', ' '));
+            }
+        }
+        writer.write('\n');
+    }
+}
@@ -25,28 +25,46 @@
  */
 package org.ow2.proactive.scheduler.core.db;
 
+import java.io.IOException;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.hibernate.Session;
+import org.ow2.proactive.db.DatabaseManagerException;
 import org.ow2.proactive.db.SessionWork;
 
 
 /**
  * Handles the Housekeeping in the database.
+ * <p>
+ * A session work handles one chunk of the jobs to remove, in a single transaction. When an
+ * archive is given, the jobs are written to it before being deleted.
  *
  * @author ActiveEon Team
  * @since 01/03/17
  */
 public class HousekeepingSessionWork implements SessionWork<Void> {
 
-    private static List<Long> jobIdList;
+    private final List<Long> jobIdList;
 
-    private static boolean shouldRemoveFromDb;
+    private final boolean shouldRemoveFromDb;
+
+    private final HousekeepingArchive archive;
+
+    private final Set<String> releasedResultReferences = new HashSet<>();
+
+    private int affectedRows;
 
     public HousekeepingSessionWork(List<Long> jobIdList, boolean shouldRemoveFromDb) {
+        this(jobIdList, shouldRemoveFromDb, null);
+    }
+
+    public HousekeepingSessionWork(List<Long> jobIdList, boolean shouldRemoveFromDb, HousekeepingArchive archive) {
         this.jobIdList = jobIdList;
         this.shouldRemoveFromDb = shouldRemoveFromDb;
+        this.archive = archive;
     }
 
     private void deleteInconsistentData(Session session) {
@@ -59,52 +77,88 @@ public class HousekeepingSessionWork implements SessionWork<Void> {
     }
 
     private void removeJobScriptsInBulk(Session session, List<Long> jobIdList) {
-        session.getNamedQuery("updateTaskDataJobScriptsInBulk")
-               .setParameterList("jobIdList", jobIdList)
-               .executeUpdate();
-        session.getNamedQuery("deleteScriptDataInBulk").setParameterList("jobIdList", jobIdList).executeUpdate();
-        session.getNamedQuery("deleteSelectionScriptDataInBulk")
-               .setParameterList("jobIdList", jobIdList)
-               .executeUpdate();
+        affectedRows += session.getNamedQuery("updateTaskDataJobScriptsInBulk")
+                               .setParameterList("jobIdList", jobIdList)
+                               .executeUpdate();
+        affectedRows += session.getNamedQuery("deleteScriptDataInBulk")
+                               .setParameterList("jobIdList", jobIdList)
+                               .executeUpdate();
+        affectedRows += session.getNamedQuery("deleteSelectionScriptDataInBulk")
+                               .setParameterList("jobIdList", jobIdList)
+                               .executeUpdate();
     }
 
     private void removeFromDb(Session session) {
-        session.getNamedQuery("deleteEnvironmentModifierDataInBulk")
-               .setParameterList("jobIdList", jobIdList)
-               .executeUpdate();
-        session.getNamedQuery("deleteTaskDataVariableInBulk").setParameterList("jobIdList", jobIdList).executeUpdate();
-        session.getNamedQuery("deleteSelectorDataInBulk").setParameterList("jobIdList", jobIdList).executeUpdate();
-        session.createSQLQuery("delete from TASK_DATA_DEPENDENCIES where JOB_ID in :jobIdList")
-               .setParameterList("jobIdList", jobIdList)
-               .executeUpdate();
-        session.createSQLQuery("delete from TASK_DATA_JOINED_BRANCHES where JOB_ID in :jobIdList")
-               .setParameterList("jobIdList", jobIdList)
-               .executeUpdate();
+        if (archive != null) {
+            try {
+                archive.archive(session, jobIdList);
+            } catch (IOException e) {
+                throw new DatabaseManagerException("Failed to archive jobs " + jobIdList + " before removing them",
+                                                   e);
+            }
+        }
+        releasedResultReferences.addAll(SchedulerDBManager.loadTaskResultReferences(session, jobIdList));
+        affectedRows += session.getNamedQuery("deleteEnvironmentModifierDataInBulk")
+                               .setParameterList("jobIdList", jobIdList)
+                               .executeUpdate();
+        affectedRows += session.getNamedQuery("deleteTaskDataVariableInBulk")
+                               .setParameterList("jobIdList", jobIdList)
+                               .executeUpdate();
+        affectedRows += session.getNamedQuery("deleteSelectorDataInBulk")
+                               .setParameterList("jobIdList", jobIdList)
+                               .executeUpdate();
+        affectedRows += session.createSQLQuery("delete from TASK_DATA_DEPENDENCIES where JOB_ID in :jobIdList")
+                               .setParameterList("jobIdList", jobIdList)
+                               .executeUpdate();
+        affectedRows += session.createSQLQuery("delete from TASK_DATA_JOINED_BRANCHES where JOB_ID in :jobIdList")
+                               .setParameterList("jobIdList", jobIdList)
+                               .executeUpdate();
         removeJobScriptsInBulk(session, jobIdList);
-        session.getNamedQuery("deleteSelectionScriptDataInBulk")
-               .setParameterList("jobIdList", jobIdList)
-               .executeUpdate();
-        session.createSQLQuery("delete from TASK_RESULT_DATA where JOB_ID in :jobIdList")
-               .setParameterList("jobIdList", jobIdList)
-               .executeUpdate();
-        session.getNamedQuery("deleteTaskDataInBulk").setParameterList("jobIdList", jobIdList).executeUpdate();
-        session.createSQLQuery("delete from JOB_CONTENT where JOB_ID in :jobIdList")
-               .setParameterList("jobIdList", jobIdList)
-               .executeUpdate();
-        session.getNamedQuery("deleteJobDataInBulk").setParameterList("jobIdList", jobIdList).executeUpdate();
+        affectedRows += session.getNamedQuery("deleteSelectionScriptDataInBulk")
+                               .setParameterList("jobIdList", jobIdList)
+                               .executeUpdate();
+        affectedRows += session.createSQLQuery("delete from TASK_RESULT_DATA where JOB_ID in :jobIdList")
+                               .setParameterList("jobIdList", jobIdList)
+                               .executeUpdate();
+        affectedRows += session.getNamedQuery("deleteTaskDataInBulk")
+                               .setParameterList("jobIdList", jobIdList)
+                               .executeUpdate();
+        affectedRows += session.createSQLQuery("delete from JOB_CONTENT where JOB_ID in :jobIdList")
+                               .setParameterList("jobIdList", jobIdList)
+                               .executeUpdate();
+        affectedRows += session.getNamedQuery("deleteJobDataInBulk")
+                               .setParameterList("jobIdList", jobIdList)
+                               .executeUpdate();
         deleteInconsistentData(session);
     }
 
     private void updateAsRemoved(Session session) {
-        session.getNamedQuery("updateJobDataRemovedTimeInBulk")
-               .setParameter("removedTime", System.currentTimeMillis())
-               .setParameter("lastUpdatedTime", new Date().getTime())
-               .setParameterList("jobIdList", jobIdList)
-               .executeUpdate();
+        affectedRows += session.getNamedQuery("updateJobDataRemovedTimeInBulk")
+                               .setParameter("removedTime", System.currentTimeMillis())
+                               .setParameter("lastUpdatedTime", new Date().getTime())
+                               .setParameterList("jobIdList", jobIdList)
+                               .executeUpdate();
+    }
+
+    /**
+     * @return the references of the results storage contents used by the task results removed
+     * by this housekeeping. They may still be used by other task results.
+     */
+    public Set<String> getReleasedResultReferences() {
+        return releasedResultReferences;
+    }
+
+    /**
+     * @return the number of rows deleted or updated by this housekeeping
+     */
+    public int getAffectedRows() {
+        return affectedRows;
     }
 
     @Override
     public Void doInTransaction(Session session) {
+        releasedResultReferences.clear();
+        affectedRows = 0;
         if (shouldRemoveFromDb) {
             removeFromDb(session);
         } else {
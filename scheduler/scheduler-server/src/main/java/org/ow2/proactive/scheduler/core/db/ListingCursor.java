@@ -0,0 +1,80 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+/**
+ * Position of the last element of a page read with keyset pagination.
+ *
+ * A cursor is made of two values, the state group and the id of the last job for job listings,
+ * the job id and the task id of the last task for task listings. It is exchanged as a string
+ * with the clients, which do not have to interpret it.
+ */
+final class ListingCursor {
+
+    private static final char SEPARATOR = '.';
+
+    private final long first;
+
+    private final long second;
+
+    private ListingCursor(long first, long second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    long getFirst() {
+        return first;
+    }
+
+    long getSecond() {
+        return second;
+    }
+
+    static String toString(long first, long second) {
+        return String.valueOf(first) + SEPARATOR + second;
+    }
+
+    /**
+     * @return the position given by the cursor, or null if the cursor is null or empty
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    static ListingCursor parse(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        int separatorIndex = cursor.indexOf(SEPARATOR);
+        if (separatorIndex < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            return new ListingCursor(Long.parseLong(cursor.substring(0, separatorIndex)),
+                                     Long.parseLong(cursor.substring(separatorIndex + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+}
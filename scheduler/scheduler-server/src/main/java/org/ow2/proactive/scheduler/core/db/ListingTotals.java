@@ -0,0 +1,121 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Approximate totals of the job and task listings.
+ *
+ * The total of a listing is counted once and kept until jobs or tasks change, which is notified
+ * through {@link #invalidate()} by the database manager each time jobs are submitted or removed,
+ * or jobs or tasks change status.
+ * Outdated totals are still returned until the refresh period elapsed, so that the totals of a
+ * busy scheduler are not counted again for every page which is read.
+ */
+public class ListingTotals {
+
+    private static final int MAX_ENTRIES = 256;
+
+    private final long refreshPeriod;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<String, Total> totals = new LinkedHashMap<String, Total>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Total> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * @param refreshPeriod minimum delay in milliseconds before an outdated total is counted again,
+     *                      0 to count it again as soon as jobs or tasks changed
+     */
+    public ListingTotals(long refreshPeriod) {
+        this.refreshPeriod = refreshPeriod;
+    }
+
+    /**
+     * Marks all the totals as outdated.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * @return the current version of the jobs and tasks, to be given to {@link #put(String, long, int)}
+     * along with a total counted after this call
+     */
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * @return the total of the given listing, or <code>null</code> if it has to be counted
+     */
+    public synchronized Integer get(String listing) {
+        Total total = totals.get(listing);
+        if (total == null) {
+            return null;
+        }
+        if (total.generation == generation.get() ||
+            System.currentTimeMillis() - total.countTime < refreshPeriod) {
+            return total.value;
+        }
+        return null;
+    }
+
+    public synchronized void put(String listing, long generation, int value) {
+        Total previous = totals.get(listing);
+        if (previous == null || previous.generation <= generation) {
+            totals.put(listing, new Total(generation, System.currentTimeMillis(), value));
+        }
+    }
+
+    public synchronized int getNumberOfEntries() {
+        return totals.size();
+    }
+
+    private static final class Total {
+
+        private final long generation;
+
+        private final long countTime;
+
+        private final int value;
+
+        private Total(long generation, long countTime, int value) {
+            this.generation = generation;
+            this.countTime = countTime;
+            this.value = value;
+        }
+    }
+
+}
@@ -27,6 +27,7 @@ package org.ow2.proactive.scheduler.core.db;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Serializable;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.util.ArrayList;
@@ -37,10 +38,15 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 import org.hibernate.Criteria;
@@ -62,6 +68,9 @@ import org.ow2.proactive.db.DatabaseManagerException;
 import org.ow2.proactive.db.SessionWork;
 import org.ow2.proactive.db.SortParameter;
 import org.ow2.proactive.db.TransactionHelper;
+import org.ow2.proactive.db.TransactionStatistics;
+import org.ow2.proactive.db.UnitOfWork;
+import org.ow2.proactive.scheduler.common.CursorPage;
 import org.ow2.proactive.scheduler.common.JobSortParameter;
 import org.ow2.proactive.scheduler.common.Page;
 import org.ow2.proactive.scheduler.common.SortSpecifierContainer;
@@ -71,18 +80,23 @@ import org.ow2.proactive.scheduler.common.job.JobInfo;
 import org.ow2.proactive.scheduler.common.job.JobPriority;
 import org.ow2.proactive.scheduler.common.job.JobResult;
 import org.ow2.proactive.scheduler.common.job.JobStatus;
+import org.ow2.proactive.scheduler.common.job.JobVariable;
 import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
 import org.ow2.proactive.scheduler.common.task.Task;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskInfo;
 import org.ow2.proactive.scheduler.common.task.TaskResult;
+import org.ow2.proactive.scheduler.common.task.TaskResultSummary;
 import org.ow2.proactive.scheduler.common.task.TaskState;
 import org.ow2.proactive.scheduler.common.task.TaskStatus;
 import org.ow2.proactive.scheduler.common.task.dataspaces.InputSelector;
 import org.ow2.proactive.scheduler.common.task.dataspaces.OutputSelector;
+import org.ow2.proactive.scheduler.common.task.util.SerializationUtil;
 import org.ow2.proactive.scheduler.common.usage.JobUsage;
 import org.ow2.proactive.scheduler.core.account.SchedulerAccount;
 import org.ow2.proactive.scheduler.core.db.TaskData.DBTaskId;
+import org.ow2.proactive.scheduler.core.db.storage.FileSystemTaskResultStorage;
+import org.ow2.proactive.scheduler.core.db.storage.TaskResultStorage;
 import org.ow2.proactive.scheduler.core.helpers.TableSizeMonitorRunner;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.scheduler.job.ChangedTasksInfo;
@@ -114,6 +128,13 @@ public class SchedulerDBManager {
 
     private static final Logger logger = Logger.getLogger(SchedulerDBManager.class);
 
+    private static final int TASK_RESULT_REFERENCES_BATCH_SIZE = 500;
+
+    private static final String DEFAULT_JDBC_BATCH_SIZE = "50";
+
+    /** Maximum number of jobs whose serialized variables are kept to store and read task results */
+    private static final int MAX_CACHED_VARIABLES_BASES = 1000;
+
     protected static final Set<JobStatus> FINISHED_JOB_STATUSES = ImmutableSet.of(JobStatus.CANCELED,
                                                                                   JobStatus.FAILED,
                                                                                   JobStatus.KILLED,
@@ -152,6 +173,43 @@ public class SchedulerDBManager {
 
     private Scheduler tableSizeMonitorScheduler;
 
+    private TaskResultStorage taskResultStorage;
+
+    private int taskResultStorageThreshold;
+
+    private TaskResultCache taskResultCache;
+
+    /**
+     * Serialized variables of the recently used jobs by job id. They are the base against which
+     * the propagated variables of task results are stored as deltas, and are never modified.
+     */
+    private final Map<Long, Map<String, byte[]>> propagatedVariablesBases = Collections.synchronizedMap(new LinkedHashMap<Long, Map<String, byte[]>>(16,
+                                                                                                                                                0.75f,
+                                                                                                                                                true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Map<String, byte[]>> eldest) {
+            return size() > MAX_CACHED_VARIABLES_BASES;
+        }
+    });
+
+    private ListingTotals listingTotals;
+
+    private SchedulerStatistics statistics;
+
+    private Timer statisticsTimer;
+
+    private int housekeepingChunkSize;
+
+    private long housekeepingChunkDelay;
+
+    private long housekeepingTimeBudget;
+
+    private HousekeepingArchive housekeepingArchive;
+
+    private final AtomicLong submittedTasksCount = new AtomicLong();
+
+    private final AtomicLong submittedTasksPersistenceTime = new AtomicLong();
+
     public static SchedulerDBManager createUsingProperties() {
         if (System.getProperty(JAVA_PROPERTYNAME_NODB) != null) {
             return createInMemorySchedulerDBManager();
@@ -196,6 +254,7 @@ public class SchedulerDBManager {
             configuration.addAnnotatedClass(EnvironmentModifierData.class);
             configuration.addAnnotatedClass(SelectorData.class);
             configuration.addAnnotatedClass(ThirdPartyCredentialData.class);
+            configuration.addAnnotatedClass(SchedulerStatisticsData.class);
             if (drop) {
                 configuration.setProperty("hibernate.hbm2ddl.auto", "create");
             }
@@ -203,12 +262,20 @@ public class SchedulerDBManager {
             configuration.setProperty("hibernate.id.new_generator_mappings", "true");
             configuration.setProperty("hibernate.jdbc.use_streams_for_binary", "true");
             configuration.setProperty("hibernate.connection.isolation", "2");
+            setDefaultProperty(configuration, "hibernate.jdbc.batch_size", DEFAULT_JDBC_BATCH_SIZE);
+            setDefaultProperty(configuration, "hibernate.order_inserts", "true");
+            setDefaultProperty(configuration, "hibernate.order_updates", "true");
 
             ServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder().applySettings(configuration.getProperties())
                                                                                   .build();
             sessionFactory = configuration.buildSessionFactory(serviceRegistry);
             transactionHelper = new TransactionHelper(sessionFactory);
 
+            setupListingTotals();
+            setupStatistics();
+            setupTaskResultStorage();
+            setupTaskResultCache();
+            setupHousekeeping();
             setupTableSizeMonitoring();
         } catch (Throwable ex) {
             logger.error("Initial SessionFactory creation failed", ex);
@@ -216,6 +283,200 @@ public class SchedulerDBManager {
         }
     }
 
+    private static void setDefaultProperty(Configuration configuration, String name, String value) {
+        if (configuration.getProperty(name) == null) {
+            configuration.setProperty(name, value);
+        }
+    }
+
+    private void setupTaskResultStorage() throws IOException {
+        if (PASchedulerProperties.SCHEDULER_DB_RESULTS_STORAGE_DIR.getValueAsStringOrNull() != null) {
+            File directory = new File(PASchedulerProperties.getAbsolutePath(PASchedulerProperties.SCHEDULER_DB_RESULTS_STORAGE_DIR.getValueAsString()));
+            logger.info("Task results storage directory: " + directory.getAbsolutePath());
+            setTaskResultStorage(new FileSystemTaskResultStorage(directory),
+                                 PASchedulerProperties.SCHEDULER_DB_RESULTS_STORAGE_THRESHOLD.getValueAsInt());
+        }
+    }
+
+    /**
+     * Set the storage used for the serialized values and propagated variables of task results.
+     *
+     * @param taskResultStorage the storage to use, or null to keep task results in the database
+     * @param threshold minimum size in bytes of a content to be moved to the storage
+     */
+    public void setTaskResultStorage(TaskResultStorage taskResultStorage, int threshold) {
+        this.taskResultStorage = taskResultStorage;
+        this.taskResultStorageThreshold = Math.max(threshold, 0);
+    }
+
+    private void setupTaskResultCache() {
+        int cacheSize = PASchedulerProperties.SCHEDULER_DB_RESULTS_CACHE_SIZE.getValueAsInt();
+        if (cacheSize > 0) {
+            logger.info("Task results cache size: " + cacheSize + " MB");
+            setTaskResultCache(new TaskResultCache(cacheSize * 1024L * 1024L));
+        }
+    }
+
+    /**
+     * Set the cache used to start the children of terminated tasks without reading the results
+     * of their parents from the database.
+     *
+     * @param taskResultCache the cache to use, or null to always read task results from the database
+     */
+    public void setTaskResultCache(TaskResultCache taskResultCache) {
+        this.taskResultCache = taskResultCache;
+    }
+
+    public TaskResultCache getTaskResultCache() {
+        return taskResultCache;
+    }
+
+    private void setupListingTotals() {
+        int refreshPeriod = PASchedulerProperties.SCHEDULER_DB_LISTING_TOTALS_REFRESH_PERIOD.getValueAsInt();
+        listingTotals = new ListingTotals(Math.max(refreshPeriod, 0) * 1000L);
+    }
+
+    /**
+     * Set the totals returned with the pages of jobs and tasks.
+     *
+     * @param listingTotals the totals to use
+     */
+    public void setListingTotals(ListingTotals listingTotals) {
+        this.listingTotals = listingTotals;
+    }
+
+    private void setupStatistics() {
+        List<SchedulerStatisticsData> saved = loadStatistics();
+        if (saved.isEmpty()) {
+            List<SchedulerStatisticsData> computed = computeStatistics();
+            statistics = new SchedulerStatistics(computed);
+            statistics.setModified(computed);
+        } else {
+            statistics = new SchedulerStatistics(saved);
+        }
+        int savePeriod = PASchedulerProperties.SCHEDULER_DB_STATISTICS_SAVE_PERIOD.getValueAsInt();
+        if (savePeriod > 0) {
+            statisticsTimer = new Timer("Scheduler statistics saver", true);
+            statisticsTimer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    saveStatistics();
+                }
+            }, savePeriod * 1000L, savePeriod * 1000L);
+        }
+    }
+
+    private List<SchedulerStatisticsData> loadStatistics() {
+        return executeReadOnlyTransaction(new SessionWork<List<SchedulerStatisticsData>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<SchedulerStatisticsData> doInTransaction(Session session) {
+                return session.getNamedQuery("loadSchedulerStatistics").list();
+            }
+        });
+    }
+
+    /**
+     * Computes the statistics from the jobs and tasks of the database, when none were saved yet
+     * (first start, or upgrade of an existing database).
+     */
+    private List<SchedulerStatisticsData> computeStatistics() {
+        return executeReadOnlyTransaction(new SessionWork<List<SchedulerStatisticsData>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<SchedulerStatisticsData> doInTransaction(Session session) {
+                long now = System.currentTimeMillis();
+                Map<String, SchedulerStatisticsData> computed = new HashMap<>();
+                List<Object[]> jobRows = session.getNamedQuery("computeJobStatisticsByOwner").list();
+                for (Object[] row : jobRows) {
+                    SchedulerStatisticsData data = computedStatistics(computed, (String) row[0], now);
+                    data.submittedJobs = longValue(row[1]);
+                    data.firstSubmittedTime = longValue(row[2]);
+                    data.lastSubmittedTime = longValue(row[3]);
+                    data.startedJobs = longValue(row[4]);
+                    data.jobsPendingTime = longValue(row[5]);
+                    data.finishedJobs = longValue(row[6]);
+                    data.executedJobs = longValue(row[7]);
+                    data.jobsExecutionTime = longValue(row[8]);
+                }
+                List<Object[]> taskRows = session.getNamedQuery("computeTaskStatisticsByOwner").list();
+                for (Object[] row : taskRows) {
+                    SchedulerStatisticsData data = computedStatistics(computed, (String) row[0], now);
+                    data.finishedTasks = longValue(row[1]);
+                    data.tasksExecutionTime = longValue(row[2]);
+                }
+                if (computed.isEmpty()) {
+                    return Collections.emptyList();
+                }
+
+                SchedulerStatisticsData allUsers = new SchedulerStatisticsData(SchedulerStatistics.ALL_USERS);
+                for (SchedulerStatisticsData data : computed.values()) {
+                    allUsers.add(data);
+                }
+                List<SchedulerStatisticsData> result = new ArrayList<>(computed.values());
+                result.add(allUsers);
+                logger.info("Computed the statistics of " + computed.size() + " users");
+                return result;
+            }
+        });
+    }
+
+    private static SchedulerStatisticsData computedStatistics(Map<String, SchedulerStatisticsData> computed,
+            String username, long now) {
+        SchedulerStatisticsData data = computed.get(username);
+        if (data == null) {
+            data = new SchedulerStatisticsData(username);
+            data.lastUpdatedTime = now;
+            computed.put(username, data);
+        }
+        return data;
+    }
+
+    private static long longValue(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    /**
+     * Saves the statistics which changed since the previous save.
+     */
+    public void saveStatistics() {
+        final List<SchedulerStatisticsData> modified = statistics.takeModified();
+        if (modified.isEmpty()) {
+            return;
+        }
+        try {
+            executeReadWriteTransaction(new SessionWork<Void>() {
+                @Override
+                public Void doInTransaction(Session session) {
+                    for (SchedulerStatisticsData data : modified) {
+                        session.merge(data);
+                    }
+                    return null;
+                }
+            });
+        } catch (RuntimeException e) {
+            statistics.setModified(modified);
+            logger.warn("Failed to save the scheduler statistics", e);
+        }
+    }
+
+    public SchedulerStatistics getStatistics() {
+        return statistics;
+    }
+
+    private void setupHousekeeping() throws IOException {
+        HousekeepingArchive archive = null;
+        if (PASchedulerProperties.SCHEDULER_DB_HOUSEKEEPING_ARCHIVE_DIR.getValueAsStringOrNull() != null) {
+            File directory = new File(PASchedulerProperties.getAbsolutePath(PASchedulerProperties.SCHEDULER_DB_HOUSEKEEPING_ARCHIVE_DIR.getValueAsString()));
+            logger.info("Housekeeping archive directory: " + directory.getAbsolutePath());
+            archive = new HousekeepingArchive(directory);
+        }
+        setHousekeeping(PASchedulerProperties.SCHEDULER_DB_HOUSEKEEPING_CHUNK_SIZE.getValueAsInt(),
+                        PASchedulerProperties.SCHEDULER_DB_HOUSEKEEPING_CHUNK_DELAY.getValueAsInt(),
+                        PASchedulerProperties.SCHEDULER_DB_HOUSEKEEPING_TIME_BUDGET.getValueAsInt() * 1000L,
+                        archive);
+    }
+
     public void setupTableSizeMonitoring() {
         if (PASchedulerProperties.SCHEDULER_DB_SIZE_MONITORING_FREQ.isSet()) {
             tableSizeMonitorScheduler = new Scheduler();
@@ -304,6 +565,74 @@ public class SchedulerDBManager {
         return new Page<JobInfo>(lJobs, totalNbJobs);
     }
 
+    /**
+     * Reads a page of jobs with keyset pagination. Jobs are ordered by state (pending jobs first,
+     * then running jobs and finished jobs, as {@link GroupByStatusSortOrder}) and by decreasing id,
+     * which is also the reverse submission order.
+     *
+     * @param cursor the cursor returned with the previous page, or null to read the first page
+     * @param limit the maximum number of jobs to read, 0 to read all the remaining jobs
+     * @return the page of jobs, with an approximate total number of jobs
+     */
+    public CursorPage<JobInfo> getJobsAfter(final String cursor, final int limit, final String user,
+            final boolean pending, final boolean running, final boolean finished) {
+
+        if (!pending && !running && !finished) {
+            return new CursorPage<>(new ArrayList<JobInfo>(0), 0, null);
+        }
+
+        DBJobDataParameters params = new DBJobDataParameters(0, limit, user, pending, running, finished, null);
+        int totalNbJobs = getTotalNumberOfJobs(params);
+        final Set<JobStatus> jobStatuses = params.getStatuses();
+        final ListingCursor position = ListingCursor.parse(cursor);
+        final int firstGroup = position == null ? 0 : (int) position.getFirst();
+        final int[] lastGroup = new int[1];
+        List<JobInfo> lJobs = executeReadOnlyTransaction(new SessionWork<List<JobInfo>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<JobInfo> doInTransaction(Session session) {
+                List<JobInfo> result = new ArrayList<>();
+                for (int group = firstGroup; group < GroupByStatusSortOrder.STATUS_GROUPS.size(); group++) {
+                    Set<JobStatus> groupStatuses = new HashSet<>(GroupByStatusSortOrder.STATUS_GROUPS.get(group));
+                    groupStatuses.retainAll(jobStatuses);
+                    if (groupStatuses.isEmpty()) {
+                        continue;
+                    }
+
+                    Criteria criteria = session.createCriteria(JobData.class);
+                    if (limit > 0) {
+                        criteria.setMaxResults(limit - result.size());
+                    }
+                    if (user != null) {
+                        criteria.add(Restrictions.eq("owner", user));
+                    }
+                    criteria.add(Restrictions.in("status", groupStatuses));
+                    criteria.add(Restrictions.eq("removedTime", -1L));
+                    if (position != null && group == firstGroup) {
+                        criteria.add(Restrictions.lt("id", position.getSecond()));
+                    }
+                    criteria.addOrder(Order.desc("id"));
+
+                    for (JobData jobData : (List<JobData>) criteria.list()) {
+                        result.add(jobData.toJobInfo());
+                    }
+                    lastGroup[0] = group;
+                    if (limit > 0 && result.size() >= limit) {
+                        break;
+                    }
+                }
+                return result;
+            }
+        });
+
+        String nextCursor = null;
+        if (limit > 0 && lJobs.size() == limit) {
+            JobInfo lastJob = lJobs.get(lJobs.size() - 1);
+            nextCursor = ListingCursor.toString(lastGroup[0], lastJob.getJobId().longValue());
+        }
+        return new CursorPage<>(lJobs, totalNbJobs, nextCursor);
+    }
+
     public Page<TaskState> getTaskStates(final long from, final long to, final String tag, final int offset,
             final int limit, final String user, final boolean pending, final boolean running, final boolean finished,
             SortSpecifierContainer sortParams) {
@@ -324,6 +653,39 @@ public class SchedulerDBManager {
         return new Page<>(lTasks, totalNbTasks);
     }
 
+    /**
+     * Reads a page of tasks with keyset pagination. Tasks are ordered by job id and task id.
+     *
+     * @param cursor the cursor returned with the previous page, or null to read the first page
+     * @param limit the maximum number of tasks to read, 0 to read all the remaining tasks
+     * @return the page of tasks, with an approximate total number of tasks
+     */
+    public CursorPage<TaskState> getTaskStatesAfter(final long from, final long to, final String tag,
+            final String cursor, final int limit, final String user, final boolean pending, final boolean running,
+            final boolean finished) {
+
+        DBTaskDataParameters parameters = new DBTaskDataParameters(tag,
+                                                                   from,
+                                                                   to,
+                                                                   0,
+                                                                   limit,
+                                                                   user,
+                                                                   pending,
+                                                                   running,
+                                                                   finished,
+                                                                   SortSpecifierContainer.EMPTY_CONTAINER);
+        int totalNbTasks = getTotalNumberOfTasks(parameters);
+        List<TaskState> lTasks = executeReadOnlyTransaction(TaskDBUtils.taskStateSessionWork(parameters,
+                                                                                             ListingCursor.parse(cursor)));
+
+        String nextCursor = null;
+        if (limit > 0 && lTasks.size() == limit) {
+            TaskId lastTaskId = lTasks.get(lTasks.size() - 1).getId();
+            nextCursor = ListingCursor.toString(lastTaskId.getJobId().longValue(), lastTaskId.longValue());
+        }
+        return new CursorPage<>(lTasks, totalNbTasks, nextCursor);
+    }
+
     public Page<TaskInfo> getTasks(final long from, final long to, final String tag, final int offset, final int limit,
             final String user, final boolean pending, final boolean running, final boolean finished) {
 
@@ -344,14 +706,22 @@ public class SchedulerDBManager {
     }
 
     private int getTotalNumberOfTasks(final DBTaskDataParameters params) {
+        return getListingTotal(params.getListingKey(), TaskDBUtils.getTotalNumberOfTasks(params));
+    }
 
-        return executeReadOnlyTransaction(TaskDBUtils.getTotalNumberOfTasks(params));
-
+    private int getListingTotal(String listing, SessionWork<Integer> countSessionWork) {
+        Integer total = listingTotals.get(listing);
+        if (total == null) {
+            long generation = listingTotals.currentGeneration();
+            total = executeReadOnlyTransaction(countSessionWork);
+            listingTotals.put(listing, generation, total);
+        }
+        return total;
     }
 
     private int getTotalNumberOfJobs(final DBJobDataParameters params) {
 
-        return executeReadOnlyTransaction(new SessionWork<Integer>() {
+        return getListingTotal(params.getListingKey(), new SessionWork<Integer>() {
 
             @Override
             public Integer doInTransaction(Session session) {
@@ -430,15 +800,31 @@ public class SchedulerDBManager {
 
     public void close() {
         try {
+            if (statisticsTimer != null) {
+                statisticsTimer.cancel();
+            }
             if (sessionFactory != null) {
+                if (statistics != null) {
+                    saveStatistics();
+                }
                 logger.info("Closing session factory");
                 sessionFactory.close();
             }
+            if (transactionHelper != null) {
+                transactionHelper.shutdown();
+            }
         } catch (Exception e) {
             logger.error("Error while closing database", e);
         }
     }
 
+    /**
+     * @return the latency and retries statistics of the transactions of the scheduler database
+     */
+    public TransactionStatistics getTransactionStatistics() {
+        return transactionHelper.getStatistics();
+    }
+
     public long getFinishedJobsCount() {
         return getJobsNumberWithStatus(FINISHED_JOB_STATUSES);
     }
@@ -540,45 +926,15 @@ public class SchedulerDBManager {
     }
 
     public double getMeanJobPendingTime() {
-        return executeReadOnlyTransaction(new SessionWork<Double>() {
-            @Override
-            public Double doInTransaction(Session session) {
-                Query query = session.getNamedQuery("getMeanJobPendingTime");
-                Double result = (Double) query.uniqueResult();
-                return result == null ? 0 : result;
-            }
-
-        });
+        return statistics.getMeanJobPendingTime();
     }
 
     public double getMeanJobExecutionTime() {
-        return executeReadOnlyTransaction(new SessionWork<Double>() {
-            @Override
-            public Double doInTransaction(Session session) {
-                Query query = session.getNamedQuery("getMeanJobExecutionTime");
-                Double result = (Double) query.uniqueResult();
-                return result == null ? 0 : result;
-            }
-        });
+        return statistics.getMeanJobExecutionTime();
     }
 
     public double getMeanJobSubmittingPeriod() {
-        return executeReadOnlyTransaction(new SessionWork<Double>() {
-            @Override
-            public Double doInTransaction(Session session) {
-                Query query = session.getNamedQuery("getMeanJobSubmittingPeriod");
-                Object[] result = (Object[]) query.uniqueResult();
-                Long count = (Long) result[0];
-                Long minSubmittedTime = (Long) result[1];
-                Long maxSubmittedTime = (Long) result[2];
-                if (count < 2) {
-                    return 0d;
-                } else {
-                    return (maxSubmittedTime - minSubmittedTime) / (double) (count - 1);
-                }
-            }
-
-        });
+        return statistics.getMeanJobSubmittingPeriod();
     }
 
     public long getJobRunningTime(final String jobId) {
@@ -695,40 +1051,15 @@ public class SchedulerDBManager {
     }
 
     public SchedulerAccount readAccount(final String username) {
-        return executeReadOnlyTransaction(new SessionWork<SchedulerAccount>() {
-
-            @Override
-            public SchedulerAccount doInTransaction(Session session) {
-                Query tasksQuery = session.getNamedQuery("readAccountTasks").setParameter("username", username);
-
-                int taskCount;
-                long taskDuration;
-
-                Object[] taskResult = (Object[]) tasksQuery.uniqueResult();
-                taskCount = ((Number) taskResult[0]).intValue();
-                if (taskResult[1] != null) {
-                    taskDuration = ((Number) taskResult[1]).longValue();
-                } else {
-                    taskDuration = 0;
-                }
-
-                int jobCount;
-                long jobDuration;
-
-                Query jobQuery = session.getNamedQuery("readAccountJobs").setParameter("username", username);
-
-                Object[] jobResult = (Object[]) jobQuery.uniqueResult();
-                jobCount = ((Number) jobResult[0]).intValue();
-                if (jobResult[1] != null) {
-                    jobDuration = ((Number) jobResult[1]).longValue();
-                } else {
-                    jobDuration = 0;
-                }
-
-                return new SchedulerAccount(username, taskCount, taskDuration, jobCount, jobDuration);
-            }
-
-        });
+        SchedulerStatisticsData data = statistics.get(username);
+        if (data == null) {
+            return new SchedulerAccount(username, 0, 0, 0, 0);
+        }
+        return new SchedulerAccount(username,
+                                    (int) data.getFinishedTasks(),
+                                    data.getTasksExecutionTime(),
+                                    (int) data.getFinishedJobs(),
+                                    data.getJobsExecutionTime());
     }
 
     private void removeJobScripts(Session session, long jobId) {
@@ -781,17 +1112,119 @@ public class SchedulerDBManager {
         return jobIdsList;
     }
 
+    /**
+     * Removes the given jobs from the database, or marks them as removed.
+     * <p>
+     * Jobs are processed by chunks, each one in its own transaction, with a pause between two
+     * chunks. When the time budget of the housekeeping is exhausted, the remaining jobs are only
+     * marked as removed: as their scheduled removal time is still reached, they are deleted by
+     * the next housekeeping, even after a restart of the scheduler.
+     *
+     * @param jobIdList the jobs to remove
+     * @param shouldRemoveFromDb true to delete the jobs, false to only mark them as removed
+     */
     public void executeHousekeepingInDB(final List<Long> jobIdList, final boolean shouldRemoveFromDb) {
-        executeReadWriteTransaction(new HousekeepingSessionWork(jobIdList, shouldRemoveFromDb));
+        long housekeepingTime = System.currentTimeMillis();
+        List<Long> sortedJobIds = new ArrayList<>(jobIdList);
+        Collections.sort(sortedJobIds);
+        int chunkSize = housekeepingChunkSize > 0 ? housekeepingChunkSize : Math.max(sortedJobIds.size(), 1);
+        long deadline = housekeepingTimeBudget > 0 ? housekeepingTime + housekeepingTimeBudget : Long.MAX_VALUE;
+
+        int processedJobs = 0;
+        long affectedRows = 0;
+        long lockTime = 0;
+        long maxLockTime = 0;
+        while (processedJobs < sortedJobIds.size()) {
+            if (processedJobs > 0 && !pauseHousekeeping(deadline)) {
+                break;
+            }
+            List<Long> chunk = new ArrayList<>(sortedJobIds.subList(processedJobs,
+                                                                    Math.min(processedJobs + chunkSize,
+                                                                             sortedJobIds.size())));
+            HousekeepingSessionWork housekeepingSessionWork = new HousekeepingSessionWork(chunk,
+                                                                                          shouldRemoveFromDb,
+                                                                                          housekeepingArchive);
+            long chunkStart = System.currentTimeMillis();
+            executeListingChangingTransaction(housekeepingSessionWork);
+            long chunkTime = System.currentTimeMillis() - chunkStart;
+
+            processedJobs += chunk.size();
+            affectedRows += housekeepingSessionWork.getAffectedRows();
+            lockTime += chunkTime;
+            maxLockTime = Math.max(maxLockTime, chunkTime);
+            deleteOrphanedTaskResultContents(housekeepingSessionWork.getReleasedResultReferences(), housekeepingTime);
+        }
+
+        for (Long jobId : jobIdList) {
+            statistics.jobRemoved(jobId);
+        }
+
+        if (processedJobs < sortedJobIds.size()) {
+            List<Long> remainingJobIds = sortedJobIds.subList(processedJobs, sortedJobIds.size());
+            if (shouldRemoveFromDb) {
+                for (int i = 0; i < remainingJobIds.size(); i += chunkSize) {
+                    List<Long> chunk = new ArrayList<>(remainingJobIds.subList(i,
+                                                                               Math.min(i + chunkSize,
+                                                                                        remainingJobIds.size())));
+                    executeListingChangingTransaction(new HousekeepingSessionWork(chunk, false));
+                }
+            }
+            logger.info("Housekeeping time budget exhausted, " + remainingJobIds.size() +
+                        " jobs will be removed by the next housekeeping");
+        }
+
+        long duration = Math.max(System.currentTimeMillis() - housekeepingTime, 1);
+        logger.info("Housekeeping processed " + processedJobs + " jobs and " + affectedRows + " rows in " + duration +
+                    " ms (" + (affectedRows * 1000 / duration) + " rows/s), transactions took " + lockTime +
+                    " ms (longest " + maxLockTime + " ms)");
+    }
+
+    /**
+     * Waits between two chunks of the housekeeping.
+     *
+     * @return false if the housekeeping must stop, its time budget being exhausted
+     */
+    private boolean pauseHousekeeping(long deadline) {
+        if (System.currentTimeMillis() + housekeepingChunkDelay >= deadline) {
+            return false;
+        }
+        if (housekeepingChunkDelay > 0) {
+            try {
+                Thread.sleep(housekeepingChunkDelay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Configures the housekeeping of the database.
+     *
+     * @param chunkSize maximum number of jobs removed in one transaction, 0 for no limit
+     * @param chunkDelay pause (in milliseconds) between two transactions
+     * @param timeBudget maximum duration (in milliseconds) of a housekeeping, 0 for no limit
+     * @param archive archive to which removed jobs are written, or null to not archive them
+     */
+    public void setHousekeeping(int chunkSize, long chunkDelay, long timeBudget, HousekeepingArchive archive) {
+        this.housekeepingChunkSize = chunkSize;
+        this.housekeepingChunkDelay = Math.max(chunkDelay, 0);
+        this.housekeepingTimeBudget = timeBudget;
+        this.housekeepingArchive = archive;
     }
 
     public void removeJob(final JobId jobId, final long removedTime, final boolean removeData) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        long removalTime = System.currentTimeMillis();
+        Set<String> releasedResultReferences = executeListingChangingTransaction(new SessionWork<Set<String>>() {
             @Override
-            public Void doInTransaction(Session session) {
+            public Set<String> doInTransaction(Session session) {
                 long id = jobId(jobId);
+                Set<String> resultReferences = Collections.emptySet();
 
                 if (removeData) {
+                    resultReferences = loadTaskResultReferences(session, Collections.singletonList(id));
+
                     session.createSQLQuery("delete from TASK_DATA_DEPENDENCIES where JOB_ID = :jobId")
                            .setParameter("jobId", id)
                            .executeUpdate();
@@ -812,14 +1245,85 @@ public class SchedulerDBManager {
                            .setParameter("jobId", id)
                            .executeUpdate();
                 }
-                return null;
+                return resultReferences;
             }
 
         });
+        evictCachedTaskResults(jobId);
+        propagatedVariablesBases.remove(jobId(jobId));
+        statistics.jobRemoved(jobId(jobId));
+        deleteOrphanedTaskResultContents(releasedResultReferences, removalTime);
+    }
+
+    /**
+     * Returns the references of the results storage contents used by the task results of the given jobs.
+     */
+    @SuppressWarnings("unchecked")
+    static Set<String> loadTaskResultReferences(Session session, List<Long> jobIds) {
+        List<Object[]> rows = session.getNamedQuery("findTaskResultDataReferencesInBulk")
+                                     .setParameterList("jobIdList", jobIds)
+                                     .list();
+        return collectTaskResultReferences(rows);
+    }
+
+    private static Set<String> collectTaskResultReferences(List<Object[]> rows) {
+        Set<String> references = new HashSet<>(rows.size());
+        for (Object[] row : rows) {
+            for (Object reference : row) {
+                if (reference != null) {
+                    references.add((String) reference);
+                }
+            }
+        }
+        return references;
+    }
+
+    /**
+     * Delete from the results storage the contents which were used by removed task results and
+     * which are no longer referenced by any task result. Contents stored again after
+     * {@code removalTime} (i.e. shared with a result saved concurrently) are kept.
+     */
+    private void deleteOrphanedTaskResultContents(Set<String> releasedReferences, long removalTime) {
+        if (taskResultStorage == null || releasedReferences.isEmpty()) {
+            return;
+        }
+
+        Set<String> orphanedReferences = new HashSet<>(releasedReferences);
+        for (final List<String> references : Iterables.partition(releasedReferences,
+                                                                 TASK_RESULT_REFERENCES_BATCH_SIZE)) {
+            orphanedReferences.removeAll(executeReadOnlyTransaction(new SessionWork<Set<String>>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Set<String> doInTransaction(Session session) {
+                    List<Object[]> rows = session.getNamedQuery("findTaskResultDataReferences")
+                                                 .setParameterList("references", references)
+                                                 .list();
+                    return collectTaskResultReferences(rows);
+                }
+            }));
+        }
+
+        int deleted = 0;
+        for (String reference : orphanedReferences) {
+            try {
+                if (taskResultStorage.deleteIfUnmodifiedSince(reference, removalTime)) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to delete task result content " + reference, e);
+            }
+        }
+
+        logger.info("Deleted " + deleted + " orphaned task result contents out of " + releasedReferences.size() +
+                    " released");
     }
 
     public List<InternalJob> loadNotFinishedJobs(boolean fullState) {
-        return loadJobs(fullState, NOT_FINISHED_JOB_STATUSES, -1);
+        List<InternalJob> jobs = loadJobs(fullState, NOT_FINISHED_JOB_STATUSES, -1);
+        for (InternalJob job : jobs) {
+            statistics.jobRecovered(job);
+        }
+        return jobs;
     }
 
     public List<InternalJob> loadFinishedJobs(boolean fullState, long period) {
@@ -1033,7 +1537,7 @@ public class SchedulerDBManager {
     }
 
     public void jobTaskStarted(final InternalJob job, final InternalTask task, final boolean taskStatusToPending) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        executeListingChangingTransaction(new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
                 long jobId = jobId(job);
@@ -1073,10 +1577,11 @@ public class SchedulerDBManager {
             }
 
         });
+        statistics.jobUpdated(job);
     }
 
     public void taskRestarted(final InternalJob job, final InternalTask task, final TaskResultImpl result) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        executeListingChangingTransaction(new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
                 long jobId = jobId(job);
@@ -1118,7 +1623,7 @@ public class SchedulerDBManager {
     @SuppressWarnings("unchecked")
     public void updateAfterWorkflowTaskFinished(final InternalJob job, final ChangedTasksInfo changesInfo,
             final TaskResultImpl result) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        executeListingChangingTransaction(new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
                 long jobId = jobId(job);
@@ -1199,6 +1704,19 @@ public class SchedulerDBManager {
             }
 
         }, false);
+        cacheTaskResult(job, result.getTaskId(), result);
+
+        List<InternalTask> changedTasks = new ArrayList<>(changesInfo.getSkippedTasks().size() +
+                                                          changesInfo.getUpdatedTasks().size() + 1);
+        for (TaskId id : changesInfo.getSkippedTasks()) {
+            changedTasks.add(job.getIHMTasks().get(id));
+        }
+        for (TaskId id : changesInfo.getUpdatedTasks()) {
+            changedTasks.add(job.getIHMTasks().get(id));
+        }
+        changedTasks.add(job.getIHMTasks().get(result.getTaskId()));
+        statistics.tasksFinished(job, changedTasks);
+        statistics.jobUpdated(job);
     }
 
     public void updateAfterJobKilled(InternalJob job, Set<TaskId> tasksToUpdate) {
@@ -1211,7 +1729,7 @@ public class SchedulerDBManager {
     }
 
     public void updateJobAndTasksState(final InternalJob job) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        executeListingChangingTransaction(new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
 
@@ -1235,25 +1753,28 @@ public class SchedulerDBManager {
             }
 
         });
+        statistics.tasksFinished(job, job.getIHMTasks().values());
+        statistics.jobUpdated(job);
     }
 
+    /**
+     * Updates the scheduled time of all the tasks of the job, committed at once.
+     * The caller holds the lock of the job: the retries, if any, are executed in
+     * the background instead of holding it, and a final failure is only logged.
+     */
     public void updateTaskSchedulingTime(final InternalJob job, final long scheduledTime) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
-            @Override
-            public Void doInTransaction(Session session) {
-
-                for (TaskState task : job.getTasks()) {
-                    updateScheduledTime(job.getId().longValue(), task.getId().longValue(), scheduledTime);
-                }
-
-                return null;
-            }
-
-        });
+        UnitOfWork unitOfWork = new UnitOfWork();
+        for (TaskState task : job.getTasks()) {
+            unitOfWork.add(startOrEndOrScheduledTimeUpdate(job.getId().longValue(),
+                                                           task.getId().longValue(),
+                                                           "scheduledTime",
+                                                           scheduledTime));
+        }
+        transactionHelper.executeReadWriteTransactionAsync(unitOfWork);
     }
 
     public void updateTaskState(final TaskState task) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        executeListingChangingTransaction(new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
                 updateTaskData(task, session);
@@ -1291,9 +1812,13 @@ public class SchedulerDBManager {
         updateStartOrEndOrScheduledTime(jobId, taskId, "scheduledTime", newScheduledTime);
     }
 
-    private void updateStartOrEndOrScheduledTime(final long jobId, final long taskId, final String fieldName,
-            final long time) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+    private void updateStartOrEndOrScheduledTime(long jobId, long taskId, String fieldName, long time) {
+        executeReadWriteTransaction(startOrEndOrScheduledTimeUpdate(jobId, taskId, fieldName, time));
+    }
+
+    private SessionWork<Void> startOrEndOrScheduledTimeUpdate(final long jobId, final long taskId,
+            final String fieldName, final long time) {
+        return new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
 
@@ -1307,7 +1832,7 @@ public class SchedulerDBManager {
 
                 return null;
             }
-        });
+        };
     }
 
     public void updateAfterTaskFinished(final InternalJob job, final InternalTask finishedTask,
@@ -1317,7 +1842,7 @@ public class SchedulerDBManager {
 
     private void updateAfterTaskFinished(final InternalJob job, final InternalTask finishedTask,
             final TaskResultImpl result, final Set<TaskId> tasksToUpdate) {
-        executeReadWriteTransaction(new SessionWork<Void>() {
+        executeListingChangingTransaction(new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
                 long jobId = jobId(job);
@@ -1375,12 +1900,74 @@ public class SchedulerDBManager {
             }
 
         });
+        if (result != null) {
+            cacheTaskResult(job, finishedTask.getId(), result);
+        } else if (FINISHED_JOB_STATUSES.contains(job.getStatus())) {
+            evictCachedTaskResults(job.getId());
+        }
+
+        List<InternalTask> finishedTasks = new ArrayList<>(tasksToUpdate.size());
+        for (TaskId id : tasksToUpdate) {
+            finishedTasks.add(job.getIHMTasks().get(id));
+        }
+        statistics.tasksFinished(job, finishedTasks);
+        statistics.jobUpdated(job);
+    }
+
+    /**
+     * Keep a copy of the result of a terminated task in the results cache for its children, or
+     * evict the results of the job if it is finished.
+     */
+    private void cacheTaskResult(InternalJob job, TaskId taskId, TaskResultImpl result) {
+        if (taskResultCache == null) {
+            return;
+        }
+        if (FINISHED_JOB_STATUSES.contains(job.getStatus())) {
+            evictCachedTaskResults(job.getId());
+        } else {
+            taskResultCache.put(job, taskId, result);
+        }
+    }
+
+    private void evictCachedTaskResults(JobId jobId) {
+        if (taskResultCache != null) {
+            taskResultCache.removeJob(jobId);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Task results of job " + jobId + " evicted from cache: " + taskResultCache);
+            }
+        }
+    }
+
+    /**
+     * Notify that a task has been started: the cached results of its parents, or of their first
+     * not skipped ancestors, are evicted once all their children have been started.
+     *
+     * @param job the job of the started task
+     * @param task the started task
+     */
+    public void taskStartedWithParentResults(InternalJob job, InternalTask task) {
+        if (taskResultCache != null) {
+            taskResultCache.taskStarted(job, task);
+        }
     }
 
     private TaskResultData saveTaskResult(TaskData.DBTaskId taskId, TaskResultImpl result, Session session) {
         TaskData taskRuntimeData = session.load(TaskData.class, taskId);
 
-        TaskResultData resultData = TaskResultData.createTaskResultData(taskRuntimeData, result);
+        Map<String, byte[]> variablesBase = null;
+        if (result.getPropagatedVariables() != null && !result.getPropagatedVariables().isEmpty()) {
+            variablesBase = getPropagatedVariablesBase(session, taskId.getJobId());
+        }
+
+        TaskResultData resultData = TaskResultData.createTaskResultData(taskRuntimeData, result, variablesBase);
+        if (taskResultStorage != null) {
+            try {
+                resultData.moveContentToStorage(taskResultStorage, taskResultStorageThreshold);
+            } catch (IOException e) {
+                throw new DatabaseManagerException("Failed to store result of task " + result.getTaskId() +
+                                                   " in the results storage", e);
+            }
+        }
         session.save(resultData);
 
         return resultData;
@@ -1408,51 +1995,53 @@ public class SchedulerDBManager {
             throw new IllegalArgumentException("TaskIds list is empty");
         }
 
+        final Map<TaskId, TaskResult> resultsMap = new HashMap<>(taskIds.size());
+        final List<TaskId> notCachedTaskIds = new ArrayList<>(taskIds.size());
+        for (TaskId taskId : taskIds) {
+            TaskResult cachedResult = taskResultCache == null ? null : taskResultCache.get(taskId);
+            if (cachedResult == null) {
+                notCachedTaskIds.add(taskId);
+            } else {
+                resultsMap.put(taskId, cachedResult);
+            }
+        }
+        if (notCachedTaskIds.isEmpty()) {
+            return resultsMap;
+        }
+
         return executeReadOnlyTransaction(new SessionWork<Map<TaskId, TaskResult>>() {
 
             @Override
+            @SuppressWarnings("unchecked")
             public Map<TaskId, TaskResult> doInTransaction(Session session) {
-                JobData job = session.get(JobData.class, jobId(jobId));
-
-                if (job == null) {
-                    throw new DatabaseManagerException("Invalid job id: " + jobId);
+                // requested ids by database id, so that each loaded result is matched in constant time
+                Map<TaskData.DBTaskId, TaskId> requestedTaskIds = new HashMap<>(notCachedTaskIds.size());
+                for (TaskId taskId : notCachedTaskIds) {
+                    requestedTaskIds.put(taskId(taskId), taskId);
                 }
 
-                List<TaskData.DBTaskId> dbTaskIds = new ArrayList<>(taskIds.size());
-                for (TaskId taskId : taskIds) {
-                    dbTaskIds.add(taskId(taskId));
-                }
-
-                Query query = session.getNamedQuery("loadTasksResults").setParameterList("tasksIds", dbTaskIds);
+                List<Object[]> rows = session.getNamedQuery("loadTasksResults")
+                                             .setParameterList("tasksIds", requestedTaskIds.keySet())
+                                             .list();
 
-                JobResultImpl jobResult = loadJobResult(session, query, job, jobId);
-                if (jobResult == null) {
-                    throw new DatabaseManagerException("Failed to load result for tasks " + taskIds + " (job: " +
-                                                       jobId + ")");
+                for (Object[] row : rows) {
+                    TaskId taskId = requestedTaskIds.get((DBTaskId) row[1]);
+                    // results stored at the same time are both returned as the last one, keep only one
+                    if (taskId != null && !resultsMap.containsKey(taskId)) {
+                        resultsMap.put(taskId, toTaskResult(session, (TaskResultData) row[0], taskId));
+                    }
                 }
 
-                Map<TaskId, TaskResult> resultsMap = new HashMap<>(taskIds.size());
-                for (TaskId taskId : taskIds) {
-                    TaskResult taskResult = null;
-                    for (TaskResult result : jobResult.getAllResults().values()) {
-                        if (result.getTaskId().equals(taskId)) {
-                            taskResult = result;
-                            break;
+                for (TaskId taskId : notCachedTaskIds) {
+                    if (!resultsMap.containsKey(taskId)) {
+                        if (session.get(JobData.class, jobId(jobId)) == null) {
+                            throw new DatabaseManagerException("Invalid job id: " + jobId);
                         }
-                    }
-                    if (taskResult == null) {
                         throw new DatabaseManagerException("Failed to load result for task " + taskId + " (job: " +
                                                            jobId + ")");
-                    } else {
-                        resultsMap.put(taskId, taskResult);
                     }
                 }
 
-                if (jobResult.getAllResults().size() != taskIds.size()) {
-                    throw new DatabaseManagerException("Results: " + jobResult.getAllResults().size() + " " +
-                                                       taskIds.size());
-                }
-
                 return resultsMap;
             }
 
@@ -1460,6 +2049,46 @@ public class SchedulerDBManager {
 
     }
 
+    /**
+     * Load the status of the last result of each task of a job. Neither the values nor the
+     * exceptions, logs and variables of the results are read.
+     *
+     * @param jobId the job whose results are summarized
+     * @return the summaries of the task results by task name, or null if the job does not exist
+     */
+    public Map<String, TaskResultSummary> loadJobResultSummary(final JobId jobId) {
+        return executeReadOnlyTransaction(new SessionWork<Map<String, TaskResultSummary>>() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Map<String, TaskResultSummary> doInTransaction(Session session) {
+                long id = jobId(jobId);
+
+                if (session.get(JobData.class, id) == null) {
+                    return null;
+                }
+
+                List<Object[]> rows = session.getNamedQuery("loadJobResultSummary").setParameter("jobId", id).list();
+
+                Map<String, TaskResultSummary> summaries = new HashMap<>(rows.size());
+                for (Object[] row : rows) {
+                    DBTaskId dbTaskId = (DBTaskId) row[0];
+                    String taskName = (String) row[1];
+                    if (!summaries.containsKey(taskName)) {
+                        TaskId taskId = TaskIdImpl.createTaskId(jobId, taskName, dbTaskId.getTaskId());
+                        summaries.put(taskName,
+                                      new TaskResultSummary(taskId,
+                                                            ((Number) row[4]).intValue() != 0,
+                                                            Boolean.TRUE.equals(row[2]),
+                                                            (Long) row[3]));
+                    }
+                }
+                return summaries;
+            }
+
+        });
+    }
+
     public JobResult loadJobResult(final JobId jobId) {
         return executeReadOnlyTransaction(new SessionWork<JobResult>() {
 
@@ -1504,7 +2133,7 @@ public class SchedulerDBManager {
             boolean nextTask = !dbTaskId.equals(currentTaskId);
             if (nextTask) {
                 TaskId taskId = TaskIdImpl.createTaskId(jobId, taskName, dbTaskId.getTaskId());
-                jobResult.addTaskResult(taskName, resultData.toTaskResult(taskId), preciousResult);
+                jobResult.addTaskResult(taskName, toTaskResult(session, resultData, taskId), preciousResult);
                 currentTaskId = dbTaskId;
             }
 
@@ -1570,12 +2199,49 @@ public class SchedulerDBManager {
         if (results.isEmpty()) {
             return null;
         } else {
-            return results.get(0).toTaskResult(taskId);
+            return toTaskResult(session, results.get(0), taskId);
         }
     }
 
+    private TaskResultImpl toTaskResult(Session session, TaskResultData resultData, TaskId taskId) {
+        Map<String, byte[]> variablesBase = null;
+        if (resultData.hasPropagatedVariablesDelta()) {
+            variablesBase = getPropagatedVariablesBase(session, jobId(taskId.getJobId()));
+        }
+        return resultData.toTaskResult(taskId, taskResultStorage, variablesBase);
+    }
+
+    /**
+     * Get the serialized variables of a job, as propagated to its tasks, from the cache or from
+     * the variables stored with the job.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, byte[]> getPropagatedVariablesBase(Session session, long jobId) {
+        Map<String, byte[]> variablesBase = propagatedVariablesBases.get(jobId);
+        if (variablesBase == null) {
+            Map<String, JobVariable> variables = (Map<String, JobVariable>) session.getNamedQuery("loadJobDataVariables")
+                                                                                   .setParameter("jobId", jobId)
+                                                                                   .uniqueResult();
+            variablesBase = toPropagatedVariablesBase(variables);
+            propagatedVariablesBases.put(jobId, variablesBase);
+        }
+        return variablesBase;
+    }
+
+    static Map<String, byte[]> toPropagatedVariablesBase(Map<String, JobVariable> variables) {
+        if (variables == null || variables.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Serializable> values = new HashMap<>(variables.size());
+        for (JobVariable variable : variables.values()) {
+            values.put(variable.getName(), variable.getValue());
+        }
+        return Collections.unmodifiableMap(SerializationUtil.serializeVariableMap(values));
+    }
+
     public void newJobSubmitted(final InternalJob job) {
-        executeReadWriteTransaction(new SessionWork<JobData>() {
+        long start = System.nanoTime();
+        executeListingChangingTransaction(new SessionWork<JobData>() {
 
             @Override
             public JobData doInTransaction(Session session) {
@@ -1583,6 +2249,7 @@ public class SchedulerDBManager {
                 session.save(jobRuntimeData);
 
                 job.setId(new JobIdImpl(jobRuntimeData.getId(), job.getName()));
+                propagatedVariablesBases.put(jobRuntimeData.getId(), toPropagatedVariablesBase(job.getVariables()));
 
                 ArrayList<InternalTask> iTasks = job.getITasks();
                 List<InternalTask> tasksWithNewIds = new ArrayList<>(iTasks.size());
@@ -1596,12 +2263,9 @@ public class SchedulerDBManager {
                     tasksWithNewIds.add(task);
                 }
 
-                job.getIHMTasks().clear();
-
-                for (InternalTask task : tasksWithNewIds) {
-                    job.getIHMTasks().put(task.getId(), task);
-                }
+                job.setTasks(tasksWithNewIds);
 
+                // the tasks are only inserted by the flush done on commit, in JDBC batches
                 List<InternalTask> tasks = job.getITasks();
                 List<TaskData> taskRuntimeDataList = new ArrayList<>(tasks.size());
                 for (InternalTask task : tasks) {
@@ -1613,6 +2277,26 @@ public class SchedulerDBManager {
             }
 
         });
+        jobSubmissionPersisted(job, System.nanoTime() - start);
+        statistics.jobSubmitted(job);
+    }
+
+    private void jobSubmissionPersisted(InternalJob job, long duration) {
+        int numberOfTasks = job.getIHMTasks().size();
+        submittedTasksCount.addAndGet(numberOfTasks);
+        submittedTasksPersistenceTime.addAndGet(duration);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Job " + job.getId() + " with " + numberOfTasks + " tasks saved in " +
+                         TimeUnit.NANOSECONDS.toMillis(duration) + " ms");
+        }
+    }
+
+    /**
+     * @return the mean time (in microseconds) spent saving a task of the submitted jobs
+     */
+    public long getMeanTaskSubmissionTime() {
+        long count = submittedTasksCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(submittedTasksPersistenceTime.get()) / count;
     }
 
     private TaskData getTaskReference(Session session, InternalTask task) {
@@ -1732,6 +2416,18 @@ public class SchedulerDBManager {
         return transactionHelper.executeReadWriteTransaction(sessionWork, readOnlyEntities);
     }
 
+    /**
+     * Executes a read/write transaction which submits or removes jobs, or changes the status of
+     * jobs or tasks. The totals of the job and task listings are outdated once it is committed.
+     */
+    private <T> T executeListingChangingTransaction(SessionWork<T> sessionWork) {
+        try {
+            return executeReadWriteTransaction(sessionWork);
+        } finally {
+            listingTotals.invalidate();
+        }
+    }
+
     public <T> T executeReadOnlyTransaction(SessionWork<T> sessionWork) {
         return transactionHelper.executeReadOnlyTransaction(sessionWork);
     }
@@ -0,0 +1,254 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ow2.proactive.scheduler.common.task.TaskInfo;
+import org.ow2.proactive.scheduler.common.task.TaskState;
+import org.ow2.proactive.scheduler.job.InternalJob;
+
+
+/**
+ * Statistics of the jobs and tasks of each user and of all users, maintained from the job
+ * and task events of the database manager so that they can be read without querying the
+ * job and task tables.
+ * <p>
+ * Jobs are followed from their submission (or their recovery) until they finish, in order to
+ * count their start, their end and the end of their tasks only once. The statistics which
+ * changed since the last call to {@link #takeModified()} are returned by this method, to be
+ * saved in the database.
+ */
+public class SchedulerStatistics {
+
+    /** Name of the statistics of all users (not empty, as some databases store empty strings as null) */
+    public static final String ALL_USERS = "*";
+
+    private final Map<String, SchedulerStatisticsData> statistics = new HashMap<>();
+
+    private final Set<String> modified = new HashSet<>();
+
+    private final Map<Long, FollowedJob> followedJobs = new HashMap<>();
+
+    public SchedulerStatistics(Collection<SchedulerStatisticsData> savedStatistics) {
+        for (SchedulerStatisticsData data : savedStatistics) {
+            statistics.put(data.getUsername(), data.copy());
+        }
+    }
+
+    public synchronized void jobSubmitted(InternalJob job) {
+        follow(job);
+        long submittedTime = job.getSubmittedTime();
+        for (SchedulerStatisticsData data : statistics(job.getOwner())) {
+            data.submittedJobs++;
+            if (data.firstSubmittedTime <= 0 || submittedTime < data.firstSubmittedTime) {
+                data.firstSubmittedTime = submittedTime;
+            }
+            data.lastSubmittedTime = Math.max(data.lastSubmittedTime, submittedTime);
+        }
+    }
+
+    /**
+     * Follows a job which is not finished and was already counted, after a restart of the scheduler.
+     */
+    public synchronized void jobRecovered(InternalJob job) {
+        if (followedJobs.containsKey(job.getId().longValue())) {
+            return;
+        }
+        FollowedJob followedJob = follow(job);
+        followedJob.started = job.getStartTime() > 0;
+        for (TaskState task : job.getIHMTasks().values()) {
+            TaskInfo taskInfo = task.getTaskInfo();
+            if (taskInfo.getFinishedTime() > 0) {
+                followedJob.finishedTasks.put(taskInfo.getTaskId().longValue(), executionTime(taskInfo));
+            }
+        }
+    }
+
+    /**
+     * Counts the start or the end of the job if it started or finished since the previous call.
+     */
+    public synchronized void jobUpdated(InternalJob job) {
+        FollowedJob followedJob = followedJobs.get(job.getId().longValue());
+        if (followedJob == null) {
+            return;
+        }
+        long startTime = job.getStartTime();
+        if (!followedJob.started && startTime > 0) {
+            followedJob.started = true;
+            for (SchedulerStatisticsData data : statistics(followedJob.owner)) {
+                data.startedJobs++;
+                data.jobsPendingTime += startTime - job.getSubmittedTime();
+            }
+        }
+        if (SchedulerDBManager.FINISHED_JOB_STATUSES.contains(job.getStatus())) {
+            followedJobs.remove(job.getId().longValue());
+            long finishedTime = job.getFinishedTime();
+            for (SchedulerStatisticsData data : statistics(followedJob.owner)) {
+                data.finishedJobs++;
+                if (startTime > 0 && finishedTime > 0) {
+                    data.executedJobs++;
+                    data.jobsExecutionTime += finishedTime - startTime;
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the given tasks if they finished. The execution time of a task which finishes again
+     * after a restart replaces the previous one.
+     */
+    public synchronized void tasksFinished(InternalJob job, Collection<? extends TaskState> tasks) {
+        FollowedJob followedJob = followedJobs.get(job.getId().longValue());
+        if (followedJob == null) {
+            return;
+        }
+        for (TaskState task : tasks) {
+            TaskInfo taskInfo = task.getTaskInfo();
+            if (taskInfo.getFinishedTime() <= 0) {
+                continue;
+            }
+            long executionTime = executionTime(taskInfo);
+            Long previousExecutionTime = followedJob.finishedTasks.put(taskInfo.getTaskId().longValue(),
+                                                                       executionTime);
+            for (SchedulerStatisticsData data : statistics(followedJob.owner)) {
+                if (previousExecutionTime == null) {
+                    data.finishedTasks++;
+                    data.tasksExecutionTime += executionTime;
+                } else {
+                    data.tasksExecutionTime += executionTime - previousExecutionTime;
+                }
+            }
+        }
+    }
+
+    public synchronized void jobRemoved(long jobId) {
+        followedJobs.remove(jobId);
+    }
+
+    /**
+     * @return a copy of the statistics of the given user, or null if the user has no job
+     */
+    public synchronized SchedulerStatisticsData get(String username) {
+        SchedulerStatisticsData data = statistics.get(username);
+        return data == null ? null : data.copy();
+    }
+
+    public synchronized double getMeanJobPendingTime() {
+        SchedulerStatisticsData data = allUsers();
+        return data.startedJobs == 0 ? 0 : data.jobsPendingTime / (double) data.startedJobs;
+    }
+
+    public synchronized double getMeanJobExecutionTime() {
+        SchedulerStatisticsData data = allUsers();
+        return data.executedJobs == 0 ? 0 : data.jobsExecutionTime / (double) data.executedJobs;
+    }
+
+    public synchronized double getMeanJobSubmittingPeriod() {
+        SchedulerStatisticsData data = allUsers();
+        if (data.submittedJobs < 2) {
+            return 0;
+        }
+        return (data.lastSubmittedTime - data.firstSubmittedTime) / (double) (data.submittedJobs - 1);
+    }
+
+    /**
+     * @return copies of the statistics which changed since the previous call
+     */
+    public synchronized List<SchedulerStatisticsData> takeModified() {
+        List<SchedulerStatisticsData> result = new ArrayList<>(modified.size());
+        for (String username : modified) {
+            result.add(statistics.get(username).copy());
+        }
+        modified.clear();
+        return result;
+    }
+
+    /**
+     * Marks statistics as modified again, when they could not be saved.
+     */
+    public synchronized void setModified(Collection<SchedulerStatisticsData> notSaved) {
+        for (SchedulerStatisticsData data : notSaved) {
+            modified.add(data.getUsername());
+        }
+    }
+
+    private FollowedJob follow(InternalJob job) {
+        FollowedJob followedJob = new FollowedJob(job.getOwner());
+        followedJobs.put(job.getId().longValue(), followedJob);
+        return followedJob;
+    }
+
+    private SchedulerStatisticsData allUsers() {
+        SchedulerStatisticsData data = statistics.get(ALL_USERS);
+        return data == null ? new SchedulerStatisticsData(ALL_USERS) : data;
+    }
+
+    /**
+     * @return the statistics of the given user and of all users, marked as modified
+     */
+    private List<SchedulerStatisticsData> statistics(String owner) {
+        List<SchedulerStatisticsData> result = new ArrayList<>(2);
+        long now = System.currentTimeMillis();
+        boolean anonymous = owner == null || owner.isEmpty() || ALL_USERS.equals(owner);
+        String[] usernames = anonymous ? new String[] { ALL_USERS } : new String[] { owner, ALL_USERS };
+        for (String username : usernames) {
+            SchedulerStatisticsData data = statistics.get(username);
+            if (data == null) {
+                data = new SchedulerStatisticsData(username);
+                statistics.put(username, data);
+            }
+            data.lastUpdatedTime = now;
+            modified.add(username);
+            result.add(data);
+        }
+        return result;
+    }
+
+    private static long executionTime(TaskInfo taskInfo) {
+        return taskInfo.getStartTime() > 0 ? taskInfo.getFinishedTime() - taskInfo.getStartTime() : 0;
+    }
+
+    private static final class FollowedJob {
+
+        private final String owner;
+
+        private final Map<Long, Long> finishedTasks = new HashMap<>();
+
+        private boolean started;
+
+        private FollowedJob(String owner) {
+            this.owner = owner;
+        }
+    }
+
+}
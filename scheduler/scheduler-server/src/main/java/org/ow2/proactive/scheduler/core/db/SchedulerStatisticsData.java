@@ -0,0 +1,193 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+
+/**
+ * Counters and sums of durations of the jobs and tasks of a user, or of all users, maintained
+ * by {@link SchedulerStatistics} and saved periodically.
+ */
+@Entity
+@NamedQueries({ @NamedQuery(name = "loadSchedulerStatistics", query = "from SchedulerStatisticsData"),
+                @NamedQuery(name = "computeJobStatisticsByOwner", query = "select owner, count(*), min(submittedTime), max(submittedTime), " +
+                                                                          "sum(case when startTime > 0 and submittedTime > 0 then 1 else 0 end), " +
+                                                                          "sum(case when startTime > 0 and submittedTime > 0 then startTime - submittedTime else 0 end), " +
+                                                                          "sum(case when finishedTime > 0 then 1 else 0 end), " +
+                                                                          "sum(case when startTime > 0 and finishedTime > 0 then 1 else 0 end), " +
+                                                                          "sum(case when startTime > 0 and finishedTime > 0 then finishedTime - startTime else 0 end) " +
+                                                                          "from JobData group by owner"),
+                @NamedQuery(name = "computeTaskStatisticsByOwner", query = "select task.jobData.owner, count(*), " +
+                                                                           "sum(case when task.startTime > 0 then task.finishedTime - task.startTime else 0 end) " +
+                                                                           "from TaskData task where task.finishedTime > 0 group by task.jobData.owner") })
+@Table(name = "SCHEDULER_STATISTICS")
+public class SchedulerStatisticsData implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "USERNAME")
+    String username;
+
+    /** Number of submitted jobs */
+    @Column(name = "SUBMITTED_JOBS")
+    long submittedJobs;
+
+    @Column(name = "FIRST_SUBMITTED_TIME")
+    long firstSubmittedTime;
+
+    @Column(name = "LAST_SUBMITTED_TIME")
+    long lastSubmittedTime;
+
+    /** Number of started jobs, and sum of the time they spent pending */
+    @Column(name = "STARTED_JOBS")
+    long startedJobs;
+
+    @Column(name = "JOBS_PENDING_TIME")
+    long jobsPendingTime;
+
+    /** Number of finished jobs, including the jobs killed before they started */
+    @Column(name = "FINISHED_JOBS")
+    long finishedJobs;
+
+    /** Number of jobs which started and finished, and sum of their execution times */
+    @Column(name = "EXECUTED_JOBS")
+    long executedJobs;
+
+    @Column(name = "JOBS_EXECUTION_TIME")
+    long jobsExecutionTime;
+
+    /** Number of finished tasks, and sum of their execution times */
+    @Column(name = "FINISHED_TASKS")
+    long finishedTasks;
+
+    @Column(name = "TASKS_EXECUTION_TIME")
+    long tasksExecutionTime;
+
+    @Column(name = "LAST_UPDATED_TIME")
+    long lastUpdatedTime;
+
+    public SchedulerStatisticsData() {
+    }
+
+    public SchedulerStatisticsData(String username) {
+        this.username = username;
+    }
+
+    SchedulerStatisticsData copy() {
+        SchedulerStatisticsData copy = new SchedulerStatisticsData(username);
+        copy.submittedJobs = submittedJobs;
+        copy.firstSubmittedTime = firstSubmittedTime;
+        copy.lastSubmittedTime = lastSubmittedTime;
+        copy.startedJobs = startedJobs;
+        copy.jobsPendingTime = jobsPendingTime;
+        copy.finishedJobs = finishedJobs;
+        copy.executedJobs = executedJobs;
+        copy.jobsExecutionTime = jobsExecutionTime;
+        copy.finishedTasks = finishedTasks;
+        copy.tasksExecutionTime = tasksExecutionTime;
+        copy.lastUpdatedTime = lastUpdatedTime;
+        return copy;
+    }
+
+    /**
+     * Adds the counters and durations of the given statistics to these statistics.
+     */
+    void add(SchedulerStatisticsData other) {
+        if (other.submittedJobs > 0) {
+            if (submittedJobs == 0 || other.firstSubmittedTime < firstSubmittedTime) {
+                firstSubmittedTime = other.firstSubmittedTime;
+            }
+            lastSubmittedTime = Math.max(lastSubmittedTime, other.lastSubmittedTime);
+        }
+        submittedJobs += other.submittedJobs;
+        startedJobs += other.startedJobs;
+        jobsPendingTime += other.jobsPendingTime;
+        finishedJobs += other.finishedJobs;
+        executedJobs += other.executedJobs;
+        jobsExecutionTime += other.jobsExecutionTime;
+        finishedTasks += other.finishedTasks;
+        tasksExecutionTime += other.tasksExecutionTime;
+        lastUpdatedTime = Math.max(lastUpdatedTime, other.lastUpdatedTime);
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public long getSubmittedJobs() {
+        return submittedJobs;
+    }
+
+    public long getFirstSubmittedTime() {
+        return firstSubmittedTime;
+    }
+
+    public long getLastSubmittedTime() {
+        return lastSubmittedTime;
+    }
+
+    public long getStartedJobs() {
+        return startedJobs;
+    }
+
+    public long getJobsPendingTime() {
+        return jobsPendingTime;
+    }
+
+    public long getFinishedJobs() {
+        return finishedJobs;
+    }
+
+    public long getExecutedJobs() {
+        return executedJobs;
+    }
+
+    public long getJobsExecutionTime() {
+        return jobsExecutionTime;
+    }
+
+    public long getFinishedTasks() {
+        return finishedTasks;
+    }
+
+    public long getTasksExecutionTime() {
+        return tasksExecutionTime;
+    }
+
+    public long getLastUpdatedTime() {
+        return lastUpdatedTime;
+    }
+
+}
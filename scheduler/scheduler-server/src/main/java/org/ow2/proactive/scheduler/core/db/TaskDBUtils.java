@@ -101,6 +101,61 @@ public class TaskDBUtils {
         };
     }
 
+    /**
+     * Reads the tasks following the given position, ordered by job id and task id.
+     *
+     * @param position the job id and task id of the last task already read, or null to read the first tasks
+     */
+    static SessionWork<List<TaskState>> taskStateSessionWork(final DBTaskDataParameters params,
+            final ListingCursor position) {
+        return new SessionWork<List<TaskState>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<TaskState> doInTransaction(Session session) {
+                if (params.getStatuses().isEmpty()) {
+                    return new ArrayList<TaskState>(0);
+                }
+
+                StringBuilder queryString = new StringBuilder("select T from TaskData T where ");
+                queryString.append(getQueryFilteringExpression(params.hasUser(),
+                                                               params.hasTag(),
+                                                               params.hasDateFrom(),
+                                                               params.hasDateTo(),
+                                                               SortSpecifierContainer.EMPTY_CONTAINER));
+                if (position != null) {
+                    queryString.append("and ( T.id.jobId > :lastJobId " +
+                                       "or ( T.id.jobId = :lastJobId and T.id.taskId > :lastTaskId ) ) ");
+                }
+                queryString.append("order by T.id.jobId ASC, T.id.taskId ASC");
+
+                Query query = session.createQuery(queryString.toString());
+                setQueryParameters(params.getStatuses(),
+                                   params.hasUser(),
+                                   params.hasTag(),
+                                   params.hasDateFrom(),
+                                   params.hasDateTo(),
+                                   query,
+                                   params);
+                if (position != null) {
+                    query.setParameter("lastJobId", position.getFirst());
+                    query.setParameter("lastTaskId", position.getSecond());
+                }
+                if (params.getLimit() > 0) {
+                    query.setMaxResults(params.getLimit());
+                }
+
+                List<TaskData> tasksList = query.list();
+                List<TaskState> result = new ArrayList<TaskState>(tasksList.size());
+
+                for (TaskData taskData : tasksList) {
+                    result.add(taskData.toTaskState());
+                }
+
+                return result;
+            }
+        };
+    }
+
     public static SessionWork<List<TaskInfo>> taskInfoSessionWork(final DBTaskDataParameters params) {
         return new SessionWork<List<TaskInfo>>() {
             @Override
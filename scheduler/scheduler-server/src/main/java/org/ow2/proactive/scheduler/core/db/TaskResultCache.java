@@ -0,0 +1,372 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ow2.proactive.scheduler.common.job.JobId;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.TaskLogs;
+import org.ow2.proactive.scheduler.common.task.TaskResult;
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+import org.ow2.proactive.scheduler.task.internal.InternalTaskParentFinder;
+
+
+/**
+ * Bounded in-memory cache of the results of terminated tasks, used to start their children
+ * without reading and deserializing the same results from the database again.
+ * <p>
+ * A result is cached when its task terminates, together with the children that still have to
+ * start. The entry is evicted once all these children have started, when the job terminates,
+ * or when the total size of the cached results exceeds the size budget (least recently used
+ * entries first). A result missing from the cache is simply loaded from the database.
+ * <p>
+ * Results are kept in their database form and each reader gets its own copy, since the children
+ * of a task merge and modify the results of their parents. A child whose parents were skipped
+ * reads the results of their first not skipped ancestors instead (see
+ * {@link InternalTaskParentFinder}), it is then a pending child of these ancestors.
+ */
+public class TaskResultCache implements TaskResultCacheMBean {
+
+    /** Estimated memory used by an entry in addition to the contents of its result */
+    static final int ENTRY_OVERHEAD = 512;
+
+    private final long maxSize;
+
+    // task ids are only unique within a job
+    private final LinkedHashMap<TaskKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<JobId, JobChildren> jobChildren = new HashMap<>();
+
+    private long size;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    /**
+     * @param maxSize size budget in bytes of the cached results
+     */
+    public TaskResultCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Cache the result of a terminated task until all its children have started. Results of
+     * tasks without children and results larger than the size budget are not cached.
+     *
+     * @param job the job of the terminated task
+     * @param taskId id of the terminated task
+     * @param result the result of the task, which is copied
+     */
+    public synchronized void put(InternalJob job, TaskId taskId, TaskResultImpl result) {
+        remove(taskId);
+
+        Set<TaskId> children = getChildren(job, taskId);
+        if (children.isEmpty()) {
+            return;
+        }
+
+        long resultSize = estimateSize(result);
+        if (resultSize > maxSize) {
+            return;
+        }
+
+        // detached from the result, which the scheduler keeps using
+        TaskResultData resultData = TaskResultData.createTaskResultData(null, result);
+        resultData.setPropagatedVariables(copyOf(resultData.getPropagatedVariables()));
+        resultData.setMetadata(copyOf(resultData.getMetadata()));
+
+        entries.put(new TaskKey(taskId), new Entry(resultData, new HashSet<>(children), resultSize));
+        size += resultSize;
+
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.size;
+            evictions++;
+        }
+    }
+
+    /**
+     * Returns a copy of the cached result of the given task, or null if it is not in the cache.
+     */
+    public synchronized TaskResult get(TaskId taskId) {
+        Entry entry = entries.get(new TaskKey(taskId));
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        TaskResultImpl result = entry.resultData.toTaskResult(taskId);
+        result.setPropagatedVariables(copyOf(result.getPropagatedVariables()));
+        result.setMetadata(copyOf(result.getMetadata()));
+        return result;
+    }
+
+    /**
+     * Notify the cache that the given task has started: the results of its parents, or of their
+     * first not skipped ancestors, are evicted once all their children have started.
+     */
+    public synchronized void taskStarted(InternalJob job, InternalTask task) {
+        List<InternalTask> parents = task.getIDependences();
+        if (parents == null) {
+            return;
+        }
+        for (InternalTask parent : parents) {
+            childStarted(job, parent, task.getId(), new ArrayList<InternalTask>());
+        }
+    }
+
+    /*
+     * The given child read the result of the given parent, or the results of its first not
+     * skipped ancestors if it was skipped. The skipped tasks between these ancestors and the
+     * child never start, their children become the pending children of the ancestors instead.
+     */
+    private void childStarted(InternalJob job, InternalTask parent, TaskId childId,
+            List<InternalTask> skippedTasks) {
+        if (parent.getStatus() == TaskStatus.SKIPPED) {
+            List<InternalTask> grandParents = parent.getIDependences();
+            if (grandParents != null) {
+                skippedTasks.add(0, parent);
+                for (InternalTask grandParent : grandParents) {
+                    childStarted(job, grandParent, childId, skippedTasks);
+                }
+                skippedTasks.remove(0);
+            }
+            return;
+        }
+
+        Entry entry = entries.get(new TaskKey(parent.getId()));
+        if (entry == null) {
+            return;
+        }
+        // from the closest skipped task to the ancestor down to the child
+        for (InternalTask skippedTask : skippedTasks) {
+            if (entry.pendingChildren.remove(skippedTask.getId())) {
+                entry.pendingChildren.addAll(getChildren(job, skippedTask.getId()));
+            }
+        }
+        entry.pendingChildren.remove(childId);
+        if (entry.pendingChildren.isEmpty()) {
+            remove(parent.getId());
+        }
+    }
+
+    /**
+     * Evict the results of all the tasks of the given job.
+     */
+    public synchronized void removeJob(JobId jobId) {
+        jobChildren.remove(jobId);
+
+        Iterator<Map.Entry<TaskKey, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<TaskKey, Entry> entry = iterator.next();
+            if (entry.getKey().jobId == jobId.longValue()) {
+                iterator.remove();
+                size -= entry.getValue().size;
+            }
+        }
+    }
+
+    @Override
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    @Override
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized long getSize() {
+        return size;
+    }
+
+    @Override
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public synchronized int getNumberOfEntries() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TaskResultCache{entries=" + entries.size() + ", size=" + size + "/" + maxSize + " bytes, hits=" +
+               hits + ", misses=" + misses + ", hitRatio=" + String.format("%.2f", getHitRatio()) +
+               ", evictions=" + evictions + "}";
+    }
+
+    private void remove(TaskId taskId) {
+        Entry entry = entries.remove(new TaskKey(taskId));
+        if (entry != null) {
+            size -= entry.size;
+        }
+    }
+
+    private Set<TaskId> getChildren(InternalJob job, TaskId taskId) {
+        JobChildren children = jobChildren.get(job.getId());
+        // tasks are only added to a job (replication, loops), the index is rebuilt when it happens
+        if (children == null || children.numberOfTasks != job.getIHMTasks().size()) {
+            children = new JobChildren(job.getIHMTasks().values());
+            jobChildren.put(job.getId(), children);
+        }
+        Set<TaskId> taskChildren = children.children.get(taskId);
+        if (taskChildren == null) {
+            return new HashSet<>(0);
+        }
+        return taskChildren;
+    }
+
+    private static <K, V> Map<K, V> copyOf(Map<K, V> map) {
+        return map == null ? null : new HashMap<>(map);
+    }
+
+    static long estimateSize(TaskResult result) {
+        long resultSize = ENTRY_OVERHEAD;
+        if (result.getSerializedValue() != null) {
+            resultSize += result.getSerializedValue().length;
+        }
+        Map<String, byte[]> propagatedVariables = result.getPropagatedVariables();
+        if (propagatedVariables != null) {
+            for (Map.Entry<String, byte[]> variable : propagatedVariables.entrySet()) {
+                resultSize += variable.getKey().length() * 2;
+                if (variable.getValue() != null) {
+                    resultSize += variable.getValue().length;
+                }
+            }
+        }
+        TaskLogs logs = result.getOutput();
+        if (logs != null) {
+            String allLogs = logs.getAllLogs(false);
+            if (allLogs != null) {
+                resultSize += allLogs.length() * 2;
+            }
+        }
+        return resultSize;
+    }
+
+    private static final class TaskKey {
+
+        private final long jobId;
+
+        private final long taskId;
+
+        TaskKey(TaskId taskId) {
+            this.jobId = taskId.getJobId().longValue();
+            this.taskId = taskId.longValue();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TaskKey)) {
+                return false;
+            }
+            TaskKey other = (TaskKey) o;
+            return jobId == other.jobId && taskId == other.taskId;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (int) (jobId ^ (jobId >>> 32)) + (int) (taskId ^ (taskId >>> 32));
+        }
+    }
+
+    private static final class Entry {
+
+        private final TaskResultData resultData;
+
+        private final Set<TaskId> pendingChildren;
+
+        private final long size;
+
+        Entry(TaskResultData resultData, Set<TaskId> pendingChildren, long size) {
+            this.resultData = resultData;
+            this.pendingChildren = pendingChildren;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Children of the tasks of a job, built from the dependencies of the tasks.
+     */
+    private static final class JobChildren {
+
+        private final int numberOfTasks;
+
+        private final Map<TaskId, Set<TaskId>> children = new HashMap<>();
+
+        JobChildren(Collection<InternalTask> tasks) {
+            numberOfTasks = tasks.size();
+            for (InternalTask task : tasks) {
+                List<InternalTask> parents = task.getIDependences();
+                if (parents == null) {
+                    continue;
+                }
+                for (InternalTask parent : parents) {
+                    Set<TaskId> parentChildren = children.get(parent.getId());
+                    if (parentChildren == null) {
+                        parentChildren = new HashSet<>();
+                        children.put(parent.getId(), parentChildren);
+                    }
+                    parentChildren.add(task.getId());
+                }
+            }
+        }
+    }
+}
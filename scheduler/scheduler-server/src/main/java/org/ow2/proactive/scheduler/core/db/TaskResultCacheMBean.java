@@ -0,0 +1,70 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+/**
+ * Management interface of the statistics of the {@link TaskResultCache}.
+ *
+ * @author ActiveEon Team
+ */
+public interface TaskResultCacheMBean {
+
+    /**
+     * @return the number of task results found in the cache
+     */
+    long getHits();
+
+    /**
+     * @return the number of task results missing from the cache, and read from the database
+     */
+    long getMisses();
+
+    /**
+     * @return the ratio of task results found in the cache, between 0 and 1
+     */
+    double getHitRatio();
+
+    /**
+     * @return the number of results evicted before all the children of their task have started
+     */
+    long getEvictions();
+
+    /**
+     * @return the number of cached task results
+     */
+    int getNumberOfEntries();
+
+    /**
+     * @return the estimated memory used by the cached results, in bytes
+     */
+    long getSize();
+
+    /**
+     * @return the size budget of the cached results, in bytes
+     */
+    long getMaxSize();
+
+}
@@ -25,6 +25,8 @@
  */
 package org.ow2.proactive.scheduler.core.db;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 
 import javax.persistence.*;
@@ -34,24 +36,42 @@ import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.Type;
 import org.hibernate.type.SerializableToBlobType;
+import org.ow2.proactive.db.DatabaseManagerException;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskLogs;
 import org.ow2.proactive.scheduler.common.task.flow.FlowAction;
+import org.ow2.proactive.scheduler.common.task.util.DeltaVariableMap;
+import org.ow2.proactive.scheduler.core.db.storage.TaskResultStorage;
 import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.utils.ObjectByteConverter;
 
 
 @Entity
 @NamedQueries({ @NamedQuery(name = "deleteTaskResultDataInBulk", query = "delete from TaskResultData where taskRuntimeData.jobData.id in :jobIdList"),
                 @NamedQuery(name = "loadJobResult", query = "select taskResult, " + "task.id, " + "task.taskName, " +
-                                                            "task.preciousResult from TaskResultData as taskResult left outer join taskResult.taskRuntimeData as task " + "where task.jobData = :job order by task.id, taskResult.resultTime desc"),
+                                                            "task.preciousResult from TaskResultData as taskResult left outer join taskResult.taskRuntimeData as task " + "where task.jobData = :job and " + TaskResultData.LAST_RESULT_OF_TASK + " order by task.id, taskResult.resultTime desc"),
+                @NamedQuery(name = "loadJobResultSummary", query = "select task.id, task.taskName, task.preciousResult, taskResult.resultTime, " +
+                                                                   "case when taskResult.serializedException is null then 0 else 1 end " +
+                                                                   "from TaskResultData as taskResult join taskResult.taskRuntimeData as task " + "where task.jobData.id = :jobId and " + TaskResultData.LAST_RESULT_OF_TASK + " order by task.id"),
                 @NamedQuery(name = "loadTasksResultByJobAndTaskName", query = "select id, taskName from TaskData where taskName = :taskName and jobData = :job"),
                 @NamedQuery(name = "loadTasksResultByTask", query = "from TaskResultData result where result.taskRuntimeData = :task order by result.resultTime desc"),
-                @NamedQuery(name = "loadTasksResults", query = "select taskResult, " + "task.id, " + "task.taskName, " +
-                                                               "task.preciousResult from TaskResultData as taskResult join taskResult.taskRuntimeData as task " + "where task.id in (:tasksIds) order by task.id, taskResult.resultTime desc"),
-                @NamedQuery(name = "countTaskResultData", query = "select count (*) from TaskResultData") })
+                @NamedQuery(name = "loadTasksResults", query = "select taskResult, task.id from TaskResultData as taskResult join taskResult.taskRuntimeData as task " +
+                                                               "where task.id in (:tasksIds) and " + TaskResultData.LAST_RESULT_OF_TASK),
+                @NamedQuery(name = "countTaskResultData", query = "select count (*) from TaskResultData"),
+                @NamedQuery(name = "findTaskResultDataReferencesInBulk", query = "select valueReference, propagatedVariablesReference from TaskResultData " +
+                                                                                 "where taskRuntimeData.jobData.id in :jobIdList and (valueReference is not null or propagatedVariablesReference is not null)"),
+                @NamedQuery(name = "findTaskResultDataReferences", query = "select valueReference, propagatedVariablesReference from TaskResultData " +
+                                                                           "where valueReference in (:references) or propagatedVariablesReference in (:references)") })
 @Table(name = "TASK_RESULT_DATA", indexes = { @Index(name = "TASK_RESULT_DATA_RUNTIME_DATA", columnList = "JOB_ID,TASK_ID") })
 public class TaskResultData {
 
+    /**
+     * Restricts a query on {@code taskResult} joined to {@code task} to the last result of each task.
+     */
+    static final String LAST_RESULT_OF_TASK = "taskResult.resultTime = (select max(lastResult.resultTime) " +
+                                              "from TaskResultData as lastResult " +
+                                              "where lastResult.taskRuntimeData = task)";
+
     private long id;
 
     private TaskData taskRuntimeData;
@@ -72,14 +92,70 @@ public class TaskResultData {
 
     private Map<String, String> metadata;
 
+    private String valueReference;
+
+    private Long valueSize;
+
+    private String propagatedVariablesReference;
+
+    private Long propagatedVariablesSize;
+
+    private Boolean propagatedVariablesDelta;
+
     TaskResultImpl toTaskResult(TaskId taskId) {
+        return toTaskResult(taskId, null, null);
+    }
+
+    /**
+     * Build the task result, reading from the given storage the contents that were moved out of
+     * the database by {@link #moveContentToStorage(TaskResultStorage, int)}.
+     * <p>
+     * If the propagated variables were stored as a delta, the result holds them as a read-only
+     * {@link DeltaVariableMap} view over the given base, so that loading the results of the parents
+     * of a task does not copy the variables of the job for each of them. The REST layer copies
+     * them into a plain map when it maps the result.
+     *
+     * @param variablesBase the base of the propagated variables of the job, only used if
+     *                      {@link #hasPropagatedVariablesDelta()}
+     */
+    @SuppressWarnings("unchecked")
+    TaskResultImpl toTaskResult(TaskId taskId, TaskResultStorage storage, Map<String, byte[]> variablesBase) {
+        byte[] value = getSerializedValue();
+        Map<String, byte[]> variables = getPropagatedVariables();
+
+        if (getValueReference() != null || getPropagatedVariablesReference() != null) {
+            if (storage == null) {
+                throw new DatabaseManagerException("Result of task " + taskId +
+                                                   " is in the results storage but no storage is configured");
+            }
+            try {
+                if (getValueReference() != null) {
+                    value = storage.load(getValueReference());
+                }
+                if (getPropagatedVariablesReference() != null) {
+                    byte[] content = storage.load(getPropagatedVariablesReference());
+                    variables = (Map<String, byte[]>) ObjectByteConverter.byteArrayToObject(content);
+                }
+            } catch (IOException | ClassNotFoundException e) {
+                throw new DatabaseManagerException("Failed to read result of task " + taskId +
+                                                   " from the results storage", e);
+            }
+        }
+
+        if (hasPropagatedVariablesDelta()) {
+            if (variablesBase == null) {
+                throw new DatabaseManagerException("Variables of task " + taskId + " are stored as a delta but " +
+                                                   "the variables of its job are unknown");
+            }
+            variables = new DeltaVariableMap(variablesBase, variables);
+        }
 
         TaskResultImpl result = new TaskResultImpl(taskId,
-                                                   getSerializedValue(),
+                                                   value,
                                                    getSerializedException(),
                                                    getLogs(),
                                                    getMetadata(),
-                                                   getPropagatedVariables());
+                                                   variables);
 
         result.setPreviewerClassName(getPreviewerClassName());
         FlowActionData actionData = getFlowAction();
@@ -96,12 +172,30 @@ public class TaskResultData {
     }
 
     static TaskResultData createTaskResultData(TaskData taskRuntimeData, TaskResultImpl result) {
+        return createTaskResultData(taskRuntimeData, result, null);
+    }
+
+    /**
+     * @param variablesBase the base of the propagated variables of the job: when not empty, only
+     *                      the difference between the propagated variables and this base is kept
+     */
+    static TaskResultData createTaskResultData(TaskData taskRuntimeData, TaskResultImpl result,
+            Map<String, byte[]> variablesBase) {
         TaskResultData resultData = new TaskResultData();
         resultData.setTaskRuntimeData(taskRuntimeData);
         resultData.setLogs(result.getOutput());
         resultData.setPreviewerClassName(result.getPreviewerClassName());
         resultData.setMetadata(result.getMetadata());
-        resultData.setPropagatedVariables(result.getPropagatedVariables());
+        Map<String, byte[]> variables = result.getPropagatedVariables();
+        if (variables != null && variablesBase != null && !variablesBase.isEmpty()) {
+            resultData.setPropagatedVariables(DeltaVariableMap.diff(variablesBase, variables));
+            resultData.setPropagatedVariablesDelta(true);
+        } else if (variables instanceof DeltaVariableMap) {
+            // stored without base, the view must not be persisted as is
+            resultData.setPropagatedVariables(new HashMap<>(variables));
+        } else {
+            resultData.setPropagatedVariables(variables);
+        }
         resultData.setSerializedException(result.getSerializedException());
         resultData.setSerializedValue(result.getSerializedValue());
         resultData.setResultTime(System.currentTimeMillis());
@@ -120,6 +214,26 @@ public class TaskResultData {
         return resultData;
     }
 
+    /**
+     * Move the serialized value and the propagated variables to the given storage when their size
+     * reaches {@code threshold}. Only the references and sizes of the moved contents are kept.
+     */
+    void moveContentToStorage(TaskResultStorage storage, int threshold) throws IOException {
+        if (serializedValue != null && serializedValue.length >= threshold) {
+            valueSize = (long) serializedValue.length;
+            valueReference = storage.store(serializedValue);
+            serializedValue = null;
+        }
+        if (propagatedVariables != null && !propagatedVariables.isEmpty()) {
+            byte[] content = ObjectByteConverter.objectToByteArray(propagatedVariables);
+            if (content.length >= threshold) {
+                propagatedVariablesSize = (long) content.length;
+                propagatedVariablesReference = storage.store(content);
+                propagatedVariables = null;
+            }
+        }
+    }
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "TASK_RESULT_DATA_ID_SEQUENCE")
     @SequenceGenerator(name = "TASK_RESULT_DATA_ID_SEQUENCE", sequenceName = "TASK_RESULT_DATA_ID_SEQUENCE")
@@ -201,13 +315,13 @@ public class TaskResultData {
     }
 
     @Column(name = "PROPAGATED_VARIABLES", length = Integer.MAX_VALUE)
-    @Type(type = "org.hibernate.type.SerializableToBlobType", parameters = @Parameter(name = SerializableToBlobType.CLASS_NAME, value = "java.lang.Object"))
+    @Type(type = "org.ow2.proactive.db.types.CompactSerializableToBlobType", parameters = @Parameter(name = SerializableToBlobType.CLASS_NAME, value = "java.lang.Object"))
     public Map<String, byte[]> getPropagatedVariables() {
         return propagatedVariables;
     }
 
     @Column(name = "METADATA", length = Integer.MAX_VALUE)
-    @Type(type = "org.hibernate.type.SerializableToBlobType", parameters = @Parameter(name = SerializableToBlobType.CLASS_NAME, value = "java.lang.Object"))
+    @Type(type = "org.ow2.proactive.db.types.CompactSerializableToBlobType", parameters = @Parameter(name = SerializableToBlobType.CLASS_NAME, value = "java.lang.Object"))
     public Map<String, String> getMetadata() {
         return metadata;
     }
@@ -219,4 +333,57 @@ public class TaskResultData {
     public void setPropagatedVariables(Map<String, byte[]> executionVariables) {
         this.propagatedVariables = executionVariables;
     }
+
+    @Column(name = "RESULT_VALUE_REF", length = 100)
+    public String getValueReference() {
+        return valueReference;
+    }
+
+    public void setValueReference(String valueReference) {
+        this.valueReference = valueReference;
+    }
+
+    @Column(name = "RESULT_VALUE_SIZE")
+    public Long getValueSize() {
+        return valueSize;
+    }
+
+    public void setValueSize(Long valueSize) {
+        this.valueSize = valueSize;
+    }
+
+    @Column(name = "PROPAGATED_VARIABLES_REF", length = 100)
+    public String getPropagatedVariablesReference() {
+        return propagatedVariablesReference;
+    }
+
+    public void setPropagatedVariablesReference(String propagatedVariablesReference) {
+        this.propagatedVariablesReference = propagatedVariablesReference;
+    }
+
+    @Column(name = "PROPAGATED_VARIABLES_SIZE")
+    public Long getPropagatedVariablesSize() {
+        return propagatedVariablesSize;
+    }
+
+    public void setPropagatedVariablesSize(Long propagatedVariablesSize) {
+        this.propagatedVariablesSize = propagatedVariablesSize;
+    }
+
+    /**
+     * @return whether the propagated variables only contain the difference with the variables of
+     * the job, removed variables being associated to null
+     */
+    @Column(name = "PROPAGATED_VARIABLES_DELTA")
+    public Boolean getPropagatedVariablesDelta() {
+        return propagatedVariablesDelta;
+    }
+
+    public void setPropagatedVariablesDelta(Boolean propagatedVariablesDelta) {
+        this.propagatedVariablesDelta = propagatedVariablesDelta;
+    }
+
+    boolean hasPropagatedVariablesDelta() {
+        return Boolean.TRUE.equals(propagatedVariablesDelta);
+    }
 }
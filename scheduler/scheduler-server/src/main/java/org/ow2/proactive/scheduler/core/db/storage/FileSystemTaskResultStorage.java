@@ -0,0 +1,247 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db.storage;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.apache.log4j.Logger;
+import org.ow2.proactive.scheduler.util.compression.CompressionPolicy;
+
+import com.google.common.io.BaseEncoding;
+
+
+/**
+ * {@link TaskResultStorage} writing contents as compressed files in a local directory.
+ * <p>
+ * Each content is stored once, in a file named after the SHA-256 digest of its bytes
+ * and located in a sub-directory named after the first two characters of the digest.
+ * A file starts with a magic number followed by the content encoded by the default
+ * {@link CompressionPolicy}, which records the codec it chose. Files written by previous
+ * versions (magic number, uncompressed size and deflated content) are still readable. Large
+ * files are read through a memory mapping and decoded from it instead of being copied to the heap first.
+ *
+ * @author ActiveEon Team
+ */
+public class FileSystemTaskResultStorage implements TaskResultStorage {
+
+    private static final Logger logger = Logger.getLogger(FileSystemTaskResultStorage.class);
+
+    /** Magic number of the files holding a deflated content, written by previous versions */
+    private static final int MAGIC = 0x50415253;
+
+    /** Magic number of the files holding a content encoded by a compression policy */
+    private static final int POLICY_MAGIC = 0x50415254;
+
+    private static final int POLICY_HEADER_SIZE = 4;
+
+    private static final int HEADER_SIZE = 8;
+
+    /** Files bigger than this size are memory mapped when read */
+    private static final long MAPPING_THRESHOLD = 64 * 1024;
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private static final int NUMBER_OF_LOCKS = 64;
+
+    /** Margin applied to modification times, some file systems only have a one second precision */
+    private static final long MODIFICATION_TIME_PRECISION = 1000;
+
+    private static final Pattern REFERENCE_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path rootDirectory;
+
+    private final CompressionPolicy compressionPolicy;
+
+    /** Serializes store and delete operations applied to the same reference */
+    private final Object[] locks;
+
+    public FileSystemTaskResultStorage(File rootDirectory) throws IOException {
+        this(rootDirectory, CompressionPolicy.getDefault());
+    }
+
+    public FileSystemTaskResultStorage(File rootDirectory, CompressionPolicy compressionPolicy) throws IOException {
+        this.rootDirectory = rootDirectory.toPath();
+        this.compressionPolicy = compressionPolicy;
+        Files.createDirectories(this.rootDirectory);
+        this.locks = new Object[NUMBER_OF_LOCKS];
+        for (int i = 0; i < NUMBER_OF_LOCKS; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public String store(byte[] content) throws IOException {
+        String reference = digest(content);
+        Path file = pathOf(reference);
+
+        synchronized (lockOf(reference)) {
+            if (Files.exists(file)) {
+                // deduplicated content, refresh it so that a concurrent housekeeping keeps it
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                return reference;
+            }
+
+            Files.createDirectories(file.getParent());
+            Path tmpFile = Files.createTempFile(file.getParent(), reference, ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(tmpFile)) {
+                    writeCompressed(content, out);
+                }
+                Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmpFile);
+            }
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Stored task result content " + reference + " (" + content.length + " bytes)");
+        }
+
+        return reference;
+    }
+
+    @Override
+    public byte[] load(String reference) throws IOException {
+        Path file = pathOf(reference);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < POLICY_HEADER_SIZE) {
+                throw new IOException("Corrupted task result content " + reference);
+            }
+
+            ByteBuffer buffer;
+            if (size > MAPPING_THRESHOLD) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // read the whole file
+                }
+                buffer.flip();
+            }
+
+            int magic = buffer.getInt();
+            if (magic == POLICY_MAGIC) {
+                return CompressionPolicy.decompress(buffer);
+            }
+            if (magic != MAGIC || size < HEADER_SIZE) {
+                throw new IOException("Invalid task result content " + reference);
+            }
+            int length = buffer.getInt();
+            return inflate(buffer, length, reference);
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException("Task result content " + reference + " not found in " + rootDirectory);
+        }
+    }
+
+    @Override
+    public boolean deleteIfUnmodifiedSince(String reference, long timestamp) throws IOException {
+        Path file = pathOf(reference);
+
+        synchronized (lockOf(reference)) {
+            if (!Files.exists(file) ||
+                Files.getLastModifiedTime(file).toMillis() >= timestamp - MODIFICATION_TIME_PRECISION) {
+                return false;
+            }
+            return Files.deleteIfExists(file);
+        }
+    }
+
+    private void writeCompressed(byte[] content, OutputStream out) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(POLICY_HEADER_SIZE);
+        header.putInt(POLICY_MAGIC);
+        out.write(header.array());
+        out.write(compressionPolicy.compress(content));
+    }
+
+    private byte[] inflate(ByteBuffer compressed, int length, String reference) throws IOException {
+        byte[] result = new byte[length];
+        byte[] chunk = new byte[BUFFER_SIZE];
+
+        Inflater inflater = new Inflater();
+        try {
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                if (inflater.needsInput()) {
+                    if (!compressed.hasRemaining()) {
+                        throw new IOException("Truncated task result content " + reference);
+                    }
+                    int count = Math.min(chunk.length, compressed.remaining());
+                    compressed.get(chunk, 0, count);
+                    inflater.setInput(chunk, 0, count);
+                }
+                offset += inflater.inflate(result, offset, length - offset);
+            }
+            if (offset != length) {
+                throw new IOException("Invalid size for task result content " + reference + ": expected " + length +
+                                      " bytes, got " + offset);
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted task result content " + reference, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private Path pathOf(String reference) {
+        if (!REFERENCE_PATTERN.matcher(reference).matches()) {
+            throw new IllegalArgumentException("Invalid task result reference: " + reference);
+        }
+        return rootDirectory.resolve(reference.substring(0, 2)).resolve(reference);
+    }
+
+    private Object lockOf(String reference) {
+        return locks[(reference.hashCode() & Integer.MAX_VALUE) % NUMBER_OF_LOCKS];
+    }
+
+    private static String digest(byte[] content) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return BaseEncoding.base16().lowerCase().encode(messageDigest.digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
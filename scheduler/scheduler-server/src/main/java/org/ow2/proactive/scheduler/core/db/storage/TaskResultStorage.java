@@ -0,0 +1,74 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db.storage;
+
+import java.io.IOException;
+
+
+/**
+ * Storage for the large binary parts of task results (serialized value, propagated
+ * variables) that are kept outside of the database.
+ * <p>
+ * Content is addressed by a reference computed from the stored bytes: storing twice
+ * the same content returns the same reference and keeps a single copy. The database
+ * rows only hold the reference and the original size of the content.
+ *
+ * @author ActiveEon Team
+ */
+public interface TaskResultStorage {
+
+    /**
+     * Store the given content, or refresh it if an identical content is already stored.
+     *
+     * @param content the bytes to store
+     * @return the reference identifying the content
+     * @throws IOException if the content cannot be written
+     */
+    String store(byte[] content) throws IOException;
+
+    /**
+     * Read the content associated to the given reference.
+     *
+     * @param reference a reference returned by {@link #store(byte[])}
+     * @return the original bytes
+     * @throws IOException if the content is missing or cannot be read
+     */
+    byte[] load(String reference) throws IOException;
+
+    /**
+     * Delete the content associated to the given reference unless it was stored
+     * or refreshed after {@code timestamp}. Housekeeping uses this method to drop the
+     * contents no longer referenced by any result without racing with a concurrent
+     * {@link #store(byte[])} of the same content.
+     *
+     * @param reference the reference of the content to delete
+     * @param timestamp contents stored or refreshed after this time are kept
+     * @return true if the content has been deleted
+     * @throws IOException if the content cannot be deleted
+     */
+    boolean deleteIfUnmodifiedSince(String reference, long timestamp) throws IOException;
+
+}
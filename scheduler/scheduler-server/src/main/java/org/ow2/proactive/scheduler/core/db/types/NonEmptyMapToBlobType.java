@@ -32,7 +32,7 @@ import java.util.Map;
 import org.hibernate.engine.spi.Mapping;
 import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.internal.util.collections.ArrayHelper;
-import org.hibernate.type.SerializableToBlobType;
+import org.ow2.proactive.db.types.CompactSerializableToBlobType;
 
 
 /**
@@ -40,7 +40,7 @@ import org.hibernate.type.SerializableToBlobType;
  * <br>
  * <b>Warning</b>: when reading back the value, a null value will be returned if an empty Map was stored.
  */
-public class NonEmptyMapToBlobType extends SerializableToBlobType {
+public class NonEmptyMapToBlobType extends CompactSerializableToBlobType {
 
     @Override
     public boolean[] toColumnNullness(Object value, Mapping mapping) {
@@ -35,6 +35,7 @@ import org.apache.commons.io.FileUtils;
 import org.apache.log4j.Logger;
 import org.ow2.proactive.jmx.AbstractJMXHelper;
 import org.ow2.proactive.jmx.RRDDataStore;
+import org.ow2.proactive.scheduler.common.util.logforwarder.util.LogForwardingStatistics;
 import org.ow2.proactive.scheduler.core.account.SchedulerAccountsManager;
 import org.ow2.proactive.scheduler.core.db.SchedulerDBManager;
 import org.ow2.proactive.scheduler.core.jmx.mbean.AllAccountsMBeanImpl;
@@ -42,6 +43,8 @@ import org.ow2.proactive.scheduler.core.jmx.mbean.ManagementMBeanImpl;
 import org.ow2.proactive.scheduler.core.jmx.mbean.MyAccountMBeanImpl;
 import org.ow2.proactive.scheduler.core.jmx.mbean.RuntimeDataMBeanImpl;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scripting.ScriptEngineRegistry;
+import org.ow2.proactive.utils.appenders.FileWriterPool;
 
 
 /**
@@ -62,6 +65,16 @@ public class SchedulerJMXHelper extends AbstractJMXHelper {
 
     public static final String MANAGEMENT_MBEAN_NAME = "ProActiveScheduler:name=Management";
 
+    public static final String TRANSACTIONS_MBEAN_NAME = "ProActiveScheduler:name=Transactions";
+
+    public static final String SCRIPT_ENGINES_MBEAN_NAME = "ProActiveScheduler:name=ScriptEngines";
+
+    public static final String LOG_FILES_MBEAN_NAME = "ProActiveScheduler:name=LogFiles";
+
+    public static final String TASK_RESULT_CACHE_MBEAN_NAME = "ProActiveScheduler:name=TaskResultCache";
+
+    public static final String LOG_FORWARDING_MBEAN_NAME = "ProActiveScheduler:name=LogForwarding";
+
     /** The single instance of this class */
     private static SchedulerJMXHelper instance;
 
@@ -155,6 +168,44 @@ public class SchedulerJMXHelper extends AbstractJMXHelper {
         } catch (Exception e) {
             LOGGER.error("Unable to register the ManagementMBean", e);
         }
+
+        // Register the database transactions MBean into the MBean server
+        try {
+            final ObjectName name = new ObjectName(TRANSACTIONS_MBEAN_NAME);
+            mbs.registerMBean(dbManager.getTransactionStatistics(), name);
+        } catch (Exception e) {
+            LOGGER.error("Unable to register the TransactionStatisticsMBean", e);
+        }
+        // Register the script engines MBean into the MBean server
+        try {
+            final ObjectName name = new ObjectName(SCRIPT_ENGINES_MBEAN_NAME);
+            mbs.registerMBean(ScriptEngineRegistry.getInstance(), name);
+        } catch (Exception e) {
+            LOGGER.error("Unable to register the ScriptEngineRegistryMBean", e);
+        }
+        // Register the server log files MBean into the MBean server
+        try {
+            final ObjectName name = new ObjectName(LOG_FILES_MBEAN_NAME);
+            mbs.registerMBean(FileWriterPool.getInstance(), name);
+        } catch (Exception e) {
+            LOGGER.error("Unable to register the FileWriterPoolMBean", e);
+        }
+        // Register the log forwarding MBean into the MBean server
+        try {
+            final ObjectName name = new ObjectName(LOG_FORWARDING_MBEAN_NAME);
+            mbs.registerMBean(LogForwardingStatistics.getInstance(), name);
+        } catch (Exception e) {
+            LOGGER.error("Unable to register the LogForwardingStatisticsMBean", e);
+        }
+        // Register the task result cache MBean into the MBean server, if the cache is enabled
+        if (dbManager.getTaskResultCache() != null) {
+            try {
+                final ObjectName name = new ObjectName(TASK_RESULT_CACHE_MBEAN_NAME);
+                mbs.registerMBean(dbManager.getTaskResultCache(), name);
+            } catch (Exception e) {
+                LOGGER.error("Unable to register the TaskResultCacheMBean", e);
+            }
+        }
     }
 
     /**
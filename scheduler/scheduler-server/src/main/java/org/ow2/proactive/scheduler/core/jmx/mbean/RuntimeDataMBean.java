@@ -122,6 +122,36 @@ public interface RuntimeDataMBean {
      */
     int getJobSubmittingPeriod();
 
+    /**
+     * @return mean time in microseconds spent saving a task of the submitted jobs
+     */
+    long getMeanTaskSubmissionTime();
+
+    /**
+     * @return number of frontend state read lock acquisitions which had to wait
+     */
+    long getFrontendStateContendedReadLocks();
+
+    /**
+     * @return number of frontend state write lock acquisitions which had to wait
+     */
+    long getFrontendStateContendedWriteLocks();
+
+    /**
+     * @return total time in milliseconds spent waiting for the frontend state lock
+     */
+    long getFrontendStateLockWaitTime();
+
+    /**
+     * @return number of threads currently waiting for the frontend state lock
+     */
+    int getFrontendStateLockQueueLength();
+
+    /**
+     * @return the event delivery statistics of each connected listener
+     */
+    String[] getListenersStatistics();
+
     /**
      * Returns the Key Performance Indicator related to the average of pending
      * time for a job.
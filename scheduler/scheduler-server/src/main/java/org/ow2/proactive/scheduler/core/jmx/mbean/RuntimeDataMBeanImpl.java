@@ -26,6 +26,7 @@
 package org.ow2.proactive.scheduler.core.jmx.mbean;
 
 import java.io.IOException;
+import java.util.List;
 
 import javax.management.NotCompliantMBeanException;
 import javax.management.StandardMBean;
@@ -35,8 +36,10 @@ import org.ow2.proactive.scheduler.common.NotificationData;
 import org.ow2.proactive.scheduler.common.SchedulerEvent;
 import org.ow2.proactive.scheduler.common.SchedulerUsers;
 import org.ow2.proactive.scheduler.common.job.UserIdentification;
+import org.ow2.proactive.scheduler.core.ClientRequestHandler;
 import org.ow2.proactive.scheduler.core.db.SchedulerDBManager;
 import org.ow2.proactive.scheduler.core.jmx.SchedulerJMXHelper;
+import org.ow2.proactive.scheduler.util.MonitoredReadWriteLock;
 import org.ow2.proactive.utils.Tools;
 
 
@@ -55,6 +58,9 @@ public final class RuntimeDataMBeanImpl extends StandardMBean implements Runtime
     /** Current Scheduler status typed as scheduler event */
     private volatile SchedulerEvent schedulerStatus;
 
+    /** Lock of the frontend state, set once the frontend is started */
+    private volatile MonitoredReadWriteLock frontendStateLock;
+
     public RuntimeDataMBeanImpl(SchedulerDBManager dbManager) throws NotCompliantMBeanException {
         super(RuntimeDataMBean.class);
         this.schedulerClients = new SchedulerUsers();
@@ -79,6 +85,10 @@ public final class RuntimeDataMBeanImpl extends StandardMBean implements Runtime
         this.schedulerStatus = eventType;
     }
 
+    public void setFrontendStateLock(MonitoredReadWriteLock frontendStateLock) {
+        this.frontendStateLock = frontendStateLock;
+    }
+
     // ATTRIBUTES TO CONTROL
 
     /**
@@ -182,6 +192,53 @@ public final class RuntimeDataMBeanImpl extends StandardMBean implements Runtime
         return (int) dbManager.getMeanJobSubmittingPeriod();
     }
 
+    /**
+     * @return mean time in microseconds spent saving a task of the submitted jobs
+     */
+    public long getMeanTaskSubmissionTime() {
+        return dbManager.getMeanTaskSubmissionTime();
+    }
+
+    /**
+     * @return number of frontend state read lock acquisitions which had to wait
+     */
+    public long getFrontendStateContendedReadLocks() {
+        MonitoredReadWriteLock lock = frontendStateLock;
+        return lock == null ? 0 : lock.getContendedReadLocksCount();
+    }
+
+    /**
+     * @return number of frontend state write lock acquisitions which had to wait
+     */
+    public long getFrontendStateContendedWriteLocks() {
+        MonitoredReadWriteLock lock = frontendStateLock;
+        return lock == null ? 0 : lock.getContendedWriteLocksCount();
+    }
+
+    /**
+     * @return total time in milliseconds spent waiting for the frontend state lock
+     */
+    public long getFrontendStateLockWaitTime() {
+        MonitoredReadWriteLock lock = frontendStateLock;
+        return lock == null ? 0 : lock.getReadLockWaitTime() + lock.getWriteLockWaitTime();
+    }
+
+    /**
+     * @return number of threads currently waiting for the frontend state lock
+     */
+    public int getFrontendStateLockQueueLength() {
+        MonitoredReadWriteLock lock = frontendStateLock;
+        return lock == null ? 0 : lock.getQueueLength();
+    }
+
+    /**
+     * @return the event delivery statistics of each connected listener
+     */
+    public String[] getListenersStatistics() {
+        List<String> statistics = ClientRequestHandler.getStatistics();
+        return statistics.toArray(new String[statistics.size()]);
+    }
+
     // UTILITY METHODS
 
     /**
@@ -27,6 +27,7 @@ package org.ow2.proactive.scheduler.descriptor;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -46,7 +47,6 @@ import org.ow2.proactive.scheduler.common.job.JobStatus;
 import org.ow2.proactive.scheduler.common.job.JobType;
 import org.ow2.proactive.scheduler.common.task.Task;
 import org.ow2.proactive.scheduler.common.task.TaskId;
-import org.ow2.proactive.scheduler.common.task.TaskState;
 import org.ow2.proactive.scheduler.common.task.TaskStatus;
 import org.ow2.proactive.scheduler.common.task.flow.FlowActionType;
 import org.ow2.proactive.scheduler.common.task.flow.FlowScript;
@@ -116,15 +116,18 @@ public class JobDescriptorImpl implements JobDescriptor {
      * Make a dependences tree of the job's tasks according to the dependence list
      * stored in taskDescriptor.
      * This list represents the ordered TaskDescriptor list of its parent tasks.
+     * The tree is built in a time linear in the number of tasks and dependences.
      */
     private void makeTree(InternalJob job) {
+        List<InternalTask> tasks = job.getITasks();
+        Map<String, Integer> ifTargets = countIfTargets(tasks);
 
         //create task descriptor list
-        for (InternalTask td : job.getITasks()) {
+        for (InternalTask td : tasks) {
             //if this task is a first task, put it in eligible tasks list
             EligibleTaskDescriptor lt = new EligibleTaskDescriptorImpl(td);
 
-            if (isEntryPoint(td, job.getITasks())) {
+            if (isEntryPoint(td, ifTargets)) {
                 eligibleTasks.put(td.getId(), lt);
             }
 
@@ -136,8 +139,8 @@ public class JobDescriptorImpl implements JobDescriptor {
         }
 
         //now for each taskDescriptor, set the parents and children list
-        for (InternalTask td : job.getITasks()) {
-            if (td.getDependences() != null) {
+        for (InternalTask td : tasks) {
+            if (td.getIDependences() != null) {
                 TaskDescriptor taskDescriptor = allTasksWithTheirChildren.get(td);
 
                 for (InternalTask depends : td.getIDependences()) {
@@ -152,50 +155,68 @@ public class JobDescriptorImpl implements JobDescriptor {
         }
     }
 
+    /**
+     * Counts, for each task name, the number of tasks having this task as target
+     * of an if control flow action (if, else or continuation branch)
+     *
+     * @param tasks the tasks of a job
+     * @return the number of tasks targeting each task name
+     */
+    private static Map<String, Integer> countIfTargets(List<InternalTask> tasks) {
+        Map<String, Integer> ifTargets = new HashMap<>();
+        for (InternalTask task : tasks) {
+            for (String target : getIfTargets(task)) {
+                Integer count = ifTargets.get(target);
+                ifTargets.put(target, count == null ? 1 : count + 1);
+            }
+        }
+        return ifTargets;
+    }
+
+    /**
+     * @return the distinct targets of the if control flow action of the given task, if any
+     */
+    private static Set<String> getIfTargets(Task task) {
+        FlowScript sc = task.getFlowScript();
+        if (sc == null || !FlowActionType.parse(sc.getActionType()).equals(FlowActionType.IF)) {
+            return Collections.emptySet();
+        }
+        Set<String> targets = new HashSet<>(4);
+        addIfNotNull(targets, sc.getActionTarget());
+        addIfNotNull(targets, sc.getActionTargetElse());
+        addIfNotNull(targets, sc.getActionContinuation());
+        return targets;
+    }
+
+    private static void addIfNotNull(Set<String> targets, String target) {
+        if (target != null) {
+            targets.add(target);
+        }
+    }
+
     /**
      * Tags all startable tasks as entry point
      * a startable task : has no dependency, and is not target of an if control flow action
      *
      * @param t a Task
-     * @param otherTasks the other tasks contained in the job containing task t
-     * @return true if t is an entry point among all tasks in otherTasks, or false
+     * @param ifTargets the number of tasks of the job targeting each task name with an if control flow action
+     * @return true if t is an entry point among all tasks of its job, or false
      */
-    private boolean isEntryPoint(InternalTask t, List<InternalTask> otherTasks) {
-        List<TaskState> deps = t.getDependences();
-        boolean entryPoint = false;
-
+    private static boolean isEntryPoint(InternalTask t, Map<String, Integer> ifTargets) {
         // an entry point has no dependency
-        if (deps == null || deps.size() == 0) {
-            entryPoint = true;
-        } else {
+        if (t.getIDependences() != null) {
             return false;
         }
 
-        // a entry point is not target of an if
-        for (Task t2 : otherTasks) {
-            if (t.equals(t2)) {
-                continue;
-            }
-            FlowScript sc = t2.getFlowScript();
-            if (sc != null) {
-                String actionType = sc.getActionType();
-                if (FlowActionType.parse(actionType).equals(FlowActionType.IF)) {
-                    String tIf = sc.getActionTarget();
-                    String tElse = sc.getActionTargetElse();
-                    String tJoin = sc.getActionContinuation();
-                    if (tIf != null && tIf.equals(t.getName())) {
-                        return false;
-                    }
-                    if (tElse != null && tElse.equals(t.getName())) {
-                        return false;
-                    }
-                    if (tJoin != null && tJoin.equals(t.getName())) {
-                        return false;
-                    }
-                }
-            }
+        // a entry point is not target of an if of another task
+        Integer targetingTasks = ifTargets.get(t.getName());
+        if (targetingTasks == null) {
+            return true;
+        }
+        if (getIfTargets(t).contains(t.getName())) {
+            targetingTasks--;
         }
-        return entryPoint;
+        return targetingTasks == 0;
     }
 
     /**
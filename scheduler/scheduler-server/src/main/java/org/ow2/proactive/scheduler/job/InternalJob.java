@@ -128,6 +128,10 @@ public abstract class InternalJob extends JobState {
     @XmlTransient
     private Job taskFlowJob;
 
+    /** Indexes used by the control flow actions, built once needed */
+    @XmlTransient
+    private transient TaskFlowIndex flowIndex;
+
     /** Hibernate default constructor */
     public InternalJob() {
         this.faultyTasks = new HashSet<>();
@@ -233,11 +237,27 @@ public abstract class InternalJob extends JobState {
 
         if (result) {
             jobInfo.setTotalNumberOfTasks(jobInfo.getTotalNumberOfTasks() + 1);
+            if (flowIndex != null) {
+                flowIndex.taskAdded(task);
+            }
         }
 
         return result;
     }
 
+    /**
+     * Returns the indexes over the tasks of this job used by the control flow actions.
+     * The index is built on first use and rebuilt when the task map was replaced.
+     *
+     * @return the control flow index of this job.
+     */
+    public TaskFlowIndex getFlowIndex() {
+        if (flowIndex == null || flowIndex.size() != tasks.size()) {
+            flowIndex = new TaskFlowIndex(tasks.values());
+        }
+        return flowIndex;
+    }
+
     /**
      * Start a new task will set some count and update dependencies if
      * necessary.
@@ -538,19 +558,14 @@ public abstract class InternalJob extends JobState {
         ((JobInfoImpl) this.getJobInfo()).setNumberOfPendingTasks(this.getJobInfo().getNumberOfPendingTasks() +
                                                                   dup.size());
 
+        TaskFlowIndex index = getFlowIndex();
+
         // ensure naming unicity
-        // time-consuming but safe
         for (InternalTask nt : dup.values()) {
-            boolean ok;
-            do {
-                ok = true;
-                for (InternalTask task : tasks.values()) {
-                    if (nt.getName().equals(task.getName())) {
-                        nt.setIterationIndex(nt.getIterationIndex() + 1);
-                        ok = false;
-                    }
-                }
-            } while (!ok);
+            if (index.getTaskByName(nt.getName()) != null) {
+                nt.setIterationIndex(index.getNextIterationIndex(InternalTask.getInitialName(nt.getName()),
+                                                                 nt.getReplicationIndex()));
+            }
         }
 
         // configure the new tasks
@@ -571,26 +586,19 @@ public abstract class InternalJob extends JobState {
         changesInfo.newTasksAdded(dup.values());
 
         // connect replicated tree
-        newTarget.addDependence(initiator);
+        index.addDependence(newTarget, initiator);
         changesInfo.taskUpdated(newTarget);
 
         // connect mergers
         List<InternalTask> mergers = new ArrayList<>();
-        for (InternalTask t : this.tasks.values()) {
-            if (t.getIDependences() != null) {
-
-                for (InternalTask p : t.getIDependences()) {
-                    if (p.getId().equals(initiator.getId())) {
-                        if (!t.equals(newTarget)) {
-                            mergers.add(t);
-                        }
-                    }
-                }
+        for (InternalTask t : index.getChildren(initiator)) {
+            if (!t.equals(newTarget)) {
+                mergers.add(t);
             }
         }
         for (InternalTask t : mergers) {
-            t.getIDependences().remove(initiator);
-            t.addDependence(newInit);
+            index.removeDependence(t, initiator);
+            index.addDependence(t, newInit);
             changesInfo.taskUpdated(t);
         }
 
@@ -742,6 +750,7 @@ public abstract class InternalJob extends JobState {
         // sort task according to the ID
         Collections.sort(sorted);
         tasks.clear();
+        flowIndex = null;
         // re-init taskId
         int id = 0;
         for (InternalTask td : sorted) {
@@ -910,6 +919,7 @@ public abstract class InternalJob extends JobState {
 
     public void setTasks(Collection<InternalTask> tasksList) {
         tasks = new HashMap<>(tasksList.size());
+        flowIndex = null;
         for (InternalTask task : tasksList) {
             tasks.put(task.getId(), task);
         }
@@ -0,0 +1,300 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.job;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+
+
+/**
+ * Lookup structures over the tasks of a job, used by the control flow
+ * handlers (REPLICATE, LOOP, IF) instead of scanning every task of the job.
+ * <p>
+ * The index keeps:
+ * <ul>
+ * <li>the tasks by initial name (the name without iteration and replication suffixes),
+ * iteration index and replication index, which together identify a task,</li>
+ * <li>the highest iteration index per initial name and replication index,</li>
+ * <li>the next free replication index per initial name and iteration,</li>
+ * <li>the reverse of the dependences: for each task, the tasks that depend on it,
+ * either directly or through the weak IF dependences (if branch and joined branches).</li>
+ * </ul>
+ * <p>
+ * Tasks created by a flow action only get their final id once added to the job,
+ * after their dependences have been set; their reverse dependences are thus
+ * recorded lazily, the next time they are looked up. Their iteration and
+ * replication indexes, on the other hand, must be set before they are added:
+ * a task is not renamed once indexed.
+ * <p>
+ * The index is not thread safe, it is used under the same conditions as the
+ * task map of the job it belongs to.
+ */
+public class TaskFlowIndex {
+
+    private final Map<String, InternalTask> tasksByName = new HashMap<>();
+
+    private final Map<String, Integer> lastIterationIndexes = new HashMap<>();
+
+    private final Map<String, Integer> nextReplicationIndexes = new HashMap<>();
+
+    private final Map<TaskId, List<InternalTask>> children = new HashMap<>();
+
+    private final Map<TaskId, List<InternalTask>> weakChildren = new HashMap<>();
+
+    private final Set<InternalTask> pendingTasks = Collections.newSetFromMap(new IdentityHashMap<InternalTask, Boolean>());
+
+    private int size;
+
+    /**
+     * Builds the index of the given tasks
+     *
+     * @param tasks all the tasks of the job
+     */
+    public TaskFlowIndex(Collection<InternalTask> tasks) {
+        for (InternalTask task : tasks) {
+            taskAdded(task);
+        }
+    }
+
+    /**
+     * @return the number of tasks indexed
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Registers a task newly added to the job
+     *
+     * @param task the added task
+     */
+    public void taskAdded(InternalTask task) {
+        String initialName = initialName(task.getName());
+        tasksByName.put(taskKey(initialName, task.getIterationIndex(), task.getReplicationIndex()), task);
+        updateLastIterationIndex(initialName, task.getReplicationIndex(), task.getIterationIndex());
+        updateNextReplicationIndex(initialName, task.getIterationIndex(), task.getReplicationIndex() + 1);
+        pendingTasks.add(task);
+        size++;
+    }
+
+    /**
+     * Adds <code>parent</code> to the dependences of <code>child</code>
+     *
+     * @param child the dependent task
+     * @param parent the new dependence
+     */
+    public void addDependence(InternalTask child, InternalTask parent) {
+        child.addDependence(parent);
+        if (!pendingTasks.contains(child)) {
+            record(children, parent, child);
+        }
+    }
+
+    /**
+     * Removes <code>parent</code> from the dependences of <code>child</code>
+     *
+     * @param child the dependent task
+     * @param parent the dependence to remove
+     */
+    public void removeDependence(InternalTask child, InternalTask parent) {
+        flushPendingTasks();
+        child.removeDependence(parent);
+        List<InternalTask> list = children.get(parent.getId());
+        if (list != null) {
+            list.remove(child);
+        }
+    }
+
+    /**
+     * @param name the full name of a task, including iteration and replication suffixes
+     * @return the task named exactly <code>name</code>, or null if there is none
+     */
+    public InternalTask getTaskByName(String name) {
+        if (name == null) {
+            return null;
+        }
+        return getTask(initialName(name),
+                       InternalTask.getIterationIndexFromName(name),
+                       InternalTask.getReplicationIndexFromName(name));
+    }
+
+    /**
+     * @param initialName the name of a task, without iteration and replication suffixes
+     * @param iteration the iteration index of the task
+     * @param replication the replication index of the task
+     * @return the task with this initial name, iteration and replication indexes, or null if there is none
+     */
+    public InternalTask getTask(String initialName, int iteration, int replication) {
+        return tasksByName.get(taskKey(initialName, iteration, replication));
+    }
+
+    /**
+     * Returns an iteration index above the ones of all the tasks sharing the given
+     * initial name and replication index, so that a task renamed with it is unique.
+     *
+     * @param initialName the name of a task, without iteration and replication suffixes
+     * @param replication the replication index of the task
+     * @return an iteration index not used yet for this name and replication
+     */
+    public int getNextIterationIndex(String initialName, int replication) {
+        Integer last = lastIterationIndexes.get(iterationKey(initialName, replication));
+        return last == null ? 0 : last + 1;
+    }
+
+    /**
+     * @param parent a task of the job
+     * @return the tasks having <code>parent</code> among their direct dependences
+     */
+    public List<InternalTask> getChildren(InternalTask parent) {
+        flushPendingTasks();
+        List<InternalTask> list = children.get(parent.getId());
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(list);
+    }
+
+    /**
+     * Collects the tasks reachable from <code>parent</code> through the dependences,
+     * including the weak IF dependences. This is a superset of the tasks for which
+     * {@link InternalTask#dependsOn(InternalTask)} holds.
+     *
+     * @param parent a task of the job
+     * @return <code>parent</code> and all the tasks reachable from it
+     */
+    public Collection<InternalTask> getDescendants(InternalTask parent) {
+        flushPendingTasks();
+        Map<TaskId, InternalTask> visited = new HashMap<>();
+        Deque<InternalTask> toVisit = new ArrayDeque<>();
+        toVisit.add(parent);
+        while (!toVisit.isEmpty()) {
+            InternalTask task = toVisit.poll();
+            if (visited.put(task.getId(), task) == null) {
+                addAllIfPresent(toVisit, children.get(task.getId()));
+                addAllIfPresent(toVisit, weakChildren.get(task.getId()));
+            }
+        }
+        return visited.values();
+    }
+
+    /**
+     * Reserves the next free replication index for the given task name and iteration.
+     *
+     * @param initialName the name of a task, without iteration and replication suffixes
+     * @param iteration the iteration index of the replicated task
+     * @return a replication index not used yet for this name and iteration
+     */
+    public int reserveReplicationIndex(String initialName, int iteration) {
+        String key = replicationKey(initialName, iteration);
+        Integer next = nextReplicationIndexes.get(key);
+        int index = next == null ? 0 : next;
+        nextReplicationIndexes.put(key, index + 1);
+        return index;
+    }
+
+    private void updateLastIterationIndex(String initialName, int replication, int iteration) {
+        String key = iterationKey(initialName, replication);
+        Integer last = lastIterationIndexes.get(key);
+        if (last == null || last < iteration) {
+            lastIterationIndexes.put(key, iteration);
+        }
+    }
+
+    private void updateNextReplicationIndex(String initialName, int iteration, int candidate) {
+        String key = replicationKey(initialName, iteration);
+        Integer next = nextReplicationIndexes.get(key);
+        if (next == null || next < candidate) {
+            nextReplicationIndexes.put(key, candidate);
+        }
+    }
+
+    private static String initialName(String name) {
+        return name == null ? null : InternalTask.getInitialName(name);
+    }
+
+    private static String taskKey(String initialName, int iteration, int replication) {
+        return initialName + TaskId.ITERATION_SEPARATOR + iteration + TaskId.REPLICATION_SEPARATOR + replication;
+    }
+
+    private static String iterationKey(String initialName, int replication) {
+        return initialName + TaskId.REPLICATION_SEPARATOR + replication;
+    }
+
+    private static String replicationKey(String initialName, int iteration) {
+        return initialName + TaskId.ITERATION_SEPARATOR + iteration;
+    }
+
+    private void flushPendingTasks() {
+        if (pendingTasks.isEmpty()) {
+            return;
+        }
+        for (InternalTask task : pendingTasks) {
+            if (task.getIDependences() != null) {
+                for (InternalTask parent : task.getIDependences()) {
+                    record(children, parent, task);
+                }
+            }
+            if (task.getIfBranch() != null) {
+                record(weakChildren, task.getIfBranch(), task);
+            }
+            if (task.getJoinedBranches() != null) {
+                for (InternalTask branch : task.getJoinedBranches()) {
+                    record(weakChildren, branch, task);
+                }
+            }
+        }
+        pendingTasks.clear();
+    }
+
+    private static void record(Map<TaskId, List<InternalTask>> reverse, InternalTask parent, InternalTask child) {
+        List<InternalTask> list = reverse.get(parent.getId());
+        if (list == null) {
+            list = new ArrayList<>(2);
+            reverse.put(parent.getId(), list);
+        }
+        if (!list.contains(child)) {
+            list.add(child);
+        }
+    }
+
+    private static void addAllIfPresent(Deque<InternalTask> toVisit, List<InternalTask> tasks) {
+        if (tasks != null) {
+            toVisit.addAll(tasks);
+        }
+    }
+
+}
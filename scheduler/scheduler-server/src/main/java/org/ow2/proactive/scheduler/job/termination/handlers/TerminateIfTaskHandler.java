@@ -38,6 +38,7 @@ import org.ow2.proactive.scheduler.core.SchedulerStateUpdate;
 import org.ow2.proactive.scheduler.job.ChangedTasksInfo;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.job.JobInfoImpl;
+import org.ow2.proactive.scheduler.job.TaskFlowIndex;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
 
 
@@ -54,7 +55,8 @@ public class TerminateIfTaskHandler {
     public boolean terminateIfTask(FlowAction action, InternalTask initiator, ChangedTasksInfo changesInfo,
             SchedulerStateUpdate frontend, InternalTask descriptor, TaskId taskId) {
 
-        InternalTask[] targets = searchIfElseJoinTasks(action, initiator);
+        TaskFlowIndex index = internalJob.getFlowIndex();
+        InternalTask[] targets = searchIfElseJoinTasks(action, initiator, index);
 
         // the targetIf from action getTarget is the selected branch
         // the IF condition has already been evaluated prior to being put in a
@@ -74,11 +76,9 @@ public class TerminateIfTaskHandler {
 
         String match = targetIf.getMatchingBlock();
         if (match != null) {
-            for (InternalTask t : internalJob.getIHMTasks().values()) {
-                if (match.equals(t.getName()) &&
-                    !(t.getStatus().equals(TaskStatus.FINISHED) || t.getStatus().equals(TaskStatus.SKIPPED))) {
-                    branchEnd = t;
-                }
+            InternalTask t = index.getTaskByName(match);
+            if (isRunnable(t)) {
+                branchEnd = t;
             }
         }
         // no matching block: there is no block, the branch is a single task
@@ -87,10 +87,10 @@ public class TerminateIfTaskHandler {
         }
 
         // plug the branch
-        branchStart.addDependence(initiator);
+        index.addDependence(branchStart, initiator);
         changesInfo.taskUpdated(branchStart);
         if (targetJoin != null) {
-            targetJoin.addDependence(branchEnd);
+            index.addDependence(targetJoin, branchEnd);
             changesInfo.taskUpdated(targetJoin);
         }
 
@@ -98,7 +98,7 @@ public class TerminateIfTaskHandler {
         // first, find the concerned tasks
         List<InternalTask> elseTasks = new ArrayList<>();
         // elseTasks.add(targetElse);
-        for (InternalTask t : internalJob.getIHMTasks().values()) {
+        for (InternalTask t : index.getDescendants(targetElse)) {
             if (t.dependsOn(targetElse)) {
                 elseTasks.add(t);
             }
@@ -107,7 +107,7 @@ public class TerminateIfTaskHandler {
         // even though the targetElse is not going to be executed, a
         // dependency on initiator still makes sense and would help
         // reconstruct the job graph on the client
-        targetElse.addDependence(initiator);
+        index.addDependence(targetElse, initiator);
         changesInfo.taskUpdated(targetElse);
 
         for (InternalTask it : elseTasks) {
@@ -149,73 +149,63 @@ public class TerminateIfTaskHandler {
         return true;
     }
 
-    private InternalTask[] searchIfElseJoinTasks(FlowAction action, InternalTask initiator) {
-        InternalTask targetIf = null;
-        InternalTask targetElse = null;
-        InternalTask targetJoin = null;
-
+    private InternalTask[] searchIfElseJoinTasks(FlowAction action, InternalTask initiator, TaskFlowIndex index) {
         // search for the targets as perfect matches of the unique name
-        for (InternalTask it : internalJob.getIHMTasks().values()) {
-
-            // target is finished : probably looped
-            if (it.getStatus().equals(TaskStatus.FINISHED) || it.getStatus().equals(TaskStatus.SKIPPED)) {
-                continue;
-            }
-            if (action.getTarget().equals(it.getName())) {
-                if (it.getIfBranch().equals(initiator)) {
-                    targetIf = it;
-                }
-            } else if (action.getTargetElse().equals(it.getName())) {
-                if (it.getIfBranch().equals(initiator)) {
-                    targetElse = it;
-                }
-            } else if (action.getTargetContinuation().equals(it.getName())) {
-                InternalTask up = internalJob.findTaskUp(initiator.getName(), it);
-                if (up != null && up.equals(initiator)) {
-                    targetJoin = it;
-                }
+        InternalTask targetIf = index.getTaskByName(action.getTarget());
+        if (!isRunnable(targetIf) || !initiator.equals(targetIf.getIfBranch())) {
+            targetIf = null;
+        }
+        InternalTask targetElse = index.getTaskByName(action.getTargetElse());
+        if (!isRunnable(targetElse) || !initiator.equals(targetElse.getIfBranch())) {
+            targetElse = null;
+        }
+        InternalTask targetJoin = index.getTaskByName(action.getTargetContinuation());
+        if (isRunnable(targetJoin)) {
+            InternalTask up = internalJob.findTaskUp(initiator.getName(), targetJoin);
+            if (up == null || !up.equals(initiator)) {
+                targetJoin = null;
             }
-
+        } else {
+            targetJoin = null;
         }
 
-        boolean searchIf = (targetIf == null);
-        boolean searchElse = (targetElse == null);
-        boolean searchJoin = (targetJoin == null);
-
         // search of a runnable perfect match for the targets failed;
         // the natural target was iterated, need to find the next iteration
         // which is the the one with the same dup index and base name,
         // but the highest iteration index
-        for (InternalTask it : internalJob.getIHMTasks().values()) {
-
-            // does not share the same dup index : cannot be the same scope
-            if (it.getReplicationIndex() != initiator.getReplicationIndex()) {
-                continue;
-            }
+        if (targetIf == null) {
+            targetIf = searchLastIteration(action.getTarget(), initiator, index);
+        }
+        if (targetElse == null) {
+            targetElse = searchLastIteration(action.getTargetElse(), initiator, index);
+        }
+        if (targetJoin == null) {
+            targetJoin = searchLastIteration(action.getTargetContinuation(), initiator, index);
+        }
 
-            if (it.getStatus().equals(TaskStatus.FINISHED) || it.getStatus().equals(TaskStatus.SKIPPED)) {
-                continue;
-            }
+        InternalTask[] result = { targetIf, targetElse, targetJoin };
+        return result;
+    }
 
-            String name = InternalTask.getInitialName(it.getName());
-
-            if (searchIf && InternalTask.getInitialName(action.getTarget()).equals(name)) {
-                if (targetIf == null || targetIf.getIterationIndex() < it.getIterationIndex()) {
-                    targetIf = it;
-                }
-            } else if (searchElse && InternalTask.getInitialName(action.getTargetElse()).equals(name)) {
-                if (targetElse == null || targetElse.getIterationIndex() < it.getIterationIndex()) {
-                    targetElse = it;
-                }
-            } else if (searchJoin && InternalTask.getInitialName(action.getTargetContinuation()).equals(name)) {
-                if (targetJoin == null || targetJoin.getIterationIndex() < it.getIterationIndex()) {
-                    targetJoin = it;
-                }
+    private InternalTask searchLastIteration(String target, InternalTask initiator, TaskFlowIndex index) {
+        if (target == null) {
+            return null;
+        }
+        String initialName = InternalTask.getInitialName(target);
+        // tasks not sharing the same dup index cannot be in the same scope
+        int replication = initiator.getReplicationIndex();
+        for (int iteration = index.getNextIterationIndex(initialName, replication) - 1; iteration >= 0; iteration--) {
+            InternalTask task = index.getTask(initialName, iteration, replication);
+            if (isRunnable(task)) {
+                return task;
             }
         }
+        return null;
+    }
 
-        InternalTask[] result = { targetIf, targetElse, targetJoin };
-        return result;
+    private static boolean isRunnable(InternalTask task) {
+        return task != null &&
+               !(task.getStatus().equals(TaskStatus.FINISHED) || task.getStatus().equals(TaskStatus.SKIPPED));
     }
 
 }
@@ -44,6 +44,7 @@ import org.ow2.proactive.scheduler.core.SchedulerStateUpdate;
 import org.ow2.proactive.scheduler.job.ChangedTasksInfo;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.job.JobInfoImpl;
+import org.ow2.proactive.scheduler.job.TaskFlowIndex;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
 
 import it.sauronsoftware.cron4j.Predictor;
@@ -64,21 +65,15 @@ public class TerminateReplicateTaskHandler {
         int runs = action.getDupNumber();
 
         logger.info("Control Flow Action REPLICATE (runs:" + runs + ")");
+        TaskFlowIndex index = internalJob.getFlowIndex();
         List<InternalTask> toReplicate = new ArrayList<>();
 
         // find the tasks that need to be replicated
-        for (InternalTask internalTask : internalJob.getIHMTasks().values()) {
-            List<InternalTask> internalTaskDependencies = internalTask.getIDependences() == null ? new ArrayList<InternalTask>()
-                                                                                                 : internalTask.getIDependences();
-            for (InternalTask internalTaskDependency : internalTaskDependencies) {
-                if (isTheInitiatorTask(initiator, toReplicate, internalTask, internalTaskDependency)) {
-                    if (runs < 1) {
-                        skipReplication(initiator, changesInfo, internalTask);
-                        break;
-                    } else {
-                        toReplicate.add(internalTask);
-                    }
-                }
+        for (InternalTask internalTask : index.getChildren(initiator)) {
+            if (runs < 1) {
+                skipReplication(initiator, changesInfo, internalTask);
+            } else {
+                toReplicate.add(internalTask);
             }
         }
 
@@ -92,14 +87,12 @@ public class TerminateReplicateTaskHandler {
             // target is a task block start : replication of the block
             if (internalTaskToReplicate.getFlowBlock().equals(FlowBlock.START)) {
                 String tg = internalTaskToReplicate.getMatchingBlock();
-                for (InternalTask internalTask : internalJob.getIHMTasks().values()) {
-                    if (tg.equals(internalTask.getName()) &&
-                        !(internalTask.getStatus().equals(TaskStatus.FINISHED) ||
-                          internalTask.getStatus().equals(TaskStatus.SKIPPED)) &&
-                        internalTask.dependsOn(internalTaskToReplicate)) {
-                        target = internalTask;
-                        break;
-                    }
+                InternalTask internalTask = index.getTaskByName(tg);
+                if (internalTask != null &&
+                    !(internalTask.getStatus().equals(TaskStatus.FINISHED) ||
+                      internalTask.getStatus().equals(TaskStatus.SKIPPED)) &&
+                    internalTask.dependsOn(internalTaskToReplicate)) {
+                    target = internalTask;
                 }
                 if (target == null) {
                     logger.error("REPLICATE: could not find matching block '" + tg + "'");
@@ -141,10 +134,10 @@ public class TerminateReplicateTaskHandler {
                 // configure the new tasks
                 for (InternalTask internalTask : tasksBetweenInitiatorAndTarget.values()) {
                     internalTask.setJobInfo(((JobInfoImpl) internalJob.getJobInfo()));
-                    int dupIndex = getNextReplicationIndex(InternalTask.getInitialName(internalTask.getName()),
-                                                           internalTask.getIterationIndex());
-                    internalJob.addTask(internalTask);
+                    int dupIndex = index.reserveReplicationIndex(InternalTask.getInitialName(internalTask.getName()),
+                                                                 internalTask.getIterationIndex());
                     internalTask.setReplicationIndex(dupIndex);
+                    internalJob.addTask(internalTask);
                     assignReplicationTag(internalTask, initiator, false, action);
                 }
                 changesInfo.newTasksAdded(tasksBetweenInitiatorAndTarget.values());
@@ -157,7 +150,7 @@ public class TerminateReplicateTaskHandler {
                     // initiator
                     if (internalTaskToReplicate.getId().equals(tasksBetweenInitiatorAndTargetEntry.getKey())) {
                         newTarget = internalBlockTask;
-                        newTarget.addDependence(initiator);
+                        index.addDependence(newTarget, initiator);
                         // no need to add newTarget to modifiedTasks
                         // because newTarget is among dup.values(), and we
                         // have added them all
@@ -166,21 +159,11 @@ public class TerminateReplicateTaskHandler {
                     if (target.getId().equals(tasksBetweenInitiatorAndTargetEntry.getKey())) {
                         newEnd = internalBlockTask;
 
-                        List<InternalTask> toAdd = new ArrayList<>();
                         // find the merge tasks ; can be multiple
-                        for (InternalTask internalTask : internalJob.getIHMTasks().values()) {
-                            List<InternalTask> pdeps = internalTask.getIDependences();
-                            if (pdeps != null) {
-                                for (InternalTask parent : pdeps) {
-                                    if (parent.getId().equals(target.getId())) {
-                                        toAdd.add(internalTask);
-                                    }
-                                }
-                            }
-                        }
+                        List<InternalTask> toAdd = index.getChildren(target);
                         // connect the merge tasks
                         for (InternalTask internalTask : toAdd) {
-                            internalTask.addDependence(newEnd);
+                            index.addDependence(internalTask, newEnd);
                             changesInfo.taskUpdated(internalTask);
                         }
                     }
@@ -223,11 +206,6 @@ public class TerminateReplicateTaskHandler {
         }
     }
 
-    private boolean isTheInitiatorTask(InternalTask initiator, List<InternalTask> toReplicate,
-            InternalTask internalTask, InternalTask internalTaskDependency) {
-        return internalTaskDependency.getId().equals(initiator.getId()) && !toReplicate.contains(internalTask);
-    }
-
     private void skipTasksUntilEndBlock(ChangedTasksInfo changesInfo, InternalTask blockTaskToSkip, long finishedTime) {
         skipTask(changesInfo, blockTaskToSkip, finishedTime);
         if (!blockTaskToSkip.getFlowBlock().equals(FlowBlock.END)) {
@@ -303,15 +281,4 @@ public class TerminateReplicateTaskHandler {
         replicatedTask.setTag(buf.toString());
     }
 
-    private int getNextReplicationIndex(String baseName, int iteration) {
-        int rep = 0;
-        for (InternalTask it : internalJob.getIHMTasks().values()) {
-            String name = InternalTask.getInitialName(it.getName());
-            if (baseName.equals(name) && iteration == it.getIterationIndex()) {
-                rep = Math.max(rep, it.getReplicationIndex() + 1);
-            }
-        }
-        return rep;
-    }
-
 }
@@ -28,12 +28,15 @@ package org.ow2.proactive.scheduler.policy;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.log4j.Logger;
 import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
 import org.ow2.proactive.scheduler.descriptor.JobDescriptor;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
 import org.ow2.proactive.scheduler.util.policy.ISO8601DateUtil;
 
 
@@ -56,53 +59,86 @@ public class ExtendedSchedulerPolicy extends DefaultPolicy {
 
     public static final String GENERIC_INFORMATION_KEY_START_AT = "START_AT";
 
+    /*
+     * START_AT values parsed during the previous execution cycle, so that the generic information
+     * of a waiting task is not resolved and parsed again at each cycle.
+     */
+    private transient Map<InternalTask, DueTime> dueTimes;
+
+    private transient long nextEligibilityTime = Long.MAX_VALUE;
+
     /*
      * Utilize 'startAt' generic info and filter any tasks that should not be scheduled for current
      * execution cycle.
      */
     @Override
-    public LinkedList<EligibleTaskDescriptor> getOrderedTasks(List<JobDescriptor> jobDescList) {
-        Date now = new Date();
+    public synchronized LinkedList<EligibleTaskDescriptor> getOrderedTasks(List<JobDescriptor> jobDescList) {
+        long now = System.currentTimeMillis();
         LinkedList<EligibleTaskDescriptor> executionCycleTasks = new LinkedList<>();
+        Map<InternalTask, DueTime> previousDueTimes = dueTimes != null ? dueTimes
+                                                                        : Collections.<InternalTask, DueTime> emptyMap();
+        Map<InternalTask, DueTime> currentDueTimes = new IdentityHashMap<>();
+        long nextDueTime = Long.MAX_VALUE;
 
         Collections.sort(jobDescList, FIFO_BY_PRIORITY_COMPARATOR);
 
         for (JobDescriptor jobDesc : jobDescList) {
             Collection<EligibleTaskDescriptor> eligibleTasks = jobDesc.getEligibleTasks();
             for (EligibleTaskDescriptor candidate : eligibleTasks) {
-                String startAt = getStartAtValue(jobDesc, candidate);
-                if (startAt == null) {
+                InternalTask task = candidate.getInternal();
+                DueTime dueTime = previousDueTimes.get(task);
+                if (dueTime == null || dueTime.scheduledTime != task.getScheduledTime()) {
+                    dueTime = computeDueTime(jobDesc, candidate);
+                }
+                currentDueTimes.put(task, dueTime);
+
+                if (dueTime.time < now) {
                     executionCycleTasks.add(candidate);
                 } else {
-                    try {
-                        if (now.after(ISO8601DateUtil.toDate(startAt))) {
-                            executionCycleTasks.add(candidate);
-
-                        } else {
-                            if (logger.isTraceEnabled()) {
-                                logger.trace(String.format("Task [jobId:\"%s\", taskId:\"%s\"] is scheduled to be executed at %s." +
-                                                           " It will not be scheduled for this execution cycle at %s.",
-                                                           jobDesc.getJobId(),
-                                                           candidate.getTaskId(),
-                                                           startAt,
-                                                           ISO8601DateUtil.parse(now)));
-                            }
-                        }
-                    } catch (IllegalArgumentException e) {
-                        logger.error(String.format("An error occurred while processing 'startAt' generic info.%n" +
-                                                   "Task ([job-id:\"%s\", task-id:\"%s\"]) will be scheduled immediately for execution.",
-                                                   jobDesc.getJobId().toString(),
-                                                   candidate.getTaskId().toString()),
-                                     e);
-                        executionCycleTasks.add(candidate);
+                    nextDueTime = Math.min(nextDueTime, dueTime.time);
+                    if (logger.isTraceEnabled()) {
+                        logger.trace(String.format("Task [jobId:\"%s\", taskId:\"%s\"] is scheduled to be executed at %s." +
+                                                   " It will not be scheduled for this execution cycle at %s.",
+                                                   jobDesc.getJobId(),
+                                                   candidate.getTaskId(),
+                                                   ISO8601DateUtil.parse(new Date(dueTime.time)),
+                                                   ISO8601DateUtil.parse(new Date(now))));
                     }
-
                 }
             }
         }
+        dueTimes = currentDueTimes;
+        nextEligibilityTime = nextDueTime == Long.MAX_VALUE ? Long.MAX_VALUE : nextDueTime + 1;
         return executionCycleTasks;
     }
 
+    /**
+     * Returns the time just after the earliest START_AT of the tasks left aside by the last
+     * execution cycle.
+     */
+    @Override
+    public synchronized long getNextEligibilityTime() {
+        return nextEligibilityTime;
+    }
+
+    private DueTime computeDueTime(JobDescriptor jobDesc, EligibleTaskDescriptor candidate) {
+        long scheduledTime = candidate.getInternal().getScheduledTime();
+        String startAt = getStartAtValue(jobDesc, candidate);
+        if (startAt == null) {
+            return new DueTime(Long.MIN_VALUE, scheduledTime);
+        }
+        try {
+            return new DueTime(ISO8601DateUtil.toDate(startAt).getTime(), scheduledTime);
+        } catch (IllegalArgumentException e) {
+            logger.error(String.format("An error occurred while processing 'startAt' generic info.%n" +
+                                       "Task ([job-id:\"%s\", task-id:\"%s\"]) will be scheduled immediately for execution.",
+                                       jobDesc.getJobId().toString(),
+                                       candidate.getTaskId().toString()),
+                         e);
+            return new DueTime(Long.MIN_VALUE, scheduledTime);
+        }
+    }
+
     /*
      * START_AT property defined at task level always has the precedence over the same property
      * defined job level.
@@ -114,4 +150,20 @@ public class ExtendedSchedulerPolicy extends DefaultPolicy {
         }
         return startAt;
     }
+
+    /*
+     * Parsed START_AT of a task, along with the scheduled time of the task when it was parsed:
+     * the scheduled time is updated whenever START_AT changes (changeStartAt, cron loops).
+     */
+    private static final class DueTime {
+
+        private final long time;
+
+        private final long scheduledTime;
+
+        private DueTime(long time, long scheduledTime) {
+            this.time = time;
+            this.scheduledTime = scheduledTime;
+        }
+    }
 }
@@ -102,6 +102,17 @@ public abstract class Policy implements Serializable {
         return true;
     }
 
+    /**
+     * Return the time at which a task left aside by the last call to {@link #getOrderedTasks(List)}
+     * because it was not due yet will become schedulable. The scheduling loop is woken up at that time,
+     * even if nothing else happened in the scheduler.
+     *
+     * @return a time in milliseconds since the epoch, or {@link Long#MAX_VALUE} if no task is waiting.
+     */
+    public long getNextEligibilityTime() {
+        return Long.MAX_VALUE;
+    }
+
     /**
      * Set the RM state
      *
@@ -1181,14 +1181,14 @@ public abstract class InternalTask extends TaskState {
     }
 
     private void updateVariablesWithTaskResults(Map<TaskId, TaskResult> taskResults) {
+        List<Map<String, byte[]>> parentVariables = new ArrayList<>(taskResults.size());
         for (TaskResult taskResult : taskResults.values()) {
-            if (taskResult.getPropagatedVariables() != null) {
-                try {
-                    updatedVariables.putAll(SerializationUtil.deserializeVariableMap(taskResult.getPropagatedVariables()));
-                } catch (Exception e) {
-                    throw new IllegalStateException("Could not deserialize variable map", e);
-                }
-            }
+            parentVariables.add(taskResult.getPropagatedVariables());
+        }
+        try {
+            updatedVariables.putAll(SerializationUtil.deserializeMergedVariableMaps(parentVariables));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not deserialize variable map", e);
         }
     }
 
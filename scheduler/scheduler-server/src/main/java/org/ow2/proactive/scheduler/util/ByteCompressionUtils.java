@@ -25,17 +25,17 @@
  */
 package org.ow2.proactive.scheduler.util;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.zip.DataFormatException;
-import java.util.zip.Deflater;
-import java.util.zip.Inflater;
 
 import org.apache.log4j.Logger;
+import org.ow2.proactive.scheduler.util.compression.CompressionPolicy;
 
 
 /**
- * 
+ * Compression of the payloads stored by the scheduler, according to the default
+ * {@link CompressionPolicy}.
+ *
  * @author ActiveEon team
  *
  */
@@ -46,41 +46,19 @@ public class ByteCompressionUtils {
     }
 
     public static byte[] compress(byte[] data) throws IOException {
-        Deflater deflater = new Deflater();
-        deflater.setInput(data);
-
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length);
-
-        deflater.finish();
-        byte[] buffer = new byte[1024];
-        while (!deflater.finished()) {
-            int count = deflater.deflate(buffer); // returns the generated code... index  
-            outputStream.write(buffer, 0, count);
-        }
-        outputStream.close();
-        byte[] output = outputStream.toByteArray();
-
-        deflater.end();
+        byte[] output = CompressionPolicy.getDefault().compress(data);
 
         LOG.debug("Original: " + data.length / 1024 + " Kb");
         LOG.debug("Compressed: " + output.length / 1024 + " Kb");
         return output;
     }
 
+    /**
+     * Decompress a payload written by {@link #compress(byte[])}, whatever the codec it used,
+     * including payloads deflated without header by previous versions.
+     */
     public static byte[] decompress(byte[] data) throws IOException, DataFormatException {
-        Inflater inflater = new Inflater();
-        inflater.setInput(data);
-
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length);
-        byte[] buffer = new byte[1024];
-        while (!inflater.finished()) {
-            int count = inflater.inflate(buffer);
-            outputStream.write(buffer, 0, count);
-        }
-        outputStream.close();
-        byte[] output = outputStream.toByteArray();
-
-        inflater.end();
+        byte[] output = CompressionPolicy.decompress(data);
 
         LOG.debug("Original: " + data.length);
         LOG.debug("Uncompressed: " + output.length);
@@ -0,0 +1,138 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+
+/**
+ * A reentrant read/write lock which counts how often, and for how long, its callers
+ * had to wait for it.
+ * <p>
+ * An acquisition is contended when the lock could not be granted immediately. Only the
+ * contended acquisitions are timed, so the uncontended path costs a single try.
+ */
+public class MonitoredReadWriteLock {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final AtomicLong readLocks = new AtomicLong();
+
+    private final AtomicLong writeLocks = new AtomicLong();
+
+    private final AtomicLong contendedReadLocks = new AtomicLong();
+
+    private final AtomicLong contendedWriteLocks = new AtomicLong();
+
+    private final AtomicLong readWaitTime = new AtomicLong();
+
+    private final AtomicLong writeWaitTime = new AtomicLong();
+
+    public void lockRead() {
+        acquire(lock.readLock(), readLocks, contendedReadLocks, readWaitTime);
+    }
+
+    public void unlockRead() {
+        lock.readLock().unlock();
+    }
+
+    public void lockWrite() {
+        acquire(lock.writeLock(), writeLocks, contendedWriteLocks, writeWaitTime);
+    }
+
+    public void unlockWrite() {
+        lock.writeLock().unlock();
+    }
+
+    private static void acquire(Lock lock, AtomicLong locks, AtomicLong contendedLocks, AtomicLong waitTime) {
+        locks.incrementAndGet();
+        // a timed try honours the queued writers, unlike tryLock()
+        try {
+            if (lock.tryLock(0, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        contendedLocks.incrementAndGet();
+        waitTime.addAndGet(System.nanoTime() - start);
+    }
+
+    /**
+     * @return number of read lock acquisitions
+     */
+    public long getReadLocksCount() {
+        return readLocks.get();
+    }
+
+    /**
+     * @return number of write lock acquisitions
+     */
+    public long getWriteLocksCount() {
+        return writeLocks.get();
+    }
+
+    /**
+     * @return number of read lock acquisitions which had to wait
+     */
+    public long getContendedReadLocksCount() {
+        return contendedReadLocks.get();
+    }
+
+    /**
+     * @return number of write lock acquisitions which had to wait
+     */
+    public long getContendedWriteLocksCount() {
+        return contendedWriteLocks.get();
+    }
+
+    /**
+     * @return total time in milliseconds spent waiting for the read lock
+     */
+    public long getReadLockWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(readWaitTime.get());
+    }
+
+    /**
+     * @return total time in milliseconds spent waiting for the write lock
+     */
+    public long getWriteLockWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(writeWaitTime.get());
+    }
+
+    /**
+     * @return estimated number of threads currently waiting for the lock
+     */
+    public int getQueueLength() {
+        return lock.getQueueLength();
+    }
+
+}
@@ -25,56 +25,173 @@
  */
 package org.ow2.proactive.scheduler.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.Set;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.log4j.Logger;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
+import org.ow2.proactive.scheduler.common.ServerLogsSnapshot;
+import org.ow2.proactive.scheduler.common.ServerLogsSnapshot.Part;
 import org.ow2.proactive.scheduler.common.job.JobId;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.utils.FileUtils;
 import org.ow2.proactive.utils.appenders.FileAppender;
+import org.ow2.proactive.utils.appenders.FileWriterPool;
 
 
 public class ServerJobAndTaskLogs {
 
     private static final Logger logger = Logger.getLogger(ServerJobAndTaskLogs.class);
 
+    private static final Comparator<TaskId> TASK_ORDER = new Comparator<TaskId>() {
+        @Override
+        public int compare(TaskId t1, TaskId t2) {
+            return Long.compare(t1.longValue(), t2.longValue());
+        }
+    };
+
     public static void configure() {
         if (logsLocationIsSet()) {
             if (isCleanStart()) {
                 removeLogsDirectory();
 
             }
+            if (PASchedulerProperties.SCHEDULER_JOB_LOGS_MAX_OPEN_FILES.isSet()) {
+                FileWriterPool.getInstance()
+                              .setMaxOpenFiles(PASchedulerProperties.SCHEDULER_JOB_LOGS_MAX_OPEN_FILES.getValueAsInt());
+            }
             addNewFileAppenderToLoggerFor(JobLogger.class);
             addNewFileAppenderToLoggerFor(TaskLogger.class);
         }
     }
 
     public static String getTaskLog(TaskId id) {
-        String result = readLog(TaskLogger.getTaskLogRelativePath(id));
-        return result != null ? result : "Cannot retrieve logs for task " + id;
+        return toString(openTaskLog(id));
+    }
+
+    public static String getJobLog(JobId jobId, Collection<TaskId> tasks) {
+        return toString(openJobLog(jobId, tasks));
+    }
+
+    /**
+     * Opens the logs of a task, the log files being read as the stream is consumed.
+     */
+    public static InputStream openTaskLog(TaskId id) {
+        flushFiles();
+        return open(getTaskLogParts(id), 0);
+    }
+
+    /**
+     * Opens the logs of a job followed by the logs of the given tasks, the log files being
+     * read as the stream is consumed.
+     */
+    public static InputStream openJobLog(JobId jobId, Collection<TaskId> tasks) {
+        flushFiles();
+        return open(getJobLogParts(jobId, tasks), 0);
+    }
+
+    /**
+     * Takes a snapshot of the logs of a task and reads a range of it.
+     *
+     * @param offset position of the first byte to read, or if negative, number of bytes to read
+     *               from the end of the logs
+     * @param length maximum number of bytes to read
+     */
+    public static ServerLogsChunk readTaskLog(TaskId id, long offset, int length) {
+        flushFiles();
+        ServerLogsSnapshot snapshot = new ServerLogsSnapshot(getTaskLogParts(id));
+        long start = start(snapshot, offset);
+        return new ServerLogsChunk(readChunk(snapshot, start, length), start, snapshot);
+    }
+
+    /**
+     * Takes a snapshot of the logs of a job followed by the logs of the given tasks, and reads
+     * a range of it.
+     *
+     * @param offset position of the first byte to read, or if negative, number of bytes to read
+     *               from the end of the logs
+     * @param length maximum number of bytes to read
+     */
+    public static ServerLogsChunk readJobLog(JobId jobId, Collection<TaskId> tasks, long offset, int length) {
+        flushFiles();
+        ServerLogsSnapshot snapshot = new ServerLogsSnapshot(getJobLogParts(jobId, tasks));
+        long start = start(snapshot, offset);
+        return new ServerLogsChunk(readChunk(snapshot, start, length), start, snapshot);
     }
 
-    public static String getJobLog(JobId jobId, Set<TaskId> tasks) {
-        String jobLog = readLog(JobLogger.getJobLogRelativePath(jobId));
-        if (jobLog == null) {
-            return "Cannot retrieve logs for job " + jobId;
+    /**
+     * Reads another range of a snapshot of the logs of a job or of its tasks. The log files
+     * are neither flushed nor listed again, and are read up to their length in the snapshot.
+     *
+     * @throws IllegalArgumentException if the snapshot refers to files that are not logs of the job
+     */
+    public static ServerLogsChunk readLog(JobId jobId, ServerLogsSnapshot snapshot, long offset, int length) {
+        String jobLogsDirectory = jobId.value() + "/";
+        for (Part part : snapshot.getParts()) {
+            String file = part.getFile();
+            if (file != null && !(file.startsWith(jobLogsDirectory) &&
+                                  isLogFileName(file.substring(jobLogsDirectory.length())))) {
+                throw new IllegalArgumentException(file + " is not a log of job " + jobId);
+            }
         }
+        long start = start(snapshot, offset);
+        return new ServerLogsChunk(readChunk(snapshot, start, length), start, snapshot.getSize());
+    }
+
+    private static boolean isLogFileName(String name) {
+        return !name.isEmpty() && !name.startsWith(".") && name.indexOf('/') < 0 && name.indexOf('\\') < 0;
+    }
+
+    private static List<Part> getTaskLogParts(TaskId id) {
+        List<Part> parts = getLogParts(TaskLogger.getTaskLogRelativePath(id));
+        if (parts.isEmpty()) {
+            parts.add(text("Cannot retrieve logs for task " + id));
+        }
+        return parts;
+    }
 
-        StringBuilder result = new StringBuilder();
-        result.append("================= Job ").append(jobId).append(" logs =================\n");
-        result.append(jobLog);
-        for (TaskId taskId : tasks) {
-            result.append("\n================ Task ").append(taskId).append(" logs =================\n");
-            result.append(getTaskLog(taskId));
+    /*
+     * The tasks are sorted by id, so that the parts, and so the offsets of the logs, do not
+     * depend on the order in which the tasks are given.
+     */
+    private static List<Part> getJobLogParts(JobId jobId, Collection<TaskId> tasks) {
+        List<Part> jobParts = getLogParts(JobLogger.getJobLogRelativePath(jobId));
+        if (jobParts.isEmpty()) {
+            jobParts.add(text("Cannot retrieve logs for job " + jobId));
+            return jobParts;
         }
-        return result.toString();
 
+        List<TaskId> sortedTasks = new ArrayList<>(tasks);
+        Collections.sort(sortedTasks, TASK_ORDER);
+
+        List<Part> parts = new ArrayList<>(jobParts.size() + 3 * sortedTasks.size() + 1);
+        parts.add(text("================= Job " + jobId + " logs =================\n"));
+        parts.addAll(jobParts);
+        for (TaskId taskId : sortedTasks) {
+            parts.add(text("\n================ Task " + taskId + " logs =================\n"));
+            parts.addAll(getTaskLogParts(taskId));
+        }
+        return parts;
     }
 
     public static void remove(JobId jobId) {
+        closeFiles(jobId.value() + "/");
         removeFolderLog(jobId.value());
     }
 
@@ -100,40 +217,110 @@ public class ServerJobAndTaskLogs {
         return PASchedulerProperties.SCHEDULER_DB_HIBERNATE_DROPDB.getValueAsBoolean();
     }
 
-    private static String readLog(String filename) {
-        String result = null;
+    /*
+     * A log file is listed with its length at that time, the file being read up to that
+     * length only.
+     */
+    private static List<Part> getLogParts(String filename) {
+        List<Part> parts = new ArrayList<>(2);
         for (String suffix : new String[] { ".1", "" }) {
-            String contents = readFile(new File(getLogsLocation(), filename + suffix));
-            if (contents != null) {
-                if (result == null) {
-                    result = contents;
-                } else {
-                    result += contents;
-                }
+            File file = new File(getLogsLocation(), filename + suffix);
+            if (file.exists()) {
+                parts.add(Part.ofFile(filename + suffix, file.length()));
             }
         }
-        return result;
+        return parts;
+    }
+
+    private static Part text(String text) {
+        return Part.ofText(text.getBytes(Charset.defaultCharset()));
+    }
+
+    private static long start(ServerLogsSnapshot snapshot, long offset) {
+        long size = snapshot.getSize();
+        return offset >= 0 ? Math.min(offset, size) : Math.max(0, size + offset);
+    }
+
+    private static byte[] readChunk(ServerLogsSnapshot snapshot, long start, int length) {
+        byte[] content = new byte[(int) Math.min(Math.max(0, length), snapshot.getSize() - start)];
+
+        int read = 0;
+        try (InputStream in = open(snapshot.getParts(), start)) {
+            read = IOUtils.read(in, content);
+        } catch (IOException e) {
+            logger.warn(e);
+        }
+        if (read < content.length) {
+            content = Arrays.copyOf(content, read);
+        }
+        return content;
     }
 
-    private static String readFile(File file) {
-        if (file.exists()) {
-            try {
-                return org.apache.commons.io.FileUtils.readFileToString(file);
-            } catch (IOException e) {
-                logger.warn(e);
+    private static InputStream open(List<Part> parts, long position) {
+        int first = 0;
+        while (first < parts.size() && position >= parts.get(first).getLength()) {
+            position -= parts.get(first).getLength();
+            first++;
+        }
+
+        final Iterator<Part> remainingParts = parts.subList(first, parts.size()).iterator();
+        final long skip = position;
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+            private long toSkip = skip;
+
+            @Override
+            public boolean hasMoreElements() {
+                return remainingParts.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                InputStream in = open(remainingParts.next(), toSkip);
+                toSkip = 0;
+                return in;
             }
+        });
+    }
+
+    private static String toString(InputStream in) {
+        try {
+            return IOUtils.toString(in, Charset.defaultCharset());
+        } catch (IOException e) {
+            logger.warn(e);
+            return "";
+        } finally {
+            IOUtils.closeQuietly(in);
         }
-        return null;
     }
 
     static void removeLogsDirectory() {
         String logsLocation = getLogsLocation();
         logger.info("Removing logs " + logsLocation);
+        closeFiles("");
         FileUtils.removeDir(new File(logsLocation));
     }
 
+    private static void flushFiles() {
+        if (logsLocationIsSet()) {
+            FileWriterPool.getInstance().flush();
+        }
+    }
+
+    private static void closeFiles(String relativePathPrefix) {
+        if (logsLocationIsSet()) {
+            FileWriterPool.getInstance().closeFiles(getLogsLocation() + File.separator + relativePathPrefix);
+        }
+    }
+
     private static void addNewFileAppenderToLoggerFor(Class<?> cls) {
         Logger jobLogger = Logger.getLogger(cls);
+        // replace the appender of a previous configuration, if any
+        for (Object appender : Collections.list(jobLogger.getAllAppenders())) {
+            if (appender instanceof FileAppender) {
+                jobLogger.removeAppender((FileAppender) appender);
+                ((FileAppender) appender).close();
+            }
+        }
         FileAppender appender = createFileAppender();
         jobLogger.addAppender(appender);
     }
@@ -147,4 +334,22 @@ public class ServerJobAndTaskLogs {
         return appender;
     }
 
+    private static InputStream open(Part part, long skip) {
+        long length = part.getLength();
+        if (part.getText() != null) {
+            return new ByteArrayInputStream(part.getText(), (int) skip, (int) (length - skip));
+        }
+        InputStream in = null;
+        try {
+            in = new FileInputStream(new File(getLogsLocation(), part.getFile()));
+            IOUtils.skipFully(in, skip);
+            return new BoundedInputStream(in, length - skip);
+        } catch (IOException e) {
+            // the file has been removed or rolled over in the meantime
+            logger.warn(e);
+            IOUtils.closeQuietly(in);
+            return new ByteArrayInputStream(new byte[0]);
+        }
+    }
+
 }
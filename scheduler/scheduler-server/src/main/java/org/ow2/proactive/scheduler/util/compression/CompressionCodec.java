@@ -0,0 +1,78 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.util.compression;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+
+/**
+ * Algorithm used by a {@link CompressionPolicy} to encode a payload.
+ * <p>
+ * The identifier of the codec is written in the header of every encoded payload, it must never
+ * change once contents were stored with it.
+ *
+ * @author ActiveEon Team
+ */
+public interface CompressionCodec {
+
+    /**
+     * @return the identifier written in the header of the payloads encoded by this codec
+     */
+    byte getId();
+
+    /**
+     * Encode the given data.
+     *
+     * @param data the data to encode
+     * @return the encoded data, without header
+     */
+    byte[] compress(byte[] data);
+
+    /**
+     * Decode the given range of an encoded payload.
+     *
+     * @param data the array containing the encoded data
+     * @param offset offset of the encoded data in the array
+     * @param length length of the encoded data
+     * @param originalLength length of the data before it was encoded
+     * @return the decoded data
+     * @throws IOException if the encoded data is corrupted
+     */
+    byte[] decompress(byte[] data, int offset, int length, int originalLength) throws IOException;
+
+    /**
+     * Decode the remaining bytes of the given buffer, which may be a direct or memory mapped buffer.
+     * The buffer is consumed: its position is moved to its limit.
+     *
+     * @param data the buffer containing the encoded data
+     * @param originalLength length of the data before it was encoded
+     * @return the decoded data
+     * @throws IOException if the encoded data is corrupted
+     */
+    byte[] decompress(ByteBuffer data, int originalLength) throws IOException;
+
+}
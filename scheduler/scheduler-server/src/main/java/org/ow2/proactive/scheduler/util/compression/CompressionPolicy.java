@@ -0,0 +1,269 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.util.compression;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+import org.apache.log4j.Logger;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+
+
+/**
+ * Chooses how a payload is compressed depending on its size and content.
+ * <p>
+ * Payloads smaller than the minimum size, or which look already compressed, are stored as is.
+ * Payloads up to the fast threshold are deflated, bigger ones are compressed with the
+ * {@link FastCodec} so that they are not slowed down by Deflate when written nor when read.
+ * <p>
+ * Encoded payloads start with a header (magic number, codec identifier and original size) so that
+ * contents encoded with different codecs, or with different policies, can always be decoded.
+ * Payloads without this header are zlib streams written before the header existed.
+ *
+ * @author ActiveEon Team
+ */
+public class CompressionPolicy {
+
+    private static final Logger logger = Logger.getLogger(CompressionPolicy.class);
+
+    private static final byte[] MAGIC = { 0x50, 0x43 };
+
+    public static final int HEADER_SIZE = MAGIC.length + 1 + 4;
+
+    public static final int DEFAULT_MIN_SIZE = 512;
+
+    public static final int DEFAULT_FAST_THRESHOLD = 64 * 1024;
+
+    /** Size of the sample compressed to detect incompressible payloads */
+    private static final int SAMPLE_SIZE = 4 * 1024;
+
+    /** Payloads whose sample is not reduced below this ratio are stored as is */
+    private static final double INCOMPRESSIBLE_RATIO = 0.9;
+
+    /** Leading bytes of common compressed formats */
+    private static final byte[][] COMPRESSED_SIGNATURES = { { 0x1f, (byte) 0x8b }, // gzip
+                                                            { 0x50, 0x4b, 0x03, 0x04 }, // zip, jar
+                                                            { 0x42, 0x5a, 0x68 }, // bzip2
+                                                            { (byte) 0xfd, 0x37, 0x7a, 0x58, 0x5a, 0x00 }, // xz
+                                                            { 0x37, 0x7a, (byte) 0xbc, (byte) 0xaf, 0x27, 0x1c }, // 7z
+                                                            { 0x28, (byte) 0xb5, 0x2f, (byte) 0xfd }, // zstd
+                                                            { 0x04, 0x22, 0x4d, 0x18 }, // lz4
+                                                            { (byte) 0x89, 0x50, 0x4e, 0x47 }, // png
+                                                            { (byte) 0xff, (byte) 0xd8, (byte) 0xff }, // jpeg
+                                                            MAGIC };
+
+    private static final CompressionCodec STORED_CODEC = new StoredCodec();
+
+    private static final FastCodec FAST_CODEC = new FastCodec();
+
+    private static final CompressionCodec[] DECODERS = { STORED_CODEC,
+                                                         new DeflateCodec(Deflater.DEFAULT_COMPRESSION),
+                                                         FAST_CODEC };
+
+    private final int minSize;
+
+    private final int fastThreshold;
+
+    private final DeflateCodec deflateCodec;
+
+    private final boolean detectCompressed;
+
+    /**
+     * @param minSize payloads smaller than this size (in bytes) are not compressed
+     * @param fastThreshold payloads bigger than this size (in bytes) are compressed with the fast codec
+     *                      instead of Deflate, a negative value to always use Deflate
+     * @param deflateLevel the Deflate compression level
+     * @param detectCompressed whether payloads which look already compressed are stored as is
+     */
+    public CompressionPolicy(int minSize, int fastThreshold, int deflateLevel, boolean detectCompressed) {
+        this.minSize = Math.max(minSize, 0);
+        this.fastThreshold = fastThreshold;
+        this.deflateCodec = new DeflateCodec(deflateLevel);
+        this.detectCompressed = detectCompressed;
+    }
+
+    /**
+     * @return the policy configured by the scheduler properties
+     */
+    public static CompressionPolicy getDefault() {
+        return LazyHolder.INSTANCE;
+    }
+
+    /**
+     * Compress the given payload with the codec chosen for it.
+     *
+     * @param data the payload to compress
+     * @return the encoded payload, starting with a header identifying its codec
+     */
+    public byte[] compress(byte[] data) {
+        CompressionCodec codec = chooseCodec(data);
+        byte[] compressed = codec.compress(data);
+        if (codec != STORED_CODEC && compressed.length >= data.length) {
+            codec = STORED_CODEC;
+            compressed = data;
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Compressed " + data.length + " bytes to " + compressed.length + " bytes with codec " +
+                         codec.getId());
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + compressed.length);
+        buffer.put(MAGIC);
+        buffer.put(codec.getId());
+        buffer.putInt(data.length);
+        buffer.put(compressed);
+        return buffer.array();
+    }
+
+    /**
+     * Decompress a payload encoded by any policy, or a zlib stream written without header.
+     *
+     * @param data the encoded payload
+     * @return the original payload
+     * @throws IOException if the payload is corrupted
+     */
+    public static byte[] decompress(byte[] data) throws IOException {
+        if (!hasHeader(data)) {
+            return DeflateCodec.inflate(data);
+        }
+
+        return decompress(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Decompress the remaining bytes of the given buffer without copying them to the heap first,
+     * so that memory mapped contents are decoded in place. The buffer is consumed.
+     *
+     * @param data the buffer containing the encoded payload
+     * @return the original payload
+     * @throws IOException if the payload is corrupted
+     */
+    public static byte[] decompress(ByteBuffer data) throws IOException {
+        if (!hasHeader(data)) {
+            // zlib streams without header are only found in the database, they are small
+            byte[] legacy = new byte[data.remaining()];
+            data.get(legacy);
+            return DeflateCodec.inflate(legacy);
+        }
+
+        data.position(data.position() + MAGIC.length);
+        int codecId = data.get();
+        int originalLength = data.getInt();
+        if (codecId < 0 || codecId >= DECODERS.length) {
+            throw new IOException("Unknown compression codec: " + codecId);
+        }
+        if (originalLength < 0) {
+            throw new IOException("Invalid size for compressed content: " + originalLength);
+        }
+        return DECODERS[codecId].decompress(data, originalLength);
+    }
+
+    /**
+     * @return true if the given payload starts with the header written by {@link #compress(byte[])}
+     */
+    public static boolean hasHeader(byte[] data) {
+        return data.length >= HEADER_SIZE && startsWith(data, MAGIC);
+    }
+
+    /**
+     * @return true if the remaining bytes of the given buffer start with the header written by
+     *         {@link #compress(byte[])}
+     */
+    public static boolean hasHeader(ByteBuffer data) {
+        if (data.remaining() < HEADER_SIZE) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data.get(data.position() + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    CompressionCodec chooseCodec(byte[] data) {
+        if (data.length < minSize) {
+            return STORED_CODEC;
+        }
+        if (detectCompressed && looksCompressed(data)) {
+            return STORED_CODEC;
+        }
+        if (fastThreshold >= 0 && data.length > fastThreshold) {
+            return FAST_CODEC;
+        }
+        return deflateCodec;
+    }
+
+    private static boolean looksCompressed(byte[] data) {
+        for (byte[] signature : COMPRESSED_SIGNATURES) {
+            if (startsWith(data, signature)) {
+                return true;
+            }
+        }
+        if (data.length < 2 * SAMPLE_SIZE) {
+            // cheap enough to try, the result is stored as is if it is not smaller
+            return false;
+        }
+        // compressed contents are often embedded in serialized objects, sample the middle of the payload
+        byte[] sample = new byte[SAMPLE_SIZE];
+        System.arraycopy(data, (data.length - SAMPLE_SIZE) / 2, sample, 0, SAMPLE_SIZE);
+        return FAST_CODEC.compress(sample).length > SAMPLE_SIZE * INCOMPRESSIBLE_RATIO;
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        if (data.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class LazyHolder {
+
+        private static final CompressionPolicy INSTANCE = createDefault();
+
+        private static CompressionPolicy createDefault() {
+            int minSize = PASchedulerProperties.SCHEDULER_DB_COMPRESSION_MIN_SIZE.isSet() ? PASchedulerProperties.SCHEDULER_DB_COMPRESSION_MIN_SIZE.getValueAsInt()
+                                                                                          : DEFAULT_MIN_SIZE;
+            int fastThreshold = PASchedulerProperties.SCHEDULER_DB_COMPRESSION_FAST_THRESHOLD.isSet() ? PASchedulerProperties.SCHEDULER_DB_COMPRESSION_FAST_THRESHOLD.getValueAsInt()
+                                                                                                      : DEFAULT_FAST_THRESHOLD;
+            int deflateLevel = PASchedulerProperties.SCHEDULER_DB_COMPRESSION_DEFLATE_LEVEL.isSet() ? PASchedulerProperties.SCHEDULER_DB_COMPRESSION_DEFLATE_LEVEL.getValueAsInt()
+                                                                                                    : Deflater.DEFAULT_COMPRESSION;
+            boolean detectCompressed = !PASchedulerProperties.SCHEDULER_DB_COMPRESSION_DETECT_COMPRESSED.isSet() ||
+                                       PASchedulerProperties.SCHEDULER_DB_COMPRESSION_DETECT_COMPRESSED.getValueAsBoolean();
+            logger.debug("Compression policy: min size " + minSize + ", fast threshold " + fastThreshold +
+                         ", deflate level " + deflateLevel);
+            return new CompressionPolicy(minSize, fastThreshold, deflateLevel, detectCompressed);
+        }
+    }
+
+}
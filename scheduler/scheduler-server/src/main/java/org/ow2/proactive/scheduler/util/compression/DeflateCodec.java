@@ -0,0 +1,178 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.util.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+
+/**
+ * Codec compressing payloads with the zlib format of {@link Deflater}.
+ *
+ * @author ActiveEon Team
+ */
+public class DeflateCodec implements CompressionCodec {
+
+    public static final byte ID = 1;
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final int level;
+
+    /**
+     * @param level the compression level, between {@link Deflater#BEST_SPEED} and
+     *              {@link Deflater#BEST_COMPRESSION}, or {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public DeflateCodec(int level) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Invalid deflate level: " + level);
+        }
+        this.level = level;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(data.length / 2, 64));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                outputStream.write(buffer, 0, count);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int originalLength) throws IOException {
+        byte[] result = new byte[originalLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, length);
+            int count = 0;
+            while (count < originalLength && !inflater.finished()) {
+                int inflated = inflater.inflate(result, count, originalLength - count);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                count += inflated;
+            }
+            if (count != originalLength) {
+                throw new IOException("Invalid size for deflated content: expected " + originalLength +
+                                      " bytes, got " + count);
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted deflated content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decompress(ByteBuffer data, int originalLength) throws IOException {
+        if (data.hasArray()) {
+            int length = data.remaining();
+            byte[] result = decompress(data.array(), data.arrayOffset() + data.position(), length, originalLength);
+            data.position(data.position() + length);
+            return result;
+        }
+
+        // the inflater only reads arrays, feed it with chunks of the buffer
+        byte[] result = new byte[originalLength];
+        byte[] chunk = new byte[BUFFER_SIZE];
+        Inflater inflater = new Inflater();
+        try {
+            int count = 0;
+            while (count < originalLength && !inflater.finished()) {
+                if (inflater.needsInput()) {
+                    if (!data.hasRemaining()) {
+                        break;
+                    }
+                    int chunkLength = Math.min(chunk.length, data.remaining());
+                    data.get(chunk, 0, chunkLength);
+                    inflater.setInput(chunk, 0, chunkLength);
+                } else if (inflater.needsDictionary()) {
+                    break;
+                }
+                count += inflater.inflate(result, count, originalLength - count);
+            }
+            if (count != originalLength) {
+                throw new IOException("Invalid size for deflated content: expected " + originalLength +
+                                      " bytes, got " + count);
+            }
+            data.position(data.limit());
+            return result;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted deflated content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Decode a zlib stream whose uncompressed size is unknown, as written before payloads had a header.
+     */
+    static byte[] inflate(byte[] data) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length * 2);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated deflated content");
+                }
+                outputStream.write(buffer, 0, count);
+            }
+            return outputStream.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted deflated content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+}
@@ -0,0 +1,254 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.util.compression;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+
+/**
+ * Fast codec based on the block format of LZ4: a sequence of literals followed by a copy of
+ * previous bytes, found through a single hash table lookup.
+ * <p>
+ * Compression ratios are lower than with Deflate but compression and decompression are several
+ * times faster, which matters for large payloads compressed by the scheduler and decompressed on
+ * each read.
+ *
+ * @author ActiveEon Team
+ */
+public class FastCodec implements CompressionCodec {
+
+    public static final byte ID = 2;
+
+    private static final int MIN_MATCH = 4;
+
+    /** The last bytes of a payload are always literals */
+    private static final int LAST_LITERALS = 5;
+
+    /** A match cannot start in the last bytes of a payload */
+    private static final int MATCH_FIND_LIMIT = 12;
+
+    private static final int MAX_OFFSET = 0xFFFF;
+
+    private static final int HASH_LOG = 14;
+
+    /** Searches are accelerated on data where no match is found */
+    private static final int SKIP_TRIGGER = 6;
+
+    private static final int RUN_MASK = 0x0F;
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        int length = data.length;
+        byte[] output = new byte[length + length / 255 + 16];
+        int outputOffset = 0;
+        int anchor = 0;
+
+        if (length > MATCH_FIND_LIMIT) {
+            int[] table = new int[1 << HASH_LOG];
+            Arrays.fill(table, -1);
+            int limit = length - MATCH_FIND_LIMIT;
+            int matchLimit = length - LAST_LITERALS;
+            int searchCount = 1 << SKIP_TRIGGER;
+            int position = 0;
+
+            while (position < limit) {
+                int sequence = readInt(data, position);
+                int hash = hash(sequence);
+                int reference = table[hash];
+                table[hash] = position;
+                if (reference < 0 || position - reference > MAX_OFFSET || readInt(data, reference) != sequence) {
+                    position += searchCount++ >>> SKIP_TRIGGER;
+                    continue;
+                }
+                searchCount = 1 << SKIP_TRIGGER;
+
+                while (position > anchor && reference > 0 && data[position - 1] == data[reference - 1]) {
+                    position--;
+                    reference--;
+                }
+                int matchLength = MIN_MATCH;
+                while (position + matchLength < matchLimit && data[position + matchLength] == data[reference + matchLength]) {
+                    matchLength++;
+                }
+
+                outputOffset = writeSequence(data,
+                                             anchor,
+                                             position - anchor,
+                                             position - reference,
+                                             matchLength,
+                                             output,
+                                             outputOffset);
+                position += matchLength;
+                anchor = position;
+                if (position < limit) {
+                    table[hash(readInt(data, position - 2))] = position - 2;
+                }
+            }
+        }
+
+        outputOffset = writeLiterals(data, anchor, length - anchor, output, outputOffset);
+        return Arrays.copyOf(output, outputOffset);
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int originalLength) throws IOException {
+        return decompress(ByteBuffer.wrap(data, offset, length), originalLength);
+    }
+
+    @Override
+    public byte[] decompress(ByteBuffer data, int originalLength) throws IOException {
+        byte[] result = new byte[originalLength];
+        int resultOffset = 0;
+
+        while (data.hasRemaining()) {
+            int token = data.get() & 0xFF;
+
+            int literalLength = token >>> 4;
+            if (literalLength == RUN_MASK) {
+                int value;
+                do {
+                    if (!data.hasRemaining()) {
+                        throw corrupted();
+                    }
+                    value = data.get() & 0xFF;
+                    literalLength += value;
+                } while (value == 0xFF && literalLength > 0);
+            }
+            if (literalLength < 0 || literalLength > data.remaining() ||
+                literalLength > originalLength - resultOffset) {
+                throw corrupted();
+            }
+            data.get(result, resultOffset, literalLength);
+            resultOffset += literalLength;
+
+            if (!data.hasRemaining()) {
+                break;
+            }
+
+            if (data.remaining() < 2) {
+                throw corrupted();
+            }
+            int matchOffset = (data.get() & 0xFF) | ((data.get() & 0xFF) << 8);
+            if (matchOffset == 0 || matchOffset > resultOffset) {
+                throw corrupted();
+            }
+
+            int matchLength = token & RUN_MASK;
+            if (matchLength == RUN_MASK) {
+                int value;
+                do {
+                    if (!data.hasRemaining()) {
+                        throw corrupted();
+                    }
+                    value = data.get() & 0xFF;
+                    matchLength += value;
+                } while (value == 0xFF && matchLength > 0);
+            }
+            matchLength += MIN_MATCH;
+            if (matchLength < MIN_MATCH || matchLength > originalLength - resultOffset) {
+                throw corrupted();
+            }
+
+            int reference = resultOffset - matchOffset;
+            if (matchOffset >= matchLength) {
+                System.arraycopy(result, reference, result, resultOffset, matchLength);
+            } else {
+                // overlapping copy, repeats the last matchOffset bytes
+                for (int i = 0; i < matchLength; i++) {
+                    result[resultOffset + i] = result[reference + i];
+                }
+            }
+            resultOffset += matchLength;
+        }
+
+        if (resultOffset != originalLength) {
+            throw new IOException("Invalid size for fast compressed content: expected " + originalLength +
+                                  " bytes, got " + resultOffset);
+        }
+        return result;
+    }
+
+    private static int writeSequence(byte[] data, int literalOffset, int literalLength, int matchOffset,
+            int matchLength, byte[] output, int outputOffset) {
+        int tokenOffset = outputOffset;
+        outputOffset = writeLiterals(data, literalOffset, literalLength, output, outputOffset);
+
+        output[outputOffset++] = (byte) matchOffset;
+        output[outputOffset++] = (byte) (matchOffset >>> 8);
+
+        int length = matchLength - MIN_MATCH;
+        if (length >= RUN_MASK) {
+            output[tokenOffset] |= RUN_MASK;
+            outputOffset = writeLength(length - RUN_MASK, output, outputOffset);
+        } else {
+            output[tokenOffset] |= length;
+        }
+        return outputOffset;
+    }
+
+    private static int writeLiterals(byte[] data, int literalOffset, int literalLength, byte[] output,
+            int outputOffset) {
+        int tokenOffset = outputOffset++;
+        if (literalLength >= RUN_MASK) {
+            output[tokenOffset] = (byte) (RUN_MASK << 4);
+            outputOffset = writeLength(literalLength - RUN_MASK, output, outputOffset);
+        } else {
+            output[tokenOffset] = (byte) (literalLength << 4);
+        }
+        System.arraycopy(data, literalOffset, output, outputOffset, literalLength);
+        return outputOffset + literalLength;
+    }
+
+    private static int writeLength(int length, byte[] output, int outputOffset) {
+        while (length >= 0xFF) {
+            output[outputOffset++] = (byte) 0xFF;
+            length -= 0xFF;
+        }
+        output[outputOffset++] = (byte) length;
+        return outputOffset;
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8) | ((data[offset + 2] & 0xFF) << 16) |
+               ((data[offset + 3] & 0xFF) << 24);
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private static IOException corrupted() {
+        return new IOException("Corrupted fast compressed content");
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.util.compression;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+
+/**
+ * Codec storing payloads as is, used for small or already compressed payloads.
+ *
+ * @author ActiveEon Team
+ */
+public class StoredCodec implements CompressionCodec {
+
+    public static final byte ID = 0;
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        return data.clone();
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int originalLength) throws IOException {
+        if (length != originalLength) {
+            throw new IOException("Invalid size for stored content: expected " + originalLength + " bytes, got " +
+                                  length);
+        }
+        return Arrays.copyOfRange(data, offset, offset + length);
+    }
+
+    @Override
+    public byte[] decompress(ByteBuffer data, int originalLength) throws IOException {
+        if (data.remaining() != originalLength) {
+            throw new IOException("Invalid size for stored content: expected " + originalLength + " bytes, got " +
+                                  data.remaining());
+        }
+        byte[] result = new byte[originalLength];
+        data.get(result);
+        return result;
+    }
+
+}
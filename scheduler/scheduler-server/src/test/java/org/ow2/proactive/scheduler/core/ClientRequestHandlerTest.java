@@ -0,0 +1,159 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.objectweb.proactive.core.UniqueID;
+import org.ow2.proactive.scheduler.common.NotificationData;
+import org.ow2.proactive.scheduler.common.SchedulerEvent;
+import org.ow2.proactive.scheduler.common.SchedulerEventBatch;
+import org.ow2.proactive.scheduler.common.SchedulerEventBatchListener;
+import org.ow2.proactive.scheduler.common.SchedulerEventListener;
+import org.ow2.proactive.scheduler.common.job.JobId;
+import org.ow2.proactive.scheduler.common.task.TaskInfo;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.task.TaskIdImpl;
+
+
+public class ClientRequestHandlerTest {
+
+    private static final Method TASK_STATE_UPDATED_EVENT;
+
+    static {
+        try {
+            TASK_STATE_UPDATED_EVENT = SchedulerEventListener.class.getMethod("taskStateUpdatedEvent",
+                                                                              NotificationData.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final JobId jobId = new JobIdImpl(42, "job");
+
+    private SchedulerFrontendState frontend;
+
+    private SchedulerEventBatchListener client;
+
+    private UniqueID clientId;
+
+    private List<SchedulerEventBatch> batches;
+
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() {
+        frontend = mock(SchedulerFrontendState.class);
+        client = mock(SchedulerEventBatchListener.class);
+        clientId = new UniqueID();
+        batches = new CopyOnWriteArrayList<>();
+        release = new CountDownLatch(1);
+        // the client blocks on the first batch until released
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                batches.add((SchedulerEventBatch) invocation.getArguments()[0]);
+                release.await(10, TimeUnit.SECONDS);
+                return null;
+            }
+        }).when(client).schedulerEventsBatch(any(SchedulerEventBatch.class));
+    }
+
+    @Test
+    public void progressEventsOfATaskAreCoalesced() throws Exception {
+        ClientRequestHandler handler = new ClientRequestHandler(frontend, clientId, "user", client);
+
+        handler.addEvent(TASK_STATE_UPDATED_EVENT, taskEvent("t1", SchedulerEvent.TASK_PROGRESS));
+        waitForBatches(1);
+
+        handler.addEvent(TASK_STATE_UPDATED_EVENT, taskEvent("t1", SchedulerEvent.TASK_PROGRESS));
+        handler.addEvent(TASK_STATE_UPDATED_EVENT, taskEvent("t2", SchedulerEvent.TASK_PROGRESS));
+        handler.addEvent(TASK_STATE_UPDATED_EVENT, taskEvent("t1", SchedulerEvent.TASK_PROGRESS));
+        handler.addEvent(TASK_STATE_UPDATED_EVENT, taskEvent("t1", SchedulerEvent.TASK_RUNNING_TO_FINISHED));
+        // must not be merged into the progress preceding the termination
+        handler.addEvent(TASK_STATE_UPDATED_EVENT, taskEvent("t1", SchedulerEvent.TASK_PROGRESS));
+        release.countDown();
+        waitForBatches(2);
+
+        assertEquals(1, batches.get(0).size());
+        assertEquals(4, batches.get(1).size());
+        handler.close();
+    }
+
+    @Test
+    public void slowClientIsDisconnected() throws Exception {
+        ClientRequestHandler handler = new ClientRequestHandler(frontend, clientId, "user", client);
+
+        handler.addEvent(TASK_STATE_UPDATED_EVENT, taskEvent("t0", SchedulerEvent.TASK_PENDING_TO_RUNNING));
+        waitForBatches(1);
+        for (int i = 1; i <= 10000; i++) {
+            handler.addEvent(TASK_STATE_UPDATED_EVENT, taskEvent("t" + i, SchedulerEvent.TASK_PENDING_TO_RUNNING));
+        }
+        verify(frontend, never()).markAsDirty(clientId);
+
+        handler.addEvent(TASK_STATE_UPDATED_EVENT, taskEvent("t10001", SchedulerEvent.TASK_PENDING_TO_RUNNING));
+        verify(frontend).markAsDirty(clientId);
+        release.countDown();
+
+        // the pending events were dropped
+        Thread.sleep(200);
+        verify(client, times(1)).schedulerEventsBatch(any(SchedulerEventBatch.class));
+    }
+
+    private NotificationData<TaskInfo> taskEvent(String taskName, SchedulerEvent eventType) {
+        TaskInfo taskInfo = mock(TaskInfo.class);
+        long id = Long.parseLong(taskName.substring(1));
+        when(taskInfo.getTaskId()).thenReturn(TaskIdImpl.createTaskId(jobId, taskName, id));
+        return new NotificationData<>(eventType, taskInfo);
+    }
+
+    private void waitForBatches(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (batches.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(batches.size() >= count);
+    }
+
+}
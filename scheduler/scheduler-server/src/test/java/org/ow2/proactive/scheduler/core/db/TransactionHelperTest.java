@@ -25,9 +25,20 @@
  */
 package org.ow2.proactive.scheduler.core.db;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
@@ -37,6 +48,8 @@ import org.junit.Test;
 import org.ow2.proactive.db.DatabaseManagerException;
 import org.ow2.proactive.db.SessionWork;
 import org.ow2.proactive.db.TransactionHelper;
+import org.ow2.proactive.db.TransactionStatistics;
+import org.ow2.proactive.db.UnitOfWork;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 
 
@@ -184,4 +197,119 @@ public class TransactionHelperTest {
         }
     }
 
+    @Test
+    public void testStatistics() {
+        PASchedulerProperties.SCHEDULER_DB_TRANSACTION_MAXIMUM_RETRIES.updateProperty("0");
+
+        when(sessionWork.doInTransaction(session)).thenReturn(null).thenThrow(Throwable.class);
+
+        transactionHelper.executeReadWriteTransaction(sessionWork);
+        try {
+            transactionHelper.executeReadWriteTransaction(sessionWork);
+            fail("Exception expected but no one raised");
+        } catch (DatabaseManagerException e) {
+            TransactionStatistics statistics = transactionHelper.getStatistics();
+            assertEquals(2, statistics.getTransactionsCount());
+            assertEquals(1, statistics.getFailedTransactionsCount());
+            assertEquals(2, statistics.getRetriesHistogram()[0]);
+            long total = 0;
+            for (long count : statistics.getLatencyHistogram()) {
+                total += count;
+            }
+            assertEquals(2, total);
+        }
+    }
+
+    @Test
+    public void testUnitOfWorkIsCommittedOnce() {
+        SessionWork otherSessionWork = mock(SessionWork.class);
+        when(sessionWork.doInTransaction(session)).thenReturn("first");
+        when(otherSessionWork.doInTransaction(session)).thenReturn("second");
+
+        List<Object> results = transactionHelper.executeReadWriteTransaction(new UnitOfWork().add(sessionWork)
+                                                                                             .add(otherSessionWork));
+
+        assertEquals(2, results.size());
+        assertEquals("first", results.get(0));
+        assertEquals("second", results.get(1));
+        verify(sessionFactory).openSession();
+        verify(session).beginTransaction();
+        verify(sessionWork).doInTransaction(session);
+        verify(otherSessionWork).doInTransaction(session);
+        verify(transaction).commit();
+    }
+
+    @Test
+    public void testExecuteReadWriteTransactionAsyncRetry() throws Exception {
+        PASchedulerProperties.SCHEDULER_DB_TRANSACTION_MAXIMUM_RETRIES.updateProperty("1");
+
+        final List<Thread> attempts = new CopyOnWriteArrayList<>();
+        SessionWork<String> failingOnce = new SessionWork<String>() {
+            @Override
+            public String doInTransaction(Session session) {
+                attempts.add(Thread.currentThread());
+                if (attempts.size() == 1) {
+                    throw new LockAcquisitionException("locked", null);
+                }
+                return "done";
+            }
+        };
+
+        Future<String> result = transactionHelper.executeReadWriteTransactionAsync(failingOnce);
+
+        try {
+            assertEquals("done", result.get(10, TimeUnit.SECONDS));
+            // the first attempt is made by the caller, the retry by another thread
+            assertEquals(2, attempts.size());
+            assertSame(Thread.currentThread(), attempts.get(0));
+            assertNotSame(Thread.currentThread(), attempts.get(1));
+            verify(session, times(2)).beginTransaction();
+            verify(transaction).rollback();
+            verify(transaction).commit();
+            assertEquals(1, transactionHelper.getStatistics().getRetriesHistogram()[1]);
+        } finally {
+            transactionHelper.shutdown();
+        }
+    }
+
+    @Test
+    public void testExecuteReadWriteTransactionAsyncDoesNotSleep() throws Exception {
+        int delay = PASchedulerProperties.SCHEDULER_DB_TRANSACTION_SLEEP_DELAY.getValueAsInt();
+        PASchedulerProperties.SCHEDULER_DB_TRANSACTION_MAXIMUM_RETRIES.updateProperty("1");
+        PASchedulerProperties.SCHEDULER_DB_TRANSACTION_SLEEP_DELAY.updateProperty("60000");
+
+        when(sessionWork.doInTransaction(session)).thenThrow(LockAcquisitionException.class).thenReturn("done");
+
+        try {
+            long start = System.currentTimeMillis();
+            Future<?> result = transactionHelper.executeReadWriteTransactionAsync(sessionWork);
+
+            assertTrue(System.currentTimeMillis() - start < 60000);
+            assertFalse(result.isDone());
+            verify(sessionWork).doInTransaction(session);
+            verify(transaction).rollback();
+        } finally {
+            transactionHelper.shutdown();
+            PASchedulerProperties.SCHEDULER_DB_TRANSACTION_SLEEP_DELAY.updateProperty(String.valueOf(delay));
+        }
+    }
+
+    @Test
+    public void testExecuteReadWriteTransactionAsyncFail() throws Exception {
+        PASchedulerProperties.SCHEDULER_DB_TRANSACTION_MAXIMUM_RETRIES.updateProperty("0");
+
+        when(sessionWork.doInTransaction(session)).thenThrow(Throwable.class);
+
+        Future<?> result = transactionHelper.executeReadWriteTransactionAsync(sessionWork);
+        assertTrue(result.isDone());
+        try {
+            result.get();
+            fail("Exception expected but no one raised");
+        } catch (ExecutionException e) {
+            assertEquals(DatabaseManagerException.class, e.getCause().getClass());
+            verify(transaction).rollback();
+            verify(transaction, never()).commit();
+        }
+    }
+
 }
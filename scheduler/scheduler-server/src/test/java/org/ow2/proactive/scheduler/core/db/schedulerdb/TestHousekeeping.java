@@ -0,0 +1,121 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db.schedulerdb;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.hibernate.Session;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ow2.proactive.db.SessionWork;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.core.db.HousekeepingArchive;
+import org.ow2.proactive.scheduler.job.InternalJob;
+
+
+public class TestHousekeeping extends BaseSchedulerDBTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testJobsRemovedByChunks() throws Exception {
+        File archiveDirectory = folder.newFolder("archive");
+        dbManager.setHousekeeping(2, 0, 0, new HousekeepingArchive(archiveDirectory));
+        List<Long> jobIds = submitJobs(5);
+
+        dbManager.executeHousekeepingInDB(jobIds, true);
+
+        Assert.assertEquals(0, countJobs());
+        Assert.assertEquals(3, archiveDirectory.listFiles().length);
+
+        List<String> lines = readArchive(new File(archiveDirectory,
+                                                  "jobs-" + jobIds.get(0) + "-" + jobIds.get(1) + ".txt.gz"));
+        Assert.assertEquals(4, lines.size());
+        Assert.assertTrue(lines.get(0).startsWith("job\t" + jobIds.get(0) + "\t"));
+        Assert.assertTrue(lines.get(1).startsWith("task\t" + jobIds.get(0) + "\t"));
+        Assert.assertTrue(lines.get(2).startsWith("job\t" + jobIds.get(1) + "\t"));
+        Assert.assertTrue(lines.get(3).startsWith("task\t" + jobIds.get(1) + "\t"));
+    }
+
+    @Test
+    public void testRemainingJobsMarkedAsRemovedWhenTimeBudgetExhausted() throws Exception {
+        dbManager.setHousekeeping(1, 1000, 1, null);
+        List<Long> jobIds = submitJobs(3);
+
+        dbManager.executeHousekeepingInDB(jobIds, true);
+
+        // only the first chunk is deleted, the other jobs are kept for the next housekeeping
+        Assert.assertEquals(2, countJobs());
+        for (InternalJob job : dbManager.loadNotFinishedJobs(true)) {
+            Assert.assertFalse(jobIds.contains(job.getId().longValue()));
+        }
+
+        dbManager.setHousekeeping(1, 0, 0, null);
+        dbManager.executeHousekeepingInDB(jobIds.subList(1, 3), true);
+        Assert.assertEquals(0, countJobs());
+    }
+
+    private List<Long> submitJobs(int count) throws Exception {
+        List<Long> jobIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TaskFlowJob jobDef = new TaskFlowJob();
+            jobDef.addTask(createDefaultTask("task"));
+            jobIds.add(defaultSubmitJob(jobDef).getId().longValue());
+        }
+        return jobIds;
+    }
+
+    private long countJobs() {
+        return dbManager.executeReadOnlyTransaction(new SessionWork<Long>() {
+            @Override
+            public Long doInTransaction(Session session) {
+                return (Long) session.createQuery("select count(*) from JobData").uniqueResult();
+            }
+        });
+    }
+
+    private List<String> readArchive(File file) throws Exception {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(file)),
+                                                                              StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
@@ -29,11 +29,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.ow2.proactive.db.SortOrder;
 import org.ow2.proactive.db.SortParameter;
+import org.ow2.proactive.scheduler.common.CursorPage;
 import org.ow2.proactive.scheduler.common.JobSortParameter;
 import org.ow2.proactive.scheduler.common.job.JobInfo;
 import org.ow2.proactive.scheduler.common.job.JobPriority;
@@ -41,6 +43,8 @@ import org.ow2.proactive.scheduler.common.job.JobStatus;
 import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
 import org.ow2.proactive.scheduler.common.task.JavaTask;
 import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.TaskState;
+import org.ow2.proactive.scheduler.core.db.ListingTotals;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.task.TaskResultImpl;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
@@ -317,6 +321,124 @@ public class TestLoadJobsPagination extends BaseSchedulerDBTest {
         checkJobs(jobs);
     }
 
+    @Test
+    public void testCursorPaging() throws Exception {
+        InternalJob job;
+        InternalTask task;
+
+        // pending job - 1
+        defaultSubmitJob(createJob());
+
+        // running job - 2
+        job = defaultSubmitJob(createJob());
+        job.start();
+        task = startTask(job, job.getITasks().get(0));
+        dbManager.jobTaskStarted(job, task, true);
+
+        // killed job - 3
+        job = defaultSubmitJob(createJob());
+        job.failed(null, JobStatus.KILLED);
+        dbManager.updateAfterJobKilled(job, Collections.<TaskId> emptySet());
+
+        // pending jobs - 4, 5
+        defaultSubmitJob(createJob());
+        defaultSubmitJob(createJob());
+
+        CursorPage<JobInfo> page = dbManager.getJobsAfter(null, 2, null, true, true, true);
+        checkJobs(page.getList(), 5, 4);
+        Assert.assertEquals(5, page.getSize());
+        Assert.assertNotNull(page.getNextCursor());
+
+        // jobs submitted meanwhile are neither returned nor shift the next pages
+        defaultSubmitJob(createJob());
+
+        page = dbManager.getJobsAfter(page.getNextCursor(), 2, null, true, true, true);
+        checkJobs(page.getList(), 1, 2);
+        Assert.assertEquals(6, page.getSize());
+
+        page = dbManager.getJobsAfter(page.getNextCursor(), 2, null, true, true, true);
+        checkJobs(page.getList(), 3);
+        Assert.assertNull(page.getNextCursor());
+
+        page = dbManager.getJobsAfter(null, 10, null, false, true, true);
+        checkJobs(page.getList(), 2, 3);
+        Assert.assertEquals(2, page.getSize());
+
+        page = dbManager.getJobsAfter(null, -1, "user1", true, true, true);
+        checkJobs(page.getList());
+        Assert.assertEquals(0, page.getSize());
+    }
+
+    @Test
+    public void testTaskStatesCursorPaging() throws Exception {
+        TaskFlowJob jobDef = createJob();
+        jobDef.addTask(createDefaultTask("task2"));
+        jobDef.addTask(createDefaultTask("task3"));
+        InternalJob job1 = defaultSubmitJob(jobDef);
+        jobDef = createJob();
+        jobDef.addTask(createDefaultTask("task2"));
+        InternalJob job2 = defaultSubmitJob(jobDef);
+
+        List<TaskId> expectedIds = new ArrayList<>();
+        for (InternalJob job : Arrays.asList(job1, job2)) {
+            List<TaskId> jobTaskIds = new ArrayList<>();
+            for (InternalTask task : job.getITasks()) {
+                jobTaskIds.add(task.getId());
+            }
+            Collections.sort(jobTaskIds);
+            expectedIds.addAll(jobTaskIds);
+        }
+
+        List<TaskId> readIds = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<TaskState> page = dbManager.getTaskStatesAfter(0, 0, null, cursor, 2, null, true, true, true);
+            Assert.assertEquals(5, page.getSize());
+            for (TaskState taskState : page.getList()) {
+                readIds.add(taskState.getId());
+            }
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        Assert.assertEquals(3, pages);
+        Assert.assertEquals(expectedIds.size(), readIds.size());
+        for (int i = 0; i < expectedIds.size(); i++) {
+            Assert.assertEquals(expectedIds.get(i).getJobId(), readIds.get(i).getJobId());
+            Assert.assertEquals(expectedIds.get(i).longValue(), readIds.get(i).longValue());
+        }
+    }
+
+    @Test
+    public void testApproximateTotals() throws Exception {
+        dbManager.setListingTotals(new ListingTotals(TimeUnit.HOURS.toMillis(1)));
+        defaultSubmitJob(createJob());
+        Assert.assertEquals(1, dbManager.getJobsAfter(null, 10, null, true, true, true).getSize());
+
+        // the total is not counted again before the refresh period elapsed
+        defaultSubmitJob(createJob());
+        Assert.assertEquals(1, dbManager.getJobsAfter(null, 10, null, true, true, true).getSize());
+        Assert.assertEquals(2, dbManager.getJobsAfter(null, 10, null, true, false, false).getList().size());
+
+        // the total is counted again once changed when the refresh period is 0
+        dbManager.setListingTotals(new ListingTotals(0));
+        Assert.assertEquals(2, dbManager.getJobsAfter(null, 10, null, true, true, true).getSize());
+        defaultSubmitJob(createJob());
+        Assert.assertEquals(3, dbManager.getJobsAfter(null, 10, null, true, true, true).getSize());
+
+        // writes which neither submit nor remove jobs nor change a status keep the totals
+        ListingTotals listingTotals = new ListingTotals(0);
+        dbManager.setListingTotals(listingTotals);
+        Assert.assertEquals(3, dbManager.getJobsAfter(null, 10, null, true, true, true).getSize());
+        long generation = listingTotals.currentGeneration();
+        InternalJob job = defaultSubmitJobAndLoadInternal(false, createJob());
+        Assert.assertTrue(listingTotals.currentGeneration() > generation);
+        generation = listingTotals.currentGeneration();
+        dbManager.changeJobPriority(job.getId(), JobPriority.HIGH);
+        Assert.assertEquals(generation, listingTotals.currentGeneration());
+    }
+
     private List<SortParameter<JobSortParameter>> sortParameters(SortParameter<JobSortParameter>... params) {
         return Arrays.asList(params);
     }
@@ -0,0 +1,121 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db.schedulerdb;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ow2.proactive.db.DatabaseManagerException;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.TaskResult;
+import org.ow2.proactive.scheduler.common.task.TaskResultSummary;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+
+
+public class TestLoadTasksResults extends BaseSchedulerDBTest {
+
+    @Test
+    public void testLastResultOfEachTaskIsLoaded() throws Throwable {
+        InternalJob job = submitJob("task1", "task2", "task3");
+        finishTask(job, "task1", "value1_1");
+        finishTask(job, "task2", "value2_1");
+        Thread.sleep(10);
+        finishTask(job, "task1", "value1_2");
+
+        TaskId taskId1 = job.getTask("task1").getId();
+        TaskId taskId2 = job.getTask("task2").getId();
+        Map<TaskId, TaskResult> results = dbManager.loadTasksResults(job.getId(), Arrays.asList(taskId1, taskId2));
+
+        Assert.assertEquals(2, results.size());
+        Assert.assertEquals("value1_2", results.get(taskId1).value());
+        Assert.assertEquals("value2_1", results.get(taskId2).value());
+        Assert.assertEquals(taskId1, results.get(taskId1).getTaskId());
+    }
+
+    @Test(expected = DatabaseManagerException.class)
+    public void testTaskWithoutResult() throws Throwable {
+        InternalJob job = submitJob("task1", "task2");
+        finishTask(job, "task1", "value1");
+
+        dbManager.loadTasksResults(job.getId(),
+                                   Arrays.asList(job.getTask("task1").getId(), job.getTask("task2").getId()));
+    }
+
+    @Test(expected = DatabaseManagerException.class)
+    public void testInvalidJob() throws Throwable {
+        InternalJob job = submitJob("task1");
+        finishTask(job, "task1", "value1");
+        dbManager.removeJob(job.getId(), 0, true);
+
+        dbManager.loadTasksResults(job.getId(), Collections.singletonList(job.getTask("task1").getId()));
+    }
+
+    @Test
+    public void testJobResultSummary() throws Throwable {
+        InternalJob job = submitJob("task1", "task2", "task3");
+        finishTask(job, "task1", "value1");
+        InternalTask task2 = job.getTask("task2");
+        dbManager.updateAfterTaskFinished(job,
+                                          task2,
+                                          new TaskResultImpl(task2.getId(), new RuntimeException("failed"), null, 0));
+        Thread.sleep(10);
+        finishTask(job, "task1", "value2");
+
+        Map<String, TaskResultSummary> summaries = dbManager.loadJobResultSummary(job.getId());
+
+        // task3 has no result yet
+        Assert.assertEquals(2, summaries.size());
+        TaskResultSummary summary1 = summaries.get("task1");
+        Assert.assertEquals(job.getTask("task1").getId(), summary1.getTaskId());
+        Assert.assertFalse(summary1.hadException());
+        Assert.assertTrue(summary1.getResultTime() > summaries.get("task2").getResultTime());
+        Assert.assertTrue(summaries.get("task2").hadException());
+
+        Assert.assertNull(dbManager.loadJobResultSummary(JobIdImpl.makeJobId("12345678")));
+    }
+
+    private InternalJob submitJob(String... taskNames) throws Exception {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        for (String taskName : taskNames) {
+            jobDef.addTask(createDefaultTask(taskName));
+        }
+        return defaultSubmitJobAndLoadInternal(true, jobDef);
+    }
+
+    private void finishTask(InternalJob job, String taskName, Serializable value) {
+        InternalTask task = job.getTask(taskName);
+        dbManager.updateAfterTaskFinished(job, task, new TaskResultImpl(task.getId(), value, null, 0));
+    }
+
+}
@@ -25,12 +25,16 @@
  */
 package org.ow2.proactive.scheduler.core.db.schedulerdb;
 
+import java.util.Collections;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
 import org.ow2.proactive.scheduler.common.task.JavaTask;
+import org.ow2.proactive.scheduler.common.task.TaskVariable;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
+import org.ow2.proactive.scripting.SimpleScript;
 
 
 public class TestMultipleTasks extends BaseSchedulerDBTest {
@@ -49,6 +53,37 @@ public class TestMultipleTasks extends BaseSchedulerDBTest {
         Assert.assertEquals(TASKS_NUMBER, jobData.getTasks().size());
     }
 
+    @Test
+    public void testManyTasksWithDependencies() throws Exception {
+        TaskFlowJob job = new TaskFlowJob();
+
+        final int TASKS_NUMBER = 1000;
+
+        JavaTask previous = null;
+        for (int i = 0; i < TASKS_NUMBER; i++) {
+            JavaTask task = createDefaultTask("task-" + i);
+            task.setPreScript(new SimpleScript("print('" + i + "')", "javascript"));
+            task.setVariables(Collections.singletonMap("index",
+                                                       new TaskVariable("index", String.valueOf(i), null, false)));
+            if (previous != null) {
+                task.addDependence(previous);
+            }
+            job.addTask(task);
+            previous = task;
+        }
+
+        InternalJob jobData = defaultSubmitJobAndLoadInternal(true, job);
+        Assert.assertEquals(TASKS_NUMBER, jobData.getTasks().size());
+        for (int i = 1; i < TASKS_NUMBER; i++) {
+            InternalTask task = jobData.getTask("task-" + i);
+            Assert.assertEquals(jobData.getTask("task-" + (i - 1)).getId(), task.getDependences().get(0).getId());
+            Assert.assertEquals(String.valueOf(i), task.getVariables().get("index").getValue());
+            Assert.assertNotNull(task.getPreScript());
+        }
+
+        Assert.assertTrue(dbManager.getMeanTaskSubmissionTime() > 0);
+    }
+
     @Test
     public void testDependencies() throws Exception {
         TaskFlowJob job = new TaskFlowJob();
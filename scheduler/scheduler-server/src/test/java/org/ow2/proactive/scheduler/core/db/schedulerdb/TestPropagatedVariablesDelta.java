@@ -0,0 +1,122 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db.schedulerdb;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.Session;
+import org.junit.Test;
+import org.ow2.proactive.db.SessionWork;
+import org.ow2.proactive.scheduler.common.job.JobVariable;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.task.TaskResult;
+import org.ow2.proactive.scheduler.common.task.util.DeltaVariableMap;
+import org.ow2.proactive.scheduler.common.task.util.SerializationUtil;
+import org.ow2.proactive.scheduler.core.db.TaskResultData;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+
+
+public class TestPropagatedVariablesDelta extends BaseSchedulerDBTest {
+
+    @Test
+    public void testVariablesAreStoredAsDelta() throws Throwable {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        Map<String, JobVariable> jobVariables = new HashMap<>();
+        jobVariables.put("unchanged", new JobVariable("unchanged", "value1"));
+        jobVariables.put("modified", new JobVariable("modified", "value2"));
+        jobVariables.put("removed", new JobVariable("removed", "value3"));
+        jobDef.setVariables(jobVariables);
+        jobDef.addTask(createDefaultTask("task"));
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+
+        Map<String, Serializable> variables = new HashMap<>();
+        variables.put("unchanged", "value1");
+        variables.put("modified", "new value");
+        variables.put("added", 42);
+        InternalTask task = job.getTask("task");
+        TaskResultImpl result = new TaskResultImpl(task.getId(), "result", null, 0);
+        result.setPropagatedVariables(SerializationUtil.serializeVariableMap(variables));
+        dbManager.updateAfterTaskFinished(job, task, result);
+
+        Map<String, byte[]> storedVariables = loadStoredVariables();
+        assertThat(storedVariables.size(), is(3));
+        assertThat(storedVariables.containsKey("unchanged"), is(false));
+        assertThat(storedVariables.get("removed") == null, is(true));
+
+        TaskResult loaded = dbManager.loadLastTaskResult(task.getId());
+        // the job variables are not copied for each loaded result, the REST layer copies the view when mapping it
+        assertThat(loaded.getPropagatedVariables(), instanceOf(DeltaVariableMap.class));
+        assertThat(SerializationUtil.deserializeVariableMap(loaded.getPropagatedVariables()), is(variables));
+
+        TaskResult fromParents = dbManager.loadTasksResults(job.getId(), Collections.singletonList(task.getId()))
+                                          .get(task.getId());
+        assertThat(fromParents.getPropagatedVariables(), instanceOf(DeltaVariableMap.class));
+        assertThat(SerializationUtil.deserializeVariableMap(fromParents.getPropagatedVariables()), is(variables));
+
+        TaskResult fromJobResult = dbManager.loadJobResult(job.getId()).getResult("task");
+        assertThat(SerializationUtil.deserializeVariableMap(fromJobResult.getPropagatedVariables()), is(variables));
+    }
+
+    @Test
+    public void testVariablesWithoutJobVariables() throws Throwable {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("task"));
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+
+        Map<String, Serializable> variables = new HashMap<>();
+        variables.put("added", "value");
+        InternalTask task = job.getTask("task");
+        TaskResultImpl result = new TaskResultImpl(task.getId(), "result", null, 0);
+        result.setPropagatedVariables(SerializationUtil.serializeVariableMap(variables));
+        dbManager.updateAfterTaskFinished(job, task, result);
+
+        TaskResult loaded = dbManager.loadLastTaskResult(task.getId());
+        assertThat(SerializationUtil.deserializeVariableMap(loaded.getPropagatedVariables()), is(variables));
+    }
+
+    private Map<String, byte[]> loadStoredVariables() {
+        return dbManager.executeReadOnlyTransaction(new SessionWork<Map<String, byte[]>>() {
+            @Override
+            public Map<String, byte[]> doInTransaction(Session session) {
+                TaskResultData resultData = (TaskResultData) session.createQuery("from TaskResultData order by id desc")
+                                                                    .setMaxResults(1)
+                                                                    .uniqueResult();
+                assertThat(resultData.getPropagatedVariablesDelta(), is(true));
+                return resultData.getPropagatedVariables();
+            }
+        });
+    }
+
+}
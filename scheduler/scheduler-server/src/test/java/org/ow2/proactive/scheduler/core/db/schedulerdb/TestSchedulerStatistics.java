@@ -0,0 +1,202 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db.schedulerdb;
+
+import java.io.File;
+
+import org.hibernate.Session;
+import org.hibernate.cfg.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.ow2.proactive.db.SessionWork;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.core.account.SchedulerAccount;
+import org.ow2.proactive.scheduler.core.db.SchedulerDBManager;
+import org.ow2.proactive.scheduler.core.db.SchedulerStatistics;
+import org.ow2.proactive.scheduler.core.db.SchedulerStatisticsData;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+
+
+public class TestSchedulerStatistics extends BaseSchedulerDBTest {
+
+    private static final String USER1 = "TestSchedulerStatistics1";
+
+    private static final String USER2 = "TestSchedulerStatistics2";
+
+    @Test
+    public void testStatisticsUpdatedOnJobEvents() throws Exception {
+        Assert.assertNull(dbManager.getStatistics().get(USER1));
+
+        InternalJob job1 = submitJob(USER1);
+        InternalJob job2 = submitJob(USER2);
+
+        SchedulerStatisticsData user1 = dbManager.getStatistics().get(USER1);
+        Assert.assertEquals(1, user1.getSubmittedJobs());
+        Assert.assertEquals(0, user1.getStartedJobs());
+        SchedulerStatisticsData allUsers = dbManager.getStatistics().get(SchedulerStatistics.ALL_USERS);
+        Assert.assertEquals(2, allUsers.getSubmittedJobs());
+        Assert.assertEquals(job2.getSubmittedTime() - job1.getSubmittedTime(),
+                            dbManager.getMeanJobSubmittingPeriod(),
+                            0.001);
+
+        job1.start();
+        startTask(job1, job1.getTask("task1"));
+        dbManager.jobTaskStarted(job1, job1.getTask("task1"), true);
+        startTask(job1, job1.getTask("task2"));
+        dbManager.jobTaskStarted(job1, job1.getTask("task2"), false);
+
+        user1 = dbManager.getStatistics().get(USER1);
+        Assert.assertEquals(1, user1.getStartedJobs());
+        Assert.assertEquals(job1.getStartTime() - job1.getSubmittedTime(), user1.getJobsPendingTime());
+        Assert.assertEquals(job1.getStartTime() - job1.getSubmittedTime(), dbManager.getMeanJobPendingTime(), 0.001);
+
+        long tasksTime = finishTask(job1, "task1");
+        tasksTime += finishTask(job1, "task2");
+
+        user1 = dbManager.getStatistics().get(USER1);
+        Assert.assertEquals(2, user1.getFinishedTasks());
+        Assert.assertEquals(tasksTime, user1.getTasksExecutionTime());
+        Assert.assertEquals(1, user1.getFinishedJobs());
+        Assert.assertEquals(1, user1.getExecutedJobs());
+        Assert.assertEquals(job1.getFinishedTime() - job1.getStartTime(), user1.getJobsExecutionTime());
+        Assert.assertEquals(job1.getFinishedTime() - job1.getStartTime(), dbManager.getMeanJobExecutionTime(), 0.001);
+
+        SchedulerStatisticsData user2 = dbManager.getStatistics().get(USER2);
+        Assert.assertEquals(1, user2.getSubmittedJobs());
+        Assert.assertEquals(0, user2.getFinishedTasks());
+
+        SchedulerAccount account = dbManager.readAccount(USER1);
+        Assert.assertEquals(2, account.getTotalTaskCount());
+        Assert.assertEquals(tasksTime, account.getTotalTaskDuration());
+        Assert.assertEquals(1, account.getTotalJobCount());
+        Assert.assertEquals(job1.getFinishedTime() - job1.getStartTime(), account.getTotalJobDuration());
+
+        // the statistics keep the history of removed jobs
+        dbManager.removeJob(job1.getId(), System.currentTimeMillis(), true);
+        Assert.assertEquals(1, dbManager.getStatistics().get(USER1).getFinishedJobs());
+    }
+
+    @Test
+    public void testStatisticsSavedAndReloaded() throws Exception {
+        InternalJob job = submitJob(USER1);
+        job.start();
+        startTask(job, job.getTask("task1"));
+        dbManager.jobTaskStarted(job, job.getTask("task1"), true);
+        long taskTime = finishTask(job, "task1");
+
+        // the saved statistics are reloaded, they are not computed again from the remaining jobs
+        dbManager.removeJob(job.getId(), System.currentTimeMillis(), true);
+        reopenDatabase();
+
+        SchedulerStatisticsData user1 = dbManager.getStatistics().get(USER1);
+        Assert.assertEquals(1, user1.getSubmittedJobs());
+        Assert.assertEquals(1, user1.getStartedJobs());
+        Assert.assertEquals(1, user1.getFinishedTasks());
+        Assert.assertEquals(taskTime, user1.getTasksExecutionTime());
+        Assert.assertEquals(0, user1.getFinishedJobs());
+    }
+
+    @Test
+    public void testStatisticsComputedFromExistingJobs() throws Exception {
+        InternalJob job1 = submitJob(USER1);
+        job1.start();
+        startTask(job1, job1.getTask("task1"));
+        dbManager.jobTaskStarted(job1, job1.getTask("task1"), true);
+        long taskTime = finishTask(job1, "task1");
+        submitJob(USER2);
+
+        dbManager.executeReadWriteTransaction(new SessionWork<Void>() {
+            @Override
+            public Void doInTransaction(Session session) {
+                session.createQuery("delete from SchedulerStatisticsData").executeUpdate();
+                return null;
+            }
+        });
+        reopenDatabase();
+
+        SchedulerStatisticsData user1 = dbManager.getStatistics().get(USER1);
+        Assert.assertEquals(1, user1.getSubmittedJobs());
+        Assert.assertEquals(1, user1.getStartedJobs());
+        Assert.assertEquals(job1.getStartTime() - job1.getSubmittedTime(), user1.getJobsPendingTime());
+        Assert.assertEquals(1, user1.getFinishedTasks());
+        Assert.assertEquals(taskTime, user1.getTasksExecutionTime());
+
+        SchedulerStatisticsData allUsers = dbManager.getStatistics().get(SchedulerStatistics.ALL_USERS);
+        Assert.assertEquals(2, allUsers.getSubmittedJobs());
+        Assert.assertEquals(1, allUsers.getFinishedTasks());
+
+        // the recovered job is counted once when it finishes
+        InternalJob recovered = null;
+        for (InternalJob job : dbManager.loadNotFinishedJobs(true)) {
+            if (job.getId().equals(job1.getId())) {
+                recovered = job;
+            }
+        }
+        startTask(recovered, recovered.getTask("task2"));
+        dbManager.jobTaskStarted(recovered, recovered.getTask("task2"), false);
+        taskTime += finishTask(recovered, "task2");
+
+        user1 = dbManager.getStatistics().get(USER1);
+        Assert.assertEquals(2, user1.getFinishedTasks());
+        Assert.assertEquals(taskTime, user1.getTasksExecutionTime());
+        Assert.assertEquals(1, user1.getFinishedJobs());
+        Assert.assertEquals(1, user1.getStartedJobs());
+    }
+
+    private void reopenDatabase() throws Exception {
+        dbManager.close();
+        Configuration config = new Configuration().configure(new File(this.getClass()
+                                                                          .getResource("/functionaltests/config/hibernate.cfg.xml")
+                                                                          .toURI()));
+        config.setProperty("hibernate.hbm2ddl.auto", "update");
+        dbManager = new SchedulerDBManager(config, false);
+    }
+
+    private InternalJob submitJob(String userName) throws Exception {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("task1"));
+        jobDef.addTask(createDefaultTask("task2"));
+        Thread.sleep(10);
+        return defaultSubmitJobAndLoadInternal(true, jobDef, userName);
+    }
+
+    private long finishTask(InternalJob job, String taskName) throws Exception {
+        Thread.sleep(100);
+
+        InternalTask task = job.getTask(taskName);
+        TaskResultImpl res = new TaskResultImpl(null, "ok", null, 0);
+        job.terminateTask(false, task.getId(), null, null, res);
+        if (job.isFinished()) {
+            job.terminate();
+        }
+
+        dbManager.updateAfterTaskFinished(job, task, res);
+
+        return task.getFinishedTime() - task.getStartTime();
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db.schedulerdb;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.task.JavaTask;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.TaskResult;
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.core.db.TaskResultCache;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+
+
+public class TestTaskResultCache extends BaseSchedulerDBTest {
+
+    private TaskResultCache cache;
+
+    @Before
+    public void setUpCache() {
+        cache = new TaskResultCache(1024 * 1024);
+        dbManager.setTaskResultCache(cache);
+    }
+
+    @Test
+    public void testResultIsCachedUntilAllChildrenHaveStarted() throws Throwable {
+        InternalJob job = submitJob();
+        finishTask(job, "parent", "parentValue");
+        finishTask(job, "single", "singleValue");
+
+        // the result of a task without children is not cached
+        assertThat(cache.getNumberOfEntries(), is(1));
+
+        TaskId parentId = job.getTask("parent").getId();
+        Assert.assertEquals("parentValue", loadTaskResult(job, parentId).value());
+        Assert.assertEquals("parentValue", loadTaskResult(job, parentId).value());
+        assertThat(cache.getHits(), is(2L));
+        assertThat(cache.getMisses(), is(0L));
+
+        dbManager.taskStartedWithParentResults(job, job.getTask("child1"));
+        dbManager.taskStartedWithParentResults(job, job.getTask("child1"));
+        assertThat(cache.getNumberOfEntries(), is(1));
+
+        dbManager.taskStartedWithParentResults(job, job.getTask("child2"));
+        assertThat(cache.getNumberOfEntries(), is(0));
+        assertThat(cache.getSize(), is(0L));
+
+        // evicted results are read from the database
+        Assert.assertEquals("parentValue", loadTaskResult(job, parentId).value());
+        assertThat(cache.getMisses(), is(1L));
+    }
+
+    @Test
+    public void testEachReaderGetsItsOwnCopy() throws Throwable {
+        InternalJob job = submitJob();
+        InternalTask parent = job.getTask("parent");
+        TaskResultImpl result = new TaskResultImpl(parent.getId(), "parentValue", null, 0);
+        result.setPropagatedVariables(new HashMap<>(Collections.singletonMap("var", new byte[] { 1 })));
+        dbManager.updateAfterTaskFinished(job, parent, result);
+
+        TaskResult first = loadTaskResult(job, parent.getId());
+        first.getPropagatedVariables().put("var", new byte[] { 2 });
+        first.getPropagatedVariables().put("other", new byte[] { 3 });
+
+        TaskResult second = loadTaskResult(job, parent.getId());
+        assertThat(cache.getHits(), is(2L));
+        Assert.assertNotSame(first, second);
+        assertThat(second.getPropagatedVariables().size(), is(1));
+        Assert.assertArrayEquals(new byte[] { 1 }, second.getPropagatedVariables().get("var"));
+    }
+
+    @Test
+    public void testResultReadThroughSkippedTasksIsEvicted() throws Throwable {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        JavaTask parent = createDefaultTask("parent");
+        JavaTask skipped = createDefaultTask("skipped");
+        JavaTask child1 = createDefaultTask("child1");
+        JavaTask child2 = createDefaultTask("child2");
+        skipped.addDependence(parent);
+        child1.addDependence(skipped);
+        child2.addDependence(skipped);
+        jobDef.addTask(parent);
+        jobDef.addTask(skipped);
+        jobDef.addTask(child1);
+        jobDef.addTask(child2);
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+
+        finishTask(job, "parent", "parentValue");
+        job.getTask("skipped").setStatus(TaskStatus.SKIPPED);
+        assertThat(cache.getNumberOfEntries(), is(1));
+
+        // the children of the skipped task read the result of the parent
+        dbManager.taskStartedWithParentResults(job, job.getTask("child1"));
+        assertThat(cache.getNumberOfEntries(), is(1));
+
+        dbManager.taskStartedWithParentResults(job, job.getTask("child2"));
+        assertThat(cache.getNumberOfEntries(), is(0));
+        assertThat(cache.getSize(), is(0L));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResultsAreEvicted() throws Throwable {
+        String largeValue = createString(1024);
+        InternalJob job1 = submitJob();
+        InternalJob job2 = submitJob();
+        InternalJob job3 = submitJob();
+
+        finishTask(job1, "parent", largeValue);
+        long resultSize = cache.getSize();
+        cache = new TaskResultCache(2 * resultSize);
+        dbManager.setTaskResultCache(cache);
+
+        finishTask(job1, "parent", largeValue);
+        finishTask(job2, "parent", largeValue);
+        loadTaskResult(job1, job1.getTask("parent").getId());
+        finishTask(job3, "parent", largeValue);
+
+        assertThat(cache.getNumberOfEntries(), is(2));
+        assertThat(cache.getEvictions(), is(1L));
+        Assert.assertNotNull(cache.get(job1.getTask("parent").getId()));
+        Assert.assertNull(cache.get(job2.getTask("parent").getId()));
+        Assert.assertNotNull(cache.get(job3.getTask("parent").getId()));
+        Assert.assertTrue(cache.getSize() <= cache.getMaxSize());
+    }
+
+    @Test
+    public void testResultsAreEvictedWhenJobIsRemoved() throws Throwable {
+        InternalJob job1 = submitJob();
+        InternalJob job2 = submitJob();
+        finishTask(job1, "parent", "value1");
+        finishTask(job2, "parent", "value2");
+        assertThat(cache.getNumberOfEntries(), is(2));
+
+        dbManager.removeJob(job1.getId(), 0, true);
+
+        assertThat(cache.getNumberOfEntries(), is(1));
+        Assert.assertEquals("value2", loadTaskResult(job2, job2.getTask("parent").getId()).value());
+    }
+
+    @Test
+    public void testStatisticsAreExposedAsMBean() throws Throwable {
+        InternalJob job = submitJob();
+        finishTask(job, "parent", "parentValue");
+        loadTaskResult(job, job.getTask("parent").getId());
+
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("ProActiveScheduler:name=TestTaskResultCache");
+        mbs.registerMBean(cache, name);
+        try {
+            assertThat((Long) mbs.getAttribute(name, "Hits"), is(1L));
+            assertThat((Double) mbs.getAttribute(name, "HitRatio"), is(1.0));
+            assertThat((Integer) mbs.getAttribute(name, "NumberOfEntries"), is(1));
+            assertThat((Long) mbs.getAttribute(name, "Size"), is(cache.getSize()));
+        } finally {
+            mbs.unregisterMBean(name);
+        }
+    }
+
+    private InternalJob submitJob() throws Exception {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        JavaTask parent = createDefaultTask("parent");
+        JavaTask child1 = createDefaultTask("child1");
+        JavaTask child2 = createDefaultTask("child2");
+        child1.addDependence(parent);
+        child2.addDependence(parent);
+        jobDef.addTask(parent);
+        jobDef.addTask(child1);
+        jobDef.addTask(child2);
+        jobDef.addTask(createDefaultTask("single"));
+        return defaultSubmitJobAndLoadInternal(true, jobDef);
+    }
+
+    private void finishTask(InternalJob job, String taskName, String value) {
+        InternalTask task = job.getTask(taskName);
+        dbManager.updateAfterTaskFinished(job, task, new TaskResultImpl(task.getId(), value, null, 0));
+    }
+
+    private TaskResult loadTaskResult(InternalJob job, TaskId taskId) {
+        Map<TaskId, TaskResult> results = dbManager.loadTasksResults(job.getId(),
+                                                                     Collections.singletonList(taskId));
+        assertThat(results.size(), is(1));
+        return results.get(taskId);
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db.schedulerdb;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.task.TaskResult;
+import org.ow2.proactive.scheduler.core.db.storage.FileSystemTaskResultStorage;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+
+import com.google.common.collect.ImmutableMap;
+
+
+public class TestTaskResultStorage extends BaseSchedulerDBTest {
+
+    private static final int THRESHOLD = 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File storageDirectory;
+
+    @Before
+    public void setUpStorage() throws IOException {
+        storageDirectory = folder.newFolder("results");
+        dbManager.setTaskResultStorage(new FileSystemTaskResultStorage(storageDirectory), THRESHOLD);
+    }
+
+    @Test
+    public void testLargeResultsAreStoredOutsideOfDatabase() throws Throwable {
+        InternalJob job = submitJob("task1", "task2");
+        String largeValue = createString(10 * THRESHOLD);
+
+        finishTask(job, "task1", largeValue, ImmutableMap.of("var", new byte[10 * THRESHOLD]));
+        finishTask(job, "task2", "small", Collections.<String, byte[]> emptyMap());
+
+        // value and propagated variables of task1
+        assertThat(storedContents(), is(2));
+
+        TaskResult result1 = dbManager.loadLastTaskResult(job.getTask("task1").getId());
+        Assert.assertEquals(largeValue, result1.value());
+        Assert.assertEquals(10 * THRESHOLD, result1.getPropagatedVariables().get("var").length);
+
+        TaskResult result2 = dbManager.loadLastTaskResult(job.getTask("task2").getId());
+        Assert.assertEquals("small", result2.value());
+
+        Assert.assertEquals(largeValue, dbManager.loadJobResult(job.getId()).getResult("task1").value());
+    }
+
+    @Test
+    public void testOrphanedContentsAreCollected() throws Throwable {
+        String sharedValue = createString(5 * THRESHOLD);
+        String ownValue = createString(6 * THRESHOLD);
+
+        InternalJob job1 = submitJob("task");
+        finishTask(job1, "task", sharedValue, Collections.<String, byte[]> emptyMap());
+        InternalJob job2 = submitJob("task1", "task2");
+        finishTask(job2, "task1", sharedValue, Collections.<String, byte[]> emptyMap());
+        finishTask(job2, "task2", ownValue, Collections.<String, byte[]> emptyMap());
+
+        assertThat(storedContents(), is(2));
+        ageStoredContents();
+
+        dbManager.executeHousekeepingInDB(Collections.singletonList(job2.getId().longValue()), true);
+
+        // the shared value is still used by job1
+        assertThat(storedContents(), is(1));
+        Assert.assertEquals(sharedValue, dbManager.loadLastTaskResult(job1.getTask("task").getId()).value());
+
+        dbManager.removeJob(job1.getId(), 0, true);
+
+        assertThat(storedContents(), is(0));
+    }
+
+    private InternalJob submitJob(String... taskNames) throws Exception {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        for (String taskName : taskNames) {
+            jobDef.addTask(createDefaultTask(taskName));
+        }
+        return defaultSubmitJobAndLoadInternal(true, jobDef);
+    }
+
+    private void finishTask(InternalJob job, String taskName, Serializable value, Map<String, byte[]> variables) {
+        InternalTask task = job.getTask(taskName);
+        TaskResultImpl result = new TaskResultImpl(task.getId(), value, null, 0);
+        result.setPropagatedVariables(variables);
+        dbManager.updateAfterTaskFinished(job, task, result);
+    }
+
+    private int storedContents() {
+        int count = 0;
+        for (File directory : storageDirectory.listFiles()) {
+            count += directory.listFiles().length;
+        }
+        return count;
+    }
+
+    private void ageStoredContents() {
+        for (File directory : storageDirectory.listFiles()) {
+            for (File file : directory.listFiles()) {
+                Assert.assertTrue(file.setLastModified(0));
+            }
+        }
+    }
+
+}
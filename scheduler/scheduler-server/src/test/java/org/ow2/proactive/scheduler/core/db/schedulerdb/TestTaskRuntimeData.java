@@ -104,4 +104,23 @@ public class TestTaskRuntimeData extends BaseSchedulerDBTest {
         Assert.assertEquals(TaskStatus.PENDING, internalJob.getTask("task3").getStatus());
     }
 
+    @Test
+    public void testUpdateTaskSchedulingTimeInOneTransaction() throws Exception {
+        TaskFlowJob job = new TaskFlowJob();
+        job.addTask(createDefaultTask("task1"));
+        job.addTask(createDefaultTask("task2"));
+        job.addTask(createDefaultTask("task3"));
+
+        InternalJob internalJob = defaultSubmitJobAndLoadInternal(true, job);
+
+        long transactions = dbManager.getTransactionStatistics().getTransactionsCount();
+        dbManager.updateTaskSchedulingTime(internalJob, 42L);
+        Assert.assertEquals(transactions + 1, dbManager.getTransactionStatistics().getTransactionsCount());
+
+        internalJob = loadInternalJob(true, internalJob.getId());
+        for (InternalTask task : internalJob.getITasks()) {
+            Assert.assertEquals(42L, task.getScheduledTime());
+        }
+    }
+
 }
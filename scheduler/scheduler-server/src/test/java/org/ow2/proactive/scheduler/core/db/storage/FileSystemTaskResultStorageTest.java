@@ -0,0 +1,112 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db.storage;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+public class FileSystemTaskResultStorageTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FileSystemTaskResultStorage storage;
+
+    @Before
+    public void setUp() throws IOException {
+        storage = new FileSystemTaskResultStorage(folder.newFolder("results"));
+    }
+
+    @Test
+    public void testStoreAndLoad() throws IOException {
+        for (int size : new int[] { 0, 1, 1024, 100 * 1024, 1024 * 1024 }) {
+            byte[] content = randomContent(size, size);
+            String reference = storage.store(content);
+            assertArrayEquals(content, storage.load(reference));
+        }
+    }
+
+    @Test
+    public void testIdenticalContentsAreStoredOnce() throws IOException {
+        String reference = storage.store("same content".getBytes());
+
+        assertThat(storage.store("same content".getBytes()), is(reference));
+        assertThat(storage.store("other content".getBytes()), is(not(reference)));
+        assertThat(storedFiles(), is(2));
+    }
+
+    @Test
+    public void testContentsAreCompressed() throws IOException {
+        storage.store(new byte[1024 * 1024]);
+
+        File directory = folder.getRoot().listFiles()[0].listFiles()[0];
+        assertThat(directory.listFiles()[0].length() < 1024 * 1024, is(true));
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void testDelete() throws IOException {
+        String reference = storage.store(randomContent(42, 1024));
+
+        assertThat(storage.deleteIfUnmodifiedSince(reference, 0), is(false));
+        assertThat(storage.deleteIfUnmodifiedSince(reference, System.currentTimeMillis() + 10000), is(true));
+        assertThat(storage.deleteIfUnmodifiedSince(reference, System.currentTimeMillis() + 10000), is(false));
+
+        storage.load(reference);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidReference() throws IOException {
+        storage.load("../../etc/passwd");
+    }
+
+    private int storedFiles() {
+        int count = 0;
+        for (File directory : new File(folder.getRoot(), "results").listFiles()) {
+            count += directory.listFiles().length;
+        }
+        return count;
+    }
+
+    private static byte[] randomContent(long seed, int size) {
+        byte[] content = new byte[size];
+        new Random(seed).nextBytes(content);
+        return content;
+    }
+
+}
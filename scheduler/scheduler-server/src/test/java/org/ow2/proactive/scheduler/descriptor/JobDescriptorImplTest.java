@@ -25,22 +25,31 @@
  */
 package org.ow2.proactive.scheduler.descriptor;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.HashMap;
 import java.util.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
+import org.ow2.proactive.scheduler.common.job.JobPriority;
 import org.ow2.proactive.scheduler.common.job.JobStatus;
 import org.ow2.proactive.scheduler.common.job.JobType;
+import org.ow2.proactive.scheduler.common.task.OnTaskError;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskInfo;
 import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.common.task.flow.FlowScript;
 import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.job.InternalTaskFlowJob;
 import org.ow2.proactive.scheduler.job.JobIdImpl;
 import org.ow2.proactive.scheduler.task.TaskIdImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalScriptTask;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
 
 
@@ -88,6 +97,57 @@ public class JobDescriptorImplTest {
         verify(mockInternalNewLoopTask).setStatus(TaskStatus.PAUSED);
     }
 
+    @Test
+    public void testTreeConstructionReadsFlowScriptsLinearly() throws Exception {
+        int numberOfTasks = 1000;
+        AtomicInteger flowScriptReads = new AtomicInteger();
+        InternalJob job = createWorkflow(numberOfTasks, flowScriptReads);
+
+        flowScriptReads.set(0);
+        JobDescriptorImpl descriptor = new JobDescriptorImpl(job);
+
+        assertEquals(numberOfTasks / 4, descriptor.getEligibleTasks().size());
+        InternalTask first = job.getTask("T0");
+        assertTrue(descriptor.hasChildren(first.getId()));
+        assertFalse(descriptor.hasChildren(job.getTask("T1").getId()));
+        assertEquals(1, descriptor.getTaskChildren(first).size());
+
+        // checking each task against the flow scripts of every other task would read them about n^2 / 2 times
+        assertTrue("Flow scripts read " + flowScriptReads.get() + " times for " + numberOfTasks + " tasks",
+                   flowScriptReads.get() <= 2 * numberOfTasks);
+    }
+
+    /**
+     * Creates a workflow made of blocks of four tasks: the first task of a block is an entry point,
+     * the second one depends on it and the two last ones are the branches of its if control flow action.
+     * Each read of the flow script of a task increments the given counter.
+     */
+    private InternalJob createWorkflow(int numberOfTasks, final AtomicInteger flowScriptReads) throws Exception {
+        InternalJob job = new InternalTaskFlowJob("scaling", JobPriority.NORMAL, OnTaskError.CANCEL_JOB, "");
+        job.setId(new JobIdImpl(1L, "scaling"));
+        InternalTask[] tasks = new InternalTask[numberOfTasks];
+        for (int i = 0; i < numberOfTasks; i++) {
+            tasks[i] = new InternalScriptTask(job) {
+                @Override
+                public FlowScript getFlowScript() {
+                    flowScriptReads.incrementAndGet();
+                    return super.getFlowScript();
+                }
+            };
+            tasks[i].setName("T" + i);
+            if (i % 4 == 1) {
+                tasks[i].addDependence(tasks[i - 1]);
+            } else if (i % 4 == 2) {
+                tasks[i - 2].setFlowScript(FlowScript.createIfFlowScript("branch = 'if';",
+                                                                         "T" + i,
+                                                                         "T" + (i + 1),
+                                                                         null));
+            }
+            job.addTask(tasks[i]);
+        }
+        return job;
+    }
+
     private JobDescriptorImpl createEmptyJobDescriptor() {
         return new JobDescriptorImpl(new InternalJob() {
             @Override
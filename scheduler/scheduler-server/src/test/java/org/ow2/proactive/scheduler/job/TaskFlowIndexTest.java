@@ -0,0 +1,160 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.job;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.scheduler.common.job.JobPriority;
+import org.ow2.proactive.scheduler.common.task.OnTaskError;
+import org.ow2.proactive.scheduler.task.internal.InternalScriptTask;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+
+
+public class TaskFlowIndexTest {
+
+    private InternalJob job;
+
+    @Before
+    public void init() {
+        job = new InternalTaskFlowJob("flow", JobPriority.NORMAL, OnTaskError.CANCEL_JOB, "");
+        job.setId(new JobIdImpl(1L, "flow"));
+    }
+
+    @Test
+    public void testTasksByName() {
+        InternalTask a = addTask("A");
+        InternalTask a1 = addTask("A", 0, 1);
+        InternalTask a21 = addTask("A", 2, 1);
+        InternalTask b = addTask("B");
+
+        TaskFlowIndex index = job.getFlowIndex();
+
+        assertThat(index.getTaskByName("A"), is(a));
+        assertThat(index.getTaskByName("A*1"), is(a1));
+        assertThat(index.getTaskByName("A#2*1"), is(a21));
+        assertThat(index.getTask("A", 2, 1), is(a21));
+        assertThat(index.getTaskByName("B"), is(b));
+        assertThat(index.getTaskByName("A#1*1"), is(nullValue()));
+        assertThat(index.getTaskByName("C"), is(nullValue()));
+        assertThat(index.getTaskByName(null), is(nullValue()));
+    }
+
+    @Test
+    public void testNextIterationIndex() {
+        addTask("A");
+        addTask("A", 3, 0);
+        addTask("A", 1, 1);
+
+        TaskFlowIndex index = job.getFlowIndex();
+        assertThat(index.getNextIterationIndex("A", 0), is(4));
+        assertThat(index.getNextIterationIndex("A", 1), is(2));
+        assertThat(index.getNextIterationIndex("A", 2), is(0));
+
+        // tasks added after the index creation are accounted for
+        addTask("A", 7, 1);
+        assertThat(job.getFlowIndex() == index, is(true));
+        assertThat(index.getNextIterationIndex("A", 1), is(8));
+        assertThat(index.getNextIterationIndex("B", 0), is(0));
+    }
+
+    @Test
+    public void testChildrenOfTasksAddedAfterIndexCreation() {
+        InternalTask a = addTask("A");
+        TaskFlowIndex index = job.getFlowIndex();
+
+        // dependences are set before the task is added and gets its id, as flow actions do
+        InternalTask b = new InternalScriptTask(job);
+        b.setName("B");
+        b.addDependence(a);
+        InternalTask c = new InternalScriptTask(job);
+        c.setName("C");
+        c.addDependence(b);
+        job.addTask(b);
+        job.addTask(c);
+
+        assertThat(job.getFlowIndex() == index, is(true));
+        assertThat(index.getChildren(a), containsInAnyOrder(b));
+        assertThat(index.getChildren(b), containsInAnyOrder(c));
+        assertThat(index.getDescendants(a), containsInAnyOrder(a, b, c));
+
+        index.removeDependence(c, b);
+        index.addDependence(c, a);
+        assertThat(index.getChildren(a), containsInAnyOrder(b, c));
+        assertThat(index.getChildren(b), is(empty()));
+        assertThat(c.getIDependences(), containsInAnyOrder(a));
+    }
+
+    @Test
+    public void testReserveReplicationIndex() {
+        addTask("A");
+        addTask("A", 0, 1);
+        addTask("A", 1, 0);
+
+        TaskFlowIndex index = job.getFlowIndex();
+
+        assertThat(index.reserveReplicationIndex("A", 0), is(2));
+        assertThat(index.reserveReplicationIndex("A", 0), is(3));
+        assertThat(index.reserveReplicationIndex("A", 1), is(1));
+        assertThat(index.reserveReplicationIndex("B", 0), is(0));
+    }
+
+    @Test
+    public void testIndexIsRebuiltWhenTasksAreReplaced() {
+        InternalTask a = addTask("A");
+        TaskFlowIndex index = job.getFlowIndex();
+        InternalTask b = new InternalScriptTask(job);
+        b.setName("B");
+        b.setId(a.getId());
+
+        job.setTasks(Collections.singletonList(b));
+
+        assertThat(job.getFlowIndex() == index, is(false));
+        assertThat(job.getFlowIndex().getTaskByName("A"), is(nullValue()));
+        assertThat(job.getFlowIndex().getTaskByName("B"), is(b));
+    }
+
+    private InternalTask addTask(String name) {
+        return addTask(name, 0, 0);
+    }
+
+    private InternalTask addTask(String name, int iteration, int replication) {
+        InternalTask task = new InternalScriptTask(job);
+        task.setName(name);
+        task.setIterationIndex(iteration);
+        task.setReplicationIndex(replication);
+        job.addTask(task);
+        return task;
+    }
+
+}
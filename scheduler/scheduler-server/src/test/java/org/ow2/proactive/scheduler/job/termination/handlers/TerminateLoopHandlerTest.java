@@ -26,7 +26,9 @@
 package org.ow2.proactive.scheduler.job.termination.handlers;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -40,13 +42,17 @@ import org.mockito.MockitoAnnotations;
 import org.ow2.proactive.scheduler.common.job.JobPriority;
 import org.ow2.proactive.scheduler.common.task.OnTaskError;
 import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
 import org.ow2.proactive.scheduler.common.task.flow.FlowAction;
+import org.ow2.proactive.scheduler.common.task.flow.FlowActionType;
 import org.ow2.proactive.scheduler.core.SchedulerStateUpdate;
+import org.ow2.proactive.scheduler.descriptor.JobDescriptorImpl;
 import org.ow2.proactive.scheduler.job.ChangedTasksInfo;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.job.InternalTaskFlowJob;
 import org.ow2.proactive.scheduler.job.JobIdImpl;
 import org.ow2.proactive.scheduler.job.JobInfoImpl;
+import org.ow2.proactive.scheduler.job.TaskFlowIndex;
 import org.ow2.proactive.scheduler.task.TaskIdImpl;
 import org.ow2.proactive.scheduler.task.internal.InternalScriptTask;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
@@ -123,6 +129,34 @@ public class TerminateLoopHandlerTest {
                    is(ISO8601DateUtil.toDate(genericInformation.get(InternalJob.GENERIC_INFO_START_AT_KEY)).getTime()));
     }
 
+    @Test(timeout = 60000)
+    public void testManyLoopIterationsGetUniqueNames() {
+        int iterations = 1000;
+        InternalJob job = new InternalTaskFlowJob("loop", JobPriority.NORMAL, OnTaskError.CANCEL_JOB, "");
+        job.setId(new JobIdImpl(667L, "loop"));
+        job.setJobDescriptor(mock(JobDescriptorImpl.class));
+        InternalTask loopTask = new InternalScriptTask(job);
+        loopTask.setName("loopTask");
+        job.addTask(loopTask);
+        TerminateLoopHandler handler = new TerminateLoopHandler(job);
+        FlowAction loop = new FlowAction(FlowActionType.LOOP);
+
+        InternalTask current = loopTask;
+        for (int i = 1; i <= iterations; i++) {
+            current.setStatus(TaskStatus.FINISHED);
+            loop.setTarget(current.getName());
+            assertThat(handler.terminateLoopTask(loop, current, changesInfo, frontend), is(true));
+            current = job.getFlowIndex().getTaskByName("loopTask#" + i);
+            assertThat(current, notNullValue());
+            assertThat(current.getId().getReadableName(), is("loopTask#" + i));
+        }
+
+        TaskFlowIndex index = job.getFlowIndex();
+        assertThat(job.getIHMTasks().size(), is(iterations + 1));
+        assertThat(index.size(), is(iterations + 1));
+        assertThat(index.getNextIterationIndex("loopTask", 0), is(iterations + 1));
+    }
+
     private Map<TaskId, InternalTask> genearteTaks() {
         Map<TaskId, InternalTask> tempTasks = Maps.newHashMap();
         InternalTask internalTask = generateInternalTask();
@@ -25,8 +25,11 @@
  */
 package org.ow2.proactive.scheduler.job.termination.handlers;
 
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -50,6 +53,7 @@ import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.job.InternalTaskFlowJob;
 import org.ow2.proactive.scheduler.job.JobIdImpl;
 import org.ow2.proactive.scheduler.job.JobInfoImpl;
+import org.ow2.proactive.scheduler.job.TaskFlowIndex;
 import org.ow2.proactive.scheduler.task.TaskIdImpl;
 import org.ow2.proactive.scheduler.task.internal.InternalScriptTask;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
@@ -107,6 +111,7 @@ public class TerminateReplicateTaskHandlerTest {
     public void testTerminateReplicateTaskSkipOneTask() {
         tasks = generateTasks();
         when(internalJob.getIHMTasks()).thenReturn(tasks);
+        when(internalJob.getFlowIndex()).thenReturn(new TaskFlowIndex(tasks.values()));
         initiator = generateInitiatorTask();
         boolean result = terminateReplicateTaskHandler.terminateReplicateTask(action,
                                                                               initiator,
@@ -124,6 +129,7 @@ public class TerminateReplicateTaskHandlerTest {
     public void testTerminateReplicateTaskSkipBlockOfTasks() {
         tasks = generateTasksWithBlock();
         when(internalJob.getIHMTasks()).thenReturn(tasks);
+        when(internalJob.getFlowIndex()).thenReturn(new TaskFlowIndex(tasks.values()));
 
         initiator = generateInitiatorTask();
         boolean result = terminateReplicateTaskHandler.terminateReplicateTask(action,
@@ -143,6 +149,45 @@ public class TerminateReplicateTaskHandlerTest {
 
     }
 
+    @Test(timeout = 60000)
+    public void testManyReplicatedTasksGetUniqueNames() {
+        int runs = 1000;
+        InternalJob job = new InternalTaskFlowJob("replicate", JobPriority.NORMAL, OnTaskError.CANCEL_JOB, "");
+        job.setId(new JobIdImpl(667L, "replicate"));
+        job.setJobDescriptor(mock(JobDescriptorImpl.class));
+        InternalTask split = addTask(job, "split");
+        InternalTask replicated = addTask(job, "replicated");
+        replicated.addDependence(split);
+        InternalTask merge = addTask(job, "merge");
+        merge.addDependence(replicated);
+        split.setStatus(TaskStatus.FINISHED);
+        action.setDupNumber(runs);
+
+        boolean result = new TerminateReplicateTaskHandler(job).terminateReplicateTask(action,
+                                                                                       split,
+                                                                                       changesInfo,
+                                                                                       frontend,
+                                                                                       split.getId());
+
+        assertThat(result, is(true));
+        TaskFlowIndex index = job.getFlowIndex();
+        assertThat(job.getIHMTasks().size(), is(runs + 2));
+        for (int i = 1; i < runs; i++) {
+            InternalTask replica = index.getTaskByName("replicated*" + i);
+            assertThat(replica, notNullValue());
+            assertThat(replica.getId().getReadableName(), is("replicated*" + i));
+        }
+        assertThat(merge.getIDependences(), hasSize(runs));
+        assertThat(index.reserveReplicationIndex("replicated", 0), is(runs));
+    }
+
+    private InternalTask addTask(InternalJob job, String name) {
+        InternalTask task = new InternalScriptTask(job);
+        task.setName(name);
+        job.addTask(task);
+        return task;
+    }
+
     private Map<TaskId, InternalTask> generateTasks() {
         Map<TaskId, InternalTask> tempTasks = Maps.newHashMap();
         InternalTask internalTask = generateInternalTask(555L);
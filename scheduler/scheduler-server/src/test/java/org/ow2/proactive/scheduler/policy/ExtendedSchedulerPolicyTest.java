@@ -174,6 +174,26 @@ public class ExtendedSchedulerPolicyTest {
         assertEquals(job3.getJobId(), orderedTasks.get(4).getJobId());
     }
 
+    @Test
+    public void testNextEligibilityTime() {
+        assertEquals(Long.MAX_VALUE, policy.getNextEligibilityTime());
+
+        long inOneHour = System.currentTimeMillis() + 3600000;
+        JobDescriptor jobDesc = createJobDescWithTwoTasks(null, ISO8601DateUtil.parse(new Date(inOneHour)), null);
+        List<JobDescriptor> jobDescList = asModifiableList(jobDesc);
+        assertEquals(1, policy.getOrderedTasks(jobDescList).size());
+        long nextEligibilityTime = policy.getNextEligibilityTime();
+        assertTrue(nextEligibilityTime > inOneHour - 1000 && nextEligibilityTime <= inOneHour + 1);
+
+        // START_AT is changed, along with the scheduled time of the tasks
+        for (InternalTask task : jobDesc.getInternal().getITasks()) {
+            task.addGenericInformation("START_AT", now);
+            task.setScheduledTime(0);
+        }
+        assertEquals(2, policy.getOrderedTasks(jobDescList).size());
+        assertEquals(Long.MAX_VALUE, policy.getNextEligibilityTime());
+    }
+
     private List<JobDescriptor> asModifiableList(JobDescriptor... jobDesc) {
         return Arrays.asList(jobDesc);
     }
@@ -0,0 +1,82 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+
+public class MonitoredReadWriteLockTest {
+
+    @Test
+    public void readersDoNotContend() {
+        MonitoredReadWriteLock lock = new MonitoredReadWriteLock();
+
+        lock.lockRead();
+        lock.lockRead();
+        lock.unlockRead();
+        lock.unlockRead();
+
+        assertEquals(2, lock.getReadLocksCount());
+        assertEquals(0, lock.getContendedReadLocksCount());
+    }
+
+    @Test
+    public void waitingForTheWriterIsCounted() throws Exception {
+        final MonitoredReadWriteLock lock = new MonitoredReadWriteLock();
+        final CountDownLatch readLocked = new CountDownLatch(1);
+
+        lock.lockWrite();
+        Thread reader = new Thread() {
+            @Override
+            public void run() {
+                lock.lockRead();
+                readLocked.countDown();
+                lock.unlockRead();
+            }
+        };
+        reader.start();
+
+        while (lock.getQueueLength() == 0) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        lock.unlockWrite();
+
+        assertTrue(readLocked.await(10, TimeUnit.SECONDS));
+        reader.join();
+        assertEquals(1, lock.getWriteLocksCount());
+        assertEquals(0, lock.getContendedWriteLocksCount());
+        assertEquals(1, lock.getContendedReadLocksCount());
+        assertTrue(lock.getReadLockWaitTime() >= 40);
+    }
+
+}
@@ -28,23 +28,29 @@ package org.ow2.proactive.scheduler.util;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.Collections;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
+import org.ow2.proactive.scheduler.common.ServerLogsSnapshot;
 import org.ow2.proactive.scheduler.common.job.JobId;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.scheduler.job.JobIdImpl;
 import org.ow2.proactive.scheduler.task.TaskIdImpl;
+import org.ow2.proactive.utils.appenders.FileWriterPool;
 
 
 public class ServerJobAndTaskLogsTest {
@@ -128,6 +134,121 @@ public class ServerJobAndTaskLogsTest {
         assertEquals(0, fakeSchedulerHome.getRoot().list().length);
     }
 
+    @Test
+    public void openFilesAreBounded() throws Exception {
+        PASchedulerProperties.SCHEDULER_JOB_LOGS_MAX_OPEN_FILES.updateProperty("2");
+        ServerJobAndTaskLogs.configure();
+
+        for (int i = 0; i < 5; i++) {
+            taskLogger.info(TaskIdImpl.createTaskId(jobId, "task" + i, i), "log of task " + i);
+        }
+
+        assertEquals(2, FileWriterPool.getInstance().getOpenFiles());
+        for (int i = 0; i < 5; i++) {
+            assertThat(ServerJobAndTaskLogs.getTaskLog(TaskIdImpl.createTaskId(jobId, "task" + i, i)),
+                       containsString("log of task " + i));
+        }
+    }
+
+    @Test
+    public void concurrentWritesWithEvictions() throws Exception {
+        PASchedulerProperties.SCHEDULER_JOB_LOGS_MAX_SIZE.updateProperty("10MB");
+        PASchedulerProperties.SCHEDULER_JOB_LOGS_MAX_OPEN_FILES.updateProperty("2");
+        ServerJobAndTaskLogs.configure();
+
+        final int nbTasks = 4;
+        final int nbLines = 200;
+        Thread[] writers = new Thread[nbTasks];
+        for (int i = 0; i < nbTasks; i++) {
+            final TaskId writtenTask = TaskIdImpl.createTaskId(jobId, "task" + i, i);
+            writers[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int line = 0; line < nbLines; line++) {
+                        taskLogger.info(writtenTask, "line " + line + " of " + writtenTask.getReadableName());
+                    }
+                }
+            };
+            writers[i].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        for (int i = 0; i < nbTasks; i++) {
+            TaskId writtenTask = TaskIdImpl.createTaskId(jobId, "task" + i, i);
+            String log = ServerJobAndTaskLogs.getTaskLog(writtenTask);
+            for (int line = 0; line < nbLines; line++) {
+                assertThat(log, containsString("line " + line + " of " + writtenTask.getReadableName()));
+            }
+        }
+    }
+
+    @Test
+    public void readRange() throws Exception {
+        PASchedulerProperties.SCHEDULER_JOB_LOGS_MAX_SIZE.updateProperty("10000");
+        ServerJobAndTaskLogs.configure();
+
+        jobLogger.info(jobId, "first job log");
+        taskLogger.info(taskId, "first task log");
+        taskLogger.info(taskId, "second task log");
+
+        String jobLog = ServerJobAndTaskLogs.getJobLog(jobId, Collections.singleton(taskId));
+        byte[] jobLogBytes = jobLog.getBytes();
+
+        ServerLogsChunk chunk = ServerJobAndTaskLogs.readJobLog(jobId, Collections.singleton(taskId), 10, 20);
+        assertEquals(10, chunk.getOffset());
+        assertEquals(jobLogBytes.length, chunk.getSize());
+        assertEquals(jobLog.substring(10, 30), new String(chunk.getContent()));
+        assertFalse(chunk.isLast());
+
+        ServerLogsChunk tail = ServerJobAndTaskLogs.readJobLog(jobId, Collections.singleton(taskId), -20, 100);
+        assertEquals(jobLogBytes.length - 20, tail.getOffset());
+        assertEquals(jobLog.substring(jobLog.length() - 20), new String(tail.getContent()));
+        assertTrue(tail.isLast());
+
+        assertEquals(ServerJobAndTaskLogs.getTaskLog(taskId),
+                     IOUtils.toString(ServerJobAndTaskLogs.openTaskLog(taskId)));
+    }
+
+    @Test
+    public void readRangesFromSnapshot() throws Exception {
+        PASchedulerProperties.SCHEDULER_JOB_LOGS_MAX_SIZE.updateProperty("10000");
+        ServerJobAndTaskLogs.configure();
+
+        TaskId otherTaskId = TaskIdImpl.createTaskId(jobId, "task2", 10002);
+        jobLogger.info(jobId, "first job log");
+        taskLogger.info(taskId, "first task log");
+        taskLogger.info(otherTaskId, "first other task log");
+
+        // the offsets do not depend on the order of the tasks
+        String jobLog = ServerJobAndTaskLogs.getJobLog(jobId, Arrays.asList(taskId, otherTaskId));
+        assertEquals(jobLog, ServerJobAndTaskLogs.getJobLog(jobId, Arrays.asList(otherTaskId, taskId)));
+
+        ServerLogsChunk first = ServerJobAndTaskLogs.readJobLog(jobId, Arrays.asList(otherTaskId, taskId), 0, 10);
+        ServerLogsSnapshot snapshot = first.getSnapshot();
+        assertEquals(jobLog.getBytes().length, snapshot.getSize());
+
+        // the logs growing afterwards are not seen through the snapshot
+        jobLogger.info(jobId, "second job log");
+        taskLogger.info(taskId, "second task log");
+
+        ServerLogsChunk next = ServerJobAndTaskLogs.readLog(jobId, snapshot, 10, Integer.MAX_VALUE);
+        assertEquals(10, next.getOffset());
+        assertEquals(snapshot.getSize(), next.getSize());
+        assertEquals(jobLog.substring(10), new String(next.getContent()));
+        assertTrue(next.isLast());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readSnapshotOfAnotherJob() throws Exception {
+        jobLogger.info(jobId, "first job log");
+        ServerLogsSnapshot snapshot = ServerJobAndTaskLogs.readJobLog(jobId, Collections.<TaskId> emptySet(), 0, 10)
+                                                          .getSnapshot();
+
+        ServerJobAndTaskLogs.readLog(JobIdImpl.makeJobId("2"), snapshot, 0, 10);
+    }
+
     private void checkContains(JobId jobId, TaskId taskId, String word) {
         assertThat(ServerJobAndTaskLogs.getJobLog(jobId, Collections.singleton(taskId)),
                    containsString(word + " job log"));
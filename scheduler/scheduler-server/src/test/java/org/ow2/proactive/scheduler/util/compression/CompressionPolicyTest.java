@@ -0,0 +1,163 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.util.compression;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+
+public class CompressionPolicyTest {
+
+    private final CompressionPolicy policy = new CompressionPolicy(512, 64 * 1024, Deflater.DEFAULT_COMPRESSION, true);
+
+    @Test
+    public void testFastCodecRoundTrip() throws IOException {
+        FastCodec codec = new FastCodec();
+        Random random = new Random(42);
+        for (int size : new int[] { 0, 1, 12, 13, 100, 4096, 70000, 1024 * 1024 }) {
+            for (byte[] data : new byte[][] { new byte[size], randomContent(random, size),
+                                              textContent(random, size) }) {
+                byte[] compressed = codec.compress(data);
+                assertArrayEquals(data, codec.decompress(compressed, 0, compressed.length, data.length));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testFastCodecCorruptedContent() throws IOException {
+        FastCodec codec = new FastCodec();
+        byte[] compressed = codec.compress(textContent(new Random(42), 10000));
+        codec.decompress(compressed, 0, compressed.length / 2, 10000);
+    }
+
+    @Test
+    public void testCodecChosenBySize() {
+        Random random = new Random(42);
+        assertThat(policy.chooseCodec(textContent(random, 100)), instanceOf(StoredCodec.class));
+        assertThat(policy.chooseCodec(textContent(random, 10 * 1024)), instanceOf(DeflateCodec.class));
+        assertThat(policy.chooseCodec(textContent(random, 100 * 1024)), instanceOf(FastCodec.class));
+
+        CompressionPolicy deflateOnly = new CompressionPolicy(0, -1, Deflater.BEST_SPEED, true);
+        assertThat(deflateOnly.chooseCodec(textContent(random, 100 * 1024)), instanceOf(DeflateCodec.class));
+    }
+
+    @Test
+    public void testCompressedContentsAreStored() throws IOException {
+        Random random = new Random(42);
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(textContent(random, 100 * 1024));
+        }
+        assertThat(policy.chooseCodec(gzipped.toByteArray()), instanceOf(StoredCodec.class));
+        assertThat(policy.chooseCodec(randomContent(random, 100 * 1024)), instanceOf(StoredCodec.class));
+
+        byte[] incompressible = randomContent(random, 2048);
+        byte[] encoded = policy.compress(incompressible);
+        assertThat(encoded.length, is(incompressible.length + CompressionPolicy.HEADER_SIZE));
+        assertArrayEquals(incompressible, CompressionPolicy.decompress(encoded));
+    }
+
+    @Test
+    public void testRoundTripWithAnyPolicy() throws IOException {
+        Random random = new Random(42);
+        CompressionPolicy[] policies = { policy, new CompressionPolicy(0, 0, Deflater.BEST_SPEED, false),
+                                         new CompressionPolicy(0, -1, Deflater.BEST_COMPRESSION, false) };
+        for (CompressionPolicy writer : policies) {
+            for (int size : new int[] { 0, 100, 10 * 1024, 100 * 1024 }) {
+                byte[] data = textContent(random, size);
+                byte[] encoded = writer.compress(data);
+                assertThat(CompressionPolicy.hasHeader(encoded), is(true));
+                assertArrayEquals(data, CompressionPolicy.decompress(encoded));
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTripFromDirectBuffer() throws IOException {
+        Random random = new Random(42);
+        CompressionPolicy[] policies = { policy, new CompressionPolicy(0, 0, Deflater.BEST_SPEED, false),
+                                         new CompressionPolicy(0, -1, Deflater.BEST_COMPRESSION, false) };
+        for (CompressionPolicy writer : policies) {
+            for (int size : new int[] { 0, 100, 10 * 1024, 100 * 1024 }) {
+                byte[] data = textContent(random, size);
+                byte[] encoded = writer.compress(data);
+                ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.length);
+                buffer.put(encoded);
+                buffer.flip();
+                assertThat(CompressionPolicy.hasHeader(buffer), is(true));
+                assertArrayEquals(data, CompressionPolicy.decompress(buffer));
+                assertThat(buffer.hasRemaining(), is(false));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testDeflatedContentTruncatedInDirectBuffer() throws IOException {
+        byte[] data = textContent(new Random(42), 10 * 1024);
+        byte[] compressed = new DeflateCodec(Deflater.DEFAULT_COMPRESSION).compress(data);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(compressed.length / 2);
+        buffer.put(compressed, 0, compressed.length / 2);
+        buffer.flip();
+        new DeflateCodec(Deflater.DEFAULT_COMPRESSION).decompress(buffer, data.length);
+    }
+
+    @Test
+    public void testLegacyDeflatedContent() throws IOException {
+        byte[] data = textContent(new Random(42), 10 * 1024);
+        byte[] legacy = new DeflateCodec(Deflater.DEFAULT_COMPRESSION).compress(data);
+
+        assertThat(CompressionPolicy.hasHeader(legacy), is(false));
+        assertArrayEquals(data, CompressionPolicy.decompress(legacy));
+    }
+
+    private static byte[] randomContent(Random random, int size) {
+        byte[] content = new byte[size];
+        random.nextBytes(content);
+        return content;
+    }
+
+    private static byte[] textContent(Random random, int size) {
+        String[] words = { "task", "result", "job", "node", "variable", "value", "=", "\n" };
+        StringBuilder text = new StringBuilder(size + 16);
+        while (text.length() < size) {
+            text.append(words[random.nextInt(words.length)]).append(' ').append(random.nextInt(1000));
+        }
+        return Arrays.copyOf(text.toString().getBytes(), size);
+    }
+
+}
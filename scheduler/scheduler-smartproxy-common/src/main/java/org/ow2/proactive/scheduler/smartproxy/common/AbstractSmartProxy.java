@@ -51,6 +51,7 @@ import org.ow2.proactive.scheduler.common.task.Task;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskInfo;
 import org.ow2.proactive.scheduler.common.task.TaskResult;
+import org.ow2.proactive.scheduler.common.task.TaskResultSummary;
 import org.ow2.proactive.scheduler.common.task.TaskState;
 import org.ow2.proactive.scheduler.common.task.TaskStatus;
 import org.ow2.proactive.scheduler.common.usage.JobUsage;
@@ -198,12 +199,42 @@ public abstract class AbstractSmartProxy<T extends JobTracker> implements Schedu
         return getScheduler().getTaskServerLogsByTag(id, taskTag);
     }
 
+    @Override
+    public ServerLogsChunk getJobServerLogs(String id, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        return getScheduler().getJobServerLogs(id, offset, length);
+    }
+
+    @Override
+    public ServerLogsChunk getTaskServerLogs(String id, String taskName, long offset, int length)
+            throws UnknownJobException, UnknownTaskException, NotConnectedException, PermissionException {
+        return getScheduler().getTaskServerLogs(id, taskName, offset, length);
+    }
+
+    @Override
+    public ServerLogsChunk getTaskServerLogsByTag(String id, String taskTag, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        return getScheduler().getTaskServerLogsByTag(id, taskTag, offset, length);
+    }
+
+    @Override
+    public ServerLogsChunk getServerLogs(String id, ServerLogsSnapshot snapshot, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        return getScheduler().getServerLogs(id, snapshot, offset, length);
+    }
+
     @Override
     public Page<JobInfo> getJobs(int offset, int limit, JobFilterCriteria filterCriteria,
             List<SortParameter<JobSortParameter>> sortParameters) throws NotConnectedException, PermissionException {
         return getScheduler().getJobs(offset, limit, filterCriteria, sortParameters);
     }
 
+    @Override
+    public CursorPage<JobInfo> getJobsAfter(String cursor, int limit, JobFilterCriteria filterCriteria)
+            throws NotConnectedException, PermissionException {
+        return getScheduler().getJobsAfter(cursor, limit, filterCriteria);
+    }
+
     @Override
     public List<SchedulerUserInfo> getUsers() throws NotConnectedException, PermissionException {
         return getScheduler().getUsers();
@@ -1014,6 +1045,18 @@ public abstract class AbstractSmartProxy<T extends JobTracker> implements Schedu
         return getScheduler().getJobResult(jobId);
     }
 
+    @Override
+    public Map<String, TaskResultSummary> getJobResultSummary(JobId jobId)
+            throws NotConnectedException, PermissionException, UnknownJobException {
+        return getScheduler().getJobResultSummary(jobId);
+    }
+
+    @Override
+    public Map<String, TaskResultSummary> getJobResultSummary(String jobId)
+            throws NotConnectedException, PermissionException, UnknownJobException {
+        return getScheduler().getJobResultSummary(jobId);
+    }
+
     @Override
     public TaskResult getTaskResultFromIncarnation(JobId jobId, String taskName, int inc)
             throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
@@ -54,6 +54,7 @@ import org.objectweb.proactive.extensions.annotation.ActiveObject;
 import org.ow2.proactive.authentication.ConnectionInfo;
 import org.ow2.proactive.authentication.crypto.CredData;
 import org.ow2.proactive.authentication.crypto.Credentials;
+import org.ow2.proactive.scheduler.common.CursorPage;
 import org.ow2.proactive.scheduler.common.Page;
 import org.ow2.proactive.scheduler.common.Scheduler;
 import org.ow2.proactive.scheduler.common.SchedulerAuthenticationInterface;
@@ -794,6 +795,21 @@ public class SmartProxyImpl extends AbstractSmartProxy<JobTrackerImpl> implement
                                             sortParams);
     }
 
+    @Override
+    public CursorPage<TaskState> getTaskStatesAfter(String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        return schedulerProxy.getTaskStatesAfter(taskTag,
+                                                 from,
+                                                 to,
+                                                 mytasks,
+                                                 running,
+                                                 pending,
+                                                 finished,
+                                                 cursor,
+                                                 limit);
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         return schedulerProxy.getJobInfo(jobId);